@@ -16,10 +16,16 @@
  */
 package org.apache.logging.log4j.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -34,6 +40,24 @@ public class StackLocator {
 
     private final static StackLocator INSTANCE = new StackLocator();
 
+    /**
+     * {@code StackFrame.getDescriptor()}, which tells overloaded methods apart, is only available from Java 10 on.
+     */
+    private final static MethodHandle GET_DESCRIPTOR = findGetDescriptor();
+
+    private final static int MAX_LOCATIONS_PER_CLASS = 1024;
+
+    /**
+     * Locations by call site, per declaring class so that class loaders are not kept alive.
+     */
+    private final static ClassValue<ConcurrentMap<CallSite, StackTraceElement>> LOCATIONS =
+            new ClassValue<ConcurrentMap<CallSite, StackTraceElement>>() {
+                @Override
+                protected ConcurrentMap<CallSite, StackTraceElement> computeValue(final Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     public static StackLocator getInstance() {
         return INSTANCE;
     }
@@ -100,6 +124,87 @@ public class StackLocator {
                       .findFirst()).map(StackWalker.StackFrame::toStackTraceElement).orElse(null);
     }
 
+    /**
+     * Like {@link #calcLocation(String)}, but caches the location of each call site. A call site is identified by the
+     * declaring class, method and bytecode index of its frame, so only the walk to the frame is needed to find a
+     * cached location, not the resolution of the file name and line number.
+     *
+     * @param fqcnOfLogger the fully qualified class name of the logger.
+     * @return the location of the caller of the logger or null.
+     */
+    public StackTraceElement calcCachedLocation(final String fqcnOfLogger) {
+        if (GET_DESCRIPTOR == null) {
+            return calcLocation(fqcnOfLogger);
+        }
+        final StackWalker.StackFrame frame = WALKER.walk(
+                s -> s.dropWhile(f -> !f.getClassName().equals(fqcnOfLogger)) // drop the top frames until we reach the logger
+                      .dropWhile(f -> f.getClassName().equals(fqcnOfLogger)) // drop the logger frames
+                      .findFirst()).orElse(null);
+        if (frame == null) {
+            return null;
+        }
+        final ConcurrentMap<CallSite, StackTraceElement> locations = LOCATIONS.get(frame.getDeclaringClass());
+        final CallSite callSite = new CallSite(frame.getMethodName(), getDescriptor(frame), frame.getByteCodeIndex());
+        StackTraceElement location = locations.get(callSite);
+        if (location == null) {
+            location = frame.toStackTraceElement();
+            if (locations.size() < MAX_LOCATIONS_PER_CLASS) {
+                locations.putIfAbsent(callSite, location);
+            }
+        }
+        return location;
+    }
+
+    private static MethodHandle findGetDescriptor() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(StackWalker.StackFrame.class, "getDescriptor",
+                    MethodType.methodType(String.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static String getDescriptor(final StackWalker.StackFrame frame) {
+        try {
+            return (String) GET_DESCRIPTOR.invokeExact(frame);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static final class CallSite {
+
+        private final String methodName;
+        private final String descriptor;
+        private final int byteCodeIndex;
+
+        private CallSite(final String methodName, final String descriptor, final int byteCodeIndex) {
+            this.methodName = methodName;
+            this.descriptor = descriptor;
+            this.byteCodeIndex = byteCodeIndex;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CallSite)) {
+                return false;
+            }
+            final CallSite other = (CallSite) obj;
+            return byteCodeIndex == other.byteCodeIndex && methodName.equals(other.methodName)
+                    && Objects.equals(descriptor, other.descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * methodName.hashCode() + Objects.hashCode(descriptor)) + byteCodeIndex;
+        }
+    }
+
     public StackTraceElement getStackTraceElement(final int depth) {
         return STACK_WALKER.walk(s -> s.skip(depth).findFirst())
                 .map(StackWalker.StackFrame::toStackTraceElement).orElse(null);
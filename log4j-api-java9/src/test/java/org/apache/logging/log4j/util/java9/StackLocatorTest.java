@@ -152,4 +152,33 @@ public class StackLocatorTest {
         }
     }
 
+    private static final class Logging {
+
+        private static StackTraceElement log() {
+            return StackLocator.getInstance().calcCachedLocation(Logging.class.getName());
+        }
+    }
+
+    private static StackTraceElement overloaded(final int i) {
+        return Logging.log();
+    }
+
+    private static StackTraceElement overloaded(final long l) {
+
+        return Logging.log();
+    }
+
+    @Test
+    public void testCalcCachedLocation() {
+        for (int i = 0; i < 3; i++) {
+            final StackTraceElement intLocation = overloaded(i);
+            final StackTraceElement longLocation = overloaded((long) i);
+            assertEquals("overloaded", intLocation.getMethodName());
+            assertEquals("overloaded", longLocation.getMethodName());
+            // same method name and bytecode index, different lines
+            assertEquals(intLocation.getLineNumber() + 5, longLocation.getLineNumber());
+        }
+        assertNull(StackLocator.getInstance().calcCachedLocation("java.util.Logger"));
+    }
+
 }
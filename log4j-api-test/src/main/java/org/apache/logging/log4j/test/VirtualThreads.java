@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs test code on virtual threads, which are available on Java 21 and later. Tests that need them are annotated
+ * with {@code @EnabledIf("org.apache.logging.log4j.test.VirtualThreads#isSupported")}.
+ *
+ * @since 2.20.0
+ */
+public final class VirtualThreads {
+
+    // the modules target Java 8
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+
+    private VirtualThreads() {
+    }
+
+    private static Method findNewVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the running Java version supports virtual threads.
+     *
+     * @return {@code true} on Java 21 and later
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Calls the specified code on a new virtual thread and waits for its result.
+     *
+     * @param callable the code to call
+     * @param <T> the type of the result
+     * @return the result of the callable
+     * @throws Exception the exception thrown by the callable
+     */
+    public static <T> T call(final Callable<T> callable) throws Exception {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("virtual threads require Java 21 or later");
+        }
+        final ExecutorService executor = (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        try {
+            return executor.submit(callable).get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
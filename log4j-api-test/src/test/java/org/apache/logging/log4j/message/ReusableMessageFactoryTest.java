@@ -16,10 +16,15 @@
  */
 package org.apache.logging.log4j.message;
 
+import org.apache.logging.log4j.test.VirtualThreads;
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -129,4 +134,40 @@ public class ReusableMessageFactoryTest {
         ReusableMessageFactory.release(message2.get());
     }
 
+    @Test
+    @EnabledIf("org.apache.logging.log4j.test.VirtualThreads#isSupported")
+    public void testVirtualThreadsUsePooledMessages() throws Exception {
+        final ReusableMessageFactory factory = new ReusableMessageFactory();
+        VirtualThreads.call(() -> {
+            final Message message1 = factory.newMessage("text, p0={} p1={} p2={} p3={}", 1, 2, 3, 4);
+            final Message message2 = factory.newMessage("other, A={} B={} C={} D={}", 1, 2, 3, 4);
+            assertNotSame(message1, message2);
+            assertTrue(((ReusableParameterizedMessage) message1).pooled, "pooled");
+            assertReusableParameterizeMessage(message1, "text, p0={} p1={} p2={} p3={}", new Object[]{1, 2, 3, 4});
+            final Message simple = factory.newMessage("simple");
+            assertTrue(((ReusableSimpleMessage) simple).pooled, "pooled");
+            ReusableMessageFactory.release(message1);
+            ReusableMessageFactory.release(message2);
+            ReusableMessageFactory.release(simple);
+
+            // taking all pooled messages returns the released ones
+            final List<Message> pooled = new ArrayList<>();
+            for (int i = 0; i < BoundedObjectPool.DEFAULT_CAPACITY; i++) {
+                pooled.add(factory.newMessage("pooled {}", i));
+            }
+            assertTrue(pooled.stream().anyMatch(message -> message == message1), "message1 was pooled");
+            assertTrue(pooled.stream().anyMatch(message -> message == message2), "message2 was pooled");
+            pooled.forEach(ReusableMessageFactory::release);
+            return null;
+        });
+    }
+
+    @Test
+    public void testPlatformThreadsDoNotUsePooledMessages() {
+        final ReusableMessageFactory factory = new ReusableMessageFactory();
+        final Message message = factory.newMessage("text, p0={}", 1);
+        assertFalse(((ReusableParameterizedMessage) message).pooled, "pooled");
+        ReusableMessageFactory.release(message);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the BoundedObjectPool class.
+ */
+public class BoundedObjectPoolTest {
+
+    @Test
+    public void testReleasedObjectsAreReused() {
+        final BoundedObjectPool<StringBuilder> pool = new BoundedObjectPool<>(StringBuilder::new, 4);
+        final StringBuilder first = pool.acquire();
+        assertTrue(pool.release(first));
+        assertSame(first, pool.acquire());
+        assertNotSame(first, pool.acquire(), "empty pool creates new objects");
+    }
+
+    @Test
+    public void testPollDoesNotCreateObjects() {
+        final BoundedObjectPool<Object> pool = new BoundedObjectPool<>(Object::new, 2);
+        assertNull(pool.poll());
+        final Object object = pool.acquire();
+        assertTrue(pool.release(object));
+        assertSame(object, pool.poll());
+        assertNull(pool.poll());
+    }
+
+    @Test
+    public void testCapacityIsBounded() {
+        final int capacity = 3;
+        final BoundedObjectPool<Object> pool = new BoundedObjectPool<>(Object::new, capacity);
+        assertEquals(capacity, pool.getCapacity());
+        final List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < capacity + 2; i++) {
+            objects.add(pool.acquire());
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            assertEquals(i < capacity, pool.release(objects.get(i)), "release #" + i);
+        }
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(objects.contains(pool.acquire()));
+        }
+        assertFalse(objects.contains(pool.acquire()));
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedObjectPool<>(Object::new, 0));
+    }
+
+    @Test
+    @SetSystemProperty(key = "log4j2.virtualThreadPoolCapacity", value = "0")
+    public void testInvalidDefaultCapacityIsIgnored() {
+        assertTrue(BoundedObjectPool.getDefaultCapacity() >= 8);
+    }
+
+    @Test
+    @SetSystemProperty(key = "log4j2.virtualThreadPoolCapacity", value = "3")
+    public void testDefaultCapacityProperty() {
+        assertEquals(3, BoundedObjectPool.getDefaultCapacity());
+    }
+
+    @Test
+    public void testPlatformThreadIsNotVirtual() {
+        assertFalse(BoundedObjectPool.isVirtual(Thread.currentThread()));
+    }
+
+    @Test
+    public void testObjectsAreNotSharedByConcurrentThreads() throws InterruptedException {
+        final BoundedObjectPool<AtomicBoolean> pool = new BoundedObjectPool<>(AtomicBoolean::new, 4);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean shared = new AtomicBoolean();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 10_000; j++) {
+                    final AtomicBoolean inUse = pool.acquire();
+                    if (!inUse.compareAndSet(false, true)) {
+                        shared.set(true);
+                    }
+                    inUse.set(false);
+                    pool.release(inUse);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(shared.get(), "an object was acquired by two threads at once");
+    }
+}
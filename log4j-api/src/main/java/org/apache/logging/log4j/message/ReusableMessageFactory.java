@@ -18,11 +18,14 @@ package org.apache.logging.log4j.message;
 
 import java.io.Serializable;
 
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
 /**
  * Implementation of the {@link MessageFactory} interface that avoids allocating temporary objects where possible.
  * Message instances are cached in a ThreadLocal and reused when a new message is requested within the same thread.
+ * On virtual threads, message instances are taken from a {@link BoundedObjectPool} instead and returned to it when
+ * they are {@linkplain #release(Message) released}.
  * @see ParameterizedMessageFactory
  * @see ReusableSimpleMessage
  * @see ReusableObjectMessage
@@ -41,6 +44,24 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     private static ThreadLocal<ReusableParameterizedMessage> threadLocalParameterized = new ThreadLocal<>();
     private static ThreadLocal<ReusableSimpleMessage> threadLocalSimpleMessage = new ThreadLocal<>();
     private static ThreadLocal<ReusableObjectMessage> threadLocalObjectMessage = new ThreadLocal<>();
+    private static final BoundedObjectPool<ReusableParameterizedMessage> parameterizedPool =
+            new BoundedObjectPool<>(() -> {
+                final ReusableParameterizedMessage result = new ReusableParameterizedMessage();
+                result.pooled = true;
+                return result;
+            });
+    private static final BoundedObjectPool<ReusableSimpleMessage> simpleMessagePool =
+            new BoundedObjectPool<>(() -> {
+                final ReusableSimpleMessage result = new ReusableSimpleMessage();
+                result.pooled = true;
+                return result;
+            });
+    private static final BoundedObjectPool<ReusableObjectMessage> objectMessagePool =
+            new BoundedObjectPool<>(() -> {
+                final ReusableObjectMessage result = new ReusableObjectMessage();
+                result.pooled = true;
+                return result;
+            });
 
     /**
      * Constructs a message factory.
@@ -49,6 +70,9 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     }
 
     private static ReusableParameterizedMessage getParameterized() {
+        if (BoundedObjectPool.isVirtual(Thread.currentThread())) {
+            return parameterizedPool.acquire().reserve();
+        }
         ReusableParameterizedMessage result = threadLocalParameterized.get();
         if (result == null) {
             result = new ReusableParameterizedMessage();
@@ -58,6 +82,9 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     }
 
     private static ReusableSimpleMessage getSimple() {
+        if (BoundedObjectPool.isVirtual(Thread.currentThread())) {
+            return simpleMessagePool.acquire();
+        }
         ReusableSimpleMessage result = threadLocalSimpleMessage.get();
         if (result == null) {
             result = new ReusableSimpleMessage();
@@ -67,6 +94,9 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     }
 
     private static ReusableObjectMessage getObject() {
+        if (BoundedObjectPool.isVirtual(Thread.currentThread())) {
+            return objectMessagePool.acquire();
+        }
         ReusableObjectMessage result = threadLocalObjectMessage.get();
         if (result == null) {
             result = new ReusableObjectMessage();
@@ -76,7 +106,8 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
     }
 
     /**
-     * Invokes {@link Clearable#clear()} when possible.
+     * Invokes {@link Clearable#clear()} when possible, and returns messages taken from a pool on a virtual thread to
+     * their pool.
      * This flag is used internally to verify that a reusable message is no longer in use and
      * can be reused.
      * @param message the message to make available again
@@ -86,6 +117,22 @@ public final class ReusableMessageFactory implements MessageFactory2, Serializab
         if (message instanceof Clearable) {
             ((Clearable) message).clear();
         }
+        if (message instanceof ReusableParameterizedMessage) {
+            final ReusableParameterizedMessage parameterized = (ReusableParameterizedMessage) message;
+            if (parameterized.pooled) {
+                parameterizedPool.release(parameterized);
+            }
+        } else if (message instanceof ReusableSimpleMessage) {
+            final ReusableSimpleMessage simple = (ReusableSimpleMessage) message;
+            if (simple.pooled) {
+                simpleMessagePool.release(simple);
+            }
+        } else if (message instanceof ReusableObjectMessage) {
+            final ReusableObjectMessage object = (ReusableObjectMessage) message;
+            if (object.pooled) {
+                objectMessagePool.release(object);
+            }
+        }
     }
 
     @Override
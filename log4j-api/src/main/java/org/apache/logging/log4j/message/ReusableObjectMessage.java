@@ -28,6 +28,7 @@ public class ReusableObjectMessage implements ReusableMessage, ParameterVisitabl
     private static final long serialVersionUID = 6922476812535519960L;
 
     private transient Object obj;
+    transient boolean pooled; // owned by ReusableMessageFactory's pool for virtual threads
 
     public void set(final Object object) {
         this.obj = object;
@@ -45,6 +45,7 @@ public class ReusableParameterizedMessage implements ReusableMessage, ParameterV
     private transient Object[] params = new Object[MAX_PARMS];
     private transient Throwable throwable;
     transient boolean reserved = false; // LOG4J2-1583 prevent scrambled logs with nested logging calls
+    transient boolean pooled; // owned by ReusableMessageFactory's pool for virtual threads
 
     /**
      * Creates a reusable message.
@@ -27,6 +27,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 public class ReusableSimpleMessage implements ReusableMessage, CharSequence, ParameterVisitable, Clearable {
     private static final long serialVersionUID = -9199974506498249809L;
     private CharSequence charSequence;
+    transient boolean pooled; // owned by ReusableMessageFactory's pool for virtual threads
 
     public void set(final String message) {
         this.charSequence = message;
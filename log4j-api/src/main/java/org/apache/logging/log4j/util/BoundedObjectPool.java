@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool holding up to a fixed number of reusable objects, used instead of {@link ThreadLocal} caches on
+ * virtual threads.
+ * <p>
+ * Caching an object per thread does not work for virtual threads: there may be millions of them, and most log only
+ * a few times before they terminate. Garbage-free components therefore {@linkplain #acquire() acquire} their objects
+ * from a pool shared by all virtual threads when {@link #isVirtual(Thread)} holds for the current thread, and
+ * {@linkplain #release(Object) release} them when they are done, so the number of cached objects stays bounded while
+ * steady-state logging does not allocate.
+ * </p>
+ * <p>
+ * Each thread starts probing the slots at an index derived from its id and claims or fills a slot with a single
+ * compare-and-set. When all slots are empty, a new object is created; when all slots are full, the released object is
+ * left to the garbage collector. The default capacity can be changed with system property
+ * "log4j2.virtualThreadPoolCapacity".
+ * </p>
+ *
+ * @param <T> the type of pooled objects
+ * @since 2.20.0
+ */
+@PerformanceSensitive("allocation")
+public final class BoundedObjectPool<T> {
+
+    /**
+     * The default number of objects a pool holds.
+     */
+    public static final int DEFAULT_CAPACITY = getDefaultCapacity();
+
+    // References per 64-byte cache line with compressed pointers.
+    private static final int SLOT_STRIDE = 16;
+
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    private final Supplier<T> supplier;
+    private final int capacity;
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * Constructs a pool with the default capacity.
+     *
+     * @param supplier creates new objects when the pool is empty
+     */
+    public BoundedObjectPool(final Supplier<T> supplier) {
+        this(supplier, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a pool.
+     *
+     * @param supplier creates new objects when the pool is empty
+     * @param capacity the maximum number of pooled objects
+     */
+    public BoundedObjectPool(final Supplier<T> supplier, final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.supplier = supplier;
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity * SLOT_STRIDE);
+    }
+
+    static int getDefaultCapacity() {
+        final int computed = Math.max(8, 2 * Runtime.getRuntime().availableProcessors() + 1);
+        final int capacity = PropertiesUtil.getProperties().getIntegerProperty("log4j2.virtualThreadPoolCapacity",
+                computed);
+        if (capacity <= 0) {
+            LowLevelLogUtil.log("Ignoring log4j2.virtualThreadPoolCapacity=" + capacity + ", using " + computed);
+            return computed;
+        }
+        return capacity;
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+                    MethodType.methodType(boolean.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            // Java 20 and earlier
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the specified thread is a virtual thread.
+     *
+     * @param thread a thread
+     * @return {@code true} if the thread is virtual, {@code false} if it is a platform thread or if virtual threads
+     * are not supported by the running Java version
+     */
+    public static boolean isVirtual(final Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (final Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the maximum number of pooled objects.
+     *
+     * @return the capacity of this pool
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes an object from this pool, or creates one if this pool is empty.
+     *
+     * @return an object that the caller uses exclusively until it releases it
+     */
+    public T acquire() {
+        final T value = poll();
+        return value != null ? value : supplier.get();
+    }
+
+    /**
+     * Removes an object from this pool.
+     *
+     * @return an object that the caller uses exclusively until it releases it, or {@code null} if this pool is empty
+     */
+    public T poll() {
+        int slot = startSlot();
+        for (int i = 0; i < capacity; i++) {
+            final int index = slot * SLOT_STRIDE;
+            final T value = slots.get(index);
+            if (value != null && slots.compareAndSet(index, value, null)) {
+                return value;
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an object to this pool. The caller must not use the object afterwards.
+     *
+     * @param value an object, usually obtained from {@link #acquire()}
+     * @return {@code true} if the object was pooled, {@code false} if this pool is full and the object is discarded
+     */
+    public boolean release(final T value) {
+        int slot = startSlot();
+        for (int i = 0; i < capacity; i++) {
+            final int index = slot * SLOT_STRIDE;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, value)) {
+                return true;
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+        return false;
+    }
+
+    private int startSlot() {
+        // Fibonacci hashing spreads the sequentially assigned thread ids
+        final long threadId = Thread.currentThread().getId();
+        return (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 33) % capacity;
+    }
+}
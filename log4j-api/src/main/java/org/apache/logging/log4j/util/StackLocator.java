@@ -228,6 +228,18 @@ public final class StackLocator {
         return null;
     }
 
+    /**
+     * Like {@link #calcLocation(String)}. Caching locations needs the call site of a frame, which is only cheaply
+     * available from the Java 9 StackWalker, so this always walks the stack.
+     *
+     * @param fqcnOfLogger the fully qualified class name of the logger.
+     * @return the location of the caller of the logger or null.
+     * @since 2.20.0
+     */
+    public StackTraceElement calcCachedLocation(final String fqcnOfLogger) {
+        return calcLocation(fqcnOfLogger);
+    }
+
     public StackTraceElement getStackTraceElement(final int depth) {
         // (MS) I tested the difference between using Throwable.getStackTrace() and Thread.getStackTrace(), and
         // the version using Throwable was surprisingly faster! at least on Java 1.8. See ReflectionBenchmark.
@@ -118,7 +118,8 @@ public final class StackLocatorUtil {
 
     public static StackTraceElement calcLocation(final String fqcnOfLogger) {
         try {
-            return stackLocator.calcLocation(fqcnOfLogger);
+            return LocationCache.ENABLED ? stackLocator.calcCachedLocation(fqcnOfLogger)
+                    : stackLocator.calcLocation(fqcnOfLogger);
         } catch (NoSuchElementException ex) {
             if (!errorLogged) {
                 errorLogged = true;
@@ -127,4 +128,13 @@ public final class StackLocatorUtil {
             return null;
         }
     }
+
+    /**
+     * Whether locations are cached by call site, from system property {@code log4j2.cacheLocations}. Read lazily as
+     * the properties may not be available yet when this class is initialized.
+     */
+    private static final class LocationCache {
+        private static final boolean ENABLED = PropertiesUtil.getProperties().getBooleanProperty(
+                "log4j2.cacheLocations", false);
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link LoggerUpdater}.
+ */
+@SetSystemProperty(key = "log4j2.incrementalLoggerUpdates", value = "true")
+public class LoggerUpdaterTest {
+
+    private LoggerContext context;
+    private DefaultConfiguration configuration;
+
+    @BeforeEach
+    public void setUp() {
+        context = new LoggerContext("LoggerUpdaterTest");
+        configuration = new DefaultConfiguration();
+        configuration.addLogger("a", new LoggerConfig("a", Level.INFO, true));
+        configuration.addLogger("b", new LoggerConfig("b", Level.WARN, true));
+        context.start(configuration);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    public void testOnlyAffectedLoggersAreUpdated() {
+        final LoggerUpdater updater = new LoggerUpdater(true, 0);
+        final List<Logger> loggers = createLoggers(updater, 10);
+        updater.update(loggers, configuration);
+        final Logger a = loggers.get(0);
+        final Logger b = loggers.get(1);
+        final Logger.PrivateConfig bConfig = b.privateConfig;
+
+        configuration.getLoggerConfig("a").setLevel(Level.DEBUG);
+        updater.update(loggers, configuration);
+        assertEquals(Level.DEBUG, a.getLevel());
+        assertSame(bConfig, b.privateConfig, "Loggers of other LoggerConfigs should be left alone");
+
+        configuration.addLogger("b.c", new LoggerConfig("b.c", Level.ERROR, true));
+        updater.update(loggers, configuration);
+        assertEquals(Level.ERROR, context.getLogger("b.c.0").getLevel());
+        assertEquals(Level.WARN, b.getLevel());
+
+        configuration.removeLogger("b.c");
+        updater.update(loggers, configuration);
+        assertEquals(Level.WARN, context.getLogger("b.c.0").getLevel());
+    }
+
+    @Test
+    public void testNewConfigurationUpdatesAllLoggersInParallel() {
+        final LoggerUpdater updater = new LoggerUpdater(true, 4);
+        final List<Logger> loggers = createLoggers(updater, 2000);
+        final DefaultConfiguration newConfiguration = new DefaultConfiguration();
+        newConfiguration.addLogger("a", new LoggerConfig("a", Level.TRACE, true));
+        updater.update(loggers, newConfiguration);
+        for (final Logger logger : loggers) {
+            assertSame(newConfiguration, logger.privateConfig.config, logger.getName());
+            assertEquals(logger.getName().startsWith("a.") ? Level.TRACE : newConfiguration.getRootLogger().getLevel(),
+                    logger.getLevel(), logger.getName());
+        }
+    }
+
+    @Test
+    public void testLoggersCreatedWhileReconfiguringFollowLaterUpdates() throws Exception {
+        assertTrue(LoggerUpdater.INCREMENTAL, "incremental updates are not enabled");
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger created = new AtomicInteger();
+        final Thread creator = new Thread(() -> {
+            while (!done.get()) {
+                context.getLogger("a.concurrent." + created.getAndIncrement());
+            }
+        });
+        creator.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                final DefaultConfiguration next = new DefaultConfiguration();
+                next.addLogger("a", new LoggerConfig("a", i % 2 == 0 ? Level.DEBUG : Level.ERROR, true));
+                context.setConfiguration(next);
+            }
+        } finally {
+            done.set(true);
+            creator.join();
+        }
+
+        final Configuration last = context.getConfiguration();
+        last.getLoggerConfig("a").setLevel(Level.TRACE);
+        context.updateLoggers();
+        for (int i = 0; i < created.get(); i++) {
+            final Logger logger = context.getLogger("a.concurrent." + i);
+            assertSame(last, logger.privateConfig.config, logger.getName());
+            assertEquals(Level.TRACE, logger.getLevel(), logger.getName());
+        }
+    }
+
+    private List<Logger> createLoggers(final LoggerUpdater updater, final int perPrefix) {
+        final List<Logger> loggers = new ArrayList<>();
+        for (int i = 0; i < perPrefix; i++) {
+            for (final String prefix : new String[] {"a.", "b.", "b.c."}) {
+                final Logger logger = context.getLogger(prefix + i);
+                updater.register(logger, configuration);
+                loggers.add(logger);
+            }
+        }
+        return loggers;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.appender.BatchingHttpURLConnectionManager.BatchFormat;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.JsonLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the batching mode of {@link HttpAppender} against a stub HTTP server.
+ */
+public class BatchingHttpAppenderTest {
+
+    private static final Pattern MESSAGE = Pattern.compile("\"message\":\"event (\\d+)\"");
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<String> contentTypes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresToSend = new AtomicInteger();
+    private volatile long responseDelayMillis;
+    private HttpServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/logs", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (final InputStream in = exchange.getRequestBody()) {
+            final byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                body.write(buffer, 0, n);
+            }
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(responseDelayMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failuresToSend.getAndDecrement() > 0) {
+            exchange.sendResponseHeaders(503, -1);
+        } else {
+            bodies.add(new String(body.toByteArray(), StandardCharsets.UTF_8));
+            contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+            exchange.sendResponseHeaders(200, -1);
+        }
+        exchange.close();
+    }
+
+    @Test
+    public void testNdjsonBatchesKeepOrder() throws Exception {
+        final HttpAppender appender = createAppender(BatchFormat.NDJSON, 100, 0);
+        appender.start();
+        append(appender, 1000);
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        assertTrue(bodies.size() >= 10 && bodies.size() < 1000, "Events were not batched: " + bodies.size());
+        int expected = 0;
+        for (final String body : bodies) {
+            for (final String line : body.split("\n")) {
+                assertEquals(expected++, messageNumber(line), line);
+            }
+        }
+        assertEquals(1000, expected);
+        assertEquals("application/x-ndjson", contentTypes.get(0));
+    }
+
+    @Test
+    public void testJsonArray() throws Exception {
+        final HttpAppender appender = createAppender(BatchFormat.JSON_ARRAY, 10, 0);
+        appender.start();
+        append(appender, 25);
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        int expected = 0;
+        for (final String body : bodies) {
+            assertTrue(body.startsWith("[") && body.endsWith("]"), body);
+            final Matcher matcher = MESSAGE.matcher(body);
+            while (matcher.find()) {
+                assertEquals(expected++, Integer.parseInt(matcher.group(1)));
+            }
+        }
+        assertEquals(25, expected);
+        assertEquals("application/json", contentTypes.get(0));
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        failuresToSend.set(2);
+        final HttpAppender appender = createAppender(BatchFormat.NDJSON, 100, 2);
+        appender.start();
+        append(appender, 50);
+        assertTrue(appender.stop(10, TimeUnit.SECONDS));
+
+        int count = 0;
+        for (final String body : bodies) {
+            count += body.split("\n").length;
+        }
+        assertEquals(50, count);
+    }
+
+    @Test
+    public void testDroppedBatchReachesErrorHandler() throws Exception {
+        failuresToSend.set(1);
+        final HttpAppender appender = createAppender(BatchFormat.NDJSON, 1, 0);
+        appender.start();
+        try {
+            appender.append(event(0));
+            final long deadline = System.currentTimeMillis() + 10_000;
+            AppenderLoggingException thrown = null;
+            for (int i = 1; thrown == null && System.currentTimeMillis() < deadline; i++) {
+                try {
+                    appender.append(event(i));
+                    TimeUnit.MILLISECONDS.sleep(10);
+                } catch (final AppenderLoggingException e) {
+                    thrown = e;
+                }
+            }
+            assertNotNull(thrown, "The dropped batch was not reported");
+            assertTrue(thrown.getMessage().contains("Unable to send batch of 1 events"), thrown.getMessage());
+        } finally {
+            assertTrue(appender.stop(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testStopWithoutTimeoutSendsAllEvents() throws Exception {
+        responseDelayMillis = 200;
+        final HttpAppender appender = createAppender(BatchFormat.NDJSON, 10, 0);
+        appender.start();
+        append(appender, 30);
+        assertTrue(appender.stop(0, TimeUnit.MILLISECONDS));
+
+        int count = 0;
+        for (final String body : bodies) {
+            count += body.split("\n").length;
+        }
+        assertEquals(30, count);
+    }
+
+    @Test
+    public void testFullSpillQueueRejectsEvents() throws Exception {
+        final Configuration configuration = new DefaultConfiguration();
+        final BatchingHttpURLConnectionManager manager = new BatchingHttpURLConnectionManager(configuration,
+                configuration.getLoggerContext(), "Http",
+                new URL("http://localhost:" + server.getAddress().getPort() + "/logs"), "POST", 0, 0,
+                new Property[0], null, true, BatchFormat.NDJSON, 1, 0, 1, 0, 0, 1);
+        // not started: the dispatcher does not drain the queue
+        manager.send(createLayout(), event(0));
+        assertEquals(1, manager.getQueuedEventCount());
+        assertThrows(AppenderLoggingException.class, () -> manager.send(createLayout(), event(1)));
+    }
+
+    private HttpAppender createAppender(final BatchFormat batchFormat, final int batchSize, final int maxRetries)
+            throws IOException {
+        return HttpAppender.newBuilder()
+                .setName("Http")
+                .setLayout(createLayout())
+                .setConfiguration(new DefaultConfiguration())
+                .setUrl(new URL("http://localhost:" + server.getAddress().getPort() + "/logs"))
+                .setIgnoreExceptions(false)
+                .setBatchSize(batchSize)
+                .setBatchFormat(batchFormat)
+                .setBatchLingerMillis(50)
+                .setMaxRetries(maxRetries)
+                .setRetryBackoffMillis(10)
+                .build();
+    }
+
+    private static JsonLayout createLayout() {
+        return JsonLayout.newBuilder().setCompact(true).setEventEol(true).build();
+    }
+
+    private static void append(final HttpAppender appender, final int count) {
+        for (int i = 0; i < count; i++) {
+            appender.append(event(i));
+        }
+    }
+
+    private static Log4jLogEvent event(final int i) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(BatchingHttpAppenderTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("event " + i))
+                .build();
+    }
+
+    private static int messageNumber(final String json) {
+        final Matcher matcher = MESSAGE.matcher(json);
+        assertTrue(matcher.find(), json);
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link DeduplicatingAppender}.
+ */
+public class DeduplicatingAppenderTest {
+
+    private DefaultConfiguration configuration;
+    private ListAppender listAppender;
+    private DeduplicatingAppender appender;
+
+    @BeforeEach
+    public void setUp() {
+        configuration = new DefaultConfiguration();
+        listAppender = new ListAppender("List");
+        listAppender.start();
+        configuration.addAppender(listAppender);
+        appender = DeduplicatingAppender.newBuilder()
+                .setName("Deduplicating")
+                .setConfiguration(configuration)
+                .setAppenderRefs(AppenderRef.createAppenderRef("List", null, null))
+                .setWindowMillis(TimeUnit.HOURS.toMillis(1))
+                .setLimit(3)
+                .build();
+        appender.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        appender.stop();
+        configuration.stop();
+    }
+
+    @Test
+    public void testSuppressesRepeatedExceptions() {
+        for (int i = 0; i < 100; i++) {
+            appender.append(createEvent("Call {} failed", i, fail("Connection refused")));
+        }
+        assertEquals(3, listAppender.getEvents().size());
+
+        appender.rollWindow(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+        final List<LogEvent> events = listAppender.getEvents();
+        assertEquals(4, events.size());
+        final LogEvent summary = events.get(3);
+        assertEquals(Level.ERROR, summary.getLevel());
+        assertEquals("Test", summary.getLoggerName());
+        assertNull(summary.getThrown());
+        assertTrue(summary.getMessage().getFormattedMessage().startsWith("Suppressed 97 occurrences of "
+                + "java.lang.IllegalStateException: Connection refused"), summary.getMessage().getFormattedMessage());
+
+        appender.append(createEvent("Call {} failed", 0, fail("Connection refused")));
+        assertEquals(5, listAppender.getEvents().size(), "A new window should pass events again");
+    }
+
+    @Test
+    public void testDistinguishesFingerprints() {
+        for (int i = 0; i < 10; i++) {
+            appender.append(createEvent("Call {} failed", i, fail("a")));
+            appender.append(createEvent("Other call {} failed", i, fail("a")));
+            appender.append(createEvent("Call {} failed", i, new IOException()));
+            appender.append(Log4jLogEvent.newBuilder().setLoggerName("Test").setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage("no exception")).build());
+        }
+        assertEquals(3 * 3 + 10, listAppender.getEvents().size());
+    }
+
+    @Test
+    public void testStopEmitsSummaries() {
+        for (int i = 0; i < 5; i++) {
+            appender.append(createEvent("Call {} failed", i, fail("Connection refused")));
+        }
+        appender.stop();
+        final List<LogEvent> events = listAppender.getEvents();
+        assertEquals(4, events.size());
+        assertTrue(events.get(3).getMessage().getFormattedMessage().startsWith("Suppressed 2 occurrences"));
+    }
+
+    @Test
+    public void testEventsAppendedWhileRollingAreLoggedOrSummarized() throws Exception {
+        final int threads = 4;
+        final int eventsPerThread = 20_000;
+        final Throwable thrown = fail("Connection refused");
+        final AtomicBoolean done = new AtomicBoolean();
+        final Thread roller = new Thread(() -> {
+            // the windows start in the future, so only this thread rolls them
+            long nanoTime = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+            while (!done.get()) {
+                appender.rollWindow(nanoTime);
+                nanoTime += TimeUnit.HOURS.toNanos(1);
+            }
+        });
+        roller.start();
+        final Thread[] appenders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            appenders[t] = new Thread(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    appender.append(createEvent("Call {} failed", i, thrown));
+                }
+            });
+            appenders[t].start();
+        }
+        for (final Thread thread : appenders) {
+            thread.join();
+        }
+        done.set(true);
+        roller.join();
+        appender.stop();
+
+        long total = 0;
+        for (final LogEvent event : listAppender.getEvents()) {
+            final String message = event.getMessage().getFormattedMessage();
+            if (event.getThrown() != null) {
+                total++;
+            } else {
+                assertTrue(message.startsWith("Suppressed "), message);
+                total += Long.parseLong(message.substring("Suppressed ".length(), message.indexOf(' ', 11)));
+            }
+        }
+        assertEquals(threads * eventsPerThread, total);
+    }
+
+    private static LogEvent createEvent(final String format, final int param, final Throwable thrown) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("Test")
+                .setLevel(Level.ERROR)
+                .setMessage(new ParameterizedMessage(format, param))
+                .setThrown(thrown)
+                .build();
+    }
+
+    private static Throwable fail(final String message) {
+        return new IllegalStateException(message);
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.NullOutputStream;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link GroupCommitFlusher}.
+ */
+public class GroupCommitFlusherTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testEventIsFlushedWhenAppendReturns() throws Exception {
+        final File file = new File(tempDir, "groupCommit.log");
+        final FileAppender appender = FileAppender.newBuilder()
+                .setName("GroupCommit")
+                .withFileName(file.getAbsolutePath())
+                .setLayout(PatternLayout.newBuilder().withPattern("%m%n").build())
+                .setImmediateFlush(true)
+                .setGroupCommit(true)
+                .setGroupCommitForce(true)
+                .build();
+        assertNotNull(appender);
+        appender.start();
+        try {
+            assertTrue(appender.getManager().isGroupCommit());
+            final List<Thread> threads = new ArrayList<>();
+            final AtomicInteger notFlushed = new AtomicInteger();
+            for (int t = 0; t < 8; t++) {
+                final Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        appender.append(createEvent("message"));
+                        // the file must contain at least as many bytes as this thread alone wrote so far
+                        if (file.length() < (i + 1) * ("message" + System.lineSeparator()).length()) {
+                            notFlushed.incrementAndGet();
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(0, notFlushed.get());
+            assertEquals(8 * 200, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+        } finally {
+            appender.stop();
+        }
+        assertFalse(appender.getManager().isGroupCommit());
+    }
+
+    @Test
+    public void testRandomAccessFileManagerGroupCommit() throws IOException {
+        final File file = new File(tempDir, "groupCommit.bin");
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final RandomAccessFileManager manager = new RandomAccessFileManager(null, raf, file.getName(),
+                    NullOutputStream.getInstance(), RandomAccessFileManager.DEFAULT_BUFFER_SIZE, null, null, false);
+            manager.setGroupCommit(true, true);
+            try {
+                manager.write(new byte[100]);
+                assertEquals(0, raf.length());
+                manager.getGroupCommitFlusher().awaitFlush();
+                assertEquals(100, raf.length());
+            } finally {
+                manager.setGroupCommit(false, false);
+            }
+        }
+    }
+
+    @Test
+    public void testFlushErrorIsRethrownToWaitingCaller() {
+        final IOException exception = new IOException();
+        final OutputStream throwingOutputStream = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw exception;
+            }
+        };
+        final OutputStreamManager manager = new OutputStreamManager(throwingOutputStream, "test", null, false, 16);
+        manager.setGroupCommit(true, false);
+        try {
+            manager.write(new byte[4]);
+            final AppenderLoggingException ex = assertThrows(AppenderLoggingException.class,
+                    () -> manager.getGroupCommitFlusher().awaitFlush());
+            assertSame(exception, ex.getCause());
+        } finally {
+            manager.setGroupCommit(false, false);
+        }
+    }
+
+    @Test
+    public void testEachWaiterSeesTheFailureOfItsOwnFlush() throws Exception {
+        final IOException firstException = new IOException("first");
+        final IOException secondException = new IOException("second");
+        final CountDownLatch firstFlushStarted = new CountDownLatch(1);
+        final CountDownLatch failFirstFlush = new CountDownLatch(1);
+        final AtomicInteger flushCount = new AtomicInteger();
+        final OutputStream failingOutputStream = new OutputStream() {
+            @Override
+            public void write(final int b) {
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (flushCount.incrementAndGet() == 1) {
+                    firstFlushStarted.countDown();
+                    try {
+                        failFirstFlush.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw firstException;
+                }
+                throw secondException;
+            }
+        };
+        final OutputStreamManager manager = new OutputStreamManager(failingOutputStream, "test", null, false, 16);
+        manager.setGroupCommit(true, false);
+        try {
+            final GroupCommitFlusher flusher = manager.getGroupCommitFlusher();
+            final AtomicReference<Throwable> firstError = new AtomicReference<>();
+            final AtomicReference<Throwable> secondError = new AtomicReference<>();
+            final Thread first = startWaiter(flusher, firstError);
+            firstFlushStarted.await();
+            final Thread second = startWaiter(flusher, secondError);
+            // the second waiter draws its ticket while the first flush is in progress
+            while (second.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            failFirstFlush.countDown();
+            first.join();
+            second.join();
+            assertSame(firstException, firstError.get().getCause());
+            assertSame(secondException, secondError.get().getCause());
+        } finally {
+            manager.setGroupCommit(false, false);
+        }
+    }
+
+    private static Thread startWaiter(final GroupCommitFlusher flusher, final AtomicReference<Throwable> error) {
+        final Thread thread = new Thread(() -> {
+            try {
+                flusher.awaitFlush();
+            } catch (final AppenderLoggingException e) {
+                error.set(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    public void testAwaitFlushAfterStopFlushesInline() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(out, "test", null, false, 16);
+        manager.setGroupCommit(true, false);
+        final GroupCommitFlusher flusher = manager.getGroupCommitFlusher();
+        manager.setGroupCommit(false, false);
+        manager.write(new byte[4]);
+        flusher.awaitFlush();
+        assertEquals(4, out.size());
+    }
+
+    @Test
+    public void testWaiterReleasedByStopFlushesInline() throws Exception {
+        final CountDownLatch firstFlushStarted = new CountDownLatch(1);
+        final CountDownLatch finishFirstFlush = new CountDownLatch(1);
+        final AtomicInteger flushCount = new AtomicInteger();
+        final OutputStream blockingOutputStream = new OutputStream() {
+            @Override
+            public void write(final int b) {
+            }
+
+            @Override
+            public void flush() {
+                if (flushCount.incrementAndGet() == 1) {
+                    firstFlushStarted.countDown();
+                    try {
+                        finishFirstFlush.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        final OutputStreamManager manager = new OutputStreamManager(blockingOutputStream, "test", null, false, 16);
+        manager.setGroupCommit(true, false);
+        final GroupCommitFlusher flusher = manager.getGroupCommitFlusher();
+        final AtomicReference<Throwable> firstError = new AtomicReference<>();
+        final AtomicReference<Throwable> secondError = new AtomicReference<>();
+        final Thread first = startWaiter(flusher, firstError);
+        firstFlushStarted.await();
+        final Thread second = startWaiter(flusher, secondError);
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        final Thread stopper = new Thread(flusher::stop);
+        stopper.start();
+        // the second waiter is released with its ticket not covered and must not return before it flushed
+        while (second.getState() != Thread.State.BLOCKED && second.getState() != Thread.State.TERMINATED) {
+            Thread.yield();
+        }
+        finishFirstFlush.countDown();
+        first.join();
+        second.join();
+        stopper.join();
+        manager.setGroupCommit(false, false);
+        assertNull(firstError.get());
+        assertNull(secondError.get());
+        assertEquals(2, flushCount.get());
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link StripedBufferWriter}.
+ */
+public class StripedBufferWriterTest {
+
+    private static final int THREADS = 16;
+    private static final int EVENTS_PER_THREAD = 2_000;
+
+    @Test
+    public void testConcurrentWritesAreNotInterleaved() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(out, "test", null, false, 256);
+        manager.setStripedBuffers(true);
+        final StripedBufferWriter writer = manager.getStripedBufferWriter();
+        assertNotNull(writer);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int threadIndex = t;
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    final byte[] bytes = (threadIndex + ":" + i + "\n").getBytes(StandardCharsets.US_ASCII);
+                    writer.write(bytes, 0, bytes.length, i % 100 == 0);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        manager.flush();
+
+        final int[] next = new int[THREADS];
+        final String[] lines = out.toString(StandardCharsets.US_ASCII.name()).split("\n");
+        assertEquals(THREADS * EVENTS_PER_THREAD, lines.length);
+        for (final String line : lines) {
+            final String[] parts = line.split(":");
+            assertEquals(2, parts.length, line);
+            final int threadIndex = Integer.parseInt(parts[0]);
+            assertEquals(next[threadIndex]++, Integer.parseInt(parts[1]), "Events of a thread must stay in order");
+        }
+    }
+
+    @Test
+    public void testEncodeEventLargerThanSlice() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(out, "test", null, false, 16);
+        manager.setStripedBuffers(true);
+        final PatternLayout layout = PatternLayout.newBuilder().withPattern("%m%n").build();
+        final StringBuilder message = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            message.append('x');
+        }
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message.toString()))
+                .build();
+
+        manager.getStripedBufferWriter().encode(layout, event, true);
+
+        assertEquals(message + System.lineSeparator(), out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testFailedEncodeIsDiscarded() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(out, "test", null, false, 64);
+        manager.setStripedBuffers(true);
+        final StripedBufferWriter writer = manager.getStripedBufferWriter();
+        final RuntimeException exception = new IllegalStateException();
+        final AbstractStringLayout failingLayout = new AbstractStringLayout(StandardCharsets.UTF_8) {
+            @Override
+            public String toSerializable(final LogEvent event) {
+                throw exception;
+            }
+
+            @Override
+            public void encode(final LogEvent event, final ByteBufferDestination destination) {
+                destination.writeBytes("partial".getBytes(StandardCharsets.US_ASCII), 0, 7);
+                throw exception;
+            }
+        };
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("message"))
+                .build();
+
+        assertSame(exception, assertThrows(IllegalStateException.class,
+                () -> writer.encode(failingLayout, event, true)));
+        writer.encode(PatternLayout.newBuilder().withPattern("%m%n").build(), event, true);
+
+        assertEquals("message" + System.lineSeparator(), out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testWriteErrorIsRethrownToProducer() {
+        final IOException exception = new IOException();
+        final OutputStream throwingOutputStream = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw exception;
+            }
+        };
+        final OutputStreamManager manager = new OutputStreamManager(throwingOutputStream, "test", null, false, 4);
+        manager.setStripedBuffers(true);
+        final byte[] bytes = "too large for the buffer".getBytes(StandardCharsets.US_ASCII);
+
+        final AppenderLoggingException ex = assertThrows(AppenderLoggingException.class,
+                () -> manager.getStripedBufferWriter().write(bytes, 0, bytes.length, false));
+        assertSame(exception, ex.getCause());
+    }
+
+    @Test
+    public void testDisableStripedBuffers() {
+        final OutputStreamManager manager = new OutputStreamManager(new ByteArrayOutputStream(), "test", null, false,
+                16);
+        assertFalse(manager.isStripedBuffers());
+        manager.setStripedBuffers(true);
+        assertTrue(manager.isStripedBuffers());
+        manager.setStripedBuffers(false);
+        assertFalse(manager.isStripedBuffers());
+        assertNull(manager.getStripedBufferWriter());
+    }
+}
@@ -30,8 +30,16 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.Test;
 
 public class AbstractDatabaseManagerTest {
@@ -42,6 +50,10 @@ public class AbstractDatabaseManagerTest {
             super(name, bufferSize);
         }
 
+        protected StubDatabaseManager(final String name, final int bufferSize, final boolean backgroundWriter) {
+            super(name, bufferSize, null, null, backgroundWriter, 0);
+        }
+
         @Override
         protected boolean commitAndClose() {
             return true;
@@ -69,6 +81,43 @@ public class AbstractDatabaseManagerTest {
 
     }
 
+    // records the size of each batch written by the background writer, which waits until it is allowed to connect
+    private static class BatchRecordingDatabaseManager extends StubDatabaseManager {
+
+        private final CountDownLatch connectionsAllowed = new CountDownLatch(1);
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<String> writerThreads = new ArrayList<>();
+        private int batchSize;
+
+        protected BatchRecordingDatabaseManager(final String name, final int bufferSize) {
+            super(name, bufferSize, true);
+        }
+
+        @Override
+        protected void connectAndStart() {
+            try {
+                connectionsAllowed.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        protected void writeInternal(final LogEvent event, final Serializable serializable) {
+            batchSize++;
+        }
+
+        @Override
+        protected boolean commitAndClose() {
+            synchronized (batchSizes) {
+                batchSizes.add(batchSize);
+                writerThreads.add(Thread.currentThread().getName());
+            }
+            batchSize = 0;
+            return true;
+        }
+    }
+
     private AbstractDatabaseManager manager;
 
     public void setUp(final String name, final int buffer) {
@@ -274,4 +323,79 @@ public class AbstractDatabaseManagerTest {
 
         assertEquals("The string is not correct.", "bufferSize=12, anotherKey02=coolValue02", manager.toString());
     }
+
+    @Test(timeout = 30_000)
+    public void testBackgroundWriterBatchesNeverExceedBufferSize() throws Exception {
+        final BatchRecordingDatabaseManager recordingManager = new BatchRecordingDatabaseManager("batches", 2);
+        recordingManager.startup();
+        // the writer is stuck on the first buffer and the second one is full
+        for (int i = 0; i < 4; i++) {
+            recordingManager.write(createEvent(), null);
+        }
+        final List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final Thread producer = new Thread(() -> recordingManager.write(createEvent(), null));
+            producer.start();
+            producers.add(producer);
+        }
+        for (final Thread producer : producers) {
+            while (producer.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+        }
+        recordingManager.connectionsAllowed.countDown();
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+        recordingManager.flush();
+        recordingManager.releaseSub(10, TimeUnit.SECONDS);
+
+        int total = 0;
+        for (final int batchSize : recordingManager.batchSizes) {
+            assertTrue("Batch of " + batchSize + " events exceeds the buffer size", batchSize <= 2);
+            total += batchSize;
+        }
+        assertEquals(8, total);
+    }
+
+    @Test(timeout = 30_000)
+    public void testBackgroundWriterRestartsAfterShutdown() throws Exception {
+        final BatchRecordingDatabaseManager recordingManager = new BatchRecordingDatabaseManager("restart", 2);
+        recordingManager.connectionsAllowed.countDown();
+        for (int cycle = 0; cycle < 2; cycle++) {
+            recordingManager.startup();
+            recordingManager.write(createEvent(), null);
+            recordingManager.write(createEvent(), null);
+            recordingManager.flush();
+            recordingManager.shutdown();
+        }
+
+        assertEquals(Arrays.asList(2, 2), recordingManager.batchSizes);
+        for (final String writerThread : recordingManager.writerThreads) {
+            assertTrue(writerThread, writerThread.contains("DatabaseManager-BackgroundWriter-restart"));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testEventsAreWrittenInlineWhenBackgroundWriterDied() throws Exception {
+        final BatchRecordingDatabaseManager recordingManager = new BatchRecordingDatabaseManager("died", 2);
+        recordingManager.connectionsAllowed.countDown();
+        recordingManager.startup();
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().contains("DatabaseManager-BackgroundWriter-died")) {
+                thread.interrupt();
+                thread.join();
+            }
+        }
+        recordingManager.write(createEvent(), null);
+        recordingManager.write(createEvent(), null);
+
+        assertEquals(Arrays.asList(2), recordingManager.batchSizes);
+        assertEquals(Arrays.asList(Thread.currentThread().getName()), recordingManager.writerThreads);
+        recordingManager.shutdown();
+    }
+
+    private static LogEvent createEvent() {
+        return Log4jLogEvent.newBuilder().setLevel(Level.INFO).setMessage(new SimpleMessage("event")).build();
+    }
 }
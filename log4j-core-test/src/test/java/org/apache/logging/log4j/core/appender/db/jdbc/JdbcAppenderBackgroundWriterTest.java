@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.db.jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the background writer of {@link JdbcAppender} against an H2 in-memory database.
+ */
+public class JdbcAppenderBackgroundWriterTest {
+
+    private static final String CONNECTION_STRING = "jdbc:h2:mem:Log4jBackgroundWriter;DB_CLOSE_DELAY=-1";
+
+    private final CountDownLatch connectionsAllowed = new CountDownLatch(1);
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        connection = getConnection();
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE bgLogEntry (id INTEGER GENERATED ALWAYS AS IDENTITY, message VARCHAR(255))");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DROP TABLE bgLogEntry");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testBuffersAreWrittenInOrder() throws Exception {
+        connectionsAllowed.countDown();
+        final JdbcAppender appender = createAppender(10, 0);
+        assertTrue(appender.getManager().isBackgroundWriter());
+        appender.start();
+        for (int i = 0; i < 95; i++) {
+            appender.append(event(i, false));
+        }
+        appender.stop(10, TimeUnit.SECONDS);
+
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT message FROM bgLogEntry ORDER BY id")) {
+            int expected = 0;
+            while (resultSet.next()) {
+                assertEquals("event " + expected++, resultSet.getString(1));
+            }
+            assertEquals(95, expected);
+        }
+    }
+
+    @Test
+    public void testPartialBufferIsWrittenAfterLinger() throws Exception {
+        connectionsAllowed.countDown();
+        final JdbcAppender appender = createAppender(100, 50);
+        appender.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                appender.append(event(i, false));
+            }
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while (countRows() < 5 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(5, countRows());
+        } finally {
+            appender.stop(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testLoggingWaitsWhenBothBuffersAreFull() throws Exception {
+        final JdbcAppender appender = createAppender(2, 0);
+        appender.start();
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < 6; i++) {
+                    appender.append(event(i, false));
+                }
+                done.countDown();
+            });
+            producer.start();
+            // the writer is stuck on the first buffer and the second one is full
+            assertFalse(done.await(200, TimeUnit.MILLISECONDS), "Producer should wait for the background writer");
+            connectionsAllowed.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            appender.stop(10, TimeUnit.SECONDS);
+        }
+        assertEquals(6, countRows());
+    }
+
+    @Test
+    public void testLoggingDoesNotWaitForConnection() throws Exception {
+        final JdbcAppender appender = createAppender(2, 0);
+        appender.start();
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < 3; i++) {
+                    appender.append(event(i, false));
+                }
+                done.countDown();
+            });
+            producer.start();
+            // the writer is connecting for the first buffer, the second one still has room
+            assertTrue(done.await(10, TimeUnit.SECONDS), "Producer should not wait for the connection");
+            connectionsAllowed.countDown();
+        } finally {
+            appender.stop(10, TimeUnit.SECONDS);
+        }
+        assertEquals(3, countRows());
+    }
+
+    private JdbcAppender createAppender(final int bufferSize, final long lingerMillis) {
+        return JdbcAppender.newBuilder()
+                .setName("BackgroundWriter")
+                .setConfiguration(new DefaultConfiguration())
+                .setConnectionSource(new AbstractConnectionSource() {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        try {
+                            connectionsAllowed.await();
+                        } catch (final InterruptedException e) {
+                            throw new SQLException(e);
+                        }
+                        return JdbcAppenderBackgroundWriterTest.getConnection();
+                    }
+                })
+                .setTableName("bgLogEntry")
+                .setColumnConfigs(ColumnConfig.newBuilder().setName("message").setPattern("%m").setUnicode(false).build())
+                .setBufferSize(bufferSize)
+                .setBackgroundWriter(true)
+                .setLingerMillis(lingerMillis)
+                .setIgnoreExceptions(false)
+                .build();
+    }
+
+    private int countRows() throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM bgLogEntry")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static Log4jLogEvent event(final int i, final boolean endOfBatch) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(JdbcAppenderBackgroundWriterTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("event " + i))
+                .setEndOfBatch(endOfBatch)
+                .build();
+    }
+
+    private static Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(CONNECTION_STRING, "sa", "");
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.mom.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.ErrorHandler;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.test.categories.Appenders;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.experimental.categories.Category;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests asynchronous sends with a bounded number of records in flight.
+ */
+@Category(Appenders.Kafka.class)
+public class KafkaManagerInFlightTest {
+
+    private static final String TOPIC_NAME = "kafka-topic";
+
+    private final MockProducer<byte[], byte[]> kafka = new MockProducer<>(false, new ByteArraySerializer(),
+            new ByteArraySerializer());
+    private KafkaProducerFactory previousFactory;
+
+    @BeforeEach
+    public void setUp() {
+        previousFactory = KafkaManager.producerFactory;
+        KafkaManager.producerFactory = config -> kafka;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        KafkaManager.producerFactory = previousFactory;
+    }
+
+    @Test
+    public void testInFlightRecordsAreBounded() throws Exception {
+        final KafkaManager manager = createManager("bounded", 2);
+        manager.startup();
+        try {
+            final List<Exception> failures = new CopyOnWriteArrayList<>();
+            manager.send(bytes("1"), null, failures::add);
+            manager.send(bytes("2"), null, failures::add);
+            assertEquals(2, manager.getInFlightCount());
+            assertThrows(TimeoutException.class, () -> manager.send(bytes("3"), null, failures::add));
+
+            assertTrue(kafka.completeNext());
+            assertEquals(1, manager.getInFlightCount());
+            manager.send(bytes("3"), null, failures::add);
+            assertEquals(3, kafka.history().size());
+            assertTrue(failures.isEmpty());
+        } finally {
+            kafka.flush();
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testFlushWaitsForInFlightRecords() throws Exception {
+        final KafkaManager manager = createManager("flush", 10);
+        manager.startup();
+        try {
+            for (int i = 0; i < 3; i++) {
+                manager.send(bytes(Integer.toString(i)), null, e -> {});
+            }
+            assertFalse(manager.flush(50, TimeUnit.MILLISECONDS));
+            final Thread completer = new Thread(() -> {
+                while (kafka.completeNext()) {
+                    // complete all records
+                }
+            });
+            completer.start();
+            assertTrue(manager.flush(10, TimeUnit.SECONDS));
+            assertEquals(0, manager.getInFlightCount());
+            completer.join();
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testFailuresGoToErrorHandler() {
+        final KafkaAppender appender = KafkaAppender.newBuilder()
+                .setName("KafkaInFlight")
+                .setTopic(TOPIC_NAME)
+                .setSyncSend(false)
+                .setMaxInFlight(10)
+                .setLayout(PatternLayout.newBuilder().withPattern("%m").build())
+                .setPropertyArray(new Property[] {Property.createProperty("timeout.ms", "1000")})
+                .setConfiguration(new DefaultConfiguration())
+                .build();
+        final RecordingErrorHandler handler = new RecordingErrorHandler();
+        appender.setHandler(handler);
+        appender.start();
+        try {
+            appender.append(Log4jLogEvent.newBuilder()
+                    .setLoggerName(KafkaManagerInFlightTest.class.getName())
+                    .setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage("Hello"))
+                    .build());
+            assertTrue(handler.errors.isEmpty(), "The append itself should not fail");
+
+            final RuntimeException failure = new RuntimeException("broker unavailable");
+            assertTrue(kafka.errorNext(failure));
+            assertEquals(1, handler.errors.size());
+            assertSame(failure, handler.errors.get(0));
+            assertTrue(appender.flush());
+        } finally {
+            appender.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static KafkaManager createManager(final String name, final int maxInFlight) {
+        return KafkaManager.getManager(new DefaultConfiguration().getLoggerContext(), name, TOPIC_NAME, false, false,
+                maxInFlight, new Property[] {Property.createProperty("timeout.ms", "100")}, null);
+    }
+
+    private static byte[] bytes(final String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class RecordingErrorHandler implements ErrorHandler {
+
+        private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void error(final String msg) {
+            errors.add(null);
+        }
+
+        @Override
+        public void error(final String msg, final Throwable t) {
+            errors.add(t);
+        }
+
+        @Override
+        public void error(final String msg, final LogEvent event, final Throwable t) {
+            errors.add(t);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests writing the active file of a RollingFileAppender compressed.
+ */
+public class RollingAppenderCompressOnWriteTest {
+
+    private static final int COUNT = 100;
+
+    @TempDir
+    File tempDir;
+
+    private final Configuration configuration = new DefaultConfiguration();
+
+    @Test
+    public void testGzipRolloverOnlyRenames() throws Exception {
+        final RollingFileAppender appender = RollingFileAppender.newBuilder()
+                .setName("CompressOnWrite")
+                .withFileName(new File(tempDir, "app.log.gz").getPath())
+                .withFilePattern(new File(tempDir, "app-%i.log.gz").getPath())
+                .withPolicy(SizeBasedTriggeringPolicy.createPolicy("1KB"))
+                .withStrategy(DefaultRolloverStrategy.newBuilder().withMax("100").withConfig(configuration).build())
+                .setLayout(createLayout())
+                .withCompressOnWrite(true)
+                .setConfiguration(configuration)
+                .build();
+        assertNotNull(appender);
+        appender.start();
+        appendEvents(appender);
+        appender.stop();
+
+        final File[] files = tempDir.listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 1, "No rollover happened");
+        int events = 0;
+        for (final File file : files) {
+            assertTrue(file.getName().endsWith(".log.gz"), file.getName());
+            final String text = decode(new GZIPInputStream(new FileInputStream(file)));
+            assertTrue(text.startsWith("HEADER"), "header in file " + file);
+            events += count(text);
+        }
+        assertEquals(COUNT, events);
+    }
+
+    @Test
+    public void testFlushedDataIsDecodableWithoutTrailer() throws Exception {
+        final File file = new File(tempDir, "app.log.gz");
+        final RollingFileAppender appender = createImmediateFlushAppender(file);
+        appender.start();
+        try {
+            appendEvents(appender);
+            // the gzip trailer is only written on close, as after a crash
+            assertEquals(COUNT, count(decode(new GZIPInputStream(new FileInputStream(file)))));
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    public void testRestartAfterCrashStartsNewFile() throws Exception {
+        final File file = new File(tempDir, "app.log.gz");
+        final RollingFileAppender crashed = createImmediateFlushAppender(file);
+        crashed.start();
+        final byte[] crashedBytes;
+        try {
+            appendEvents(crashed);
+            // the file as a crash leaves it, without the end of the gzip member
+            crashedBytes = Files.readAllBytes(file.toPath());
+        } finally {
+            crashed.stop();
+        }
+        Files.write(file.toPath(), crashedBytes);
+
+        final RollingFileAppender restarted = createImmediateFlushAppender(file);
+        restarted.start();
+        appendEvents(restarted);
+        restarted.stop();
+
+        final File rolled = new File(tempDir, "app-1.log.gz");
+        assertArrayEquals(crashedBytes, Files.readAllBytes(rolled.toPath()));
+        assertEquals(COUNT, count(decode(new GZIPInputStream(new FileInputStream(rolled)))));
+        final String text = decode(new GZIPInputStream(new FileInputStream(file)));
+        assertTrue(text.startsWith("HEADER"), text);
+        assertEquals(COUNT, count(text));
+    }
+
+    @Test
+    public void testZstdDirectWrite() throws Exception {
+        assumeTrue(ZstdUtils.isZstdCompressionAvailable(), "zstd-jni is not available");
+        final RollingFileAppender appender = RollingFileAppender.newBuilder()
+                .setName("CompressOnWrite")
+                .withFilePattern(new File(tempDir, "app-%i.log.zst").getPath())
+                .withPolicy(SizeBasedTriggeringPolicy.createPolicy("1KB"))
+                .withStrategy(DirectWriteRolloverStrategy.newBuilder().withConfig(configuration).build())
+                .setLayout(createLayout())
+                .withCompressOnWrite(true)
+                .setConfiguration(configuration)
+                .build();
+        assertNotNull(appender);
+        appender.start();
+        appendEvents(appender);
+        appender.stop();
+
+        final File[] files = tempDir.listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 1, "No rollover happened");
+        int events = 0;
+        for (final File file : files) {
+            assertTrue(file.getName().endsWith(".log.zst"), file.getName());
+            events += count(decode(new ZstdCompressorInputStream(new FileInputStream(file))));
+        }
+        assertEquals(COUNT, events);
+    }
+
+    @Test
+    public void testUnsupportedExtension() {
+        assertNull(RollingFileAppender.newBuilder()
+                .setName("CompressOnWrite")
+                .withFileName(new File(tempDir, "app.log.zip").getPath())
+                .withFilePattern(new File(tempDir, "app-%i.log.zip").getPath())
+                .withPolicy(SizeBasedTriggeringPolicy.createPolicy("1KB"))
+                .withCompressOnWrite(true)
+                .setConfiguration(configuration)
+                .build());
+    }
+
+    private RollingFileAppender createImmediateFlushAppender(final File file) {
+        final RollingFileAppender appender = RollingFileAppender.newBuilder()
+                .setName("CompressOnWrite")
+                .withFileName(file.getPath())
+                .withFilePattern(new File(tempDir, "app-%i.log.gz").getPath())
+                .withPolicy(SizeBasedTriggeringPolicy.createPolicy("10MB"))
+                .withStrategy(DefaultRolloverStrategy.newBuilder().withConfig(configuration).build())
+                .setLayout(createLayout())
+                .setImmediateFlush(true)
+                .withCompressOnWrite(true)
+                .setConfiguration(configuration)
+                .build();
+        assertNotNull(appender);
+        return appender;
+    }
+
+    private static PatternLayout createLayout() {
+        return PatternLayout.newBuilder().withPattern("%m%n").withHeader("HEADER%n").build();
+    }
+
+    private static void appendEvents(final RollingFileAppender appender) {
+        for (int i = 0; i < COUNT; i++) {
+            appender.append(Log4jLogEvent.newBuilder()
+                    .setMessage(new SimpleMessage("This is test message number " + i))
+                    .build());
+        }
+    }
+
+    private static int count(final String text) {
+        int count = 0;
+        for (final String line : text.split("[\\r\\n]+")) {
+            if (line.startsWith("This is test message number ")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String decode(final InputStream compressed) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final InputStream in = compressed) {
+            final byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } catch (final EOFException e) {
+            // truncated stream: keep what could be decoded
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
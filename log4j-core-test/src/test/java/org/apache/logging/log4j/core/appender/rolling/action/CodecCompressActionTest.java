@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests CodecCompressAction.
+ */
+public class CodecCompressActionTest {
+
+    private static final String TEXT = "Here is line 1. Random text: ABCDEFGHIJKLMNOPQRSTUVWXYZ\r\n"
+            + "Here is line 2. Random text: ABCDEFGHIJKLMNOPQRSTUVWXYZ\r\n";
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testConstructorDisallowsNullCodec() {
+        assertThrows(NullPointerException.class,
+                () -> new CodecCompressAction(null, new File("any"), new File("any2"), true));
+    }
+
+    @Test
+    public void testExecuteReturnsFalseIfSourceDoesNotExist() throws IOException {
+        assertFalse(CodecCompressAction.execute(Lz4CompressionCodec.createCodec(), new File(tempDir, "missing"),
+                new File(tempDir, "missing.lz4"), true));
+    }
+
+    @Test
+    public void testDestinationIsDeletedOnFailure() throws IOException {
+        final File source = new File(tempDir, "compressme");
+        Files.write(source.toPath(), TEXT.getBytes(StandardCharsets.US_ASCII));
+        final File destination = new File(tempDir, "compressme.fail");
+        final CompressionCodec codec = new CompressionCodec() {
+            @Override
+            public String getName() {
+                return "fail";
+            }
+
+            @Override
+            public String getFileExtension() {
+                return ".fail";
+            }
+
+            @Override
+            public OutputStream createOutputStream(final OutputStream out) throws IOException {
+                throw new IOException("test");
+            }
+        };
+
+        assertThrows(IOException.class, () -> CodecCompressAction.execute(codec, source, destination, true));
+        assertFalse(destination.exists(), "Destination should have been deleted");
+        assertTrue(source.exists(), "Source should have been kept");
+    }
+
+    @Test
+    public void testLz4() throws Exception {
+        assertRoundTrip(Lz4CompressionCodec.createCodec(), CompressorStreamFactory.LZ4_FRAMED);
+    }
+
+    @Test
+    public void testZstd() throws Exception {
+        assertTrue(ZstdUtils.isZstdCompressionAvailable(), "zstd-jni is not available");
+        assertRoundTrip(ZstdCompressionCodec.createCodec(9), CompressorStreamFactory.ZSTANDARD);
+    }
+
+    @Test
+    public void testZstdLevel() {
+        assertEquals(ZstdCompressionCodec.DEFAULT_LEVEL, ZstdCompressionCodec.createCodec(-1).getLevel());
+        assertEquals(ZstdCompressionCodec.MAX_LEVEL, ZstdCompressionCodec.createCodec(99).getLevel());
+        assertEquals(19, ZstdCompressionCodec.createCodec(19).getLevel());
+    }
+
+    private void assertRoundTrip(final CompressionCodec codec, final String compressorName)
+            throws IOException, CompressorException {
+        final File source = new File(tempDir, "compressme");
+        Files.write(source.toPath(), TEXT.getBytes(StandardCharsets.US_ASCII));
+        final File destination = new File(tempDir, "compressme" + codec.getFileExtension());
+
+        assertTrue(new CodecCompressAction(codec, source, destination, true).execute());
+        assertFalse(source.exists(), "Source should have been deleted");
+
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        try (final InputStream in = new CompressorStreamFactory().createCompressorInputStream(compressorName,
+                Files.newInputStream(destination.toPath()))) {
+            IOUtils.copy(in, actual);
+        }
+        assertEquals(TEXT, new String(actual.toByteArray(), StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests ParallelGzCompressAction.
+ */
+public class ParallelGzCompressActionTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void testConstructorDisallowsNullSource() {
+        assertThrows(NullPointerException.class, () -> new ParallelGzCompressAction(null, new File("any"), true,
+                Deflater.DEFAULT_COMPRESSION, 2, ParallelGzCompressAction.DEFAULT_BLOCK_SIZE));
+    }
+
+    @Test
+    public void testConstructorDisallowsTooSmallBlockSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzCompressAction(new File("any"),
+                new File("any2"), true, Deflater.DEFAULT_COMPRESSION, 2, ParallelGzCompressAction.MIN_BLOCK_SIZE - 1));
+    }
+
+    @Test
+    public void testExecuteReturnsFalseIfSourceDoesNotExist() throws IOException {
+        assertFalse(ParallelGzCompressAction.execute(new File(tempDir, "missing"), new File(tempDir, "missing.gz"),
+                true, Deflater.DEFAULT_COMPRESSION, 2, ParallelGzCompressAction.DEFAULT_BLOCK_SIZE));
+    }
+
+    @Test
+    public void testExecuteCompressesManyBlocks() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        final Random random = new Random(42);
+        int line = 0;
+        while (text.length() < 10 * ParallelGzCompressAction.MIN_BLOCK_SIZE + 123) {
+            text.append("Here is line ").append(line++).append(". Random number: ").append(random.nextInt())
+                    .append('\n');
+        }
+        final byte[] expected = text.toString().getBytes(StandardCharsets.US_ASCII);
+        assertRoundTrip(expected, 4, ParallelGzCompressAction.MIN_BLOCK_SIZE);
+    }
+
+    @Test
+    public void testExecuteCompressesExactMultipleOfBlockSize() throws IOException {
+        final byte[] expected = new byte[4 * ParallelGzCompressAction.MIN_BLOCK_SIZE];
+        new Random(7).nextBytes(expected);
+        assertRoundTrip(expected, 3, ParallelGzCompressAction.MIN_BLOCK_SIZE);
+    }
+
+    @Test
+    public void testExecuteCompressesEmptyFile() throws IOException {
+        assertRoundTrip(new byte[0], 2, ParallelGzCompressAction.DEFAULT_BLOCK_SIZE);
+    }
+
+    private void assertRoundTrip(final byte[] expected, final int parallelism, final int blockSize)
+            throws IOException {
+        final File source = new File(tempDir, "compressme");
+        Files.write(source.toPath(), expected);
+        final File destination = new File(tempDir, "compressme.gz");
+
+        final ParallelGzCompressAction action = new ParallelGzCompressAction(source, destination, true,
+                Deflater.BEST_SPEED, parallelism, blockSize);
+        assertTrue(action.execute(), "ParallelGzCompressAction should have succeeded");
+        assertFalse(source.exists(), "Source should have been deleted");
+
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        try (final InputStream in = new GZIPInputStream(Files.newInputStream(destination.toPath()))) {
+            final byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                actual.write(buffer, 0, n);
+            }
+        }
+        assertArrayEquals(expected, actual.toByteArray());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.TimeUnit;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link AdaptiveWaitStrategy}.
+ */
+public class AdaptiveWaitStrategyTest {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private RingBuffer<long[]> ringBuffer;
+    private SequenceBarrier barrier;
+    private final Sequence consumed = new Sequence();
+    private Thread consumer;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (consumer != null) {
+            barrier.alert();
+            consumer.join(TimeUnit.NANOSECONDS.toMillis(TIMEOUT_NANOS));
+        }
+    }
+
+    @Test
+    public void testParkedConsumerIsWokenUpByPublisher() throws InterruptedException {
+        // a consumer that is not woken up would stay parked for an hour
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(Long.MAX_VALUE, Long.MAX_VALUE,
+                TimeUnit.HOURS.toNanos(1));
+        startConsumer(strategy);
+        for (int i = 0; i < 10; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            final long sequence = publish();
+            awaitConsumed(sequence);
+        }
+        assertEquals(AdaptiveWaitStrategy.Mode.PARK, strategy.getMode());
+        assertEquals(0, strategy.getSpinTransitionCount());
+    }
+
+    @Test
+    public void testSpinsUnderLoadAndParksWhenIdle() throws InterruptedException {
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy(1_000, 100,
+                AdaptiveWaitStrategy.DEFAULT_MAX_PARK_NANOS);
+        startConsumer(strategy);
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        long sequence = -1;
+        while (System.nanoTime() - end < 0) {
+            sequence = publish();
+        }
+        awaitConsumed(sequence);
+        assertTrue(strategy.getSpinTransitionCount() > 0, strategy.toString());
+
+        final long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (strategy.getMode() != AdaptiveWaitStrategy.Mode.PARK && System.nanoTime() - deadline < 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(AdaptiveWaitStrategy.Mode.PARK, strategy.getMode());
+        assertTrue(strategy.getParkTransitionCount() > 0);
+
+        final RingBufferAdmin admin = RingBufferAdmin.forAsyncLogger(new RingBuffer<?>[] {ringBuffer},
+                new AdaptiveWaitStrategy[] {strategy}, null, "AdaptiveWaitStrategyTest");
+        assertEquals(strategy.getSpinTransitionCount(), admin.getSpinTransitionCount());
+        assertEquals(strategy.getParkTransitionCount(), admin.getParkTransitionCount());
+    }
+
+    @Test
+    @SetSystemProperty(key = "AsyncLogger.WaitStrategy", value = "Adaptive")
+    public void testCreatedByDefaultFactory() {
+        assertTrue(new DefaultAsyncWaitStrategyFactory("AsyncLogger.WaitStrategy").createWaitStrategy()
+                instanceof AdaptiveWaitStrategy);
+    }
+
+    private void startConsumer(final AdaptiveWaitStrategy strategy) {
+        ringBuffer = RingBuffer.createMultiProducer(() -> new long[1], 1024, strategy);
+        barrier = ringBuffer.newBarrier();
+        consumed.set(-1);
+        ringBuffer.addGatingSequences(consumed);
+        consumer = new Thread(() -> {
+            long next = 0;
+            try {
+                while (true) {
+                    final long available = barrier.waitFor(next);
+                    consumed.set(available);
+                    next = available + 1;
+                }
+            } catch (final AlertException e) {
+                // stopped
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        consumer.start();
+    }
+
+    private long publish() {
+        final long sequence = ringBuffer.next();
+        ringBuffer.get(sequence)[0] = sequence;
+        ringBuffer.publish(sequence);
+        return sequence;
+    }
+
+    private void awaitConsumed(final long sequence) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (consumed.get() < sequence) {
+            assertTrue(System.nanoTime() - deadline < 0, "The consumer did not see the event");
+            Thread.sleep(1);
+        }
+    }
+}
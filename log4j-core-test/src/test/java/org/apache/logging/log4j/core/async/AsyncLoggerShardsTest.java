@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests AsyncLoggers with several ring buffers.
+ */
+@SetSystemProperty(key = "AsyncLogger.RingBufferShards", value = "4")
+@SetSystemProperty(key = "AsyncLogger.RingBufferSize", value = "1024")
+public class AsyncLoggerShardsTest {
+
+    private static final int THREADS = 8;
+    private static final int EVENTS_PER_THREAD = 500;
+
+    @Test
+    public void testEventsOfEachThreadStayInOrder() throws Exception {
+        final AsyncLoggerContext context = new AsyncLoggerContext("AsyncLoggerShardsTest", null,
+                getClass().getClassLoader().getResource("AsyncLoggerShardsTest.xml").toURI());
+        context.start();
+        final ListAppender app = context.getConfiguration().getAppender("List");
+        final AsyncLogger logger = (AsyncLogger) context.getLogger("AsyncLoggerShardsTest");
+        final AsyncLoggerDisruptor disruptor = logger.getAsyncLoggerDisruptor();
+        assertEquals(4, disruptor.getShardCount());
+        final RingBufferAdmin admin = disruptor.createRingBufferAdmin("AsyncLoggerShardsTest");
+        assertEquals(1024, admin.getBufferSize(), "The shards should share the configured size");
+
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                    logger.info("{}", j);
+                }
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        context.stop(10, TimeUnit.SECONDS);
+
+        final List<String> messages = app.getMessages();
+        assertEquals(THREADS * EVENTS_PER_THREAD, messages.size());
+        final Map<String, Integer> lastByThread = new HashMap<>();
+        for (final String message : messages) {
+            final String[] threadAndValue = message.split(" ");
+            final int value = Integer.parseInt(threadAndValue[1]);
+            final Integer last = lastByThread.put(threadAndValue[0], value);
+            assertEquals(last == null ? 0 : last + 1, value, "Events of one thread are out of order");
+        }
+        assertEquals(THREADS, lastByThread.size());
+    }
+}
@@ -39,6 +39,8 @@ public class AsyncQueueFullPolicyFactoryTest {
     public void resetProperties() throws Exception {
         System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_ASYNC_EVENT_ROUTER);
         System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_DISCARDING_THRESHOLD_LEVEL);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_LANES);
+        System.clearProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_SHED_WINDOW);
         PropertiesUtil.getProperties().reload();
     }
 
@@ -92,6 +94,24 @@ public class AsyncQueueFullPolicyFactoryTest {
         }
     }
 
+    @Test
+    public void testCreatePriorityRouterLanesCustomizable() throws Exception {
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_ASYNC_EVENT_ROUTER,
+                AsyncQueueFullPolicyFactory.PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER);
+        PriorityAsyncQueueFullPolicy router = (PriorityAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(0.9, router.getLimit(Level.WARN), 0);
+        assertEquals(0.5, router.getLimit(Level.ALL), 0);
+        assertEquals(PriorityAsyncQueueFullPolicy.DEFAULT_SHED_WINDOW, router.getShedWindow(), 0);
+
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_LANES, "info:0.7, bogus:0.1");
+        System.setProperty(AsyncQueueFullPolicyFactory.PROPERTY_NAME_PRIORITY_SHED_WINDOW, "0.2");
+        router = (PriorityAsyncQueueFullPolicy) AsyncQueueFullPolicyFactory.create();
+        assertEquals(1, router.getLimit(Level.WARN), 0);
+        assertEquals(0.7, router.getLimit(Level.INFO), 0);
+        assertEquals(0.7, router.getLimit(Level.TRACE), 0);
+        assertEquals(0.2, router.getShedWindow(), 0);
+    }
+
     static class CustomRouterDefaultConstructor implements AsyncQueueFullPolicy {
         public CustomRouterDefaultConstructor() {
         }
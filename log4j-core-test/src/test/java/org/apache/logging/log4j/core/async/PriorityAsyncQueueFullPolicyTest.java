@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.Map;
+
+import com.lmax.disruptor.RingBuffer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link PriorityAsyncQueueFullPolicy}.
+ */
+public class PriorityAsyncQueueFullPolicyTest {
+
+    private final PriorityAsyncQueueFullPolicy router = new PriorityAsyncQueueFullPolicy(
+            PriorityAsyncQueueFullPolicy.parseLanes(PriorityAsyncQueueFullPolicy.DEFAULT_LANES), 0.1);
+
+    @Test
+    public void testLimits() {
+        assertEquals(1, router.getLimit(Level.FATAL), 0);
+        assertEquals(1, router.getLimit(Level.ERROR), 0);
+        assertEquals(0.9, router.getLimit(Level.WARN), 0);
+        assertEquals(0.8, router.getLimit(Level.INFO), 0);
+        assertEquals(0.6, router.getLimit(Level.DEBUG), 0);
+        assertEquals(0.5, router.getLimit(Level.TRACE), 0);
+        assertEquals(0.5, router.getLimit(Level.ALL), 0);
+        assertEquals(0.8, router.getLimit(Level.forName("NOTICE", 450)), 0);
+    }
+
+    @Test
+    public void testReservesCapacityForLessVerboseLevels() {
+        // 95% occupied
+        assertTrue(router.isShed(Level.DEBUG, 50, 1000));
+        assertTrue(router.isShed(Level.INFO, 50, 1000));
+        assertTrue(router.isShed(Level.WARN, 50, 1000));
+        assertFalse(router.isShed(Level.ERROR, 50, 1000));
+        assertFalse(router.isShed(Level.ERROR, 0, 1000));
+        // 40% occupied
+        for (final Level level : Level.values()) {
+            assertFalse(router.isShed(level, 600, 1000), level.name());
+        }
+    }
+
+    @Test
+    public void testShedsAGrowingFractionInTheShedWindow() {
+        // INFO is shed between 70% and 80% occupancy
+        final int low = countShed(Level.INFO, 280, 1000);
+        final int high = countShed(Level.INFO, 220, 1000);
+        assertTrue(low > 0 && low < 10_000, "shed " + low);
+        assertTrue(high > low, "shed " + low + " then " + high);
+        assertEquals(0, countShed(Level.INFO, 310, 1000));
+    }
+
+    @Test
+    public void testGetRouteCountsDiscardsPerLevel() {
+        final long otherThreadId = -1;
+        assertEquals(EventRoute.ENQUEUE, router.getRoute(otherThreadId, Level.ERROR));
+        assertEquals(EventRoute.DISCARD, router.getRoute(otherThreadId, Level.WARN));
+        assertEquals(EventRoute.DISCARD, router.getRoute(otherThreadId, Level.DEBUG));
+        assertEquals(EventRoute.DISCARD, router.getRoute(otherThreadId, Level.DEBUG));
+        assertEquals(3, DiscardingAsyncQueueFullPolicy.getDiscardCount(router));
+
+        final Map<String, Long> counts = router.getDiscardCounts();
+        assertArrayEquals(new String[] {"WARN", "DEBUG"}, counts.keySet().toArray());
+        assertEquals(1, counts.get("WARN"));
+        assertEquals(2, counts.get("DEBUG"));
+
+        final RingBufferAdmin admin = RingBufferAdmin.forAsyncLogger(
+                new RingBuffer<?>[] {RingBuffer.createMultiProducer(() -> new Object(), 16)}, null, router,
+                "PriorityAsyncQueueFullPolicyTest");
+        assertEquals(3, admin.getDiscardCount());
+        assertEquals(counts, admin.getDiscardCounts());
+    }
+
+    @Test
+    public void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PriorityAsyncQueueFullPolicy(PriorityAsyncQueueFullPolicy.parseLanes("INFO:1.5"), 0.1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PriorityAsyncQueueFullPolicy(PriorityAsyncQueueFullPolicy.parseLanes("INFO:0.5"), -1));
+    }
+
+    private int countShed(final Level level, final long remainingCapacity, final long capacity) {
+        int result = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (router.isShed(level, remainingCapacity, capacity)) {
+                result++;
+            }
+        }
+        return result;
+    }
+}
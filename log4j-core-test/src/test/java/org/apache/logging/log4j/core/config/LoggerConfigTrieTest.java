@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.util.NameUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link LoggerConfigTrie}.
+ */
+public class LoggerConfigTrieTest {
+
+    private static final String[] NAMES = {"", "a", "a.b", "a.b.c", "a.", "a..b", ".", ".a", ".a.b", "b", "b.a",
+            "com.example.tenant42", "com.example.tenant42.Service"};
+
+    private final LoggerConfig root = new LoggerConfig();
+
+    @Test
+    public void testMatchesNameUtilWalk() {
+        final Map<String, LoggerConfig> configs = new HashMap<>();
+        for (final String name : new String[] {"a", "a.b.c", "a.", ".a", "com.example", "x..y"}) {
+            configs.put(name, new LoggerConfig(name, Level.INFO, true));
+        }
+        final LoggerConfigTrie trie = LoggerConfigTrie.build(configs);
+        for (final String name : NAMES) {
+            assertSame(walk(configs, name), trie.find(name, root), name);
+        }
+        for (final String name : new String[] {"x", "x.", "x..", "x..y", "x..y.z", "com.example.Foo", "com"}) {
+            assertSame(walk(configs, name), trie.find(name, root), name);
+        }
+    }
+
+    @Test
+    public void testEmptyNameConfig() {
+        final Map<String, LoggerConfig> configs = new HashMap<>();
+        final LoggerConfig empty = new LoggerConfig("", Level.INFO, true);
+        configs.put("", empty);
+        final LoggerConfigTrie trie = LoggerConfigTrie.build(configs);
+        assertSame(empty, trie.find("", root));
+        assertSame(empty, trie.find("a.b", root));
+        assertSame(root, LoggerConfigTrie.EMPTY.find("a.b", root));
+    }
+
+    @Test
+    public void testRandomNames() {
+        final Random random = new Random(42);
+        final Map<String, LoggerConfig> configs = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            final String name = randomName(random);
+            configs.put(name, new LoggerConfig(name, Level.INFO, true));
+        }
+        final LoggerConfigTrie trie = LoggerConfigTrie.build(configs);
+        for (int i = 0; i < 10000; i++) {
+            final String name = randomName(random);
+            assertSame(walk(configs, name), trie.find(name, root), name);
+        }
+    }
+
+    private static String randomName(final Random random) {
+        final StringBuilder sb = new StringBuilder();
+        final int length = random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            sb.append("ab.".charAt(random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The lookup AbstractConfiguration used before the trie.
+     */
+    private LoggerConfig walk(final Map<String, LoggerConfig> configs, final String loggerName) {
+        LoggerConfig loggerConfig = configs.get(loggerName);
+        if (loggerConfig != null) {
+            return loggerConfig;
+        }
+        String substr = loggerName;
+        while ((substr = NameUtil.getSubName(substr)) != null) {
+            loggerConfig = configs.get(substr);
+            if (loggerConfig != null) {
+                return loggerConfig;
+            }
+        }
+        return root;
+    }
+}
@@ -17,29 +17,96 @@
  */
 package org.apache.logging.log4j.core.filter;
 
-import org.junit.jupiter.api.Test;
-
-import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.greaterThan;
-import static org.hamcrest.Matchers.is;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
- * Unit test for <code>BurstFilter</code>.
+ * Unit test for how <code>BurstFilter</code> refills over time, driven by a manual clock.
  */
 public class BurstFilterLogDelayTest {
 
+    private final AtomicLong time = new AtomicLong();
+
+    private BurstFilter createFilter(final long startTime) {
+        time.set(startTime);
+        return BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(10)
+                .setMaxBurst(100)
+                .setNanoClock(time::get)
+                .build();
+    }
+
     @Test
-    public void testCompareToOverflow() {
-        // no overflow, but close
-        final Delayed d1 = BurstFilter.createLogDelay(Long.MAX_VALUE - TimeUnit.SECONDS.toNanos(10) - System.nanoTime());
+    public void testDelayRefillsTokens() {
+        final BurstFilter filter = createFilter(0);
+        assertEquals(100, count(filter, 110));
+        assertEquals(0, filter.getAvailable());
+        assertEquals(10, filter.getSuppressedCount());
+
+        sleep(1500);
+        assertEquals(15, filter.getAvailable());
+        assertEquals(15, count(filter, 110));
+        assertEquals(0, filter.getAvailable());
 
-        // Overflow
-        final Delayed d2 = BurstFilter.createLogDelay(Long.MAX_VALUE + TimeUnit.SECONDS.toNanos(10) - System.nanoTime());
+        // a long pause fills the bucket, but not beyond maxBurst
+        sleep(60_000);
+        assertEquals(100, filter.getAvailable());
+        assertEquals(100, count(filter, 110));
+        assertEquals(115, filter.getSuppressedCount());
+    }
 
-        assertThat(d2, is(greaterThan(d1)));
+    @Test
+    public void testPausesDuringBurstEarnTokens() {
+        final BurstFilter filter = createFilter(0);
+        int accepted = 0;
+        for (int i = 0; i < 150; i++) {
+            if (i > 0 && i % 10 == 0) {
+                sleep(200);
+            }
+            accepted += count(filter, 1);
+        }
+        // the burst of 100, plus 2 tokens for each of the 14 pauses
+        assertEquals(128, accepted);
+        assertEquals(22, filter.getSuppressedCount());
     }
 
+    @Test
+    public void testCompareToOverflow() {
+        final BurstFilter filter = createFilter(Long.MAX_VALUE - TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(100, count(filter, 110));
+        // the clock overflows
+        sleep(1000);
+        assertEquals(10, filter.getAvailable());
+        assertEquals(10, count(filter, 110));
+        sleep(20_000);
+        assertEquals(100, filter.getAvailable());
+    }
+
+    private void sleep(final long millis) {
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static int count(final BurstFilter filter, final int events) {
+        int accepted = 0;
+        for (int i = 0; i < events; i++) {
+            final LogEvent event = Log4jLogEvent.newBuilder()
+                    .setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage("event " + i))
+                    .build();
+            if (filter.filter(event) == Filter.Result.NEUTRAL) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
 }
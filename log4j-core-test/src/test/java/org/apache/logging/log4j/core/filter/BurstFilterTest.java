@@ -18,12 +18,20 @@
 package org.apache.logging.log4j.core.filter;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.test.appender.ListAppender;
 import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
 import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,16 +60,15 @@ public class BurstFilterTest {
      */
     @Test
     public void test() throws Exception {
-        System.nanoTime();
         for (int i = 0; i < 110; i++) {
-            if (i % 10 == 0) {
-                Thread.sleep(200);
-            }
             logger.info("Logging 110 messages, should only see 100 logs # " + (i + 1));
             assertTrue(filter.getAvailable() < 100, "Incorrect number of available slots");
         }
         List<String> msgs = app.getMessages();
-        assertEquals(100, msgs.size(), "Incorrect message count. Should be 100, actual " + msgs.size());
+        // the bucket refills 33 tokens per second, a slow loop may earn one or two
+        assertTrue(msgs.size() >= 100 && msgs.size() <= 102,
+                "Incorrect message count. Should be 100, actual " + msgs.size());
+        assertEquals(110 - msgs.size(), filter.getSuppressedCount());
         app.clear();
 
         assertTrue(filter.getAvailable() < 100, "Incorrect number of available slots");
@@ -134,4 +141,92 @@ public class BurstFilterTest {
         app.clear();
 
     }
+
+    @Test
+    public void testBucketPerLevel() {
+        final BurstFilter levelFilter = BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(1)
+                .setMaxBurst(10)
+                .setKey(BurstFilter.Key.LEVEL)
+                .build();
+        assertEquals(10, count(levelFilter, Level.INFO, "a", 20));
+        assertEquals(10, count(levelFilter, Level.DEBUG, "a", 20));
+        assertEquals(20, levelFilter.getSuppressedCount());
+    }
+
+    @Test
+    public void testBucketPerLogger() {
+        final BurstFilter loggerFilter = BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(1)
+                .setMaxBurst(10)
+                .setKey(BurstFilter.Key.LOGGER)
+                .build();
+        assertEquals(10, count(loggerFilter, Level.INFO, "a", 20));
+        assertEquals(0, count(loggerFilter, Level.DEBUG, "a", 5));
+        assertEquals(10, count(loggerFilter, Level.INFO, "b", 20));
+        assertEquals(0, loggerFilter.getAvailable());
+        loggerFilter.clear();
+        assertEquals(10, loggerFilter.getAvailable());
+    }
+
+    @Test
+    public void testBucketsPerLoggerAreBounded() {
+        final AtomicLong time = new AtomicLong();
+        final BurstFilter loggerFilter = BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(1)
+                .setMaxBurst(1)
+                .setKey(BurstFilter.Key.LOGGER)
+                .setNanoClock(time::get)
+                .build();
+        for (int i = 0; i < BurstFilter.MAX_BUCKETS; i++) {
+            assertEquals(1, count(loggerFilter, Level.INFO, "logger" + i, 2));
+        }
+        // no bucket is full, so new loggers share the overflow bucket
+        assertEquals(1, count(loggerFilter, Level.INFO, "a", 2));
+        assertEquals(0, count(loggerFilter, Level.INFO, "b", 2));
+        // once the buckets are full again, they make room for new loggers
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, count(loggerFilter, Level.INFO, "a", 2));
+        assertEquals(1, count(loggerFilter, Level.INFO, "b", 2));
+        assertEquals(BurstFilter.MAX_BUCKETS + 5, loggerFilter.getSuppressedCount());
+    }
+
+    @Test
+    public void testConcurrentFiltersNeverExceedBurst() throws Exception {
+        final BurstFilter sharedFilter = BurstFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(1)
+                .setMaxBurst(1000)
+                .build();
+        final AtomicInteger accepted = new AtomicInteger();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> accepted.addAndGet(count(sharedFilter, Level.INFO, "a", 1000)));
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(accepted.get() >= 1000 && accepted.get() <= 1010, "Accepted " + accepted.get());
+        assertEquals(4000 - accepted.get(), sharedFilter.getSuppressedCount());
+    }
+
+    private static int count(final BurstFilter burstFilter, final Level level, final String loggerName,
+            final int events) {
+        int accepted = 0;
+        for (int i = 0; i < events; i++) {
+            final LogEvent event = Log4jLogEvent.newBuilder()
+                    .setLoggerName(loggerName)
+                    .setLevel(level)
+                    .setMessage(new SimpleMessage("event " + i))
+                    .build();
+            if (burstFilter.filter(event) == Filter.Result.NEUTRAL) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link ExtendedStackTraceCache}.
+ */
+public class ExtendedStackTraceCacheTest {
+
+    @BeforeEach
+    public void setUp() {
+        ExtendedStackTraceCache.clear();
+    }
+
+    @Test
+    public void testRepeatedExceptionsHitCache() {
+        ThrowableProxy first = null;
+        for (int i = 0; i < 3; i++) {
+            final ThrowableProxy proxy = new ThrowableProxy(fail());
+            if (first == null) {
+                first = proxy;
+            } else {
+                assertArrayEquals(first.getExtendedStackTrace(), proxy.getExtendedStackTrace());
+                assertEquals(first.getCommonElementCount(), proxy.getCommonElementCount());
+                assertEquals(first.getCauseProxy().getCommonElementCount(),
+                        proxy.getCauseProxy().getCommonElementCount());
+            }
+        }
+        // the exception and its cause
+        assertEquals(2, ExtendedStackTraceCache.getMissCount());
+        assertEquals(4, ExtendedStackTraceCache.getHitCount());
+        assertEquals(2, ExtendedStackTraceCache.getSize());
+    }
+
+    @Test
+    public void testCachedResultMatchesResolvedResult() {
+        final Throwable throwable = fail();
+        final ThrowableProxy resolved = new ThrowableProxy(throwable);
+        final ThrowableProxy cached = new ThrowableProxy(throwable);
+        assertEquals(2, ExtendedStackTraceCache.getHitCount());
+        assertEquals(resolved.getExtendedStackTraceAsString(), cached.getExtendedStackTraceAsString());
+    }
+
+    @Test
+    public void testCachedArrayIsNotShared() {
+        final Throwable throwable = fail();
+        final ThrowableProxy first = new ThrowableProxy(throwable);
+        final ThrowableProxy second = new ThrowableProxy(throwable);
+        assertNotSame(first.getExtendedStackTrace(), second.getExtendedStackTrace());
+        first.getExtendedStackTrace()[0] = null;
+        assertNotNull(new ThrowableProxy(throwable).getExtendedStackTrace()[0]);
+    }
+
+    @Test
+    public void testStackTracesAreCachedPerClassLoader() throws IOException {
+        final Throwable throwable = fail();
+        new ThrowableProxy(throwable);
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextClassLoader = thread.getContextClassLoader();
+        try (final URLClassLoader otherLoader = new URLClassLoader(new URL[0], contextClassLoader)) {
+            thread.setContextClassLoader(otherLoader);
+            new ThrowableProxy(throwable);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        // another application may resolve the same frames to other jars
+        assertEquals(4, ExtendedStackTraceCache.getMissCount());
+        assertEquals(0, ExtendedStackTraceCache.getHitCount());
+        assertEquals(4, ExtendedStackTraceCache.getSize());
+        new ThrowableProxy(throwable);
+        assertEquals(2, ExtendedStackTraceCache.getHitCount());
+    }
+
+    @Test
+    public void testCacheOfLastClassLoaderIsReused() throws IOException {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextClassLoader = thread.getContextClassLoader();
+        final Object cache = ExtendedStackTraceCache.getCache();
+        assertSame(cache, ExtendedStackTraceCache.getCache());
+        try (final URLClassLoader otherLoader = new URLClassLoader(new URL[0], contextClassLoader)) {
+            thread.setContextClassLoader(otherLoader);
+            assertNotSame(cache, ExtendedStackTraceCache.getCache());
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+        assertSame(cache, ExtendedStackTraceCache.getCache());
+    }
+
+    private static Throwable fail() {
+        try {
+            throw new IllegalStateException("test", new IOException("cause"));
+        } catch (final IllegalStateException e) {
+            return e;
+        }
+    }
+}
@@ -20,10 +20,15 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.VirtualThreads;
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -119,6 +124,34 @@ public class ReusableLogEventFactoryTest {
         ReusableLogEventFactory.release(event2.get());
     }
 
+    @Test
+    @EnabledIf("org.apache.logging.log4j.test.VirtualThreads#isSupported")
+    public void testVirtualThreadsUsePooledEvents() throws Exception {
+        final ReusableLogEventFactory factory = new ReusableLogEventFactory();
+        VirtualThreads.call(() -> {
+            final Thread thread = Thread.currentThread();
+            thread.setName("virtual");
+            final LogEvent event1 = callCreateEvent(factory, "a", Level.DEBUG, new SimpleMessage("abc"), null);
+            final LogEvent event2 = callCreateEvent(factory, "b", Level.INFO, new SimpleMessage("xyz"), null);
+            assertNotSame(event1, event2);
+            assertTrue(((MutableLogEvent) event1).pooled, "pooled");
+            assertEquals("virtual", event1.getThreadName(), "thread name");
+            assertEquals(thread.getId(), event1.getThreadId(), "tid");
+            ReusableLogEventFactory.release(event1);
+            ReusableLogEventFactory.release(event2);
+
+            // taking all pooled events returns the released ones
+            final List<LogEvent> pooled = new ArrayList<>();
+            for (int i = 0; i < BoundedObjectPool.DEFAULT_CAPACITY; i++) {
+                pooled.add(callCreateEvent(factory, "c", Level.INFO, new SimpleMessage("123"), null));
+            }
+            assertTrue(pooled.stream().anyMatch(event -> event == event1), "event1 was pooled");
+            assertTrue(pooled.stream().anyMatch(event -> event == event2), "event2 was pooled");
+            pooled.forEach(ReusableLogEventFactory::release);
+            return null;
+        });
+    }
+
     @SuppressWarnings("deprecation")
     @Test
     public void testCreateEventInitFieldsProperly() throws Exception {
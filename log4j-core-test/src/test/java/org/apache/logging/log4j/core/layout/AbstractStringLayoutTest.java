@@ -16,16 +16,23 @@ package org.apache.logging.log4j.core.layout;/*
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.DefaultConfiguration;
 import org.apache.logging.log4j.core.layout.AbstractStringLayout.Serializer;
 import org.apache.logging.log4j.core.layout.PatternLayout.SerializerBuilder;
+import org.apache.logging.log4j.test.VirtualThreads;
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
 
 /**
  * Tests AbstractStringLayout.
@@ -48,6 +55,10 @@ public class AbstractStringLayoutTest {
             return AbstractStringLayout.getStringBuilder();
         }
 
+        public static void releaseStringBuilder(final StringBuilder stringBuilder) {
+            AbstractStringLayout.releaseStringBuilder(stringBuilder);
+        }
+
         @Override
         public String toSerializable(final LogEvent event) {
             return null;
@@ -87,6 +98,35 @@ public class AbstractStringLayoutTest {
         assertEquals(0, sb3.length(), "empty, ready for use");
     }
 
+    @Test
+    @EnabledIf("org.apache.logging.log4j.test.VirtualThreads#isSupported")
+    public void testVirtualThreadsUsePooledStringBuilders() throws Exception {
+        final StringBuilder platformThreadBuilder = ConcreteStringLayout.getStringBuilder();
+        VirtualThreads.call(() -> {
+            final StringBuilder sb = ConcreteStringLayout.getStringBuilder();
+            assertNotSame(platformThreadBuilder, sb, "not the thread-local builder");
+            final StringBuilder sb2 = ConcreteStringLayout.getStringBuilder();
+            assertNotSame(sb, sb2, "not shared before release");
+            sb.append(new char[ConcreteStringLayout.MAX_STRING_BUILDER_SIZE * 2]);
+            ConcreteStringLayout.releaseStringBuilder(sb);
+            ConcreteStringLayout.releaseStringBuilder(sb2);
+
+            // taking all pooled builders returns the released ones, trimmed and empty
+            final List<StringBuilder> pooled = new ArrayList<>();
+            for (int i = 0; i < BoundedObjectPool.DEFAULT_CAPACITY; i++) {
+                pooled.add(ConcreteStringLayout.getStringBuilder());
+            }
+            final StringBuilder reused = pooled.stream().filter(builder -> builder == sb).findAny().orElse(null);
+            assertSame(sb, reused, "sb was pooled");
+            assertEquals(0, reused.length(), "empty, ready for use");
+            assertEquals(ConcreteStringLayout.MAX_STRING_BUILDER_SIZE, reused.capacity(),
+                    "capacity, trimmed to MAX_STRING_BUILDER_SIZE");
+            assertTrue(pooled.stream().anyMatch(builder -> builder == sb2), "sb2 was pooled");
+            pooled.forEach(ConcreteStringLayout::releaseStringBuilder);
+            return null;
+        });
+    }
+
     @Test
     public void testNullConfigurationIsAllowed() {
         try {
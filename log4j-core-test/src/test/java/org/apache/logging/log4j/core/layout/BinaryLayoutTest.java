@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.async.RingBufferLogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.core.impl.ReusableLogEventFactory;
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.core.time.internal.FixedPreciseClock;
+import org.apache.logging.log4j.core.util.DummyNanoClock;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.apache.logging.log4j.spi.MutableThreadContextStack;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link BinaryLayout} and {@link BinaryLogEventReader}.
+ */
+public class BinaryLayoutTest {
+
+    private static final String PATTERN = "%d{UNIX_MILLIS}.%d{nnnnnn} %p %c %marker [%t %T %tp] %X %x - %m %l%n%ex";
+
+    private final BinaryLayout layout = BinaryLayout.newBuilder().setLocationInfo(true).build();
+
+    private final PatternLayout patternLayout = PatternLayout.newBuilder().withPattern(PATTERN).build();
+
+    private static LogEvent createEvent(final Message message, final Throwable thrown) {
+        final Marker marker = MarkerManager.getMarker("BinaryLayoutTest.CHILD")
+                .setParents(MarkerManager.getMarker("BinaryLayoutTest.PARENT"));
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("user", "Zoë");
+        contextData.putValue("attempt", 3);
+        contextData.putValue("missing", null);
+        final MutableInstant instant = new MutableInstant();
+        instant.initFromEpochMilli(1_600_000_000_123L, 456_789);
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("org.example.Service")
+                .setLoggerFqcn("org.example.Logger")
+                .setLevel(Level.WARN)
+                .setMarker(marker)
+                .setMessage(message)
+                .setThrown(thrown)
+                .setContextData(contextData)
+                .setContextStack(new MutableThreadContextStack(Arrays.asList("request", "step")))
+                .setThreadName("worker-1")
+                .setThreadId(42)
+                .setThreadPriority(7)
+                .setSource(new StackTraceElement("org.example.Service", "handle", "Service.java", 17))
+                .setInstant(instant)
+                .build();
+    }
+
+    private List<LogEvent> roundTrip(final LogEvent... events) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(layout.getHeader());
+        for (final LogEvent event : events) {
+            output.write(layout.toByteArray(event));
+        }
+        return readAll(output.toByteArray());
+    }
+
+    private static List<LogEvent> readAll(final byte[] bytes) throws IOException {
+        final List<LogEvent> events = new ArrayList<>();
+        try (final BinaryLogEventReader reader = new BinaryLogEventReader(new ByteArrayInputStream(bytes))) {
+            LogEvent event;
+            while ((event = reader.read()) != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private void assertSameRendering(final LogEvent expected, final LogEvent actual) {
+        // the modules of stack trace elements are not written
+        assertEquals(patternLayout.toSerializable(expected).replaceAll("\tat [^\\s(/]+/", "\tat "),
+                patternLayout.toSerializable(actual));
+    }
+
+    @Test
+    public void testParameterizedMessage() throws IOException {
+        final Object[] parameters = {"text", 1, 2L, 3.5, 4.25f, true, (short) 5, (byte) 6, 'c', null,
+                new int[] {7, 8}, new Date(0), new StringBuilder("builder")};
+        final LogEvent event = createEvent(new ParameterizedMessage(
+                "{} {} {} {} {} {} {} {} {} {} {} {} {}", parameters), null);
+
+        final LogEvent decoded = roundTrip(event).get(0);
+
+        final Message message = decoded.getMessage();
+        assertTrue(message instanceof ParameterizedMessage);
+        assertEquals("{} {} {} {} {} {} {} {} {} {} {} {} {}", message.getFormat());
+        final Object[] decodedParameters = message.getParameters();
+        assertArrayEquals(Arrays.copyOf(parameters, 10), Arrays.copyOf(decodedParameters, 10));
+        assertEquals("[7, 8]", decodedParameters[10]);
+        assertEquals("builder", decodedParameters[12]);
+        assertEquals(event.getMessage().getFormattedMessage(), message.getFormattedMessage());
+        assertEquals(event.getInstant(), decoded.getInstant());
+        assertEquals(Level.WARN, decoded.getLevel());
+        assertEquals("org.example.Service", decoded.getLoggerName());
+        assertEquals("BinaryLayoutTest.CHILD", decoded.getMarker().getName());
+        assertTrue(decoded.getMarker().isInstanceOf("BinaryLayoutTest.PARENT"));
+        assertEquals(event.getContextData().toMap(), decoded.getContextData().toMap());
+        assertEquals(Integer.valueOf(3), decoded.getContextData().getValue("attempt"));
+        assertEquals(Arrays.asList("request", "step"), decoded.getContextStack().asList());
+        assertEquals("worker-1", decoded.getThreadName());
+        assertEquals(42, decoded.getThreadId());
+        assertEquals(7, decoded.getThreadPriority());
+        assertEquals(event.getSource(), decoded.getSource());
+        assertSameRendering(event, decoded);
+    }
+
+    @Test
+    public void testReusableMessage() throws IOException {
+        final ReusableMessageFactory factory = new ReusableMessageFactory();
+        final Message message = factory.newMessage("Sent {} bytes to {}", 1024, "server");
+        final LogEvent event = createEvent(message, null);
+
+        final LogEvent decoded = roundTrip(event).get(0);
+
+        assertEquals("Sent {} bytes to {}", decoded.getMessage().getFormat());
+        assertArrayEquals(new Object[] {1024, "server"}, decoded.getMessage().getParameters());
+        assertSameRendering(event, decoded);
+        ReusableMessageFactory.release(message);
+    }
+
+    @Test
+    public void testMutableLogEvent() throws IOException {
+        final ReusableMessageFactory messageFactory = new ReusableMessageFactory();
+        final Message message = messageFactory.newMessage("Sent {} bytes to {}", 1024, "server");
+        final LogEvent event = new ReusableLogEventFactory().createEvent("org.example.Service", null,
+                "org.example.Logger", Level.WARN, message, null, null);
+        ReusableMessageFactory.release(message);
+        assertTrue(event instanceof MutableLogEvent);
+
+        final LogEvent decoded = roundTrip(event).get(0);
+
+        assertTrue(decoded.getMessage() instanceof ParameterizedMessage);
+        assertEquals("Sent {} bytes to {}", decoded.getMessage().getFormat());
+        assertArrayEquals(new Object[] {1024, "server"}, decoded.getMessage().getParameters());
+        assertEquals("Sent 1024 bytes to server", decoded.getMessage().getFormattedMessage());
+        assertSameRendering(event, decoded);
+        ReusableLogEventFactory.release(event);
+    }
+
+    @Test
+    public void testRingBufferLogEvent() throws IOException {
+        final ReusableMessageFactory messageFactory = new ReusableMessageFactory();
+        final Message message = messageFactory.newMessage("Sent {} bytes to {}", 1024, "server");
+        final RingBufferLogEvent event = new RingBufferLogEvent();
+        event.setValues(null, "org.example.Service", null, "org.example.Logger", Level.WARN, message, null,
+                (StringMap) event.getContextData(), new MutableThreadContextStack(Arrays.asList("request", "step")),
+                42, "worker-1", 7, null, new FixedPreciseClock(1600000000123L, 456000), new DummyNanoClock(1));
+        ReusableMessageFactory.release(message);
+
+        final LogEvent decoded = roundTrip(event).get(0);
+
+        assertTrue(decoded.getMessage() instanceof ParameterizedMessage);
+        assertEquals("Sent {} bytes to {}", decoded.getMessage().getFormat());
+        assertArrayEquals(new Object[] {1024, "server"}, decoded.getMessage().getParameters());
+        assertEquals("Sent 1024 bytes to server", decoded.getMessage().getFormattedMessage());
+        assertSameRendering(event, decoded);
+    }
+
+    @Test
+    public void testReusableObjectMessageIsWrittenAsText() throws IOException {
+        final ReusableMessageFactory messageFactory = new ReusableMessageFactory();
+        final Message message = messageFactory.newMessage((Object) "braces {} in an object");
+        final LogEvent event = new ReusableLogEventFactory().createEvent("org.example.Service", null,
+                "org.example.Logger", Level.WARN, message, null, null);
+        ReusableMessageFactory.release(message);
+
+        final LogEvent decoded = roundTrip(event).get(0);
+
+        assertTrue(decoded.getMessage() instanceof SimpleMessage);
+        assertEquals("braces {} in an object", decoded.getMessage().getFormattedMessage());
+        ReusableLogEventFactory.release(event);
+    }
+
+    @Test
+    public void testOtherMessagesAreWrittenAsText() throws IOException {
+        final StringMapMessage mapMessage = new StringMapMessage().with("key", "value");
+        final LogEvent event = createEvent(mapMessage, null);
+        final LogEvent simpleEvent = createEvent(new SimpleMessage("surrogate pair 😀 and lone \ud83d"), null);
+
+        final List<LogEvent> decoded = roundTrip(event, simpleEvent);
+
+        assertTrue(decoded.get(0).getMessage() instanceof SimpleMessage);
+        assertEquals(mapMessage.getFormattedMessage(), decoded.get(0).getMessage().getFormattedMessage());
+        assertEquals("surrogate pair 😀 and lone ?", decoded.get(1).getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testThrowable() throws IOException {
+        final IllegalStateException thrown = new IllegalStateException("failed", new FileNotFoundException("a.txt"));
+        thrown.addSuppressed(new IOException("suppressed"));
+        final LogEvent event = createEvent(new SimpleMessage("Failure"), thrown);
+
+        final LogEvent decoded = roundTrip(event).get(0);
+
+        final Throwable decodedThrown = decoded.getThrown();
+        // only stand-ins are created, no class named in the log is instantiated
+        assertNotEquals(IllegalStateException.class, decodedThrown.getClass());
+        assertEquals(thrown.toString(), decodedThrown.toString());
+        assertEquals("failed", decodedThrown.getMessage());
+        assertStackTraceEquals(thrown.getStackTrace(), decodedThrown.getStackTrace());
+        assertEquals(thrown.getCause().toString(), decodedThrown.getCause().toString());
+        assertEquals(thrown.getSuppressed()[0].toString(), decodedThrown.getSuppressed()[0].toString());
+        assertSameRendering(event, decoded);
+    }
+
+    @Test
+    public void testThrowableStandIn() throws IOException {
+        final CustomException thrown = new CustomException("custom");
+        final LogEvent event = createEvent(new SimpleMessage("Failure"), thrown);
+
+        final Throwable decodedThrown = roundTrip(event).get(0).getThrown();
+
+        // a stand-in keeps the name of the class
+        assertEquals(CustomException.class.getName() + ": custom", decodedThrown.toString());
+        assertStackTraceEquals(thrown.getStackTrace(), decodedThrown.getStackTrace());
+    }
+
+    private static void assertStackTraceEquals(final StackTraceElement[] expected, final StackTraceElement[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getClassName(), actual[i].getClassName());
+            assertEquals(expected[i].getMethodName(), actual[i].getMethodName());
+            assertEquals(expected[i].getFileName(), actual[i].getFileName());
+            assertEquals(expected[i].getLineNumber(), actual[i].getLineNumber());
+        }
+    }
+
+    @Test
+    public void testEncode() throws IOException {
+        final LogEvent first = createEvent(new ParameterizedMessage("first {}", "event"), null);
+        final LogEvent second = createEvent(new SimpleMessage("second event"), new IllegalArgumentException());
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(64, 1 << 16);
+        destination.writeBytes(layout.getHeader(), 0, layout.getHeader().length);
+        layout.encode(first, destination);
+        // a second log appended to the first one
+        destination.writeBytes(layout.getHeader(), 0, layout.getHeader().length);
+        layout.encode(second, destination);
+        destination.drain(destination.getByteBuffer());
+
+        final List<LogEvent> decoded = readAll(Arrays.copyOf(destination.drained.array(),
+                destination.drained.position()));
+
+        assertEquals(2, decoded.size());
+        assertSameRendering(first, decoded.get(0));
+        assertSameRendering(second, decoded.get(1));
+    }
+
+    @Test
+    public void testTruncatedLog() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(layout.getHeader());
+        output.write(layout.toByteArray(createEvent(new SimpleMessage("complete"), null)));
+        final byte[] truncated = layout.toByteArray(createEvent(new SimpleMessage("truncated"), null));
+        output.write(truncated, 0, truncated.length / 2);
+
+        try (final BinaryLogEventReader reader = new BinaryLogEventReader(
+                new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals("complete", reader.read().getMessage().getFormattedMessage());
+            assertThrows(EOFException.class, reader::read);
+        }
+    }
+
+    @Test
+    public void testNotBinaryLog() {
+        assertThrows(IOException.class, () -> new BinaryLogEventReader(new ByteArrayInputStream(
+                "2020-09-13 WARN Not binary".getBytes())));
+    }
+
+    private static class CustomException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        CustomException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -19,10 +19,13 @@ package org.apache.logging.log4j.core.layout;
 import static net.javacrumbs.jsonunit.JsonAssert.assertJsonEquals;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.InflaterInputStream;
@@ -35,6 +38,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.GelfLayout.CompressionType;
 import org.apache.logging.log4j.core.lookup.JavaLookup;
 import org.apache.logging.log4j.core.test.BasicConfigurationFactory;
@@ -42,11 +46,16 @@ import org.apache.logging.log4j.core.test.appender.EncodingListAppender;
 import org.apache.logging.log4j.core.test.appender.ListAppender;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.core.util.NetUtils;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.VirtualThreads;
 import org.apache.logging.log4j.test.junit.UsingAnyThreadContext;
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.apache.logging.log4j.util.Chars;
+import org.apache.logging.log4j.util.Strings;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
 
 import com.fasterxml.jackson.core.io.JsonStringEncoder;
 
@@ -286,6 +295,36 @@ public class GelfLayoutTest {
         testCompressedLayout(CompressionType.OFF, true, true, HOSTNAME, false, true);
     }
 
+    @Test
+    public void testEncodeCompressesIntoSmallBuffers() throws IOException {
+        for (final CompressionType compressionType : new CompressionType[] {CompressionType.GZIP, CompressionType.ZLIB}) {
+            final GelfLayout layout = GelfLayout.newBuilder()
+                    .setHost(HOSTNAME)
+                    .setCompressionType(compressionType)
+                    .build();
+            final LogEvent event = Log4jLogEvent.newBuilder()
+                    .setLoggerName("test")
+                    .setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage(Strings.repeat("large message ", 1000)))
+                    .build();
+            // the same thread-local deflater is reused for each event
+            for (int i = 0; i < 3; i++) {
+                final SpyByteBufferDestination destination = new SpyByteBufferDestination(64, 64 * 1024);
+                layout.encode(event, destination);
+                destination.drain(destination.getByteBuffer());
+                final byte[] compressed = new byte[destination.drained.position()];
+                destination.drained.flip();
+                destination.drained.get(compressed);
+                final InputStream inflaterStream = compressionType == CompressionType.GZIP
+                        ? new GZIPInputStream(new ByteArrayInputStream(compressed))
+                        : new InflaterInputStream(new ByteArrayInputStream(compressed));
+                assertEquals(layout.toSerializable(event),
+                        new String(IOUtils.toByteArray(inflaterStream), layout.getCharset()));
+                assertThat(compressed.length).isLessThan(layout.toSerializable(event).length() / 10);
+            }
+        }
+    }
+
     @Test
     public void testFormatTimestamp() {
         assertEquals("0", GelfLayout.formatTimestamp(0L).toString());
@@ -306,6 +345,31 @@ public class GelfLayoutTest {
         assertEquals(layout.requiresLocation(), requiresLocation);
     }
 
+    @Test
+    @EnabledIf("org.apache.logging.log4j.test.VirtualThreads#isSupported")
+    public void testVirtualThreadsUsePooledCompressors() throws Exception {
+        VirtualThreads.call(() -> {
+            final GelfCompressor compressor = GelfCompressor.acquire(CompressionType.GZIP);
+            final GelfCompressor other = GelfCompressor.acquire(CompressionType.GZIP);
+            assertNotSame(compressor, other, "not shared before release");
+            compressor.writeBytes(new byte[] {1, 2, 3}, 0, 3);
+            compressor.release();
+            other.release();
+
+            // taking all pooled compressors returns the released ones, reset
+            final List<GelfCompressor> pooled = new ArrayList<>();
+            for (int i = 0; i < BoundedObjectPool.DEFAULT_CAPACITY; i++) {
+                pooled.add(GelfCompressor.acquire(CompressionType.GZIP));
+            }
+            final GelfCompressor reused = pooled.stream().filter(c -> c == compressor).findAny().orElse(null);
+            assertSame(compressor, reused, "compressor was pooled");
+            assertEquals(0, reused.size(), "empty input");
+            assertThat(pooled).anyMatch(c -> c == other);
+            pooled.forEach(GelfCompressor::release);
+            return null;
+        });
+    }
+
     @Test
     public void testRequiresLocationPatternNotSet() {
         testRequiresLocation(null, false);
@@ -19,7 +19,9 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
+import org.apache.logging.log4j.test.VirtualThreads;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -300,6 +302,28 @@ public class StringBuilderEncoderTest {
         // no error
     }
 
+    @Test
+    @EnabledIf("org.apache.logging.log4j.test.VirtualThreads#isSupported")
+    public void testEncodeText_VirtualThreadsReusePooledState() throws Exception {
+        final StringBuilderEncoder helper = new StringBuilderEncoder(StandardCharsets.UTF_8, 4, 8 * 1024);
+        final StringBuilder text = new StringBuilder( // 日本語テスト文章
+                "\u65e5\u672c\u8a9e\u30c6\u30b9\u30c8\u6587\u7ae0");
+        final byte[] utf8 = text.toString().getBytes(StandardCharsets.UTF_8);
+        // each virtual thread takes the state released by the previous one
+        for (int run = 0; run < 3; run++) {
+            final SpyByteBufferDestination destination = new SpyByteBufferDestination(50, 50);
+            VirtualThreads.call(() -> {
+                helper.encode(text, destination);
+                return null;
+            });
+            destination.drain(destination.getByteBuffer());
+            assertEquals(utf8.length, destination.drained.position(), "drained bytes in run " + run);
+            for (int i = 0; i < utf8.length; i++) {
+                assertEquals(utf8[i], destination.drained.get(i), "byte at " + i + " in run " + run);
+            }
+        }
+    }
+
     private StringBuilder createText(final int length) {
         final StringBuilder result = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
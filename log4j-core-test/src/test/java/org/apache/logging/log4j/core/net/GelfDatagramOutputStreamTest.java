@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.ByteArrayOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link GelfDatagramOutputStream}.
+ */
+public class GelfDatagramOutputStreamTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private DatagramSocket receiver;
+    private GelfDatagramOutputStream stream;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        receiver = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        receiver.setSoTimeout(5000);
+        stream = new GelfDatagramOutputStream(InetAddress.getLoopbackAddress().getHostAddress(),
+                receiver.getLocalPort(), null, null, CHUNK_SIZE);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        stream.close();
+        receiver.close();
+    }
+
+    @Test
+    public void testSendsSmallMessagesInOneDatagram() throws Exception {
+        final byte[] message = message(CHUNK_SIZE);
+        stream.write(message);
+        stream.flush();
+        assertArrayEquals(message, receive());
+    }
+
+    @Test
+    public void testChunksLargeMessages() throws Exception {
+        final byte[] message = message(3 * (CHUNK_SIZE - GelfDatagramOutputStream.CHUNK_HEADER_SIZE) + 1);
+        stream.write(message, 0, 1000);
+        stream.write(message, 1000, message.length - 1000);
+        stream.flush();
+
+        final ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+        byte[] messageId = null;
+        for (int i = 0; i < 4; i++) {
+            final byte[] chunk = receive();
+            assertTrue(chunk.length <= CHUNK_SIZE);
+            assertEquals(0x1e, chunk[0]);
+            assertEquals(0x0f, chunk[1]);
+            final byte[] id = Arrays.copyOfRange(chunk, 2, 10);
+            if (messageId == null) {
+                messageId = id;
+            }
+            assertArrayEquals(messageId, id);
+            assertEquals(i, chunk[10]);
+            assertEquals(4, chunk[11]);
+            reassembled.write(chunk, GelfDatagramOutputStream.CHUNK_HEADER_SIZE,
+                    chunk.length - GelfDatagramOutputStream.CHUNK_HEADER_SIZE);
+        }
+        assertArrayEquals(message, reassembled.toByteArray());
+    }
+
+    @Test
+    public void testDropsMessagesWithTooManyChunks() throws Exception {
+        stream.write(message(GelfDatagramOutputStream.MAX_CHUNKS * CHUNK_SIZE));
+        stream.flush();
+        assertThrows(SocketTimeoutException.class, () -> {
+            receiver.setSoTimeout(200);
+            receive();
+        });
+    }
+
+    private byte[] receive() throws Exception {
+        final DatagramPacket packet = new DatagramPacket(new byte[CHUNK_SIZE * 2], CHUNK_SIZE * 2);
+        receiver.receive(packet);
+        return Arrays.copyOf(packet.getData(), packet.getLength());
+    }
+
+    private static byte[] message(final int length) {
+        final byte[] result = new byte[length];
+        new Random(length).nextBytes(result);
+        return result;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.net.NioTcpSocketManager.HighWaterMarkPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link NioTcpSocketManager}.
+ */
+public class NioTcpSocketManagerTest {
+
+    private static final int RECONNECT_MILLIS = 50;
+
+    @Test
+    public void testEventsQueuedWhileDisconnectedAreSent() throws Exception {
+        final int port = freePort();
+        final NioTcpSocketManager manager = createManager(port, 0, HighWaterMarkPolicy.DROP);
+        try {
+            for (int i = 0; i < 100; i++) {
+                write(manager, "m" + i);
+            }
+            assertFalse(manager.isConnected());
+            try (final ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+                server.setSoTimeout(10_000);
+                try (final Socket socket = server.accept()) {
+                    final List<String> lines = readLines(socket, 100);
+                    for (int i = 0; i < 100; i++) {
+                        assertEquals("m" + i, lines.get(i));
+                    }
+                }
+            }
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testReconnectsAfterConnectionLoss() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(10_000);
+            final NioTcpSocketManager manager = createManager(server.getLocalPort(), 0, HighWaterMarkPolicy.DROP);
+            try {
+                try (final Socket socket = server.accept()) {
+                    write(manager, "first");
+                    assertEquals("first", readLines(socket, 1).get(0));
+                }
+                // the I/O thread notices the closed connection on one of the next writes
+                final long deadline = System.currentTimeMillis() + 10_000;
+                while (manager.isConnected() && System.currentTimeMillis() < deadline) {
+                    write(manager, "lost");
+                    Thread.sleep(10);
+                }
+                write(manager, "second");
+                try (final Socket socket = server.accept()) {
+                    socket.setSoTimeout(10_000);
+                    final BufferedReader reader = reader(socket);
+                    String line = reader.readLine();
+                    while (!"second".equals(line)) {
+                        assertEquals("lost", line);
+                        line = reader.readLine();
+                    }
+                }
+            } finally {
+                manager.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    public void testDropPolicyNeverBlocks() throws Exception {
+        final NioTcpSocketManager manager = createManager(freePort(), 100, HighWaterMarkPolicy.DROP);
+        try {
+            int dropped = 0;
+            for (int i = 0; i < 20; i++) {
+                try {
+                    write(manager, "0123456789012345678");
+                } catch (final AppenderLoggingException e) {
+                    dropped++;
+                }
+            }
+            assertEquals(15, dropped);
+            assertEquals(15, manager.getDroppedEventCount());
+            assertEquals(100, manager.getQueuedBytes());
+        } finally {
+            manager.stop(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void testBlockPolicyWaitsForRoom() throws Exception {
+        final int port = freePort();
+        final NioTcpSocketManager manager = createManager(port, 100, HighWaterMarkPolicy.BLOCK);
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < 20; i++) {
+                    write(manager, String.format("%019d", i));
+                }
+                done.countDown();
+            });
+            producer.start();
+            assertFalse(done.await(200, TimeUnit.MILLISECONDS), "Producer should wait while disconnected");
+            assertEquals(100, manager.getQueuedBytes());
+            try (final ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+                server.setSoTimeout(10_000);
+                try (final Socket socket = server.accept()) {
+                    final List<String> lines = readLines(socket, 20);
+                    for (int i = 0; i < 20; i++) {
+                        assertEquals(String.format("%019d", i), lines.get(i));
+                    }
+                }
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(0, manager.getDroppedEventCount());
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static NioTcpSocketManager createManager(final int port, final int highWaterMark,
+            final HighWaterMarkPolicy policy) throws IOException {
+        return new NioTcpSocketManager("NioTcpSocketManagerTest", InetAddress.getLoopbackAddress(), "localhost",
+                port, 1000, RECONNECT_MILLIS, null, 8192, null, highWaterMark, policy);
+    }
+
+    private static void write(final NioTcpSocketManager manager, final String line) {
+        final byte[] bytes = (line + '\n').getBytes(StandardCharsets.US_ASCII);
+        manager.write(bytes, 0, bytes.length, true);
+    }
+
+    private static int freePort() throws IOException {
+        try (final ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static BufferedReader reader(final Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    private static List<String> readLines(final Socket socket, final int count) throws IOException {
+        socket.setSoTimeout(10_000);
+        final BufferedReader reader = reader(socket);
+        final List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(reader.readLine());
+        }
+        return lines;
+    }
+}
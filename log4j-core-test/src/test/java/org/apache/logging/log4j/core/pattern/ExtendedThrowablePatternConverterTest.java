@@ -167,4 +167,20 @@ public class ExtendedThrowablePatternConverterTest {
         assertEquals("|", options.getSeparator());
     }
 
+    @Test
+    public void testDepth() {
+        final Throwable parent = new IllegalArgumentException("IllegalArgument", new NullPointerException("null"));
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLoggerName("testLogger") //
+                .setLevel(Level.DEBUG) //
+                .setMessage(new SimpleMessage("test exception")) //
+                .setThrown(parent).build();
+        final StringBuilder full = new StringBuilder();
+        ExtendedThrowablePatternConverter.newInstance(null, new String[] {"full", "separator(|)"}).format(event, full);
+        final String[] lines = full.toString().split("\\|");
+        final StringBuilder sb = new StringBuilder();
+        ExtendedThrowablePatternConverter.newInstance(null, new String[] {"3", "separator(|)"}).format(event, sb);
+        assertEquals(lines[0] + '|' + lines[1] + '|' + lines[2], sb.toString());
+    }
+
 }
@@ -20,6 +20,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
@@ -244,4 +247,34 @@ public class ThrowablePatternConverterTest {
         assertTrue(everyLineEndsWith(result, "test suffix"), "Each line should end with suffix");
     }
 
+    @Test
+    public void testDepthSeparatorAndSuffixMatchPrintStackTrace() {
+        final Throwable parent = new IllegalArgumentException("IllegalArgument", new NullPointerException("null"));
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLoggerName("testLogger") //
+                .setLevel(Level.DEBUG) //
+                .setMessage(new SimpleMessage("test exception")) //
+                .setThrown(parent).build();
+        final StringWriter w = new StringWriter();
+        parent.printStackTrace(new PrintWriter(w));
+        final String[] lines = w.toString().split(Strings.LINE_SEPARATOR);
+        for (final int depth : new int[] {1, 3, lines.length, lines.length + 5}) {
+            final StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < Math.min(depth, lines.length); i++) {
+                if (i > 0) {
+                    expected.append('|');
+                }
+                expected.append(lines[i]).append(" sfx");
+            }
+            final ThrowablePatternConverter converter = ThrowablePatternConverter.newInstance(null,
+                    new String[] {String.valueOf(depth), "separator(|)", "suffix(sfx)"});
+            final StringBuilder sb = new StringBuilder();
+            converter.format(event, sb);
+            assertEquals(expected.toString(), sb.toString(), "depth " + depth);
+        }
+        final StringBuilder sb = new StringBuilder();
+        ThrowablePatternConverter.newInstance(null, new String[] {"full"}).format(event, sb);
+        assertEquals(w.toString(), sb.toString());
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.tools;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link BinaryLogDecoder}.
+ */
+public class BinaryLogDecoderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path binaryLog;
+    private Path output;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        binaryLog = tempDir.resolve("app.bin");
+        output = tempDir.resolve("app.log");
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        try (final OutputStream out = Files.newOutputStream(binaryLog)) {
+            out.write(layout.getHeader());
+            for (int i = 1; i <= 3; i++) {
+                out.write(layout.toByteArray(Log4jLogEvent.newBuilder()
+                        .setLoggerName("org.example.Service")
+                        .setLevel(Level.INFO)
+                        .setMessage(new ParameterizedMessage("Request {} took {} ms", i, i * 10L))
+                        .build()));
+            }
+            // an event cut short by a crash
+            out.write(layout.toByteArray(Log4jLogEvent.newBuilder().build()), 0, 5);
+        }
+    }
+
+    @Test
+    public void testPattern() throws IOException {
+        final BinaryLogDecoder.CommandLineArguments cla = new BinaryLogDecoder.CommandLineArguments();
+        cla.setPattern("%p %c{1} %m%n");
+        cla.setPathOut(output);
+        cla.setPathsIn(Arrays.asList(binaryLog));
+
+        assertEquals(3, BinaryLogDecoder.run(cla));
+        assertEquals(Arrays.asList("INFO Service Request 1 took 10 ms", "INFO Service Request 2 took 20 ms",
+                "INFO Service Request 3 took 30 ms"), Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testConfigurationAppender() throws Exception {
+        final BinaryLogDecoder.CommandLineArguments cla = new BinaryLogDecoder.CommandLineArguments();
+        cla.setConfigPath(Paths.get(getClass().getResource("/BinaryLogDecoderTest.xml").toURI()));
+        cla.setAppenderName("Decoder");
+        cla.setPathOut(output);
+        cla.setPathsIn(Arrays.asList(binaryLog, binaryLog));
+
+        assertEquals(6, BinaryLogDecoder.run(cla));
+        final List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(6, lines.size());
+        assertEquals("org.example.Service|INFO|Request 3 took 30 ms", lines.get(5));
+    }
+
+    @Test
+    public void testUnknownAppender() throws Exception {
+        final BinaryLogDecoder.CommandLineArguments cla = new BinaryLogDecoder.CommandLineArguments();
+        cla.setConfigPath(Paths.get(getClass().getResource("/BinaryLogDecoderTest.xml").toURI()));
+        cla.setAppenderName("Missing");
+        cla.setPathOut(output);
+        cla.setPathsIn(Arrays.asList(binaryLog));
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryLogDecoder.run(cla));
+    }
+}
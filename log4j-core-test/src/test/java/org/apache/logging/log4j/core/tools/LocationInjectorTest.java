@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.MessageSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link LocationInjector}.
+ */
+@LoggerContextSource("LocationInjectorTest.xml")
+public class LocationInjectorTest {
+
+    private final ListAppender app;
+    private final Logger logger;
+
+    public LocationInjectorTest(final LoggerContext context, @Named("List") final ListAppender app) {
+        this.app = app;
+        this.logger = context.getLogger(LocationInjectorTest.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        app.clear();
+    }
+
+    @Test
+    public void testInjectsLocations() throws Exception {
+        final Class<?> sample = transformSample();
+        assertEquals(5, Arrays.stream(sample.getDeclaredMethods())
+                .filter(method -> method.getName().startsWith(LocationInjector.PREFIX))
+                .count(), "The call with a MessageSupplier should not be rewritten");
+
+        final int infoLine = invoke(sample, "info");
+        final int errorLine = invoke(sample, "error");
+        final int logLine = invoke(sample, "log");
+        invoke(sample, "messageSupplier");
+        final int parameterizedErrorLine = invoke(sample, "parameterizedError");
+
+        final List<LogEvent> events = app.getEvents();
+        assertEquals(5, events.size());
+        assertEvent(events.get(0), Level.INFO, "Hello world", "info", infoLine);
+        assertEvent(events.get(1), Level.ERROR, "Failed", "error", errorLine);
+        assertSame(Sample.MARKER, events.get(1).getMarker());
+        assertTrue(events.get(1).getThrown() instanceof IOException);
+        assertEvent(events.get(2), Level.WARN, "Level 1 2", "log", logLine);
+        assertEquals("Supplied", events.get(3).getMessage().getFormattedMessage());
+        assertEvent(events.get(4), Level.ERROR, "Failed 42", "parameterizedError", parameterizedErrorLine);
+        assertTrue(events.get(4).getThrown() instanceof IOException);
+    }
+
+    @Test
+    public void testContextWideFiltersSeeTheMarker() throws Exception {
+        final Class<?> sample = transformSample();
+        // the root logger is at INFO, the MarkerFilter of the configuration accepts the DEBUG event
+        final int markerDebugLine = invoke(sample, "markerDebug");
+
+        final List<LogEvent> events = app.getEvents();
+        assertEquals(1, events.size());
+        assertEvent(events.get(0), Level.DEBUG, "Accepted", "markerDebug", markerDebugLine);
+        assertSame(Sample.MARKER, events.get(0).getMarker());
+    }
+
+    @Test
+    public void testSkipsTransformedClasses() throws IOException {
+        final byte[] transformed = LocationInjector.transform(readSample());
+        assertNotNull(transformed);
+        assertNull(LocationInjector.transform(transformed));
+    }
+
+    private int invoke(final Class<?> sample, final String name) throws Exception {
+        final Method method = sample.getMethod(name, Logger.class);
+        return (Integer) method.invoke(null, logger);
+    }
+
+    private static void assertEvent(final LogEvent event, final Level level, final String message,
+            final String methodName, final int lineNumber) {
+        assertEquals(level, event.getLevel());
+        assertEquals(message, event.getMessage().getFormattedMessage());
+        final StackTraceElement source = event.getSource();
+        assertNotNull(source);
+        assertEquals(Sample.class.getName(), source.getClassName());
+        assertEquals(methodName, source.getMethodName());
+        assertEquals("LocationInjectorTest.java", source.getFileName());
+        assertEquals(lineNumber, source.getLineNumber());
+    }
+
+    private static byte[] readSample() throws IOException {
+        try (final InputStream in = Sample.class.getResourceAsStream("LocationInjectorTest$Sample.class")) {
+            assertNotNull(in);
+            final byte[] buffer = new byte[64 * 1024];
+            int length = 0;
+            for (int read; (read = in.read(buffer, length, buffer.length - length)) > 0; ) {
+                length += read;
+            }
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static Class<?> transformSample() throws IOException {
+        final byte[] transformed = LocationInjector.transform(readSample());
+        assertNotNull(transformed);
+        return new ClassLoader(LocationInjectorTest.class.getClassLoader()) {
+            Class<?> define() {
+                return defineClass(Sample.class.getName(), transformed, 0, transformed.length);
+            }
+        }.define();
+    }
+
+    /**
+     * Logs from call sites that are rewritten. Each method returns the line number of its call site.
+     */
+    public static final class Sample {
+
+        public static final Marker MARKER = MarkerManager.getMarker("LocationInjectorTest");
+
+        public static int info(final Logger logger) {
+            final int line = new Throwable().getStackTrace()[0].getLineNumber() + 1;
+            logger.info("Hello {}", "world");
+            return line;
+        }
+
+        public static int error(final Logger logger) {
+            final int line = new Throwable().getStackTrace()[0].getLineNumber() + 1;
+            logger.error(MARKER, "Failed", new IOException());
+            return line;
+        }
+
+        public static int log(final Logger logger) {
+            final int line = new Throwable().getStackTrace()[0].getLineNumber() + 1;
+            logger.log(Level.WARN, "Level {} {}", 1, 2);
+            return line;
+        }
+
+        public static int messageSupplier(final Logger logger) {
+            final int line = new Throwable().getStackTrace()[0].getLineNumber() + 1;
+            logger.info((MessageSupplier) () -> new SimpleMessage("Supplied"));
+            return line;
+        }
+
+        public static int parameterizedError(final Logger logger) {
+            final int line = new Throwable().getStackTrace()[0].getLineNumber() + 1;
+            logger.error("Failed {}", 42, new IOException());
+            return line;
+        }
+
+        public static int markerDebug(final Logger logger) {
+            final int line = new Throwable().getStackTrace()[0].getLineNumber() + 1;
+            logger.debug(MARKER, "Accepted");
+            return line;
+        }
+    }
+}
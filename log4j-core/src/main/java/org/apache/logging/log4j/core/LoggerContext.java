@@ -74,6 +74,8 @@ public class LoggerContext extends AbstractLifeCycle
     private static final Configuration NULL_CONFIGURATION = new NullConfiguration();
 
     private final LoggerRegistry<Logger> loggerRegistry = new LoggerRegistry<>();
+    private final LoggerUpdater loggerUpdater = new LoggerUpdater(LoggerUpdater.INCREMENTAL,
+            LoggerUpdater.PARALLEL_THRESHOLD);
     private final CopyOnWriteArrayList<PropertyChangeListener> propertyChangeListeners = new CopyOnWriteArrayList<>();
     private volatile List<LoggerContextShutdownAware> listeners;
 
@@ -516,7 +518,11 @@ public class LoggerContext extends AbstractLifeCycle
 
         logger = newInstance(this, name, messageFactory);
         loggerRegistry.putIfAbsent(name, messageFactory, logger);
-        return loggerRegistry.getLogger(name, messageFactory);
+        final Logger registered = loggerRegistry.getLogger(name, messageFactory);
+        if (registered == logger && loggerUpdater.isIncremental()) {
+            loggerUpdater.register(logger, configuration);
+        }
+        return registered;
     }
 
     /**
@@ -736,9 +742,7 @@ public class LoggerContext extends AbstractLifeCycle
      */
     public void updateLoggers(final Configuration config) {
         final Configuration old = this.configuration;
-        for (final Logger logger : loggerRegistry.getLoggers()) {
-            logger.updateConfiguration(config);
-        }
+        loggerUpdater.update(loggerRegistry.getLoggers(), config);
         firePropertyChangeEvent(new PropertyChangeEvent(this, PROPERTY_CONFIG, old, config));
     }
 
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Updates the Loggers of a {@link LoggerContext} when its Configuration changes.
+ * <p>
+ * Large numbers of Loggers are updated in parallel on the common fork-join pool. Each Logger still switches to its
+ * new configuration with a single volatile write, and {@link #update(Collection, Configuration)} only returns once all
+ * Loggers have been updated.
+ * </p>
+ * <p>
+ * In incremental mode, Loggers are indexed by the LoggerConfig they are bound to. When the Configuration itself did
+ * not change, only the Loggers bound to LoggerConfigs that were removed or changed level, or that may be shadowed by a
+ * new LoggerConfig, are updated. A level set with {@link Logger#setLevel(Level)} is kept until the Logger is updated.
+ * </p>
+ */
+final class LoggerUpdater {
+
+    /**
+     * Whether only the Loggers affected by a change are updated, from system property
+     * {@code log4j2.incrementalLoggerUpdates}.
+     */
+    static final boolean INCREMENTAL = PropertiesUtil.getProperties().getBooleanProperty(
+            "log4j2.incrementalLoggerUpdates", false);
+
+    /**
+     * The number of Loggers from which they are updated in parallel, from system property
+     * {@code log4j2.parallelLoggerUpdateThreshold}. A value of 0 or less disables parallel updates.
+     */
+    static final int PARALLEL_THRESHOLD = PropertiesUtil.getProperties().getIntegerProperty(
+            "log4j2.parallelLoggerUpdateThreshold", 10_000);
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private final boolean incremental;
+    private final int parallelThreshold;
+
+    // guarded by this
+    private final Map<LoggerConfig, Binding> bindings = new IdentityHashMap<>();
+    private Set<LoggerConfig> knownLoggerConfigs = Collections.emptySet();
+    private Configuration configuration;
+
+    LoggerUpdater(final boolean incremental, final int parallelThreshold) {
+        this.incremental = incremental;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Adds a new Logger to the index, binding it to the Configuration of the last update, or to the given
+     * Configuration if there was none. The given Configuration may already have been replaced by the time the
+     * Logger is registered.
+     */
+    synchronized void register(final Logger logger, final Configuration current) {
+        // the Configuration may have changed since the Logger was created
+        logger.updateConfiguration(configuration != null ? configuration : current);
+        bind(logger);
+    }
+
+    /**
+     * Updates the given Loggers, or only the affected ones in incremental mode, to the given Configuration.
+     */
+    synchronized void update(final Collection<Logger> loggers, final Configuration config) {
+        if (!incremental) {
+            updateAll(loggers, config);
+            return;
+        }
+        if (config != configuration) {
+            // Loggers registered since the given ones were collected are only known by their bindings
+            final Set<Logger> all = Collections.newSetFromMap(new IdentityHashMap<>());
+            all.addAll(loggers);
+            for (final Binding binding : bindings.values()) {
+                all.addAll(binding.loggers);
+            }
+            updateAll(all, config);
+            bindings.clear();
+            for (final Logger logger : all) {
+                bind(logger);
+            }
+        } else {
+            final List<Logger> affected = new ArrayList<>();
+            final Iterator<Map.Entry<LoggerConfig, Binding>> iterator = bindings.entrySet().iterator();
+            final Set<Binding> shadowed = getShadowedBindings(config);
+            while (iterator.hasNext()) {
+                final Map.Entry<LoggerConfig, Binding> entry = iterator.next();
+                final Binding binding = entry.getValue();
+                if (shadowed.contains(binding) || binding.isStale(entry.getKey(), config)) {
+                    affected.addAll(binding.loggers);
+                    iterator.remove();
+                }
+            }
+            updateAll(affected, config);
+            for (final Logger logger : affected) {
+                bind(logger);
+            }
+        }
+        configuration = config;
+        knownLoggerConfigs = getLoggerConfigs(config);
+    }
+
+    /**
+     * Returns the Bindings whose Loggers may now resolve to a LoggerConfig added since the last update.
+     */
+    private Set<Binding> getShadowedBindings(final Configuration config) {
+        final Set<Binding> shadowed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final LoggerConfig loggerConfig : config.getLoggers().values()) {
+            if (!knownLoggerConfigs.contains(loggerConfig)) {
+                LoggerConfig parent = loggerConfig.getParent();
+                while (parent != null) {
+                    final Binding binding = bindings.get(parent);
+                    if (binding != null) {
+                        shadowed.add(binding);
+                        break;
+                    }
+                    parent = parent.getParent();
+                }
+            }
+        }
+        return shadowed;
+    }
+
+    private static Set<LoggerConfig> getLoggerConfigs(final Configuration config) {
+        final Set<LoggerConfig> loggerConfigs = Collections.newSetFromMap(new IdentityHashMap<>());
+        loggerConfigs.addAll(config.getLoggers().values());
+        loggerConfigs.add(config.getRootLogger());
+        return loggerConfigs;
+    }
+
+    private void bind(final Logger logger) {
+        final LoggerConfig loggerConfig = logger.privateConfig.loggerConfig;
+        Binding binding = bindings.get(loggerConfig);
+        if (binding == null) {
+            binding = new Binding(loggerConfig);
+            bindings.put(loggerConfig, binding);
+        }
+        binding.loggers.add(logger);
+    }
+
+    private void updateAll(final Collection<Logger> loggers, final Configuration config) {
+        if (parallelThreshold > 0 && loggers.size() >= parallelThreshold) {
+            final Logger[] array = loggers.toArray(new Logger[0]);
+            ForkJoinPool.commonPool().invoke(new UpdateTask(array, 0, array.length, config));
+        } else {
+            for (final Logger logger : loggers) {
+                logger.updateConfiguration(config);
+            }
+        }
+    }
+
+    /**
+     * The Loggers bound to a LoggerConfig, and the state of the LoggerConfig they copied.
+     */
+    private static final class Binding {
+
+        private final Level level;
+        private final boolean requiresLocation;
+        private final Set<Logger> loggers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Binding(final LoggerConfig loggerConfig) {
+            this.level = loggerConfig.getLevel();
+            this.requiresLocation = loggerConfig.requiresLocation();
+        }
+
+        private boolean isStale(final LoggerConfig loggerConfig, final Configuration config) {
+            final boolean registered = loggerConfig == config.getRootLogger()
+                    || config.getLoggers().get(loggerConfig.getName()) == loggerConfig;
+            return !registered || loggerConfig.getLevel() != level || loggerConfig.requiresLocation() != requiresLocation;
+        }
+    }
+
+    private static final class UpdateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Logger[] loggers;
+        private final int from;
+        private final int to;
+        private final transient Configuration config;
+
+        private UpdateTask(final Logger[] loggers, final int from, final int to, final Configuration config) {
+            this.loggers = loggers;
+            this.from = from;
+            this.to = to;
+            this.config = config;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    loggers[i].updateConfiguration(config);
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new UpdateTask(loggers, from, middle, config), new UpdateTask(loggers, middle, to, config));
+            }
+        }
+    }
+}
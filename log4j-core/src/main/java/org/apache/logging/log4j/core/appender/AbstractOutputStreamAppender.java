@@ -212,16 +212,38 @@ public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager
     }
 
     protected void directEncodeEvent(final LogEvent event) {
-        getLayout().encode(event, manager);
-        if (this.immediateFlush || event.isEndOfBatch()) {
-            manager.flush();
+        final boolean flush = this.immediateFlush || event.isEndOfBatch();
+        final GroupCommitFlusher groupCommitFlusher = manager.getGroupCommitFlusher();
+        final boolean flushNow = flush && groupCommitFlusher == null;
+        final StripedBufferWriter stripedBufferWriter = manager.getStripedBufferWriter();
+        if (stripedBufferWriter != null) {
+            stripedBufferWriter.encode(getLayout(), event, flushNow);
+        } else {
+            getLayout().encode(event, manager);
+            if (flushNow) {
+                manager.flush();
+            }
+        }
+        if (flush && groupCommitFlusher != null) {
+            groupCommitFlusher.awaitFlush();
         }
     }
 
     protected void writeByteArrayToManager(final LogEvent event) {
         final byte[] bytes = getLayout().toByteArray(event);
         if (bytes != null && bytes.length > 0) {
-            manager.write(bytes, this.immediateFlush || event.isEndOfBatch());
+            final boolean flush = this.immediateFlush || event.isEndOfBatch();
+            final GroupCommitFlusher groupCommitFlusher = manager.getGroupCommitFlusher();
+            final boolean flushNow = flush && groupCommitFlusher == null;
+            final StripedBufferWriter stripedBufferWriter = manager.getStripedBufferWriter();
+            if (stripedBufferWriter != null) {
+                stripedBufferWriter.write(bytes, 0, bytes.length, flushNow);
+            } else {
+                manager.write(bytes, flushNow);
+            }
+            if (flush && groupCommitFlusher != null) {
+                groupCommitFlusher.awaitFlush();
+            }
         }
     }
 }
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.net.ssl.SslConfiguration;
+import org.apache.logging.log4j.core.util.Log4jThread;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+
+/**
+ * Sends log events over HTTP in batches.
+ * <p>
+ * Events are encoded by the calling thread and queued in a bounded spill queue. A dispatcher thread collects up to
+ * {@code batchSize} events, or the events that arrived within {@code lingerMillis} of the first one, into a single
+ * request body and hands it to at most {@code maxInFlightRequests} sender threads. Senders reuse their keep-alive
+ * connection and retry a failed request with exponential backoff. With a single request in flight, batches are
+ * delivered in the order the events were logged. A batch dropped after its retries is reported by the next call to
+ * {@link #send(Layout, LogEvent)}, so that it reaches the error handler of the appender.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public class BatchingHttpURLConnectionManager extends HttpURLConnectionManager {
+
+    /**
+     * Encoding of a batch of events in a request body.
+     */
+    public enum BatchFormat {
+
+        /**
+         * Newline delimited JSON, one event per line.
+         */
+        NDJSON("application/x-ndjson"),
+
+        /**
+         * A JSON array of events.
+         */
+        JSON_ARRAY("application/json");
+
+        private final String contentType;
+
+        BatchFormat(final String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final BatchFormat batchFormat;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final BlockingQueue<byte[]> queue;
+    private final Semaphore inFlight;
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private final AtomicReference<AppenderLoggingException> failure = new AtomicReference<>();
+    private volatile boolean stopped;
+
+    public BatchingHttpURLConnectionManager(final Configuration configuration, final LoggerContext loggerContext,
+            final String name, final URL url, final String method, final int connectTimeoutMillis,
+            final int readTimeoutMillis, final Property[] headers, final SslConfiguration sslConfiguration,
+            final boolean verifyHostname, final BatchFormat batchFormat, final int batchSize, final long lingerMillis,
+            final int maxInFlightRequests, final int maxRetries, final long retryBackoffMillis,
+            final int spillQueueSize) {
+        super(configuration, loggerContext, name, url, method, connectTimeoutMillis, readTimeoutMillis, headers,
+                sslConfiguration, verifyHostname);
+        this.batchFormat = batchFormat != null ? batchFormat : BatchFormat.NDJSON;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(this.batchSize, spillQueueSize));
+        this.inFlight = new Semaphore(Math.max(1, maxInFlightRequests));
+        this.senders = Executors.newFixedThreadPool(Math.max(1, maxInFlightRequests),
+                Log4jThreadFactory.createDaemonThreadFactory("HttpSender-" + name));
+        this.dispatcher = new Log4jThread(this::dispatch, "HttpBatchDispatcher-" + name);
+        this.dispatcher.setDaemon(true);
+    }
+
+    @Override
+    public void startup() {
+        dispatcher.start();
+    }
+
+    /**
+     * Encodes the event and queues it for the next batch.
+     *
+     * @throws AppenderLoggingException if the spill queue is full and the event is dropped, or if a batch was dropped
+     * since the previous call; the event is queued in the latter case.
+     */
+    @Override
+    public void send(final Layout<?> layout, final LogEvent event) {
+        final byte[] bytes = layout.toByteArray(event);
+        if (!queue.offer(trim(bytes))) {
+            throw new AppenderLoggingException("HTTP spill queue of " + getName() + " is full, dropping event");
+        }
+        final AppenderLoggingException dropped = failure.getAndSet(null);
+        if (dropped != null) {
+            throw dropped;
+        }
+    }
+
+    /**
+     * Removes the trailing line separator added by layouts so that events can be delimited by the batch format.
+     */
+    private static byte[] trim(final byte[] bytes) {
+        int length = bytes.length;
+        while (length > 0 && (bytes[length - 1] == '\n' || bytes[length - 1] == '\r')) {
+            length--;
+        }
+        if (length == bytes.length) {
+            return bytes;
+        }
+        final byte[] trimmed = new byte[length];
+        System.arraycopy(bytes, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    private void dispatch() {
+        final List<byte[]> batch = new ArrayList<>(batchSize);
+        while (!stopped || !queue.isEmpty()) {
+            try {
+                final byte[] first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    final long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || stopped) {
+                        break;
+                    }
+                    final byte[] next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                final byte[] body = encode(batch);
+                final int count = batch.size();
+                batch.clear();
+                inFlight.acquire();
+                senders.execute(() -> {
+                    try {
+                        sendWithRetries(body, count);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (final InterruptedException | RejectedExecutionException e) {
+                // stop() interrupts the dispatcher and shuts down the senders only when it gives up waiting
+                LOGGER.warn("HTTP batch dispatcher of {} interrupted, dropping {} queued events", getName(),
+                        queue.size() + batch.size());
+                return;
+            }
+        }
+    }
+
+    private byte[] encode(final List<byte[]> batch) {
+        int size = batch.size() + 2;
+        for (final byte[] event : batch) {
+            size += event.length;
+        }
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(size);
+        if (batchFormat == BatchFormat.JSON_ARRAY) {
+            body.write('[');
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0 && batchFormat == BatchFormat.JSON_ARRAY) {
+                body.write(',');
+            }
+            final byte[] event = batch.get(i);
+            body.write(event, 0, event.length);
+            if (batchFormat == BatchFormat.NDJSON) {
+                body.write('\n');
+            }
+        }
+        if (batchFormat == BatchFormat.JSON_ARRAY) {
+            body.write(']');
+        }
+        return body.toByteArray();
+    }
+
+    private void sendWithRetries(final byte[] body, final int count) {
+        long backoffMillis = retryBackoffMillis;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                send(batchFormat.getContentType(), body);
+                return;
+            } catch (final IOException | RuntimeException e) {
+                if (attempt >= maxRetries) {
+                    LOGGER.error("Unable to send batch of {} events to {} after {} attempts, dropping it", count,
+                            getName(), attempt + 1, e);
+                    failure.set(new AppenderLoggingException(e, "Unable to send batch of %d events to %s after %d "
+                            + "attempts, dropped it", count, getName(), attempt + 1));
+                    return;
+                }
+                LOGGER.warn("Unable to send batch of {} events to {}, retrying in {} ms: {}", count, getName(),
+                        backoffMillis, e.getMessage());
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(backoffMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.error("Interrupted while retrying batch of {} events to {}, dropping it", count, getName());
+                return;
+            }
+            backoffMillis = Math.min(MAX_BACKOFF_MILLIS, Math.max(1, backoffMillis * 2));
+        }
+    }
+
+    /**
+     * Sends the queued events and waits for the requests in flight to complete. The timeout covers the whole release;
+     * events still queued or in flight when it expires are dropped. A timeout of 0 waits until every queued event was
+     * sent or dropped after its retries.
+     */
+    @Override
+    protected boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        stopped = true;
+        boolean completed = true;
+        try {
+            if (timeout > 0) {
+                final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+                TimeUnit.NANOSECONDS.timedJoin(dispatcher, deadline - System.nanoTime());
+                if (dispatcher.isAlive()) {
+                    dispatcher.interrupt();
+                    completed = false;
+                }
+                senders.shutdown();
+                if (!senders.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    senders.shutdownNow();
+                    completed = false;
+                }
+            } else {
+                dispatcher.join();
+                senders.shutdown();
+                while (!senders.awaitTermination(1, TimeUnit.SECONDS)) {
+                    LOGGER.debug("Waiting for the HTTP requests of {} in flight to complete", getName());
+                }
+            }
+        } catch (final InterruptedException e) {
+            dispatcher.interrupt();
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+            completed = false;
+        }
+        return completed && super.releaseSub(timeout, timeUnit);
+    }
+
+    public BatchFormat getBatchFormat() {
+        return batchFormat;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the number of encoded events waiting to be sent.
+     *
+     * @return the number of queued events.
+     */
+    public int getQueuedEventCount() {
+        return queue.size();
+    }
+}
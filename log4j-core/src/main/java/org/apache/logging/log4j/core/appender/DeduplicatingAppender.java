@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+/**
+ * Appender that protects the Appenders it references from storms of the same exception.
+ * <p>
+ * Events with a Throwable are fingerprinted by the message format and the stack traces of the Throwable and its
+ * causes. The first {@code limit} events with the same fingerprint in each window are passed on, the others are
+ * counted and dropped. At the end of each window, one summary event per suppressed fingerprint reports how many events
+ * were dropped. Events without a Throwable are always passed on.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+@Plugin(name = "Deduplicating", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class DeduplicatingAppender extends AbstractAppender {
+
+    /** The default window length in milliseconds. */
+    public static final long DEFAULT_WINDOW_MILLIS = 60_000L;
+
+    /** The default number of events with the same fingerprint passed on in each window. */
+    public static final int DEFAULT_LIMIT = 5;
+
+    // events with new fingerprints are passed on untracked once a window has seen this many
+    private static final int MAX_FINGERPRINTS = 4096;
+
+    // guards against cycles in the cause chain
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    // the count of occurrences once they were summarized
+    private static final long SEALED = -1;
+
+    private final Configuration config;
+    private final AppenderRef[] appenderRefs;
+    private final List<AppenderControl> appenders = new ArrayList<>();
+    private final long windowNanos;
+    private final int limit;
+    private final AtomicReference<Window> window;
+    private volatile ScheduledFuture<?> future;
+
+    private DeduplicatingAppender(final String name, final Filter filter, final boolean ignoreExceptions,
+            final Property[] properties, final Configuration config, final AppenderRef[] appenderRefs,
+            final long windowMillis, final int limit) {
+        super(name, filter, null, ignoreExceptions, properties);
+        this.config = config;
+        this.appenderRefs = appenderRefs;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.limit = limit;
+        this.window = new AtomicReference<>(new Window(System.nanoTime()));
+    }
+
+    @Override
+    public void start() {
+        appenders.clear();
+        for (final AppenderRef ref : appenderRefs) {
+            final Appender appender = config.getAppender(ref.getRef());
+            if (appender != null) {
+                final Filter filter = appender instanceof AbstractAppender ?
+                    ((AbstractAppender) appender).getFilter() : null;
+                appenders.add(new AppenderControl(appender, ref.getLevel(), filter));
+            } else {
+                LOGGER.error("Appender " + ref + " cannot be located. Reference ignored");
+            }
+        }
+        final long windowMillis = TimeUnit.NANOSECONDS.toMillis(windowNanos);
+        future = config.getScheduler().scheduleWithFixedDelay(() -> rollWindow(System.nanoTime()), windowMillis,
+                windowMillis, TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        super.stop(timeout, timeUnit, false);
+        if (future != null) {
+            future.cancel(false);
+        }
+        emitSummaries(window.getAndSet(new Window(System.nanoTime())));
+        setStopped();
+        return true;
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        final Throwable thrown = event.getThrown();
+        if (thrown == null) {
+            callAppenders(event);
+            return;
+        }
+        final Fingerprint fingerprint = new Fingerprint(event.getMessage(), thrown);
+        for (;;) {
+            final long now = System.nanoTime();
+            Window current = window.get();
+            if (now - current.startNanos >= windowNanos) {
+                rollWindow(now);
+                current = window.get();
+            }
+            Occurrences occurrences = current.occurrences.get(fingerprint);
+            if (occurrences == null) {
+                if (current.occurrences.size() >= MAX_FINGERPRINTS) {
+                    callAppenders(event);
+                    return;
+                }
+                final Occurrences created = new Occurrences(event, thrown);
+                occurrences = current.occurrences.putIfAbsent(fingerprint, created);
+                if (occurrences == null) {
+                    occurrences = created;
+                }
+            }
+            // a window closed after this check is summarized with the occurrences added to it before
+            if (!current.closed) {
+                final long count = occurrences.increment();
+                if (count != SEALED) {
+                    if (count <= limit) {
+                        callAppenders(event);
+                    }
+                    return;
+                }
+            }
+            // the window was summarized meanwhile, count the event in the next one
+        }
+    }
+
+    /**
+     * Starts a new window if the current one has ended and emits its summaries.
+     *
+     * @param nanoTime the current {@link System#nanoTime()}.
+     */
+    void rollWindow(final long nanoTime) {
+        final Window current = window.get();
+        if (nanoTime - current.startNanos >= windowNanos && window.compareAndSet(current, new Window(nanoTime))) {
+            emitSummaries(current);
+        }
+    }
+
+    private void emitSummaries(final Window ended) {
+        ended.closed = true;
+        final long windowMillis = TimeUnit.NANOSECONDS.toMillis(windowNanos);
+        for (final Occurrences occurrences : ended.occurrences.values()) {
+            final long suppressed = occurrences.count.getAndSet(SEALED) - limit;
+            if (suppressed > 0) {
+                callAppenders(occurrences.toSummaryEvent(suppressed, windowMillis));
+            }
+        }
+    }
+
+    private void callAppenders(final LogEvent event) {
+        for (final AppenderControl control : appenders) {
+            control.callAppender(event);
+        }
+    }
+
+    /**
+     * Returns the window length in milliseconds.
+     *
+     * @return the window length in milliseconds.
+     */
+    public long getWindowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(windowNanos);
+    }
+
+    /**
+     * Returns the number of events with the same fingerprint passed on in each window.
+     *
+     * @return the number of events passed on in each window.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    /**
+     * Builds DeduplicatingAppender instances.
+     *
+     * @param <B> The type to build
+     */
+    public static class Builder<B extends Builder<B>> extends AbstractAppender.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<DeduplicatingAppender> {
+
+        @PluginElement("AppenderRef")
+        @Required(message = "No appender references provided to DeduplicatingAppender")
+        private AppenderRef[] appenderRefs;
+
+        @PluginBuilderAttribute
+        private long windowMillis = DEFAULT_WINDOW_MILLIS;
+
+        @PluginBuilderAttribute
+        private int limit = DEFAULT_LIMIT;
+
+        public B setAppenderRefs(final AppenderRef... appenderRefs) {
+            this.appenderRefs = appenderRefs;
+            return asBuilder();
+        }
+
+        public B setWindowMillis(final long windowMillis) {
+            this.windowMillis = windowMillis;
+            return asBuilder();
+        }
+
+        public B setLimit(final int limit) {
+            this.limit = limit;
+            return asBuilder();
+        }
+
+        @Override
+        public DeduplicatingAppender build() {
+            if (windowMillis <= 0) {
+                LOGGER.error("DeduplicatingAppender {}: windowMillis must be positive, using {}", getName(),
+                        DEFAULT_WINDOW_MILLIS);
+                windowMillis = DEFAULT_WINDOW_MILLIS;
+            }
+            if (limit < 0) {
+                LOGGER.error("DeduplicatingAppender {}: limit must not be negative, using 0", getName());
+                limit = 0;
+            }
+            final ConfigurationScheduler scheduler = getConfiguration().getScheduler();
+            if (!scheduler.isExecutorServiceSet()) {
+                scheduler.incrementScheduledItems();
+            }
+            return new DeduplicatingAppender(getName(), getFilter(), isIgnoreExceptions(), getPropertyArray(),
+                    getConfiguration(), appenderRefs, windowMillis, limit);
+        }
+    }
+
+    private static final class Window {
+
+        private final long startNanos;
+        private final ConcurrentMap<Fingerprint, Occurrences> occurrences = new ConcurrentHashMap<>();
+        // set before the window is summarized, so that no occurrences are added to it afterwards
+        private volatile boolean closed;
+
+        private Window(final long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * The events with one fingerprint in a window, and what is needed to summarize them.
+     */
+    private static final class Occurrences {
+
+        private final AtomicLong count = new AtomicLong();
+        private final String loggerName;
+        private final String loggerFqcn;
+        private final Level level;
+        private final String description;
+
+        private Occurrences(final LogEvent event, final Throwable thrown) {
+            this.loggerName = event.getLoggerName();
+            this.loggerFqcn = event.getLoggerFqcn();
+            this.level = event.getLevel();
+            this.description = thrown + " logged with \"" + event.getMessage().getFormattedMessage() + '"';
+        }
+
+        /**
+         * Counts an event, unless the count was already summarized.
+         *
+         * @return the new count, or {@link #SEALED} if the count was summarized.
+         */
+        private long increment() {
+            long current;
+            do {
+                current = count.get();
+                if (current == SEALED) {
+                    return SEALED;
+                }
+            } while (!count.compareAndSet(current, current + 1));
+            return current + 1;
+        }
+
+        private LogEvent toSummaryEvent(final long suppressed, final long windowMillis) {
+            return Log4jLogEvent.newBuilder()
+                    .setLoggerName(loggerName)
+                    .setLoggerFqcn(loggerFqcn)
+                    .setLevel(level)
+                    .setMessage(new SimpleMessage("Suppressed " + suppressed + " occurrences of " + description
+                            + " in the last " + windowMillis + " ms"))
+                    .setTimeMillis(System.currentTimeMillis())
+                    .build();
+        }
+    }
+
+    /**
+     * The message format and the stack traces of a Throwable and its causes.
+     */
+    private static final class Fingerprint {
+
+        private final String format;
+        private final Object[] frames;
+        private final int hashCode;
+
+        private Fingerprint(final Message message, final Throwable thrown) {
+            this.format = message == null ? null : message.getFormat();
+            final List<Object> list = new ArrayList<>();
+            Throwable throwable = thrown;
+            for (int depth = 0; throwable != null && depth < MAX_CAUSE_DEPTH; depth++) {
+                list.add(throwable.getClass().getName());
+                list.add(throwable.getStackTrace());
+                throwable = throwable.getCause();
+            }
+            this.frames = list.toArray();
+            this.hashCode = 31 * Arrays.deepHashCode(frames) + (format == null ? 0 : format.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            final Fingerprint other = (Fingerprint) obj;
+            return hashCode == other.hashCode && Objects.equals(format, other.format)
+                    && Arrays.deepEquals(frames, other.frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
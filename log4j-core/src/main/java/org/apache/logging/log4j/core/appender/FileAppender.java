@@ -80,6 +80,15 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean groupCommit;
+
+        @PluginBuilderAttribute
+        private boolean groupCommitForce;
+
+        @PluginBuilderAttribute
+        private boolean stripedBuffers;
+
         @Override
         public FileAppender build() {
             if (!isValid()) {
@@ -101,6 +110,8 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             if (manager == null) {
                 return null;
             }
+            manager.setStripedBuffers(stripedBuffers);
+            manager.setGroupCommit(groupCommit, groupCommitForce);
 
             return new FileAppender(getName(), layout, getFilter(), manager, fileName, isIgnoreExceptions(),
                     !bufferedIo || isImmediateFlush(), advertise ? getConfiguration().getAdvertiser() : null,
@@ -143,6 +154,27 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             return fileGroup;
         }
 
+        /**
+         * @since 2.20.0
+         */
+        public boolean isGroupCommit() {
+            return groupCommit;
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public boolean isGroupCommitForce() {
+            return groupCommitForce;
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public boolean isStripedBuffers() {
+            return stripedBuffers;
+        }
+
         public B withAdvertise(final boolean advertise) {
             this.advertise = advertise;
             return asBuilder();
@@ -188,6 +220,44 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             return asBuilder();
         }
 
+        /**
+         * Sets whether events that must be flushed are flushed by a background thread, whose single flush covers all
+         * events written since the previous flush.
+         *
+         * @param groupCommit true to enable group commit.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setGroupCommit(final boolean groupCommit) {
+            this.groupCommit = groupCommit;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether each group commit forces the file content to the storage device.
+         *
+         * @param groupCommitForce true to force the file content to the storage device.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setGroupCommitForce(final boolean groupCommitForce) {
+            this.groupCommitForce = groupCommitForce;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether each thread encodes events into a buffer of its own, which a single combining thread then
+         * writes to the manager. This avoids contention on the manager when many threads log to the same appender.
+         *
+         * @param stripedBuffers true to enable striped buffers.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setStripedBuffers(final boolean stripedBuffers) {
+            this.stripedBuffers = stripedBuffers;
+            return asBuilder();
+        }
+
     }
 
     private static final int DEFAULT_BUFFER_SIZE = 8192;
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.FileSystems;
@@ -42,6 +43,7 @@ import java.util.Set;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Closer;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.FileUtils;
 
@@ -191,16 +193,37 @@ public class FileManager extends OutputStreamManager {
         final File file = new File(filename);
         createParentDir(file);
         final FileOutputStream fos = new FileOutputStream(file, isAppend);
-        if (file.exists() && file.length() == 0) {
+        final boolean newFile = file.exists() && file.length() == 0;
+        final OutputStream os;
+        try {
+            os = wrapOutputStream(fos);
+        } catch (final Throwable t) {
+            Closer.closeSilently(fos);
+            throw t;
+        }
+        if (newFile) {
             try {
                 FileTime now = FileTime.fromMillis(System.currentTimeMillis());
                 Files.setAttribute(file.toPath(), "creationTime", now);
             } catch (Exception ex) {
                 LOGGER.warn("Unable to set current file time for {}", filename);
             }
-            writeHeader(fos);
+            writeHeader(os);
         }
         defineAttributeView(Paths.get(filename));
+        return os;
+    }
+
+    /**
+     * Wraps a newly opened file stream, for example to compress the data written to the file. The default
+     * implementation returns the file stream unchanged.
+     *
+     * @param fos the stream writing to the file.
+     * @return the stream the manager writes to.
+     * @throws IOException if the stream cannot be wrapped.
+     * @since 2.20.0
+     */
+    protected OutputStream wrapOutputStream(final FileOutputStream fos) throws IOException {
         return fos;
     }
 
@@ -279,6 +302,28 @@ public class FileManager extends OutputStreamManager {
         }
     }
 
+    /**
+     * Forces the content of the file to the storage device.
+     *
+     * @since 2.20.0
+     */
+    @Override
+    protected void forceDestination() {
+        if (!hasOutputStream()) {
+            return;
+        }
+        try {
+            final OutputStream os = getOutputStream();
+            if (os instanceof FileOutputStream) {
+                ((FileOutputStream) os).getChannel().force(false);
+            }
+        } catch (final ClosedChannelException ex) {
+            // the file was closed, for example by a rollover, which already wrote its content
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Error forcing file " + getName() + " to the storage device", ex);
+        }
+    }
+
     /**
      * Returns the name of the File being managed.
      * @return The name of the File being managed.
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.core.util.Log4jThread;
+
+/**
+ * Flushes an {@link OutputStreamManager} on a background thread on behalf of all callers waiting for their events to
+ * be flushed.
+ * <p>
+ * A caller that wrote an event to the manager and needs it flushed draws a ticket and waits until the flusher has
+ * completed a flush that started after the ticket was drawn. A single flush, optionally followed by
+ * {@linkplain OutputStreamManager#forceDestination() forcing} the data to the storage device, therefore commits every
+ * event written since the previous flush instead of issuing one flush per event.
+ * </p>
+ */
+final class GroupCommitFlusher implements Runnable {
+
+    private final OutputStreamManager manager;
+    private final boolean force;
+    private final Lock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushCompleted = lock.newCondition();
+    private final Thread thread;
+
+    // guarded by lock
+    private long requestedTicket;
+    private long flushedTicket;
+    // failed flushes whose waiters have not all observed the failure yet
+    private final List<Failure> failures = new ArrayList<>();
+    private boolean stopped;
+
+    GroupCommitFlusher(final OutputStreamManager manager, final boolean force) {
+        this.manager = manager;
+        this.force = force;
+        this.thread = new Log4jThread(this, "GroupCommitFlusher-" + manager.getName());
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean isForce() {
+        return force;
+    }
+
+    /**
+     * Requests a flush and waits until it completes. All data written to the manager before this call is flushed when
+     * this method returns normally. If the flusher is stopped before a flush covered the caller's data, the caller
+     * flushes the manager itself.
+     *
+     * @throws AppenderLoggingException if the flush covering the caller's data failed.
+     */
+    void awaitFlush() {
+        lock.lock();
+        try {
+            if (!stopped) {
+                final long ticket = ++requestedTicket;
+                flushRequested.signal();
+                boolean interrupted = false;
+                while (flushedTicket < ticket && !stopped) {
+                    try {
+                        flushCompleted.await();
+                    } catch (final InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                if (flushedTicket >= ticket) {
+                    final RuntimeException error = takeFailure(ticket);
+                    if (error != null) {
+                        throw error;
+                    }
+                    return;
+                }
+                // released by stop() before a flush covered the ticket
+            }
+        } finally {
+            lock.unlock();
+        }
+        flushInline();
+    }
+
+    private void flushInline() {
+        manager.flush();
+        if (force) {
+            manager.forceDestination();
+        }
+    }
+
+    // guarded by lock
+    private RuntimeException takeFailure(final long ticket) {
+        for (int i = 0; i < failures.size(); i++) {
+            final Failure failure = failures.get(i);
+            if (ticket > failure.fromTicket && ticket <= failure.toTicket) {
+                // each ticket belongs to exactly one waiter
+                if (--failure.remainingWaiters == 0) {
+                    failures.remove(i);
+                }
+                return failure.error;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            final long fromTicket;
+            final long toTicket;
+            lock.lock();
+            try {
+                while (requestedTicket == flushedTicket && !stopped) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (stopped) {
+                    return;
+                }
+                fromTicket = flushedTicket;
+                toTicket = requestedTicket;
+            } finally {
+                lock.unlock();
+            }
+            RuntimeException error = null;
+            try {
+                manager.flush();
+                if (force) {
+                    manager.forceDestination();
+                }
+            } catch (final RuntimeException ex) {
+                error = ex;
+            }
+            lock.lock();
+            try {
+                if (error != null) {
+                    failures.add(new Failure(fromTicket, toTicket, error));
+                }
+                flushedTicket = toTicket;
+                flushCompleted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops the background thread. Waiting callers whose data was not flushed yet flush the manager themselves.
+     */
+    void stop() {
+        lock.lock();
+        try {
+            stopped = true;
+            flushRequested.signal();
+            flushCompleted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Failure {
+
+        private final long fromTicket;
+        private final long toTicket;
+        private final RuntimeException error;
+        private long remainingWaiters;
+
+        private Failure(final long fromTicket, final long toTicket, final RuntimeException error) {
+            this.fromTicket = fromTicket;
+            this.toTicket = toTicket;
+            this.error = error;
+            this.remainingWaiters = toTicket - fromTicket;
+        }
+    }
+}
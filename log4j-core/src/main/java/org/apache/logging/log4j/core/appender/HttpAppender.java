@@ -26,6 +26,7 @@ import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.BatchingHttpURLConnectionManager.BatchFormat;
 import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
@@ -70,11 +71,37 @@ public final class HttpAppender extends AbstractAppender {
         @PluginBuilderAttribute
         private boolean verifyHostname = true;
 
+        @PluginBuilderAttribute
+        private int batchSize;
+
+        @PluginBuilderAttribute
+        private BatchFormat batchFormat = BatchFormat.NDJSON;
+
+        @PluginBuilderAttribute
+        private long batchLingerMillis = 200;
+
+        @PluginBuilderAttribute
+        private int maxInFlightRequests = 1;
+
+        @PluginBuilderAttribute
+        private int maxRetries = 3;
+
+        @PluginBuilderAttribute
+        private long retryBackoffMillis = 100;
+
+        @PluginBuilderAttribute
+        private int spillQueueSize = 10_000;
+
         @Override
         public HttpAppender build() {
-            final HttpManager httpManager = new HttpURLConnectionManager(getConfiguration(),
-                    getConfiguration().getLoggerContext(), getName(), url, method, connectTimeoutMillis,
-                    readTimeoutMillis, headers, sslConfiguration, verifyHostname);
+            final HttpManager httpManager = batchSize > 0
+                    ? new BatchingHttpURLConnectionManager(getConfiguration(), getConfiguration().getLoggerContext(),
+                            getName(), url, method, connectTimeoutMillis, readTimeoutMillis, headers, sslConfiguration,
+                            verifyHostname, batchFormat, batchSize, batchLingerMillis, maxInFlightRequests, maxRetries,
+                            retryBackoffMillis, spillQueueSize)
+                    : new HttpURLConnectionManager(getConfiguration(), getConfiguration().getLoggerContext(),
+                            getName(), url, method, connectTimeoutMillis, readTimeoutMillis, headers, sslConfiguration,
+                            verifyHostname);
             return new HttpAppender(getName(), getLayout(), getFilter(), isIgnoreExceptions(), httpManager,
                     getPropertyArray());
         }
@@ -107,6 +134,34 @@ public final class HttpAppender extends AbstractAppender {
             return verifyHostname;
         }
 
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public BatchFormat getBatchFormat() {
+            return batchFormat;
+        }
+
+        public long getBatchLingerMillis() {
+            return batchLingerMillis;
+        }
+
+        public int getMaxInFlightRequests() {
+            return maxInFlightRequests;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public long getRetryBackoffMillis() {
+            return retryBackoffMillis;
+        }
+
+        public int getSpillQueueSize() {
+            return spillQueueSize;
+        }
+
         public B setUrl(final URL url) {
             this.url = url;
             return asBuilder();
@@ -141,6 +196,66 @@ public final class HttpAppender extends AbstractAppender {
             this.verifyHostname = verifyHostname;
             return asBuilder();
         }
+
+        /**
+         * Sends events in batches of at most this many events. 0, the default, sends each event in its own request.
+         *
+         * @param batchSize the maximum number of events in a request.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return asBuilder();
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public B setBatchFormat(final BatchFormat batchFormat) {
+            this.batchFormat = batchFormat;
+            return asBuilder();
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public B setBatchLingerMillis(final long batchLingerMillis) {
+            this.batchLingerMillis = batchLingerMillis;
+            return asBuilder();
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public B setMaxInFlightRequests(final int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return asBuilder();
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public B setMaxRetries(final int maxRetries) {
+            this.maxRetries = maxRetries;
+            return asBuilder();
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public B setRetryBackoffMillis(final long retryBackoffMillis) {
+            this.retryBackoffMillis = retryBackoffMillis;
+            return asBuilder();
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public B setSpillQueueSize(final int spillQueueSize) {
+            this.spillQueueSize = spillQueueSize;
+            return asBuilder();
+        }
     }
 
     /**
@@ -170,6 +285,9 @@ public final class HttpAppender extends AbstractAppender {
     public void append(final LogEvent event) {
         try {
             manager.send(getLayout(), event);
+        } catch (final AppenderLoggingException e) {
+            error("Unable to send HTTP in appender [" + getName() + "]", event, e);
+            throw e;
         } catch (final Exception e) {
             error("Unable to send HTTP in appender [" + getName() + "]", event, e);
         }
@@ -75,6 +75,19 @@ public class HttpURLConnectionManager extends HttpManager {
 
     @Override
     public void send(final Layout<?> layout, final LogEvent event) throws IOException {
+        send(layout.getContentType(), layout.toByteArray(event));
+    }
+
+    /**
+     * Sends an encoded request body and reads the whole response, which lets the connection be reused by subsequent
+     * requests to the same host.
+     *
+     * @param contentType the content type of the body, may be null.
+     * @param msg the request body.
+     * @throws IOException if the request fails or the server responds with an error.
+     * @since 2.20.0
+     */
+    public void send(final String contentType, final byte[] msg) throws IOException {
         final HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
         urlConnection.setAllowUserInteraction(false);
         urlConnection.setDoOutput(true);
@@ -86,8 +99,8 @@ public class HttpURLConnectionManager extends HttpManager {
         if (readTimeoutMillis > 0) {
             urlConnection.setReadTimeout(readTimeoutMillis);
         }
-        if (layout.getContentType() != null) {
-            urlConnection.setRequestProperty("Content-Type", layout.getContentType());
+        if (contentType != null) {
+            urlConnection.setRequestProperty("Content-Type", contentType);
         }
         for (final Property header : headers) {
             urlConnection.setRequestProperty(header.getName(), header.evaluate(getConfiguration().getStrSubstitutor()));
@@ -99,7 +112,6 @@ public class HttpURLConnectionManager extends HttpManager {
             ((HttpsURLConnection) urlConnection).setHostnameVerifier(LaxHostnameVerifier.INSTANCE);
         }
 
-        final byte[] msg = layout.toByteArray(event);
         urlConnection.setFixedLengthStreamingMode(msg.length);
         urlConnection.connect();
         try (OutputStream os = urlConnection.getOutputStream()) {
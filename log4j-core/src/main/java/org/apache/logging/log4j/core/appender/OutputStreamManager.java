@@ -38,6 +38,8 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
     protected final Layout<?> layout;
     protected ByteBuffer byteBuffer;
     private volatile OutputStream outputStream;
+    private volatile StripedBufferWriter stripedBufferWriter;
+    private volatile GroupCommitFlusher groupCommitFlusher;
     private boolean skipFooter;
 
     protected OutputStreamManager(final OutputStream os, final String streamName, final Layout<?> layout,
@@ -118,6 +120,7 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      */
     @Override
     public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        setGroupCommit(false, false);
         writeFooter();
         return closeOutputStream();
     }
@@ -156,6 +159,81 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         return getCount() > 0;
     }
 
+    /**
+     * Enables or disables striped buffers. When enabled, each thread encodes its events into a buffer of its own and
+     * a single combining thread writes the buffers of all waiting threads to this manager, so that producers do not
+     * contend on this manager's monitor.
+     *
+     * @param stripedBuffers true to enable striped buffers.
+     * @since 2.20.0
+     */
+    public synchronized void setStripedBuffers(final boolean stripedBuffers) {
+        if (!stripedBuffers) {
+            stripedBufferWriter = null;
+        } else if (stripedBufferWriter == null) {
+            stripedBufferWriter = new StripedBufferWriter(this, Math.max(byteBuffer.capacity(),
+                    Constants.ENCODER_BYTE_BUFFER_SIZE));
+        }
+    }
+
+    /**
+     * Returns whether striped buffers are enabled.
+     *
+     * @return true if striped buffers are enabled.
+     * @since 2.20.0
+     */
+    public boolean isStripedBuffers() {
+        return stripedBufferWriter != null;
+    }
+
+    StripedBufferWriter getStripedBufferWriter() {
+        return stripedBufferWriter;
+    }
+
+    /**
+     * Enables or disables group commit. When enabled, callers that need their events flushed do not flush this
+     * manager themselves but wait for a background thread, whose single flush covers all events written since the
+     * previous flush.
+     *
+     * @param groupCommit true to enable group commit.
+     * @param force true to {@linkplain #forceDestination() force} the data to the storage device after each flush.
+     * @since 2.20.0
+     */
+    public void setGroupCommit(final boolean groupCommit, final boolean force) {
+        final GroupCommitFlusher previous;
+        synchronized (this) {
+            previous = groupCommitFlusher;
+            if (previous != null && groupCommit && previous.isForce() == force) {
+                return;
+            }
+            if (groupCommit) {
+                final GroupCommitFlusher flusher = new GroupCommitFlusher(this, force);
+                flusher.start();
+                groupCommitFlusher = flusher;
+            } else {
+                groupCommitFlusher = null;
+            }
+        }
+        // stop outside of the monitor, the flusher thread may be waiting for it
+        if (previous != null) {
+            previous.stop();
+        }
+    }
+
+    /**
+     * Returns whether group commit is enabled.
+     *
+     * @return true if group commit is enabled.
+     * @since 2.20.0
+     */
+    public boolean isGroupCommit() {
+        return groupCommitFlusher != null;
+    }
+
+    GroupCommitFlusher getGroupCommitFlusher() {
+        return groupCommitFlusher;
+    }
+
     public boolean hasOutputStream() {
         return outputStream != null;
     }
@@ -268,6 +346,17 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         }
     }
 
+    /**
+     * Forces the data written to the destination to the storage device. Does nothing by default, subclasses that
+     * manage files override this method.
+     *
+     * @throws AppenderLoggingException if an error occurs.
+     * @since 2.20.0
+     */
+    protected void forceDestination() {
+        // nothing to force
+    }
+
     /**
      * Drains the ByteBufferDestination's buffer into the destination. By default this calls
      * {@link OutputStreamManager#write(byte[], int, int, boolean)} with the buffer contents.
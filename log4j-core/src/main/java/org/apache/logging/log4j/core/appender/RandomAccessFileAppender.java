@@ -62,6 +62,15 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute
+        private boolean groupCommit;
+
+        @PluginBuilderAttribute
+        private boolean groupCommitForce;
+
+        @PluginBuilderAttribute
+        private boolean stripedBuffers;
+
         public Builder() {
             this.withBufferSize(RandomAccessFileManager.DEFAULT_BUFFER_SIZE);
         }
@@ -85,6 +94,8 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             if (manager == null) {
                 return null;
             }
+            manager.setStripedBuffers(stripedBuffers);
+            manager.setGroupCommit(groupCommit, groupCommitForce);
 
             return new RandomAccessFileAppender(name, layout, getFilter(), manager, fileName, isIgnoreExceptions(),
                     immediateFlush, advertise ? getConfiguration().getAdvertiser() : null, getPropertyArray());
@@ -110,6 +121,44 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             return asBuilder();
         }
 
+        /**
+         * Sets whether events that must be flushed are flushed by a background thread, whose single flush covers all
+         * events written since the previous flush.
+         *
+         * @param groupCommit true to enable group commit.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setGroupCommit(final boolean groupCommit) {
+            this.groupCommit = groupCommit;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether each group commit forces the file content to the storage device.
+         *
+         * @param groupCommitForce true to force the file content to the storage device.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setGroupCommitForce(final boolean groupCommitForce) {
+            this.groupCommitForce = groupCommitForce;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether each thread encodes events into a buffer of its own, which a single combining thread then
+         * writes to the manager. This avoids contention on the manager when many threads log to the same appender.
+         *
+         * @param stripedBuffers true to enable striped buffers.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setStripedBuffers(final boolean stripedBuffers) {
+            this.stripedBuffers = stripedBuffers;
+            return asBuilder();
+        }
+
     }
 
     private final String fileName;
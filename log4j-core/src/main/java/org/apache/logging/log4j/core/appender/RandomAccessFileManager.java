@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -107,6 +108,23 @@ public class RandomAccessFileManager extends OutputStreamManager {
         flushBuffer(byteBuffer);
     }
 
+    /**
+     * Forces the content of the file to the storage device.
+     *
+     * @since 2.20.0
+     */
+    @Override
+    protected void forceDestination() {
+        try {
+            randomAccessFile.getChannel().force(false);
+        } catch (final ClosedChannelException ex) {
+            // the file was closed, which already wrote its content
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Error forcing RandomAccessFile " + getName() + " to the storage device",
+                    ex);
+        }
+    }
+
     @Override
     public synchronized boolean closeOutputStream() {
         flush();
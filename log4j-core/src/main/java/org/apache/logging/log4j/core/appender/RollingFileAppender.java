@@ -100,6 +100,9 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean compressOnWrite;
+
         @Override
         public RollingFileAppender build() {
             if (!isValid()) {
@@ -134,7 +137,7 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
             final Layout<? extends Serializable> layout = getOrCreateLayout();
             final RollingFileManager manager = RollingFileManager.getFileManager(fileName, filePattern, append,
                     isBufferedIo, policy, strategy, advertiseUri, layout, bufferSize, isImmediateFlush(),
-                    createOnDemand, filePermissions, fileOwner, fileGroup, getConfiguration());
+                    createOnDemand, filePermissions, fileOwner, fileGroup, compressOnWrite, getConfiguration());
             if (manager == null) {
                 return null;
             }
@@ -254,6 +257,29 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
             return asBuilder();
         }
 
+        /**
+         * @since 2.20.0
+         */
+        public boolean isCompressOnWrite() {
+            return compressOnWrite;
+        }
+
+        /**
+         * Writes the active file compressed in the format of the file pattern's extension, gzip or Zstandard, so
+         * that rollover only renames the file. The compressor is flushed whenever the appender flushes, so the data
+         * flushed so far stays decodable if the process crashes. An active file that is not empty when the appender
+         * starts is rolled over first, since it may end with data left unfinished by a crash. Size based triggering
+         * policies compare their size with the uncompressed size of the data written.
+         *
+         * @param compressOnWrite true to compress the active file while writing.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B withCompressOnWrite(final boolean compressOnWrite) {
+            this.compressOnWrite = compressOnWrite;
+            return asBuilder();
+        }
+
     }
 
     private static final int DEFAULT_BUFFER_SIZE = 8192;
@@ -40,6 +40,8 @@ import org.apache.logging.log4j.core.config.plugins.validation.constraints.Valid
 import org.apache.logging.log4j.core.net.AbstractSocketManager;
 import org.apache.logging.log4j.core.net.Advertiser;
 import org.apache.logging.log4j.core.net.DatagramSocketManager;
+import org.apache.logging.log4j.core.net.NioTcpSocketManager;
+import org.apache.logging.log4j.core.net.NioTcpSocketManager.HighWaterMarkPolicy;
 import org.apache.logging.log4j.core.net.Protocol;
 import org.apache.logging.log4j.core.net.SocketOptions;
 import org.apache.logging.log4j.core.net.SslSocketManager;
@@ -88,6 +90,15 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         @ValidPort
         private int port;
 
+        @PluginBuilderAttribute
+        private boolean nonBlocking;
+
+        @PluginBuilderAttribute
+        private int highWaterMark;
+
+        @PluginBuilderAttribute
+        private HighWaterMarkPolicy highWaterMarkPolicy = HighWaterMarkPolicy.DROP;
+
         @PluginBuilderAttribute
         private Protocol protocol = Protocol.TCP;
 
@@ -130,6 +141,27 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             return immediateFail;
         }
 
+        /**
+         * @since 2.20.0
+         */
+        public boolean isNonBlocking() {
+            return nonBlocking;
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public int getHighWaterMark() {
+            return highWaterMark;
+        }
+
+        /**
+         * @since 2.20.0
+         */
+        public HighWaterMarkPolicy getHighWaterMarkPolicy() {
+            return highWaterMarkPolicy;
+        }
+
         public B setAdvertise(final boolean advertise) {
             this.advertise = advertise;
             return asBuilder();
@@ -155,6 +187,42 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             return asBuilder();
         }
 
+        /**
+         * Sends TCP events from a dedicated I/O thread so that logging threads never wait for the network.
+         *
+         * @param nonBlocking whether to use a {@link NioTcpSocketManager}.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setNonBlocking(final boolean nonBlocking) {
+            this.nonBlocking = nonBlocking;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the maximum number of bytes waiting to be sent by a non-blocking TCP appender.
+         *
+         * @param highWaterMark the high-water mark in bytes, 0 for the default.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setHighWaterMark(final int highWaterMark) {
+            this.highWaterMark = highWaterMark;
+            return asBuilder();
+        }
+
+        /**
+         * Sets what a non-blocking TCP appender does with events beyond the high-water mark.
+         *
+         * @param highWaterMarkPolicy the policy.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setHighWaterMarkPolicy(final HighWaterMarkPolicy highWaterMarkPolicy) {
+            this.highWaterMarkPolicy = highWaterMarkPolicy;
+            return asBuilder();
+        }
+
         public B setProtocol(final Protocol protocol) {
             this.protocol = protocol;
             return asBuilder();
@@ -273,7 +341,8 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             }
 
             final AbstractSocketManager manager = SocketAppender.createSocketManager(name, actualProtocol, getHost(), getPort(),
-                    getConnectTimeoutMillis(), getSslConfiguration(), getReconnectDelayMillis(), getImmediateFail(), layout, getBufferSize(), getSocketOptions());
+                    getConnectTimeoutMillis(), getSslConfiguration(), getReconnectDelayMillis(), getImmediateFail(), layout, getBufferSize(), getSocketOptions(),
+                    isNonBlocking(), getHighWaterMark(), getHighWaterMarkPolicy());
 
             return new SocketAppender(name, layout, getFilter(), manager, isIgnoreExceptions(),
                     !bufferedIo || immediateFlush, getAdvertise() ? getConfiguration().getAdvertiser() : null,
@@ -480,11 +549,29 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
      *
      * @throws IllegalArgumentException
      *             if the protocol cannot be handled.
+     * @deprecated Use {@link #createSocketManager(String, Protocol, String, int, int, SslConfiguration, int, boolean, Layout, int, SocketOptions, boolean, int, HighWaterMarkPolicy)}.
+     */
+    @Deprecated
+    protected static AbstractSocketManager createSocketManager(final String name, final Protocol protocol,
+            final String host, final int port, final int connectTimeoutMillis, final SslConfiguration sslConfig,
+            final int reconnectDelayMillis, final boolean immediateFail, final Layout<? extends Serializable> layout,
+            final int bufferSize, final SocketOptions socketOptions) {
+        return createSocketManager(name, protocol, host, port, connectTimeoutMillis, sslConfig, reconnectDelayMillis,
+                immediateFail, layout, bufferSize, socketOptions, false, 0, null);
+    }
+
+    /**
+     * Creates an AbstractSocketManager for TCP, UDP, and SSL.
+     *
+     * @throws IllegalArgumentException
+     *             if the protocol cannot be handled.
+     * @since 2.20.0
      */
     protected static AbstractSocketManager createSocketManager(final String name, Protocol protocol, final String host,
             final int port, final int connectTimeoutMillis, final SslConfiguration sslConfig,
             final int reconnectDelayMillis, final boolean immediateFail, final Layout<? extends Serializable> layout,
-            final int bufferSize, final SocketOptions socketOptions) {
+            final int bufferSize, final SocketOptions socketOptions, final boolean nonBlocking,
+            final int highWaterMark, final HighWaterMarkPolicy highWaterMarkPolicy) {
         if (protocol == Protocol.TCP && sslConfig != null) {
             // Upgrade TCP to SSL if an SSL config is specified.
             protocol = Protocol.SSL;
@@ -492,8 +579,15 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         if (protocol != Protocol.SSL && sslConfig != null) {
             LOGGER.info("Appender {} ignoring SSL configuration for {} protocol", name, protocol);
         }
+        if (nonBlocking && protocol != Protocol.TCP) {
+            LOGGER.info("Appender {} ignoring nonBlocking for {} protocol", name, protocol);
+        }
         switch (protocol) {
         case TCP:
+            if (nonBlocking) {
+                return NioTcpSocketManager.getSocketManager(host, port, connectTimeoutMillis, reconnectDelayMillis,
+                        layout, bufferSize, socketOptions, highWaterMark, highWaterMarkPolicy);
+            }
             return TcpSocketManager.getSocketManager(host, port, connectTimeoutMillis, reconnectDelayMillis,
                     immediateFail, layout, bufferSize, socketOptions);
         case UDP:
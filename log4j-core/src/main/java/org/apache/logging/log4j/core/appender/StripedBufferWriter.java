@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.util.Constants;
+
+/**
+ * Combines events encoded by many threads into a single {@link OutputStreamManager} without making the producers
+ * contend on the manager's monitor.
+ * <p>
+ * Each thread encodes its event into its own {@link Slice}, publishes the slice on a lock-free stack and then either
+ * becomes the combiner or waits for the current combiner to write its slice. The combiner takes all published slices
+ * at once, restores their publication order and writes them to the manager one after the other, so the bytes of an
+ * event are never interleaved with the bytes of another event. A single {@code flush()} covers all slices of a batch
+ * that requested an immediate flush.
+ * </p>
+ */
+final class StripedBufferWriter {
+
+    // spinning only makes sense when the combining thread can run at the same time
+    private static final int MAX_SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
+    private static final int MAX_BATCHES = 16;
+    // Thread.onSpinWait() is only available on Java 9 and later
+    private static final MethodHandle ON_SPIN_WAIT = findOnSpinWait();
+
+    private final OutputStreamManager manager;
+    private final int sliceSize;
+    private final AtomicReference<Slice> pending = new AtomicReference<>();
+    private final AtomicBoolean combining = new AtomicBoolean();
+    private final ThreadLocal<Slice> threadLocalSlice;
+
+    StripedBufferWriter(final OutputStreamManager manager, final int sliceSize) {
+        this.manager = manager;
+        this.sliceSize = sliceSize;
+        this.threadLocalSlice = Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(this::newSlice) : null;
+    }
+
+    private static MethodHandle findOnSpinWait() {
+        try {
+            return MethodHandles.lookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static void onSpinWait() {
+        if (ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (final Throwable t) {
+                // cannot happen, the method throws nothing
+            }
+        }
+    }
+
+    private Slice newSlice() {
+        return new Slice(sliceSize);
+    }
+
+    private Slice getSlice() {
+        return threadLocalSlice == null ? newSlice() : threadLocalSlice.get();
+    }
+
+    /**
+     * Encodes the specified event in the calling thread's slice and hands the slice over to the combiner.
+     *
+     * @param layout the layout used to encode the event
+     * @param event the event to encode
+     * @param flush whether the manager should be flushed once the event was written
+     */
+    void encode(final Layout<?> layout, final LogEvent event, final boolean flush) {
+        final Slice slice = getSlice();
+        boolean encoded = false;
+        try {
+            layout.encode(event, slice);
+            encoded = true;
+        } finally {
+            if (!encoded) {
+                // discard the partially encoded event, the thread's next event reuses the slice
+                slice.reset();
+            }
+        }
+        publishAndAwait(slice, flush);
+    }
+
+    /**
+     * Copies the specified bytes in the calling thread's slice and hands the slice over to the combiner.
+     *
+     * @param bytes the serialized event
+     * @param offset the offset into the byte array
+     * @param length the number of bytes to write
+     * @param flush whether the manager should be flushed once the event was written
+     */
+    void write(final byte[] bytes, final int offset, final int length, final boolean flush) {
+        final Slice slice = getSlice();
+        slice.writeBytes(bytes, offset, length);
+        publishAndAwait(slice, flush);
+    }
+
+    private void publishAndAwait(final Slice slice, final boolean flush) {
+        slice.prepare(flush);
+        Slice top;
+        do {
+            top = pending.get();
+            slice.next = top;
+        } while (!pending.compareAndSet(top, slice));
+
+        int spins = 0;
+        while (!slice.done) {
+            if (combining.compareAndSet(false, true)) {
+                combine();
+            } else if (spins < MAX_SPINS) {
+                spins++;
+                onSpinWait();
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        final RuntimeException error = slice.error;
+        slice.reset();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Writes the published slices. Must only be called by the thread that set {@link #combining}. The number of
+     * batches is bounded so that a single thread does not combine forever under sustained load; the combining role is
+     * then handed over to the owner of a pending slice.
+     */
+    private void combine() {
+        try {
+            Slice batch;
+            int batches = 0;
+            while (batches++ < MAX_BATCHES && (batch = pending.getAndSet(null)) != null) {
+                writeBatch(reverse(batch));
+            }
+        } finally {
+            combining.set(false);
+        }
+        // a slice published after the last getAndSet() but before the release above may not have found a combiner
+        final Slice top = pending.get();
+        if (top != null) {
+            LockSupport.unpark(top.owner);
+        }
+    }
+
+    private static Slice reverse(Slice slice) {
+        Slice previous = null;
+        while (slice != null) {
+            final Slice next = slice.next;
+            slice.next = previous;
+            previous = slice;
+            slice = next;
+        }
+        return previous;
+    }
+
+    private void writeBatch(final Slice first) {
+        final Thread combiner = Thread.currentThread();
+        boolean flush = false;
+        for (Slice slice = first; slice != null; slice = slice.next) {
+            flush |= slice.flush;
+            final ByteBuffer buffer = slice.buffer;
+            try {
+                manager.write(buffer.array(), buffer.arrayOffset(), buffer.position(), false);
+            } catch (final RuntimeException ex) {
+                slice.error = ex;
+            }
+        }
+        RuntimeException flushError = null;
+        if (flush) {
+            try {
+                manager.flush();
+            } catch (final RuntimeException ex) {
+                flushError = ex;
+            }
+        }
+        Slice slice = first;
+        while (slice != null) {
+            // read the link and the waiting thread before releasing the slice to its owner
+            final Slice next = slice.next;
+            final Thread owner = slice.owner;
+            if (slice.error == null && slice.flush) {
+                slice.error = flushError;
+            }
+            slice.done = true;
+            if (owner != combiner) {
+                LockSupport.unpark(owner);
+            }
+            slice = next;
+        }
+    }
+
+    /**
+     * The buffer a single thread encodes its event into. Grows as needed while encoding a large event and shrinks
+     * back to its initial size once the event was written.
+     */
+    static final class Slice implements ByteBufferDestination {
+
+        private final int initialSize;
+        private ByteBuffer buffer;
+        private Slice next;
+        private Thread owner;
+        private boolean flush;
+        private RuntimeException error;
+        private volatile boolean done;
+
+        Slice(final int initialSize) {
+            this.initialSize = initialSize;
+            this.buffer = ByteBuffer.wrap(new byte[initialSize]);
+        }
+
+        void prepare(final boolean flush) {
+            this.owner = Thread.currentThread();
+            this.flush = flush;
+            this.error = null;
+            this.done = false;
+        }
+
+        void reset() {
+            owner = null;
+            next = null;
+            error = null;
+            if (buffer.capacity() > initialSize) {
+                buffer = ByteBuffer.wrap(new byte[initialSize]);
+            } else {
+                ((Buffer) buffer).clear();
+            }
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            final ByteBuffer grown = ByteBuffer.wrap(new byte[buf.capacity() * 2]);
+            ((Buffer) buf).flip();
+            grown.put(buf);
+            buffer = grown;
+            return grown;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ensureRemaining(data.remaining());
+            buffer.put(data);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ensureRemaining(length);
+            buffer.put(data, offset, length);
+        }
+
+        private void ensureRemaining(final int length) {
+            while (buffer.remaining() < length) {
+                drain(buffer);
+            }
+        }
+    }
+}
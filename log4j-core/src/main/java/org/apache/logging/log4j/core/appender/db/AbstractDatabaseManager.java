@@ -20,6 +20,7 @@ package org.apache.logging.log4j.core.appender.db;
 import java.io.Flushable;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.core.Layout;
@@ -27,6 +28,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractManager;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Log4jThread;
 
 /**
  * Manager that allows database appenders to have their configuration reloaded without losing events.
@@ -101,13 +103,24 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
         return AbstractManager.getManager(name, factory, data);
     }
 
-    private final ArrayList<LogEvent> buffer;
+    private static final long FLUSH_POLL_MILLIS = 100;
+
+    private ArrayList<LogEvent> buffer;
     private final int bufferSize;
 
     private final Layout<? extends Serializable> layout;
 
     private boolean running;
 
+    private final long lingerMillis;
+    private final boolean backgroundWriterEnabled;
+    // Guarded by this: the current writer, the buffer handed to it, whether a writer is writing that buffer, and the
+    // buffer it returns when done.
+    private BackgroundWriter backgroundWriter;
+    private ArrayList<LogEvent> pendingBuffer;
+    private boolean pendingBufferTaken;
+    private ArrayList<LogEvent> spareBuffer;
+
     /**
      * Constructs the base manager.
      *
@@ -145,21 +158,149 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      * @param configuration My configuration.
      */
     protected AbstractDatabaseManager(final String name, final int bufferSize, final Layout<? extends Serializable> layout, final Configuration configuration) {
+        this(name, bufferSize, layout, configuration, false, 0);
+    }
+
+    /**
+     * Constructs the base manager.
+     * <p>
+     * With a background writer, a full buffer is handed to a dedicated thread that writes it to the database while
+     * logging threads fill a second buffer. A partially filled buffer is handed over after {@code lingerMillis}. When
+     * both buffers are full, logging threads wait for the writer.
+     * </p>
+     *
+     * @param name The manager name, which should include any configuration details that one might want to be able to
+     *             reconfigure at runtime, such as database name, username, (hashed) password, etc.
+     * @param bufferSize The size of the log event buffer, which is also the maximum size of a batch.
+     * @param layout the Appender-level layout.
+     * @param configuration My configuration.
+     * @param backgroundWriter Whether buffers are written by a background thread, ignored if {@code bufferSize} is
+     *             not positive.
+     * @param lingerMillis How long the background writer waits for a buffer to fill up, 0 to wait until it is full.
+     * @since 2.20.0
+     */
+    protected AbstractDatabaseManager(final String name, final int bufferSize,
+            final Layout<? extends Serializable> layout, final Configuration configuration,
+            final boolean backgroundWriter, final long lingerMillis) {
         // null configuration allowed for backward compatibility.
         // TODO should super track Configuration instead of LoggerContext?
         super(configuration != null ? configuration.getLoggerContext() : null, name);
         this.bufferSize = bufferSize;
         this.buffer = new ArrayList<>(bufferSize + 1);
         this.layout = layout; // A null layout is allowed.
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.backgroundWriterEnabled = backgroundWriter && bufferSize > 0;
+        if (this.backgroundWriterEnabled) {
+            this.spareBuffer = new ArrayList<>(bufferSize + 1);
+        }
     }
 
     protected void buffer(final LogEvent event) {
+        if (backgroundWriterEnabled) {
+            // waiting releases the monitor, so several producers may wake up together: check again after each wait
+            while (this.buffer.size() >= this.bufferSize) {
+                if (!handOff(true)) {
+                    break;
+                }
+            }
+            this.buffer.add(event.toImmutable());
+            if (this.buffer.size() >= this.bufferSize || event.isEndOfBatch()) {
+                handOff(false);
+            }
+            return;
+        }
         this.buffer.add(event.toImmutable());
         if (this.buffer.size() >= this.bufferSize || event.isEndOfBatch()) {
             this.flush();
         }
     }
 
+    /**
+     * Hands the active buffer to the background writer, or writes it from the calling thread if the writer is gone.
+     * Must be called holding this manager's monitor.
+     *
+     * @param wait whether to wait for the writer to finish the previous buffer.
+     * @return whether the buffer was handed over or written.
+     */
+    private boolean handOff(final boolean wait) {
+        if (!running) {
+            return false;
+        }
+        while (pendingBuffer != null) {
+            if (!isBackgroundWriterRunning()) {
+                break;
+            }
+            if (!wait) {
+                return false;
+            }
+            try {
+                // both buffers are full: apply back-pressure until the writer returns the previous one
+                wait();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (!isBackgroundWriterRunning()) {
+            writeBuffersInline();
+            return true;
+        }
+        pendingBuffer = buffer;
+        buffer = spareBuffer;
+        spareBuffer = null;
+        notifyAll();
+        return true;
+    }
+
+    // guarded by this
+    private boolean isBackgroundWriterRunning() {
+        return backgroundWriter != null && backgroundWriter.isAlive() && !backgroundWriter.shutdown;
+    }
+
+    /**
+     * Writes the buffer left to a background writer that is gone and the active buffer from the calling thread. Must
+     * be called holding this manager's monitor.
+     */
+    private void writeBuffersInline() {
+        // a stopping writer still finishes the buffer it took
+        while (pendingBufferTaken) {
+            try {
+                wait();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (pendingBuffer != null) {
+            final ArrayList<LogEvent> events = pendingBuffer;
+            try {
+                writeBuffer(events);
+            } finally {
+                events.clear();
+                spareBuffer = events;
+                pendingBuffer = null;
+            }
+        }
+        if (!buffer.isEmpty()) {
+            try {
+                writeBuffer(buffer);
+            } finally {
+                buffer.clear();
+            }
+        }
+    }
+
+    private void writeBuffer(final List<LogEvent> events) {
+        this.connectAndStart();
+        try {
+            for (final LogEvent event : events) {
+                this.writeInternal(event, layout != null ? layout.toSerializable(event) : null);
+            }
+        } finally {
+            this.commitAndClose();
+        }
+    }
+
     /**
      * Commits any active transaction (if applicable) and disconnects from the database (returns the connection to the
      * connection pool). With buffering enabled, this is called when flushing the buffer completes, after the last call
@@ -183,13 +324,26 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
     @Override
     public final synchronized void flush() {
         if (this.isRunning() && isBuffered()) {
-            this.connectAndStart();
-            try {
-                for (final LogEvent event : this.buffer) {
-                    this.writeInternal(event, layout != null ? layout.toSerializable(event) : null);
+            if (backgroundWriterEnabled) {
+                // wait until the background writer has written both buffers
+                while (isBackgroundWriterRunning() && (pendingBuffer != null || !buffer.isEmpty())) {
+                    if (pendingBuffer == null) {
+                        handOff(false);
+                    }
+                    try {
+                        wait(FLUSH_POLL_MILLIS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
                 }
+                // the writer is gone, write what is left from this thread
+                writeBuffersInline();
+                return;
+            }
+            try {
+                writeBuffer(this.buffer);
             } finally {
-                this.commitAndClose();
                 // not sure if this should be done when writing the events failed
                 this.buffer.clear();
             }
@@ -200,6 +354,16 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
         return this.bufferSize > 0;
     }
 
+    /**
+     * Indicates whether buffers are written to the database by a background thread.
+     *
+     * @return {@code true} if this manager uses a background writer.
+     * @since 2.20.0
+     */
+    public boolean isBackgroundWriter() {
+        return backgroundWriterEnabled;
+    }
+
     /**
      * Indicates whether the manager is currently connected {@link #startup()} has been called and {@link #shutdown()}
      * has not been called).
@@ -232,6 +396,11 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
                 closed = false;
             } finally {
                 this.running = false;
+                if (backgroundWriter != null) {
+                    backgroundWriter.shutdown = true;
+                    backgroundWriter = null;
+                    notifyAll();
+                }
             }
         }
         return closed;
@@ -255,6 +424,11 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
             try {
                 this.startupInternal();
                 this.running = true;
+                if (backgroundWriterEnabled && !isBackgroundWriterRunning()) {
+                    // a new writer for each start, a writer that stopped cannot be restarted
+                    backgroundWriter = new BackgroundWriter(getName());
+                    backgroundWriter.start();
+                }
             } catch (final Exception e) {
                 logError("Could not perform database startup operations", e);
             }
@@ -327,4 +501,77 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
             this.commitAndClose();
         }
     }
+
+    /**
+     * Writes the buffers handed over by logging threads, or the active buffer once it has lingered long enough.
+     */
+    private final class BackgroundWriter extends Log4jThread {
+
+        private volatile boolean shutdown;
+
+        private BackgroundWriter(final String managerName) {
+            super("DatabaseManager-BackgroundWriter-" + managerName);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            final Object lock = AbstractDatabaseManager.this;
+            while (true) {
+                final ArrayList<LogEvent> events;
+                synchronized (lock) {
+                    if (!awaitPendingBuffer()) {
+                        return;
+                    }
+                    events = pendingBuffer;
+                    pendingBufferTaken = true;
+                }
+                try {
+                    writeBuffer(events);
+                } catch (final RuntimeException e) {
+                    logError("Unable to write " + events.size() + " events to the database", e);
+                } finally {
+                    synchronized (lock) {
+                        events.clear();
+                        spareBuffer = events;
+                        pendingBuffer = null;
+                        pendingBufferTaken = false;
+                        lock.notifyAll();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Waits for a buffer to write, holding the manager's monitor. A writer that was shut down takes no more
+         * buffers, these are left to the next writer or to the logging threads.
+         *
+         * @return false if the writer was shut down.
+         */
+        private boolean awaitPendingBuffer() {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+            while (!shutdown) {
+                if (pendingBuffer != null && !pendingBufferTaken) {
+                    return true;
+                }
+                try {
+                    if (lingerMillis == 0) {
+                        AbstractDatabaseManager.this.wait();
+                        continue;
+                    }
+                    final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMillis > 0) {
+                        AbstractDatabaseManager.this.wait(remainingMillis);
+                    } else if (!buffer.isEmpty() && running) {
+                        handOff(false);
+                    } else {
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                    }
+                } catch (final InterruptedException e) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
 }
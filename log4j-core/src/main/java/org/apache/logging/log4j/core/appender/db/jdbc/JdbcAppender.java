@@ -53,6 +53,8 @@ import org.apache.logging.log4j.core.util.Booleans;
 @Plugin(name = "JDBC", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
 public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseManager> {
 
+    private static final long DEFAULT_LINGER_MILLIS = 1000;
+
     public static class Builder<B extends Builder<B>> extends AbstractDatabaseAppender.Builder<B>
         implements org.apache.logging.log4j.core.util.Builder<JdbcAppender> {
 
@@ -83,6 +85,12 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
         @PluginBuilderAttribute
         private long reconnectIntervalMillis = DEFAULT_RECONNECT_INTERVAL_MILLIS;
 
+        @PluginBuilderAttribute
+        private boolean backgroundWriter;
+
+        @PluginBuilderAttribute
+        private long lingerMillis = DEFAULT_LINGER_MILLIS;
+
         @Override
         public JdbcAppender build() {
             if (Assert.isEmpty(columnConfigs) && Assert.isEmpty(columnMappings)) {
@@ -91,10 +99,11 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
             }
             final String managerName = "JdbcManager{name=" + getName() + ", bufferSize=" + bufferSize + ", tableName="
                     + tableName + ", columnConfigs=" + Arrays.toString(columnConfigs) + ", columnMappings="
-                    + Arrays.toString(columnMappings) + '}';
+                    + Arrays.toString(columnMappings) + ", backgroundWriter=" + backgroundWriter + ", lingerMillis="
+                    + lingerMillis + '}';
             final JdbcDatabaseManager manager = JdbcDatabaseManager.getManager(managerName, bufferSize, getLayout(),
                     connectionSource, tableName, columnConfigs, columnMappings, immediateFail, reconnectIntervalMillis,
-                    truncateStrings);
+                    truncateStrings, backgroundWriter, lingerMillis);
             if (manager == null) {
                 return null;
             }
@@ -102,10 +111,24 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
                     manager);
         }
 
+        /**
+         * @since 2.20.0
+         */
+        public long getLingerMillis() {
+            return lingerMillis;
+        }
+
         public long getReconnectIntervalMillis() {
             return reconnectIntervalMillis;
         }
 
+        /**
+         * @since 2.20.0
+         */
+        public boolean isBackgroundWriter() {
+            return backgroundWriter;
+        }
+
         public boolean isImmediateFail() {
             return immediateFail;
         }
@@ -123,6 +146,34 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
             return asBuilder();
         }
 
+        /**
+         * If true and the buffer size is greater than 0, a full buffer is inserted and committed by a background thread
+         * while logging threads fill a second buffer. Logging threads only wait when both buffers are full.
+         *
+         * @param backgroundWriter whether to write buffers from a background thread.
+         *
+         * @return this
+         * @since 2.20.0
+         */
+        public B setBackgroundWriter(final boolean backgroundWriter) {
+            this.backgroundWriter = backgroundWriter;
+            return asBuilder();
+        }
+
+        /**
+         * How long the background writer waits for a buffer to fill up before writing it anyway. 0 waits until the
+         * buffer is full, an end of batch is logged or the appender is flushed.
+         *
+         * @param lingerMillis the linger time in milliseconds.
+         *
+         * @return this
+         * @since 2.20.0
+         */
+        public B setLingerMillis(final long lingerMillis) {
+            this.lingerMillis = lingerMillis;
+            return asBuilder();
+        }
+
         /**
          * Information about the columns that log event data should be inserted into and how to insert that data.
          *
@@ -75,11 +75,21 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         private final boolean retry;
         private final long reconnectIntervalMillis;
         private final boolean truncateStrings;
+        private final boolean backgroundWriter;
+        private final long lingerMillis;
 
         protected FactoryData(final int bufferSize, final Layout<? extends Serializable> layout,
                 final ConnectionSource connectionSource, final String tableName, final ColumnConfig[] columnConfigs,
                 final ColumnMapping[] columnMappings, final boolean immediateFail, final long reconnectIntervalMillis,
                 final boolean truncateStrings) {
+            this(bufferSize, layout, connectionSource, tableName, columnConfigs, columnMappings, immediateFail,
+                    reconnectIntervalMillis, truncateStrings, false, 0);
+        }
+
+        protected FactoryData(final int bufferSize, final Layout<? extends Serializable> layout,
+                final ConnectionSource connectionSource, final String tableName, final ColumnConfig[] columnConfigs,
+                final ColumnMapping[] columnMappings, final boolean immediateFail, final long reconnectIntervalMillis,
+                final boolean truncateStrings, final boolean backgroundWriter, final long lingerMillis) {
             super(bufferSize, layout);
             this.connectionSource = connectionSource;
             this.tableName = tableName;
@@ -89,14 +99,16 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
             this.retry = reconnectIntervalMillis > 0;
             this.reconnectIntervalMillis = reconnectIntervalMillis;
             this.truncateStrings = truncateStrings;
+            this.backgroundWriter = backgroundWriter;
+            this.lingerMillis = lingerMillis;
         }
 
         @Override
         public String toString() {
             return String.format(
-                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s]",
+                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s, backgroundWriter=%s, lingerMillis=%s]",
                     connectionSource, tableName, Arrays.toString(columnConfigs), Arrays.toString(columnMappings),
-                    immediateFail, retry, reconnectIntervalMillis, truncateStrings);
+                    immediateFail, retry, reconnectIntervalMillis, truncateStrings, backgroundWriter, lingerMillis);
         }
     }
 
@@ -456,7 +468,10 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
      * @param reconnectIntervalMillis How often to reconnect to the database when a SQL exception is detected.
      * @param truncateStrings Whether or not to truncate strings to match column metadata.
      * @return a new or existing JDBC manager as applicable.
+     * @deprecated use
+     * {@link #getManager(String, int, Layout, ConnectionSource, String, ColumnConfig[], ColumnMapping[], boolean, long, boolean, boolean, long)}
      */
+    @Deprecated
     public static JdbcDatabaseManager getManager(final String name, final int bufferSize,
             final Layout<? extends Serializable> layout, final ConnectionSource connectionSource,
             final String tableName, final ColumnConfig[] columnConfigs, final ColumnMapping[] columnMappings,
@@ -465,6 +480,35 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                 columnMappings, immediateFail, reconnectIntervalMillis, truncateStrings), getFactory());
     }
 
+    /**
+     * Creates a JDBC manager for use within the {@link JdbcAppender}, or returns a suitable one if it already exists.
+     *
+     * @param name The name of the manager, which should include connection details and hashed passwords where possible.
+     * @param bufferSize The size of the log event buffer, which is also the maximum size of a batch.
+     * @param layout The Appender-level layout
+     * @param connectionSource The source for connections to the database.
+     * @param tableName The name of the database table to insert log events into.
+     * @param columnConfigs Configuration information about the log table columns.
+     * @param columnMappings column mapping configuration (including type conversion).
+     * @param immediateFail Whether or not to fail immediately with a {@link AppenderLoggingException} when connecting
+     * to JDBC fails.
+     * @param reconnectIntervalMillis How often to reconnect to the database when a SQL exception is detected.
+     * @param truncateStrings Whether or not to truncate strings to match column metadata.
+     * @param backgroundWriter Whether full buffers are inserted and committed by a background thread.
+     * @param lingerMillis How long the background writer waits for a buffer to fill up.
+     * @return a new or existing JDBC manager as applicable.
+     * @since 2.20.0
+     */
+    public static JdbcDatabaseManager getManager(final String name, final int bufferSize,
+            final Layout<? extends Serializable> layout, final ConnectionSource connectionSource,
+            final String tableName, final ColumnConfig[] columnConfigs, final ColumnMapping[] columnMappings,
+            final boolean immediateFail, final long reconnectIntervalMillis, final boolean truncateStrings,
+            final boolean backgroundWriter, final long lingerMillis) {
+        return getManager(name, new FactoryData(bufferSize, layout, connectionSource, tableName, columnConfigs,
+                columnMappings, immediateFail, reconnectIntervalMillis, truncateStrings, backgroundWriter,
+                lingerMillis), getFactory());
+    }
+
     // NOTE: prepared statements are prepared in this order: column mappings, then column configs
     private final List<ColumnConfig> columnConfigs;
     private final String sqlStatement;
@@ -474,10 +518,12 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
     private volatile Reconnector reconnector;
     private volatile boolean isBatchSupported;
     private volatile Map<String, ResultSetColumnMetaData> columnMetaData;
+    // guards connecting, so that a background writer waiting for the database does not hold this manager's monitor
+    private final Object connectionLock = new Object();
 
     private JdbcDatabaseManager(final String name, final String sqlStatement, final List<ColumnConfig> columnConfigs,
             final FactoryData factoryData) {
-        super(name, factoryData.getBufferSize());
+        super(name, factoryData.getBufferSize(), null, null, factoryData.backgroundWriter, factoryData.lingerMillis);
         this.sqlStatement = sqlStatement;
         this.columnConfigs = columnConfigs;
         this.factoryData = factoryData;
@@ -607,8 +653,8 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     @Override
     protected void connectAndStart() {
-        checkConnection();
-        synchronized (this) {
+        synchronized (connectionLock) {
+            checkConnection();
             try {
                 connectAndPrepare();
             } catch (final SQLException e) {
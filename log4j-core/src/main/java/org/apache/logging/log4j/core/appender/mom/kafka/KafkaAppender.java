@@ -68,6 +68,9 @@ public final class KafkaAppender extends AbstractAppender {
         @PluginAttribute(value = "sendEventTimestamp", defaultBoolean = false)
         private boolean sendEventTimestamp;
 
+        @PluginAttribute("maxInFlight")
+        private int maxInFlight;
+
         @SuppressWarnings("resource")
         @Override
         public KafkaAppender build() {
@@ -77,7 +80,7 @@ public final class KafkaAppender extends AbstractAppender {
                 return null;
             }
             final KafkaManager kafkaManager = KafkaManager.getManager(getConfiguration().getLoggerContext(), getName(),
-                    topic, syncSend, sendEventTimestamp, getPropertyArray(), key);
+                    topic, syncSend, sendEventTimestamp, maxInFlight, getPropertyArray(), key);
             return new KafkaAppender(getName(), layout, getFilter(), isIgnoreExceptions(), kafkaManager,
                     getPropertyArray(), getRetryCount());
         }
@@ -92,6 +95,13 @@ public final class KafkaAppender extends AbstractAppender {
             return intRetryCount;
         }
 
+        /**
+         * @since 2.20.0
+         */
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
         public String getTopic() {
             return topic;
         }
@@ -115,6 +125,19 @@ public final class KafkaAppender extends AbstractAppender {
           return asBuilder();
         }
 
+        /**
+         * Bounds the number of records sent asynchronously but not yet acknowledged. Only used when
+         * {@code syncSend} is {@code false}; 0, the default, does not track records.
+         *
+         * @param maxInFlight the maximum number of records in flight.
+         * @return this builder.
+         * @since 2.20.0
+         */
+        public B setMaxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return asBuilder();
+        }
+
         public B setRetryCount(final int retryCount) {
             this.retryCount = retryCount;
             return asBuilder();
@@ -227,6 +250,20 @@ public final class KafkaAppender extends AbstractAppender {
         return stopped;
     }
 
+    /**
+     * Waits until the events appended so far have been acknowledged by Kafka or failed.
+     *
+     * @return {@code true} if no event is in flight anymore.
+     * @since 2.20.0
+     */
+    public boolean flush() {
+        return manager.flush();
+    }
+
+    private void sendFailed(final Exception e) {
+        error("Unable to write to Kafka in appender [" + getName() + "]", e);
+    }
+
     @Override
     public String toString() {
         return "KafkaAppender{" + "name=" + getName() + ", state=" + getState() + ", topic=" + manager.getTopic() + '}';
@@ -244,6 +281,6 @@ public final class KafkaAppender extends AbstractAppender {
         } else {
             data = layout.toByteArray(event);
         }
-        manager.send(data, event.getTimeMillis());
+        manager.send(data, event.getTimeMillis(), this::sendFailed);
     }
 }
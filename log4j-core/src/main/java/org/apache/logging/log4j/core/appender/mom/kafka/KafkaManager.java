@@ -21,8 +21,10 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -53,6 +55,8 @@ public class KafkaManager extends AbstractManager {
     private final String key;
     private final boolean syncSend;
     private final boolean sendTimestamp;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
 
     private static final KafkaManagerFactory factory = new KafkaManagerFactory();
 
@@ -62,15 +66,17 @@ public class KafkaManager extends AbstractManager {
      */
     public KafkaManager(final LoggerContext loggerContext, final String name, final String topic,
             final boolean syncSend, final Property[] properties, final String key) {
-        this(loggerContext, name, topic, syncSend, false, properties, key);
+        this(loggerContext, name, topic, syncSend, false, 0, properties, key);
     }
 
     private KafkaManager(final LoggerContext loggerContext, final String name, final String topic, final boolean syncSend,
-            final boolean sendTimestamp, final Property[] properties, final String key) {
+            final boolean sendTimestamp, final int maxInFlight, final Property[] properties, final String key) {
         super(loggerContext, name);
         this.topic = Objects.requireNonNull(topic, "topic");
         this.syncSend = syncSend;
         this.sendTimestamp = sendTimestamp;
+        this.maxInFlight = syncSend ? 0 : Math.max(0, maxInFlight);
+        this.inFlight = this.maxInFlight > 0 ? new Semaphore(this.maxInFlight) : null;
 
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
@@ -91,6 +97,10 @@ public class KafkaManager extends AbstractManager {
 
     @Override
     public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        if (inFlight != null && !flush(timeout > 0 ? timeUnit.toMillis(timeout) : timeoutMillis,
+                TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("{} records were still in flight when closing {}", getInFlightCount(), getName());
+        }
         if (timeout > 0) {
             closeProducer(timeout, timeUnit);
         } else {
@@ -125,6 +135,25 @@ public class KafkaManager extends AbstractManager {
     }
 
     public void send(final byte[] msg, final Long eventTimestamp) throws ExecutionException, InterruptedException, TimeoutException {
+        send(msg, eventTimestamp, e -> LOGGER.error("Unable to write to Kafka in appender [" + getName() + "]", e));
+    }
+
+    /**
+     * Sends a record to the topic.
+     * <p>
+     * With {@code syncSend}, waits for the broker's acknowledgement. Otherwise returns as soon as the producer has
+     * accepted the record and reports a failure to {@code onFailure} from the producer's I/O thread. When the number
+     * of records in flight is bounded, first waits up to the request timeout for one of them to complete.
+     * </p>
+     *
+     * @param msg the record value.
+     * @param eventTimestamp the event timestamp, sent if {@code sendEventTimestamp} is set.
+     * @param onFailure receives the exception of an asynchronous send that failed.
+     * @throws TimeoutException if the record could not be sent or tracked before the request timeout.
+     * @since 2.20.0
+     */
+    public void send(final byte[] msg, final Long eventTimestamp, final Consumer<Exception> onFailure)
+            throws ExecutionException, InterruptedException, TimeoutException {
         if (producer != null) {
             byte[] newKey = null;
 
@@ -141,16 +170,90 @@ public class KafkaManager extends AbstractManager {
             if (syncSend) {
                 final Future<RecordMetadata> response = producer.send(newRecord);
                 response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } else if (inFlight != null) {
+                if (!inFlight.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException(maxInFlight + " records in flight to Kafka in appender ["
+                            + getName() + "]");
+                }
+                try {
+                    producer.send(newRecord, (metadata, e) -> {
+                        inFlight.release();
+                        if (e != null) {
+                            onFailure.accept(e);
+                        }
+                    });
+                } catch (final RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
             } else {
                 producer.send(newRecord, (metadata, e) -> {
                     if (e != null) {
-                        LOGGER.error("Unable to write to Kafka in appender [" + getName() + "]", e);
+                        onFailure.accept(e);
                     }
                 });
             }
         }
     }
 
+    /**
+     * Waits until the records sent so far have been acknowledged or failed, up to the request timeout.
+     *
+     * @return {@code true} if no record is in flight anymore.
+     * @since 2.20.0
+     */
+    public boolean flush() {
+        return flush(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits until the records sent so far have been acknowledged or failed.
+     * <p>
+     * When the number of records in flight is bounded, this waits at most the given timeout. Otherwise it delegates to
+     * the producer's {@code flush()}, which does not time out.
+     * </p>
+     *
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the unit of the timeout.
+     * @return {@code true} if no record is in flight anymore.
+     * @since 2.20.0
+     */
+    public boolean flush(final long timeout, final TimeUnit timeUnit) {
+        if (producer == null) {
+            return true;
+        }
+        if (inFlight == null) {
+            producer.flush();
+            return true;
+        }
+        try {
+            if (inFlight.tryAcquire(maxInFlight, timeout, timeUnit)) {
+                inFlight.release(maxInFlight);
+                return true;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of records sent but not yet acknowledged, when that number is bounded.
+     *
+     * @return the number of records in flight, or 0 if they are not tracked.
+     * @since 2.20.0
+     */
+    public int getInFlightCount() {
+        return inFlight != null ? maxInFlight - inFlight.availablePermits() : 0;
+    }
+
+    /**
+     * @since 2.20.0
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
     public void startup() {
         if (producer == null) {
             producer = producerFactory.newKafkaProducer(config);
@@ -164,23 +267,26 @@ public class KafkaManager extends AbstractManager {
     @Deprecated
     public static KafkaManager getManager(final LoggerContext loggerContext, final String name, final String topic,
             final boolean syncSend, final Property[] properties, final String key) {
-        return getManager(loggerContext, name, topic, syncSend, false, properties, key);
+        return getManager(loggerContext, name, topic, syncSend, false, 0, properties, key);
     }
 
     static KafkaManager getManager(final LoggerContext loggerContext, final String name, final String topic,
-            final boolean syncSend, final boolean sendTimestamp, final Property[] properties, final String key) {
+            final boolean syncSend, final boolean sendTimestamp, final int maxInFlight, final Property[] properties,
+            final String key) {
         StringBuilder sb = new StringBuilder(name);
         sb.append(" ")
             .append(topic)
             .append(" ")
             .append(syncSend)
             .append(" ")
-            .append(sendTimestamp);
+            .append(sendTimestamp)
+            .append(" ")
+            .append(maxInFlight);
         for (Property prop : properties) {
             sb.append(" ").append(prop.getName()).append("=").append(prop.getValue());
         }
         return getManager(sb.toString(), factory, new FactoryData(loggerContext, topic, syncSend, sendTimestamp,
-                properties, key));
+                maxInFlight, properties, key));
     }
 
     private static class FactoryData {
@@ -188,15 +294,17 @@ public class KafkaManager extends AbstractManager {
         private final String topic;
         private final boolean syncSend;
         private final boolean sendTimestamp;
+        private final int maxInFlight;
         private final Property[] properties;
         private final String key;
 
         public FactoryData(final LoggerContext loggerContext, final String topic, final boolean syncSend,
-                final boolean sendTimestamp, final Property[] properties, final String key) {
+                final boolean sendTimestamp, final int maxInFlight, final Property[] properties, final String key) {
             this.loggerContext = loggerContext;
             this.topic = topic;
             this.syncSend = syncSend;
             this.sendTimestamp = sendTimestamp;
+            this.maxInFlight = maxInFlight;
             this.properties = properties;
             this.key = key;
         }
@@ -207,7 +315,7 @@ public class KafkaManager extends AbstractManager {
         @Override
         public KafkaManager createManager(String name, FactoryData data) {
             return new KafkaManager(data.loggerContext, name, data.topic, data.syncSend, data.sendTimestamp,
-                    data.properties, data.key);
+                    data.maxInFlight, data.properties, data.key);
         }
     }
 
@@ -30,8 +30,11 @@ import java.util.zip.Deflater;
 
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.appender.rolling.action.CodecCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionCodec;
 import org.apache.logging.log4j.core.appender.rolling.action.FileRenameAction;
+import org.apache.logging.log4j.core.appender.rolling.action.ParallelGzCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.PathCondition;
 import org.apache.logging.log4j.core.appender.rolling.action.PosixViewAttributeAction;
 import org.apache.logging.log4j.core.config.Configuration;
@@ -100,9 +103,18 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         @PluginBuilderAttribute("compressionLevel")
         private String compressionLevelStr;
 
+        @PluginBuilderAttribute("compressionThreads")
+        private String compressionThreadsStr;
+
+        @PluginBuilderAttribute("compressionBlockSize")
+        private String compressionBlockSizeStr;
+
         @PluginElement("Actions")
         private Action[] customActions;
 
+        @PluginElement("CompressionCodec")
+        private CompressionCodec compressionCodec;
+
         @PluginBuilderAttribute(value = "stopCustomActionsOnError")
         private boolean stopCustomActionsOnError = true;
 
@@ -143,10 +155,19 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             }
             final String trimmedCompressionLevelStr = compressionLevelStr != null ? compressionLevelStr.trim() : compressionLevelStr;
             final int compressionLevel = Integers.parseInt(trimmedCompressionLevelStr, Deflater.DEFAULT_COMPRESSION);
+            final int compressionThreads = Math.max(1, Integers.parseInt(compressionThreadsStr, 1));
+            int compressionBlockSize = compressionBlockSizeStr == null ? ParallelGzCompressAction.DEFAULT_BLOCK_SIZE
+                    : (int) Math.min(Integer.MAX_VALUE,
+                            FileSize.parse(compressionBlockSizeStr, ParallelGzCompressAction.DEFAULT_BLOCK_SIZE));
+            if (compressionBlockSize < ParallelGzCompressAction.MIN_BLOCK_SIZE) {
+                LOGGER.error("Compression block size too small. Limited to " + ParallelGzCompressAction.MIN_BLOCK_SIZE);
+                compressionBlockSize = ParallelGzCompressAction.MIN_BLOCK_SIZE;
+            }
             // The config object can be null when this object is built programmatically.
             final StrSubstitutor nonNullStrSubstitutor = config != null ? config.getStrSubstitutor() : new StrSubstitutor();
-			return new DefaultRolloverStrategy(minIndex, maxIndex, useMax, compressionLevel, nonNullStrSubstitutor,
-                    customActions, stopCustomActionsOnError, tempCompressedFilePattern);
+            return new DefaultRolloverStrategy(minIndex, maxIndex, useMax, compressionLevel, compressionThreads,
+                    compressionBlockSize, compressionCodec, nonNullStrSubstitutor, customActions, stopCustomActionsOnError,
+                    tempCompressedFilePattern);
         }
 
         public String getMax() {
@@ -210,6 +231,56 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             return this;
         }
 
+        public String getCompressionThreadsStr() {
+            return compressionThreadsStr;
+        }
+
+        /**
+         * Defines the number of threads compressing a rolled file.
+         *
+         * @param compressionThreadsStr The number of threads, 1 (the default) compresses on a single thread; applies
+         *                              only to GZ files.
+         * @return This builder for chaining convenience
+         * @since 2.20.0
+         */
+        public Builder withCompressionThreadsStr(final String compressionThreadsStr) {
+            this.compressionThreadsStr = compressionThreadsStr;
+            return this;
+        }
+
+        public String getCompressionBlockSizeStr() {
+            return compressionBlockSizeStr;
+        }
+
+        /**
+         * Defines the size of the blocks compressed in parallel.
+         *
+         * @param compressionBlockSizeStr The block size, for example "128KB" (the default); applies only to GZ files
+         *                                compressed on more than one thread.
+         * @return This builder for chaining convenience
+         * @since 2.20.0
+         */
+        public Builder withCompressionBlockSizeStr(final String compressionBlockSizeStr) {
+            this.compressionBlockSizeStr = compressionBlockSizeStr;
+            return this;
+        }
+
+        public CompressionCodec getCompressionCodec() {
+            return compressionCodec;
+        }
+
+        /**
+         * Defines the codec compressing rolled over files whose name ends with the codec's file extension.
+         *
+         * @param compressionCodec The compression codec, for example a configured {@code Zstd} element.
+         * @return This builder for chaining convenience
+         * @since 2.20.0
+         */
+        public Builder withCompressionCodec(final CompressionCodec compressionCodec) {
+            this.compressionCodec = compressionCodec;
+            return this;
+        }
+
         public Action[] getCustomActions() {
             return customActions;
         }
@@ -325,6 +396,9 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
     private final int minIndex;
     private final boolean useMax;
     private final int compressionLevel;
+    private final int compressionThreads;
+    private final int compressionBlockSize;
+    private final CompressionCodec compressionCodec;
     private final List<Action> customActions;
     private final boolean stopCustomActionsOnError;
     private final PatternProcessor tempCompressedFilePattern;
@@ -355,15 +429,42 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
      * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
      * @param tempCompressedFilePatternString File pattern of the working file
      *                                     used during compression, if null no temporary file are used
+     * @deprecated Since 2.20.0 Added compressionThreads and compressionBlockSize parameters
      */
+    @Deprecated
     protected DefaultRolloverStrategy(final int minIndex, final int maxIndex, final boolean useMax,
             final int compressionLevel, final StrSubstitutor strSubstitutor, final Action[] customActions,
             final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
+        this(minIndex, maxIndex, useMax, compressionLevel, 1, ParallelGzCompressAction.DEFAULT_BLOCK_SIZE,
+                null, strSubstitutor, customActions, stopCustomActionsOnError, tempCompressedFilePatternString);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param minIndex The minimum index.
+     * @param maxIndex The maximum index.
+     * @param compressionThreads The number of threads compressing a rolled file.
+     * @param compressionBlockSize The size of the blocks compressed in parallel.
+     * @param compressionCodec The codec compressing files whose name ends with its file extension, may be null.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @since 2.20.0
+     */
+    protected DefaultRolloverStrategy(final int minIndex, final int maxIndex, final boolean useMax,
+            final int compressionLevel, final int compressionThreads, final int compressionBlockSize,
+            final CompressionCodec compressionCodec, final StrSubstitutor strSubstitutor, final Action[] customActions,
+            final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
         super(strSubstitutor);
         this.minIndex = minIndex;
         this.maxIndex = maxIndex;
         this.useMax = useMax;
         this.compressionLevel = compressionLevel;
+        this.compressionThreads = compressionThreads;
+        this.compressionBlockSize = compressionBlockSize;
+        this.compressionCodec = compressionCodec;
         this.stopCustomActionsOnError = stopCustomActionsOnError;
         this.customActions = customActions == null ? Collections.<Action> emptyList() : Arrays.asList(customActions);
         this.tempCompressedFilePattern =
@@ -374,6 +475,27 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         return this.compressionLevel;
     }
 
+    /**
+     * @since 2.20.0
+     */
+    public int getCompressionThreads() {
+        return this.compressionThreads;
+    }
+
+    /**
+     * @since 2.20.0
+     */
+    public int getCompressionBlockSize() {
+        return this.compressionBlockSize;
+    }
+
+    /**
+     * @since 2.20.0
+     */
+    public CompressionCodec getCompressionCodec() {
+        return this.compressionCodec;
+    }
+
     public List<Action> getCustomActions() {
         return customActions;
     }
@@ -546,10 +668,14 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         final String compressedName = renameTo;
         Action compressAction = null;
 
-        final FileExtension fileExtension = manager.getFileExtension();
-        if (fileExtension != null) {
+        // when the active file is already compressed the rollover only renames it
+        final FileExtension fileExtension = manager.isCompressOnWrite() ? null : manager.getFileExtension();
+        final boolean useCodec = !manager.isCompressOnWrite() && compressionCodec != null
+                && compressedName.endsWith(compressionCodec.getFileExtension());
+        if (useCodec || fileExtension != null) {
             final File renameToFile = new File(renameTo);
-            renameTo = renameTo.substring(0, renameTo.length() - fileExtension.length());
+            final int extensionLength = useCodec ? compressionCodec.getFileExtension().length() : fileExtension.length();
+            renameTo = renameTo.substring(0, renameTo.length() - extensionLength);
             if (tempCompressedFilePattern != null) {
                 buf.delete(0, buf.length());
                 tempCompressedFilePattern.formatFileName(strSubstitutor, buf, fileIndex);
@@ -560,14 +686,12 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                     parentFile.mkdirs();
                 }
                 compressAction = new CompositeAction(
-                        Arrays.asList(fileExtension.createCompressAction(renameTo, tmpCompressedName,
-                                true, compressionLevel),
+                        Arrays.asList(createCompressAction(fileExtension, useCodec, renameTo, tmpCompressedName),
                                 new FileRenameAction(tmpCompressedNameFile,
                                         renameToFile, true)),
                         true);
             } else {
-                compressAction = fileExtension.createCompressAction(renameTo, compressedName,
-                        true, compressionLevel);
+                compressAction = createCompressAction(fileExtension, useCodec, renameTo, compressedName);
             }
         }
 
@@ -600,6 +724,15 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         return new RolloverDescriptionImpl(currentFileName, false, renameAction, asyncAction);
     }
 
+    private Action createCompressAction(final FileExtension fileExtension, final boolean useCodec,
+            final String renameTo, final String compressedName) {
+        if (useCodec) {
+            return new CodecCompressAction(compressionCodec, new File(renameTo), new File(compressedName), true);
+        }
+        return fileExtension.createCompressAction(renameTo, compressedName, true, compressionLevel,
+                compressionThreads, compressionBlockSize);
+    }
+
     @Override
     public String toString() {
         return "DefaultRolloverStrategy(min=" + minIndex + ", max=" + maxIndex + ", useMax=" + useMax + ")";
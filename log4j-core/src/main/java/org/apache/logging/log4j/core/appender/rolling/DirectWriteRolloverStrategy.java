@@ -29,8 +29,11 @@ import java.util.zip.Deflater;
 
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.appender.rolling.action.CodecCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionCodec;
 import org.apache.logging.log4j.core.appender.rolling.action.FileRenameAction;
+import org.apache.logging.log4j.core.appender.rolling.action.ParallelGzCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.PathCondition;
 import org.apache.logging.log4j.core.appender.rolling.action.PosixViewAttributeAction;
 import org.apache.logging.log4j.core.config.Configuration;
@@ -71,9 +74,18 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         @PluginBuilderAttribute("compressionLevel")
         private String compressionLevelStr;
 
+        @PluginBuilderAttribute("compressionThreads")
+        private String compressionThreadsStr;
+
+        @PluginBuilderAttribute("compressionBlockSize")
+        private String compressionBlockSizeStr;
+
         @PluginElement("Actions")
         private Action[] customActions;
 
+        @PluginElement("CompressionCodec")
+        private CompressionCodec compressionCodec;
+
         @PluginBuilderAttribute(value = "stopCustomActionsOnError")
         private boolean stopCustomActionsOnError = true;
 
@@ -96,8 +108,16 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
                 }
             }
             final int compressionLevel = Integers.parseInt(compressionLevelStr, Deflater.DEFAULT_COMPRESSION);
-            return new DirectWriteRolloverStrategy(maxIndex, compressionLevel, config.getStrSubstitutor(),
-                    customActions, stopCustomActionsOnError, tempCompressedFilePattern);
+            final int compressionThreads = Math.max(1, Integers.parseInt(compressionThreadsStr, 1));
+            int compressionBlockSize = compressionBlockSizeStr == null ? ParallelGzCompressAction.DEFAULT_BLOCK_SIZE
+                    : (int) Math.min(Integer.MAX_VALUE,
+                            FileSize.parse(compressionBlockSizeStr, ParallelGzCompressAction.DEFAULT_BLOCK_SIZE));
+            if (compressionBlockSize < ParallelGzCompressAction.MIN_BLOCK_SIZE) {
+                LOGGER.error("Compression block size too small. Limited to " + ParallelGzCompressAction.MIN_BLOCK_SIZE);
+                compressionBlockSize = ParallelGzCompressAction.MIN_BLOCK_SIZE;
+            }
+            return new DirectWriteRolloverStrategy(maxIndex, compressionLevel, compressionThreads, compressionBlockSize,
+                    compressionCodec, config.getStrSubstitutor(), customActions, stopCustomActionsOnError, tempCompressedFilePattern);
         }
 
         public String getMaxFiles() {
@@ -130,6 +150,56 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             return this;
         }
 
+        public String getCompressionThreadsStr() {
+            return compressionThreadsStr;
+        }
+
+        /**
+         * Defines the number of threads compressing a rolled file.
+         *
+         * @param compressionThreadsStr The number of threads, 1 (the default) compresses on a single thread; applies
+         *                              only to GZ files.
+         * @return This builder for chaining convenience
+         * @since 2.20.0
+         */
+        public Builder withCompressionThreadsStr(final String compressionThreadsStr) {
+            this.compressionThreadsStr = compressionThreadsStr;
+            return this;
+        }
+
+        public String getCompressionBlockSizeStr() {
+            return compressionBlockSizeStr;
+        }
+
+        /**
+         * Defines the size of the blocks compressed in parallel.
+         *
+         * @param compressionBlockSizeStr The block size, for example "128KB" (the default); applies only to GZ files
+         *                                compressed on more than one thread.
+         * @return This builder for chaining convenience
+         * @since 2.20.0
+         */
+        public Builder withCompressionBlockSizeStr(final String compressionBlockSizeStr) {
+            this.compressionBlockSizeStr = compressionBlockSizeStr;
+            return this;
+        }
+
+        public CompressionCodec getCompressionCodec() {
+            return compressionCodec;
+        }
+
+        /**
+         * Defines the codec compressing rolled over files whose name ends with the codec's file extension.
+         *
+         * @param compressionCodec The compression codec, for example a configured {@code Zstd} element.
+         * @return This builder for chaining convenience
+         * @since 2.20.0
+         */
+        public Builder withCompressionCodec(final CompressionCodec compressionCodec) {
+            this.compressionCodec = compressionCodec;
+            return this;
+        }
+
         public Action[] getCustomActions() {
             return customActions;
         }
@@ -231,6 +301,9 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
      */
     private final int maxFiles;
     private final int compressionLevel;
+    private final int compressionThreads;
+    private final int compressionBlockSize;
+    private final CompressionCodec compressionCodec;
     private final List<Action> customActions;
     private final boolean stopCustomActionsOnError;
     private volatile String currentFileName;
@@ -261,13 +334,40 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
      * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
      * @param tempCompressedFilePatternString File pattern of the working file
      *                                     used during compression, if null no temporary file are used
+     * @deprecated Since 2.20.0 Added compressionThreads and compressionBlockSize parameters
+     */
+    @Deprecated
+    protected DirectWriteRolloverStrategy(final int maxFiles, final int compressionLevel,
+                                          final StrSubstitutor strSubstitutor, final Action[] customActions,
+                                          final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
+        this(maxFiles, compressionLevel, 1, ParallelGzCompressAction.DEFAULT_BLOCK_SIZE, null, strSubstitutor, customActions,
+                stopCustomActionsOnError, tempCompressedFilePatternString);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param maxFiles The maximum number of files that match the date portion of the pattern to keep.
+     * @param compressionThreads The number of threads compressing a rolled file.
+     * @param compressionBlockSize The size of the blocks compressed in parallel.
+     * @param compressionCodec The codec compressing files whose name ends with its file extension, may be null.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @since 2.20.0
      */
     protected DirectWriteRolloverStrategy(final int maxFiles, final int compressionLevel,
+                                          final int compressionThreads, final int compressionBlockSize,
+                                          final CompressionCodec compressionCodec,
                                           final StrSubstitutor strSubstitutor, final Action[] customActions,
                                           final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
         super(strSubstitutor);
         this.maxFiles = maxFiles;
         this.compressionLevel = compressionLevel;
+        this.compressionThreads = compressionThreads;
+        this.compressionBlockSize = compressionBlockSize;
+        this.compressionCodec = compressionCodec;
         this.stopCustomActionsOnError = stopCustomActionsOnError;
         this.customActions = customActions == null ? Collections.<Action> emptyList() : Arrays.asList(customActions);
         this.tempCompressedFilePattern =
@@ -278,6 +378,27 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         return this.compressionLevel;
     }
 
+    /**
+     * @since 2.20.0
+     */
+    public int getCompressionThreads() {
+        return this.compressionThreads;
+    }
+
+    /**
+     * @since 2.20.0
+     */
+    public int getCompressionBlockSize() {
+        return this.compressionBlockSize;
+    }
+
+    /**
+     * @since 2.20.0
+     */
+    public CompressionCodec getCompressionCodec() {
+        return this.compressionCodec;
+    }
+
     public List<Action> getCustomActions() {
         return customActions;
     }
@@ -320,7 +441,7 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             // LOG4J2-3339 - Always use the current time for new direct write files.
             manager.getPatternProcessor().setCurrentFileTime(System.currentTimeMillis());
             manager.getPatternProcessor().formatFileName(strSubstitutor, buf, true, fileIndex);
-            final int suffixLength = suffixLength(buf.toString());
+            final int suffixLength = manager.isCompressOnWrite() ? 0 : suffixLength(buf.toString());
             final String name = suffixLength > 0 ? buf.substring(0, buf.length() - suffixLength) : buf.toString();
             currentFileName = name;
         }
@@ -356,9 +477,12 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         String compressedName = sourceName;
         currentFileName = null;
         nextIndex = fileIndex + 1;
-        final FileExtension fileExtension = manager.getFileExtension();
-        if (fileExtension != null) {
-            compressedName += fileExtension.getExtension();
+        // when the active file is already compressed the rollover does not need to compress it
+        final FileExtension fileExtension = manager.isCompressOnWrite() ? null : manager.getFileExtension();
+        final boolean useCodec = !manager.isCompressOnWrite() && compressionCodec != null
+                && manager.getPatternProcessor().getPattern().endsWith(compressionCodec.getFileExtension());
+        if (useCodec || fileExtension != null) {
+            compressedName += useCodec ? compressionCodec.getFileExtension() : fileExtension.getExtension();
             if (tempCompressedFilePattern != null) {
                 final StringBuilder buf = new StringBuilder();
                 tempCompressedFilePattern.formatFileName(strSubstitutor, buf, fileIndex);
@@ -369,14 +493,12 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
                     parentFile.mkdirs();
                 }
                 compressAction = new CompositeAction(
-                        Arrays.asList(fileExtension.createCompressAction(sourceName, tmpCompressedName,
-                                true, compressionLevel),
+                        Arrays.asList(createCompressAction(fileExtension, useCodec, sourceName, tmpCompressedName),
                                 new FileRenameAction(tmpCompressedNameFile,
                                         new File(compressedName), true)),
                         true);
             } else {
-                compressAction = fileExtension.createCompressAction(sourceName, compressedName,
-                      true, compressionLevel);
+                compressAction = createCompressAction(fileExtension, useCodec, sourceName, compressedName);
             }
         }
 
@@ -401,6 +523,15 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         return new RolloverDescriptionImpl(sourceName, false, null, asyncAction);
     }
 
+    private Action createCompressAction(final FileExtension fileExtension, final boolean useCodec,
+            final String sourceName, final String compressedName) {
+        if (useCodec) {
+            return new CodecCompressAction(compressionCodec, new File(sourceName), new File(compressedName), true);
+        }
+        return fileExtension.createCompressAction(sourceName, compressedName, true, compressionLevel,
+                compressionThreads, compressionBlockSize);
+    }
+
     @Override
     public String toString() {
         return "DirectWriteRolloverStrategy(maxFiles=" + maxFiles + ')';
@@ -17,12 +17,19 @@
 package org.apache.logging.log4j.core.appender.rolling;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
+import org.apache.logging.log4j.core.appender.rolling.action.CodecCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.CommonsCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.GzCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.Lz4CompressionCodec;
+import org.apache.logging.log4j.core.appender.rolling.action.ParallelGzCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.ZipCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.ZstdCompressionCodec;
 
 /**
  *  Enumerates over supported file extensions for compression.
@@ -41,6 +48,23 @@ public enum FileExtension {
                                     final int compressionLevel) {
             return new GzCompressAction(source(renameTo), target(compressedName), deleteSource, compressionLevel);
         }
+
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel, final int compressionThreads,
+                                    final int compressionBlockSize) {
+            if (compressionThreads <= 1) {
+                return createCompressAction(renameTo, compressedName, deleteSource, compressionLevel);
+            }
+            return new ParallelGzCompressAction(source(renameTo), target(compressedName), deleteSource,
+                    compressionLevel, compressionThreads, compressionBlockSize);
+        }
+
+        @Override
+        OutputStream createCompressingOutputStream(final OutputStream os, final int compressionLevel)
+                throws IOException {
+            return new SyncFlushGzipOutputStream(os, compressionLevel);
+        }
     },
     BZIP2(".bz2") {
         @Override
@@ -73,6 +97,28 @@ public enum FileExtension {
             // One of "gz", "bzip2", "xz", "pack200", or "deflate".
             return new CommonsCompressAction("xz", source(renameTo), target(compressedName), deleteSource);
         }
+    },
+    ZSTD(".zst") {
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel) {
+            return new CodecCompressAction(ZstdCompressionCodec.createCodec(compressionLevel), source(renameTo),
+                    target(compressedName), deleteSource);
+        }
+
+        @Override
+        OutputStream createCompressingOutputStream(final OutputStream os, final int compressionLevel)
+                throws IOException {
+            return ZstdCompressionCodec.createCodec(compressionLevel).createOutputStream(os);
+        }
+    },
+    LZ4(".lz4") {
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel) {
+            return new CodecCompressAction(Lz4CompressionCodec.createCodec(), source(renameTo),
+                    target(compressedName), deleteSource);
+        }
     };
 
     public static FileExtension lookup(final String fileExtension) {
@@ -103,6 +149,25 @@ public enum FileExtension {
     abstract Action createCompressAction(String renameTo, String compressedName, boolean deleteSource,
                                          int compressionLevel);
 
+    /**
+     * Creates the compress action for formats that can compress on several threads. Formats that cannot ignore the
+     * number of threads and the block size.
+     */
+    Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                final int compressionLevel, final int compressionThreads,
+                                final int compressionBlockSize) {
+        return createCompressAction(renameTo, compressedName, deleteSource, compressionLevel);
+    }
+
+    /**
+     * Creates a stream compressing the active file while it is written, or returns null if this format does not
+     * support it. Flushing the returned stream must make all data written so far decodable.
+     */
+    OutputStream createCompressingOutputStream(final OutputStream os, final int compressionLevel)
+            throws IOException {
+        return null;
+    }
+
     String getExtension() {
         return extension;
     }
@@ -122,4 +187,17 @@ public enum FileExtension {
     File target(final String fileName) {
         return new File(fileName);
     }
+
+    /**
+     * Gzip stream that performs a sync flush of the compressor when flushed.
+     */
+    private static final class SyncFlushGzipOutputStream extends GZIPOutputStream {
+
+        private static final int BUF_SIZE = 8192;
+
+        SyncFlushGzipOutputStream(final OutputStream os, final int compressionLevel) throws IOException {
+            super(os, BUF_SIZE, true);
+            def.setLevel(compressionLevel);
+        }
+    }
 }
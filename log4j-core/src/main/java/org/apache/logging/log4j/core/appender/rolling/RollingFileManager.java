@@ -35,6 +35,7 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.zip.Deflater;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LifeCycle;
@@ -47,9 +48,11 @@ import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.appender.rolling.action.AbstractAction;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Closer;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.FileUtils;
 import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.core.util.NullOutputStream;
 
 /**
  * The Rolling File Manager.
@@ -72,6 +75,7 @@ public class RollingFileManager extends FileManager {
     private volatile boolean initialized;
     private volatile String fileName;
     private final boolean directWrite;
+    private volatile boolean compressOnWrite;
     private final CopyOnWriteArrayList<RolloverListener> rolloverListeners = new CopyOnWriteArrayList<>();
 
     /* This executor pool will create a new Thread for every work async action to be performed. Using it allows
@@ -180,6 +184,28 @@ public class RollingFileManager extends FileManager {
                     ((DirectFileRolloverStrategy) rolloverStrategy).clearCurrentFileName();
                 }
             }
+            if (compressOnWrite && size > 0) {
+                rolloverCompressedFile();
+            }
+        }
+    }
+
+    /**
+     * Rolls over a compressed file the manager would otherwise append to. If the process crashed while writing it,
+     * the file ends with an unfinished gzip member or zstd frame and decoders would fail on anything appended to it.
+     */
+    private void rolloverCompressedFile() {
+        LOGGER.debug("Rolling over compressed file {} before writing to it", getFileName());
+        rollover();
+        if (size > 0) {
+            LOGGER.warn("Unable to roll over compressed file {}, appending to it", getFileName());
+            try {
+                if (hasOutputStream() && getOutputStream() instanceof NullOutputStream) {
+                    setOutputStream(createOutputStream());
+                }
+            } catch (final IOException e) {
+                logError("Unable to open compressed file", e);
+            }
         }
     }
 
@@ -208,15 +234,55 @@ public class RollingFileManager extends FileManager {
             final boolean immediateFlush, final boolean createOnDemand,
             final String filePermissions, final String fileOwner, final String fileGroup,
             final Configuration configuration) {
+        return getFileManager(fileName, pattern, append, bufferedIO, policy, strategy, advertiseURI, layout,
+                bufferSize, immediateFlush, createOnDemand, filePermissions, fileOwner, fileGroup, false,
+                configuration);
+    }
+
+    /**
+     * Returns a RollingFileManager.
+     * @param fileName The file name.
+     * @param pattern The pattern for rolling file.
+     * @param append true if the file should be appended to.
+     * @param bufferedIO true if data should be buffered.
+     * @param policy The TriggeringPolicy.
+     * @param strategy The RolloverStrategy.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The Layout.
+     * @param bufferSize buffer size to use if bufferedIO is true
+     * @param immediateFlush flush on every write or not
+     * @param createOnDemand true if you want to lazy-create the file (a.k.a. on-demand.)
+     * @param filePermissions File permissions
+     * @param fileOwner File owner
+     * @param fileGroup File group
+     * @param compressOnWrite true if the active file is written compressed in the format of the pattern's extension.
+     * @param configuration The configuration.
+     * @return A RollingFileManager.
+     * @since 2.20.0
+     */
+    public static RollingFileManager getFileManager(final String fileName, final String pattern, final boolean append,
+            final boolean bufferedIO, final TriggeringPolicy policy, final RolloverStrategy strategy,
+            final String advertiseURI, final Layout<? extends Serializable> layout, final int bufferSize,
+            final boolean immediateFlush, final boolean createOnDemand,
+            final String filePermissions, final String fileOwner, final String fileGroup,
+            final boolean compressOnWrite, final Configuration configuration) {
 
         if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
             LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
             return null;
         }
+        if (compressOnWrite) {
+            final FileExtension fileExtension = FileExtension.lookupForFile(pattern);
+            if (fileExtension != FileExtension.GZ && fileExtension != FileExtension.ZSTD) {
+                LOGGER.error("compressOnWrite requires a file pattern ending with {} or {}",
+                        FileExtension.GZ.getExtension(), FileExtension.ZSTD.getExtension());
+                return null;
+            }
+        }
         final String name = fileName == null ? pattern : fileName;
         return narrow(RollingFileManager.class, getManager(name, new FactoryData(fileName, pattern, append,
             bufferedIO, policy, strategy, advertiseURI, layout, bufferSize, immediateFlush, createOnDemand,
-            filePermissions, fileOwner, fileGroup, configuration), factory));
+            filePermissions, fileOwner, fileGroup, compressOnWrite, configuration), factory));
     }
 
     /**
@@ -262,6 +328,40 @@ public class RollingFileManager extends FileManager {
         return patternProcessor.getFileExtension();
     }
 
+    /**
+     * Returns whether the active file is written compressed, in which case rollover only renames the file.
+     *
+     * @return true if the active file is written compressed.
+     * @since 2.20.0
+     */
+    public boolean isCompressOnWrite() {
+        return compressOnWrite;
+    }
+
+    @Override
+    protected OutputStream wrapOutputStream(final FileOutputStream fos) throws IOException {
+        return compressOnWrite ? compressingOutputStream(fos, getFileExtension(), rolloverStrategy) : fos;
+    }
+
+    /**
+     * Wraps the specified stream in a compressing stream, closing it if the compressing stream cannot be created.
+     */
+    private static OutputStream compressingOutputStream(final OutputStream os, final FileExtension fileExtension,
+            final RolloverStrategy strategy) throws IOException {
+        int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+        if (strategy instanceof DefaultRolloverStrategy) {
+            compressionLevel = ((DefaultRolloverStrategy) strategy).getCompressionLevel();
+        } else if (strategy instanceof DirectWriteRolloverStrategy) {
+            compressionLevel = ((DirectWriteRolloverStrategy) strategy).getCompressionLevel();
+        }
+        try {
+            return fileExtension.createCompressingOutputStream(os, compressionLevel);
+        } catch (final Throwable t) {
+            Closer.closeSilently(os);
+            throw t;
+        }
+    }
+
     // override to make visible for unit tests
     @Override
     protected synchronized void write(final byte[] bytes, final int offset, final int length,
@@ -619,6 +719,7 @@ public class RollingFileManager extends FileManager {
         private final String filePermissions;
         private final String fileOwner;
         private final String fileGroup;
+        private final boolean compressOnWrite;
 
         /**
          * Creates the data for the factory.
@@ -640,6 +741,31 @@ public class RollingFileManager extends FileManager {
                 final Layout<? extends Serializable> layout, final int bufferSize, final boolean immediateFlush,
                 final boolean createOnDemand, final String filePermissions, final String fileOwner, final String fileGroup,
                 final Configuration configuration) {
+            this(fileName, pattern, append, bufferedIO, policy, strategy, advertiseURI, layout, bufferSize,
+                    immediateFlush, createOnDemand, filePermissions, fileOwner, fileGroup, false, configuration);
+        }
+
+        /**
+         * Creates the data for the factory.
+         * @param pattern The pattern.
+         * @param append The append flag.
+         * @param bufferedIO The bufferedIO flag.
+         * @param advertiseURI
+         * @param layout The Layout.
+         * @param bufferSize the buffer size
+         * @param immediateFlush flush on every write or not
+         * @param createOnDemand true if you want to lazy-create the file (a.k.a. on-demand.)
+         * @param filePermissions File permissions
+         * @param fileOwner File owner
+         * @param fileGroup File group
+         * @param compressOnWrite true if the active file is written compressed
+         * @param configuration The configuration
+         */
+        public FactoryData(final String fileName, final String pattern, final boolean append, final boolean bufferedIO,
+                final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+                final Layout<? extends Serializable> layout, final int bufferSize, final boolean immediateFlush,
+                final boolean createOnDemand, final String filePermissions, final String fileOwner, final String fileGroup,
+                final boolean compressOnWrite, final Configuration configuration) {
             super(configuration);
             this.fileName = fileName;
             this.pattern = pattern;
@@ -655,6 +781,7 @@ public class RollingFileManager extends FileManager {
             this.filePermissions = filePermissions;
             this.fileOwner = fileOwner;
             this.fileGroup = fileGroup;
+            this.compressOnWrite = compressOnWrite;
         }
 
         public TriggeringPolicy getTriggeringPolicy() {
@@ -693,6 +820,8 @@ public class RollingFileManager extends FileManager {
             builder.append(filePermissions);
             builder.append(", fileOwner=");
             builder.append(fileOwner);
+            builder.append(", compressOnWrite=");
+            builder.append(compressOnWrite);
             builder.append("]");
             return builder.toString();
         }
@@ -744,15 +873,26 @@ public class RollingFileManager extends FileManager {
             try {
                 final int actualSize = data.bufferedIO ? data.bufferSize : Constants.ENCODER_BYTE_BUFFER_SIZE;
                 final ByteBuffer buffer = ByteBuffer.wrap(new byte[actualSize]);
-                final OutputStream os = data.createOnDemand  || data.fileName == null ? null :
-                        new FileOutputStream(data.fileName, data.append);
+                OutputStream os;
+                if (data.createOnDemand || data.fileName == null) {
+                    os = null;
+                } else if (data.compressOnWrite && size > 0) {
+                    // the file is rolled over by initialize() before anything is written to it
+                    os = NullOutputStream.getInstance();
+                } else {
+                    os = new FileOutputStream(data.fileName, data.append);
+                }
                 // LOG4J2-531 create file first so time has valid value.
                 final long initialTime = file == null || !file.exists() ? 0 : initialFileTime(file);
                 final boolean writeHeader = file != null && file.exists() && file.length() == 0;
+                if (os instanceof FileOutputStream && data.compressOnWrite) {
+                    os = compressingOutputStream(os, FileExtension.lookupForFile(data.pattern), data.strategy);
+                }
 
                 final RollingFileManager rm = new RollingFileManager(data.getLoggerContext(), data.fileName, data.pattern, os,
                     data.append, data.createOnDemand, size, initialTime, data.policy, data.strategy, data.advertiseURI,
                     data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader, buffer);
+                rm.compressOnWrite = data.compressOnWrite;
                 if (os != null && rm.isAttributeViewEnabled()) {
                     rm.defineAttributeView(file.toPath());
                 }
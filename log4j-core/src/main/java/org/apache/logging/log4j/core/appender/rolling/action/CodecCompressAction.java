@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Compresses a file using a {@link CompressionCodec}.
+ *
+ * @since 2.20.0
+ */
+public final class CodecCompressAction extends AbstractAction {
+
+    private static final int BUF_SIZE = 8192;
+
+    /**
+     * Compression codec.
+     */
+    private final CompressionCodec codec;
+
+    /**
+     * Source file.
+     */
+    private final File source;
+
+    /**
+     * Destination file.
+     */
+    private final File destination;
+
+    /**
+     * If true, attempt to delete file on completion.
+     */
+    private final boolean deleteSource;
+
+    /**
+     * Creates new instance of CodecCompressAction.
+     *
+     * @param codec the compression codec, may not be null.
+     * @param source file to compress, may not be null.
+     * @param destination compressed file, may not be null.
+     * @param deleteSource if true, attempt to delete file on completion. Failure to delete does not cause an exception
+     *            to be thrown or affect return value.
+     */
+    public CodecCompressAction(final CompressionCodec codec, final File source, final File destination,
+            final boolean deleteSource) {
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.source = Objects.requireNonNull(source, "source");
+        this.destination = Objects.requireNonNull(destination, "destination");
+        this.deleteSource = deleteSource;
+    }
+
+    /**
+     * Compresses.
+     *
+     * @return true if successfully compressed.
+     * @throws IOException on IO exception.
+     */
+    @Override
+    public boolean execute() throws IOException {
+        return execute(codec, source, destination, deleteSource);
+    }
+
+    /**
+     * Compresses a file.
+     *
+     * @param codec the compression codec, may not be null.
+     * @param source file to compress, may not be null.
+     * @param destination compressed file, may not be null.
+     * @param deleteSource if true, attempt to delete file on completion. Failure to delete does not cause an exception
+     *            to be thrown or affect return value.
+     * @return true if source file compressed.
+     * @throws IOException on IO exception.
+     */
+    public static boolean execute(final CompressionCodec codec, final File source, final File destination,
+            final boolean deleteSource) throws IOException {
+        if (!source.exists()) {
+            return false;
+        }
+        LOGGER.debug("Starting {} compression of {}", codec.getName(), source.getPath());
+        try (final InputStream input = new FileInputStream(source);
+                final OutputStream fileOutput = new FileOutputStream(destination);
+                final OutputStream output = new BufferedOutputStream(codec.createOutputStream(fileOutput), BUF_SIZE)) {
+            final byte[] buffer = new byte[BUF_SIZE];
+            int n;
+            while ((n = input.read(buffer)) != -1) {
+                output.write(buffer, 0, n);
+            }
+        } catch (final IOException | RuntimeException e) {
+            // do not leave a truncated archive behind
+            if (destination.exists() && !destination.delete()) {
+                LOGGER.warn("Unable to delete {}.", destination);
+            }
+            throw e;
+        }
+        LOGGER.debug("Finished {} compression of {}", codec.getName(), source.getPath());
+
+        if (deleteSource && !source.delete()) {
+            LOGGER.warn("Unable to delete {}.", source);
+        }
+        return true;
+    }
+
+    /**
+     * Reports exception.
+     *
+     * @param ex exception.
+     */
+    @Override
+    protected void reportException(final Exception ex) {
+        LOGGER.warn("Exception during " + codec.getName() + " compression of '" + source.toString() + "'.", ex);
+    }
+
+    @Override
+    public String toString() {
+        return CodecCompressAction.class.getSimpleName() + '[' + codec + ", " + source + " to " + destination
+                + ", deleteSource=" + deleteSource + ']';
+    }
+
+    public CompressionCodec getCodec() {
+        return codec;
+    }
+
+    public File getSource() {
+        return source;
+    }
+
+    public File getDestination() {
+        return destination;
+    }
+
+    public boolean isDeleteSource() {
+        return deleteSource;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming compression format used to compress rolled over files.
+ * <p>
+ * Codecs are plugins in the {@code Core} category and may be configured as an element of a rollover strategy, for
+ * example {@code <Zstd level="6"/>}. The codec is used when the file pattern of the appender ends with the codec's
+ * {@linkplain #getFileExtension() file extension}.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public interface CompressionCodec {
+
+    /**
+     * Element type of compression codec plugins.
+     */
+    String ELEMENT_TYPE = "compressionCodec";
+
+    /**
+     * Returns the name of the compression format, used in status messages.
+     *
+     * @return the name of the compression format.
+     */
+    String getName();
+
+    /**
+     * Returns the file extension of files compressed by this codec, including the leading dot.
+     *
+     * @return the file extension, for example ".zst".
+     */
+    String getFileExtension();
+
+    /**
+     * Wraps the given stream into a stream compressing everything written to it. Closing the returned stream finishes
+     * the compressed data and closes the given stream.
+     *
+     * @param out the stream receiving the compressed data.
+     * @return a compressing stream.
+     * @throws IOException if the compressor cannot be created.
+     */
+    OutputStream createOutputStream(OutputStream out) throws IOException;
+}
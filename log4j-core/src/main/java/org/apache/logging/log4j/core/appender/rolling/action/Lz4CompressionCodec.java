@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+/**
+ * Compresses files using the LZ4 frame format, readable by the {@code lz4} command line tool.
+ * <p>
+ * Requires Apache Commons Compress on the classpath.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+@Plugin(name = "Lz4", category = Core.CATEGORY_NAME, elementType = CompressionCodec.ELEMENT_TYPE, printObject = true)
+public final class Lz4CompressionCodec implements CompressionCodec {
+
+    private static final Lz4CompressionCodec INSTANCE = new Lz4CompressionCodec();
+
+    private Lz4CompressionCodec() {
+    }
+
+    @Override
+    public String getName() {
+        return "lz4";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".lz4";
+    }
+
+    @Override
+    public OutputStream createOutputStream(final OutputStream out) throws IOException {
+        return new FramedLZ4CompressorOutputStream(out);
+    }
+
+    @Override
+    public String toString() {
+        return "Lz4CompressionCodec";
+    }
+
+    /**
+     * Returns the LZ4 frame codec.
+     *
+     * @return the LZ4 frame codec.
+     */
+    @PluginFactory
+    public static Lz4CompressionCodec createCodec() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a file using GZ compression, deflating independent blocks of the file on several threads.
+ * <p>
+ * The file is split into blocks of {@code blockSize} bytes. Each block is deflated on a {@link ForkJoinPool}, primed
+ * with the last 32 KiB of the previous block as dictionary, and ends with a sync flush so that it ends on a byte
+ * boundary. The compressed blocks are written in order as they complete, which yields a single valid gzip member
+ * readable by any gzip decoder. This is the approach taken by <a href="https://zlib.net/pigz/">pigz</a>.
+ * </p>
+ * <p>
+ * At most twice as many blocks as threads are held in memory at any time.
+ * </p>
+ */
+public final class ParallelGzCompressAction extends AbstractAction {
+
+    /**
+     * Default size of the blocks compressed in parallel.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    /**
+     * Minimum size of the blocks compressed in parallel, the size of the deflate window.
+     */
+    public static final int MIN_BLOCK_SIZE = 32 * 1024;
+
+    private static final int BUF_SIZE = 8192;
+    private static final int DICTIONARY_SIZE = MIN_BLOCK_SIZE;
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    /**
+     * Source file.
+     */
+    private final File source;
+
+    /**
+     * Destination file.
+     */
+    private final File destination;
+
+    /**
+     * If true, attempt to delete file on completion.
+     */
+    private final boolean deleteSource;
+
+    /**
+     * GZIP compression level to use.
+     *
+     * @see Deflater#setLevel(int)
+     */
+    private final int compressionLevel;
+
+    /**
+     * Number of threads compressing blocks.
+     */
+    private final int parallelism;
+
+    /**
+     * Size of the uncompressed blocks.
+     */
+    private final int blockSize;
+
+    /**
+     * Create new instance of ParallelGzCompressAction.
+     *
+     * @param source       file to compress, may not be null.
+     * @param destination  compressed file, may not be null.
+     * @param deleteSource if true, attempt to delete file on completion.  Failure to delete
+     *                     does not cause an exception to be thrown or affect return value.
+     * @param compressionLevel
+     *                     Gzip deflater compression level.
+     * @param parallelism  number of threads compressing blocks, must be positive.
+     * @param blockSize    size of the uncompressed blocks, must be at least 32 KiB.
+     */
+    public ParallelGzCompressAction(final File source, final File destination, final boolean deleteSource,
+            final int compressionLevel, final int parallelism, final int blockSize) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(destination, "destination");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (blockSize < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize must be at least " + MIN_BLOCK_SIZE + ": " + blockSize);
+        }
+        this.source = source;
+        this.destination = destination;
+        this.deleteSource = deleteSource;
+        this.compressionLevel = compressionLevel;
+        this.parallelism = parallelism;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Compress.
+     *
+     * @return true if successfully compressed.
+     * @throws IOException on IO exception.
+     */
+    @Override
+    public boolean execute() throws IOException {
+        return execute(source, destination, deleteSource, compressionLevel, parallelism, blockSize);
+    }
+
+    /**
+     * Compress a file.
+     *
+     * @param source       file to compress, may not be null.
+     * @param destination  compressed file, may not be null.
+     * @param deleteSource if true, attempt to delete file on completion.  Failure to delete
+     *                     does not cause an exception to be thrown or affect return value.
+     * @param compressionLevel
+     *                     Gzip deflater compression level.
+     * @param parallelism  number of threads compressing blocks.
+     * @param blockSize    size of the uncompressed blocks.
+     * @return true if source file compressed.
+     * @throws IOException on IO exception.
+     */
+    public static boolean execute(final File source, final File destination, final boolean deleteSource,
+            final int compressionLevel, final int parallelism, final int blockSize) throws IOException {
+        if (!source.exists()) {
+            return false;
+        }
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (final InputStream fis = new FileInputStream(source);
+             final OutputStream os = new BufferedOutputStream(new FileOutputStream(destination), BUF_SIZE)) {
+            compress(fis, os, pool, compressionLevel, parallelism, blockSize);
+        } finally {
+            // nothing is left to run after a success, after a failure the blocks still deflating are abandoned
+            pool.shutdownNow();
+        }
+
+        if (deleteSource && !source.delete()) {
+            LOGGER.warn("Unable to delete {}.", source);
+        }
+        return true;
+    }
+
+    /**
+     * Compresses the input into a single gzip member. The caller remains responsible for closing the streams.
+     */
+    static void compress(final InputStream in, final OutputStream out, final ForkJoinPool pool,
+            final int compressionLevel, final int parallelism, final int blockSize) throws IOException {
+        writeHeader(out);
+        final CRC32 crc = new CRC32();
+        long totalLength = 0;
+        final Queue<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+        final int maxInFlight = 2 * parallelism;
+
+        byte[] dictionary = null;
+        byte[] block = readBlock(in, blockSize);
+        try {
+            while (true) {
+                // read one block ahead to know whether the current block is the last one
+                final byte[] next = block.length == 0 ? block : readBlock(in, blockSize);
+                final boolean last = next.length == 0;
+                crc.update(block, 0, block.length);
+                totalLength += block.length;
+                inFlight.add(pool.submit(new DeflateBlock(block, dictionary, compressionLevel, last)));
+                while (inFlight.size() >= maxInFlight || (last && !inFlight.isEmpty())) {
+                    out.write(join(inFlight.remove()));
+                }
+                if (last) {
+                    break;
+                }
+                dictionary = block;
+                block = next;
+            }
+        } catch (final IOException | RuntimeException e) {
+            for (final ForkJoinTask<byte[]> task : inFlight) {
+                task.cancel(true);
+            }
+            throw e;
+        }
+        writeTrailer(out, crc.getValue(), totalLength);
+    }
+
+    private static byte[] join(final ForkJoinTask<byte[]> task) throws IOException {
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing", e);
+        } catch (final ExecutionException e) {
+            throw new IOException("Unable to compress block", e.getCause());
+        }
+    }
+
+    private static byte[] readBlock(final InputStream in, final int blockSize) throws IOException {
+        final byte[] block = new byte[blockSize];
+        int length = 0;
+        int n;
+        while (length < blockSize && (n = in.read(block, length, blockSize - length)) != -1) {
+            length += n;
+        }
+        return length == blockSize ? block : Arrays.copyOf(block, length);
+    }
+
+    private static void writeHeader(final OutputStream out) throws IOException {
+        out.write(new byte[] {
+                (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), // magic number
+                Deflater.DEFLATED, // compression method
+                0, // flags
+                0, 0, 0, 0, // modification time
+                0, // extra flags
+                (byte) 0xff // operating system: unknown
+        });
+    }
+
+    private static void writeTrailer(final OutputStream out, final long crc, final long totalLength)
+            throws IOException {
+        writeInt(out, (int) crc);
+        // ISIZE is the input size modulo 2^32
+        writeInt(out, (int) totalLength);
+    }
+
+    private static void writeInt(final OutputStream out, final int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+
+    /**
+     * Deflates a single block into raw deflate data.
+     */
+    private static final class DeflateBlock implements Callable<byte[]> {
+
+        private final byte[] block;
+        private final byte[] dictionary;
+        private final int compressionLevel;
+        private final boolean last;
+
+        DeflateBlock(final byte[] block, final byte[] dictionary, final int compressionLevel, final boolean last) {
+            this.block = block;
+            this.dictionary = dictionary;
+            this.compressionLevel = compressionLevel;
+            this.last = last;
+        }
+
+        @Override
+        public byte[] call() {
+            final Deflater deflater = new Deflater(compressionLevel, true);
+            try {
+                if (dictionary != null) {
+                    deflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+                }
+                deflater.setInput(block);
+                if (last) {
+                    deflater.finish();
+                }
+                byte[] output = new byte[Math.max(BUF_SIZE, block.length / 2)];
+                int length = 0;
+                while (true) {
+                    if (length == output.length) {
+                        output = Arrays.copyOf(output, output.length * 2);
+                    }
+                    final int n = last
+                            ? deflater.deflate(output, length, output.length - length)
+                            : deflater.deflate(output, length, output.length - length, Deflater.SYNC_FLUSH);
+                    length += n;
+                    // a sync flush is complete once it no longer fills the output buffer
+                    if (last ? deflater.finished() : length < output.length) {
+                        break;
+                    }
+                }
+                return Arrays.copyOf(output, length);
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Capture exception.
+     *
+     * @param ex exception.
+     */
+    @Override
+    protected void reportException(final Exception ex) {
+        LOGGER.warn("Exception during compression of '" + source.toString() + "'.", ex);
+    }
+
+    @Override
+    public String toString() {
+        return ParallelGzCompressAction.class.getSimpleName() + '[' + source + " to " + destination
+                + ", deleteSource=" + deleteSource + ", parallelism=" + parallelism + ", blockSize=" + blockSize + ']';
+    }
+
+    public File getSource() {
+        return source;
+    }
+
+    public File getDestination() {
+        return destination;
+    }
+
+    public boolean isDeleteSource() {
+        return deleteSource;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Compresses files using the Zstandard format.
+ * <p>
+ * Requires Apache Commons Compress and zstd-jni on the classpath.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+@Plugin(name = "Zstd", category = Core.CATEGORY_NAME, elementType = CompressionCodec.ELEMENT_TYPE, printObject = true)
+public final class ZstdCompressionCodec implements CompressionCodec {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    /**
+     * Default compression level, the default of the zstd command line tool.
+     */
+    public static final int DEFAULT_LEVEL = 3;
+
+    /**
+     * Maximum compression level.
+     */
+    public static final int MAX_LEVEL = 22;
+
+    private final int level;
+
+    private ZstdCompressionCodec(final int level) {
+        this.level = level;
+    }
+
+    @Override
+    public String getName() {
+        return "zstd";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".zst";
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public OutputStream createOutputStream(final OutputStream out) throws IOException {
+        if (!ZstdUtils.isZstdCompressionAvailable()) {
+            throw new IOException("Zstandard compression requires zstd-jni on the classpath");
+        }
+        return new ZstdCompressorOutputStream(out, level);
+    }
+
+    @Override
+    public String toString() {
+        return "ZstdCompressionCodec[level=" + level + ']';
+    }
+
+    /**
+     * Creates a Zstandard codec.
+     *
+     * @param level the compression level, 1 (fastest) to 22 (best compression). Values below 1 select the
+     *              {@linkplain #DEFAULT_LEVEL default level}.
+     * @return a Zstandard codec.
+     */
+    @PluginFactory
+    public static ZstdCompressionCodec createCodec(
+            @PluginAttribute(value = "level", defaultInt = DEFAULT_LEVEL) final int level) {
+        if (level > MAX_LEVEL) {
+            LOGGER.error("Zstandard compression level {} too large. Limited to {}", level, MAX_LEVEL);
+            return new ZstdCompressionCodec(MAX_LEVEL);
+        }
+        return new ZstdCompressionCodec(level < 1 ? DEFAULT_LEVEL : level);
+    }
+}
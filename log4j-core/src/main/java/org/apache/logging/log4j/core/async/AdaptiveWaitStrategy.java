@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * Wait strategy that measures the rate at which events arrive and busy-spins, yields or parks accordingly.
+ * <p>
+ * The consumer busy-spins while more than {@code spinThreshold} events arrive per second, yields while more than
+ * {@code yieldThreshold} events arrive per second and parks otherwise. A consumer that spins or yields for too long
+ * without receiving an event falls back to yielding or parking, so a sudden stop of the load does not keep it busy.
+ * A parked consumer is woken up by the next publisher, or after at most {@code maxParkNanos}. Publishers only pay for
+ * the wake-up while the consumer is parked.
+ * </p>
+ * <p>
+ * This strategy is meant for a single consumer thread, as used by Async Loggers.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public final class AdaptiveWaitStrategy implements WaitStrategy {
+
+    /** The default number of events per second above which the consumer busy-spins. */
+    public static final long DEFAULT_SPIN_THRESHOLD = 100_000;
+
+    /** The default number of events per second above which the consumer yields. */
+    public static final long DEFAULT_YIELD_THRESHOLD = 1_000;
+
+    /** The default maximum time in nanoseconds a consumer stays parked without being woken up. */
+    public static final long DEFAULT_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * What the consumer does while it waits for events.
+     */
+    public enum Mode {
+        /** Busy-spins. */
+        SPIN,
+        /** Calls {@link Thread#yield()}. */
+        YIELD,
+        /** Parks until a publisher wakes it up. */
+        PARK
+    }
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int SPIN_TRIES = 10_000;
+    private static final int YIELD_TRIES = 100;
+
+    private final long spinThreshold;
+    private final long yieldThreshold;
+    private final long maxParkNanos;
+    private final AtomicLong spinTransitions = new AtomicLong();
+    private final AtomicLong yieldTransitions = new AtomicLong();
+    private final AtomicLong parkTransitions = new AtomicLong();
+    private volatile Mode mode = Mode.PARK;
+    private volatile boolean signalNeeded;
+    private volatile Thread waiter;
+
+    // only used by the consumer thread
+    private long windowStartNanos;
+    private long windowStartSequence = -1;
+
+    /**
+     * Creates an AdaptiveWaitStrategy with the default thresholds.
+     */
+    public AdaptiveWaitStrategy() {
+        this(DEFAULT_SPIN_THRESHOLD, DEFAULT_YIELD_THRESHOLD, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    /**
+     * Creates an AdaptiveWaitStrategy.
+     *
+     * @param spinThreshold the number of events per second above which the consumer busy-spins.
+     * @param yieldThreshold the number of events per second above which the consumer yields.
+     * @param maxParkNanos the maximum time in nanoseconds a consumer stays parked without being woken up.
+     */
+    public AdaptiveWaitStrategy(final long spinThreshold, final long yieldThreshold, final long maxParkNanos) {
+        this.spinThreshold = spinThreshold;
+        this.yieldThreshold = yieldThreshold;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursorSequence, final Sequence dependentSequence,
+            final SequenceBarrier barrier) throws AlertException, InterruptedException {
+        Mode current = adapt(sequence);
+        int counter = 0;
+        long availableSequence;
+        while ((availableSequence = dependentSequence.get()) < sequence) {
+            barrier.checkAlert();
+            switch (current) {
+                case SPIN:
+                    if (++counter < SPIN_TRIES) {
+                        ThreadHints.onSpinWait();
+                    } else {
+                        current = transition(Mode.YIELD);
+                        counter = 0;
+                    }
+                    break;
+                case YIELD:
+                    if (++counter < YIELD_TRIES) {
+                        Thread.yield();
+                    } else {
+                        current = transition(Mode.PARK);
+                    }
+                    break;
+                default:
+                    park(sequence, cursorSequence, barrier);
+                    break;
+            }
+        }
+        return availableSequence;
+    }
+
+    /**
+     * Updates the arrival rate once per window and returns the mode for the rate.
+     */
+    private Mode adapt(final long sequence) {
+        final long now = System.nanoTime();
+        if (windowStartSequence < 0) {
+            windowStartNanos = now;
+            windowStartSequence = sequence;
+            return mode;
+        }
+        final long elapsed = now - windowStartNanos;
+        if (elapsed < WINDOW_NANOS) {
+            return mode;
+        }
+        final double eventsPerSecond = (sequence - windowStartSequence) * (double) TimeUnit.SECONDS.toNanos(1)
+                / elapsed;
+        windowStartNanos = now;
+        windowStartSequence = sequence;
+        if (eventsPerSecond >= spinThreshold) {
+            return transition(Mode.SPIN);
+        }
+        return transition(eventsPerSecond >= yieldThreshold ? Mode.YIELD : Mode.PARK);
+    }
+
+    private Mode transition(final Mode target) {
+        if (mode != target) {
+            mode = target;
+            switch (target) {
+                case SPIN:
+                    spinTransitions.incrementAndGet();
+                    break;
+                case YIELD:
+                    yieldTransitions.incrementAndGet();
+                    break;
+                default:
+                    parkTransitions.incrementAndGet();
+                    break;
+            }
+        }
+        return target;
+    }
+
+    private void park(final long sequence, final Sequence cursorSequence, final SequenceBarrier barrier)
+            throws AlertException {
+        if (cursorSequence.get() >= sequence) {
+            // published, waiting for the handlers before this one
+            ThreadHints.onSpinWait();
+            return;
+        }
+        waiter = Thread.currentThread();
+        signalNeeded = true;
+        // publishers check signalNeeded after moving the cursor, so either they see it or we see the new cursor
+        if (cursorSequence.get() < sequence) {
+            barrier.checkAlert();
+            LockSupport.parkNanos(this, maxParkNanos);
+        }
+        signalNeeded = false;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded) {
+            signalNeeded = false;
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Returns what the consumer currently does while it waits for events.
+     *
+     * @return the current mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns how many times the consumer switched to busy-spinning.
+     *
+     * @return the number of transitions to {@link Mode#SPIN}.
+     */
+    public long getSpinTransitionCount() {
+        return spinTransitions.get();
+    }
+
+    /**
+     * Returns how many times the consumer switched to yielding.
+     *
+     * @return the number of transitions to {@link Mode#YIELD}.
+     */
+    public long getYieldTransitionCount() {
+        return yieldTransitions.get();
+    }
+
+    /**
+     * Returns how many times the consumer switched to parking.
+     *
+     * @return the number of transitions to {@link Mode#PARK}.
+     */
+    public long getParkTransitionCount() {
+        return parkTransitions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveWaitStrategy{spinThreshold=" + spinThreshold + ", yieldThreshold=" + yieldThreshold
+                + ", maxParkNanos=" + maxParkNanos + ", mode=" + mode + '}';
+    }
+}
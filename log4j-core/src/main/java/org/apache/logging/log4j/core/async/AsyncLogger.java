@@ -43,7 +43,7 @@ import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.apache.logging.log4j.util.StringMap;
 
 import com.lmax.disruptor.EventTranslatorVararg;
-import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.RingBuffer;
 
 /**
  * AsyncLogger is a logger designed for high throughput and low latency logging. It does not perform any I/O in the
@@ -328,8 +328,8 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             final Message message, final Throwable thrown) {
         // Implementation note: candidate for optimization: exceeds 35 bytecodes.
 
-        final Disruptor<RingBufferLogEvent> disruptor = loggerDisruptor.getDisruptor();
-        if (disruptor == null) {
+        final RingBuffer<RingBufferLogEvent> ringBuffer = loggerDisruptor.getRingBuffer();
+        if (ringBuffer == null) {
             LOGGER.error("Ignoring log event after Log4j has been shut down.");
             return;
         }
@@ -339,7 +339,7 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
         }
         StackTraceElement location = null;
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (loggerDisruptor.isShed(ringBuffer, level) || !ringBuffer.tryPublishEvent(this,
                 this, // asyncLogger: 0
                 (location = calcLocationIfRequested(fqcn)), // location: 1
                 fqcn, // 2
@@ -368,8 +368,8 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
         final Marker marker, final Message message, final Throwable thrown) {
         // Implementation note: candidate for optimization: exceeds 35 bytecodes.
 
-        final Disruptor<RingBufferLogEvent> disruptor = loggerDisruptor.getDisruptor();
-        if (disruptor == null) {
+        final RingBuffer<RingBufferLogEvent> ringBuffer = loggerDisruptor.getRingBuffer();
+        if (ringBuffer == null) {
             LOGGER.error("Ignoring log event after Log4j has been shut down.");
             return;
         }
@@ -378,7 +378,7 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             InternalAsyncUtil.makeMessageImmutable(message);
         }
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (loggerDisruptor.isShed(ringBuffer, level) || !ringBuffer.tryPublishEvent(this,
             this, // asyncLogger: 0
             location, // location: 1
             fqcn, // 2
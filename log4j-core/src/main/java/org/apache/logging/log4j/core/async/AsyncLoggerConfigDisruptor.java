@@ -159,6 +159,8 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
 
     private int ringBufferSize;
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    // not null if events are shed before the ring buffer is full
+    private PriorityAsyncQueueFullPolicy priorityPolicy;
     private Boolean mutable = Boolean.FALSE;
 
     private volatile Disruptor<Log4jEventWrapper> disruptor;
@@ -215,6 +217,9 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
             }
         };
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
+        priorityPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy
+                : null;
 
         translator = mutable ? MUTABLE_TRANSLATOR : TRANSLATOR;
         factory = mutable ? MUTABLE_FACTORY : FACTORY;
@@ -383,8 +388,15 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
 
     @Override
     public boolean tryEnqueue(final LogEvent event, final AsyncLoggerConfig asyncLoggerConfig) {
+        final RingBuffer<Log4jEventWrapper> ringBuffer = disruptor.getRingBuffer();
+        final PriorityAsyncQueueFullPolicy policy = priorityPolicy;
+        if (policy != null
+                && policy.isShed(event.getLevel(), ringBuffer.remainingCapacity(), ringBuffer.getBufferSize())) {
+            // routed as if the ring buffer were full
+            return false;
+        }
         final LogEvent logEvent = prepareEvent(event);
-        return disruptor.getRingBuffer().tryPublishEvent(translator, logEvent, asyncLoggerConfig);
+        return ringBuffer.tryPublishEvent(translator, logEvent, asyncLoggerConfig);
     }
 
     private LogEvent ensureImmutable(final LogEvent event) {
@@ -409,6 +421,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
      */
     @Override
     public RingBufferAdmin createRingBufferAdmin(final String contextName, final String loggerConfigName) {
-        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), contextName, loggerConfigName);
+        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), waitStrategy, asyncQueueFullPolicy,
+                contextName, loggerConfigName);
     }
 }
@@ -27,6 +27,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.core.util.Integers;
 import org.apache.logging.log4j.core.util.Log4jThread;
 import org.apache.logging.log4j.core.util.Log4jThreadFactory;
 import org.apache.logging.log4j.core.util.Throwables;
@@ -38,28 +39,41 @@ import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  * Helper class for async loggers: AsyncLoggerDisruptor handles the mechanics of working with the LMAX Disruptor, and
  * works with its associated AsyncLoggerContext to synchronize the life cycle of the Disruptor and its thread with the
  * life cycle of the context. The AsyncLoggerDisruptor of the context is shared by all AsyncLogger objects created by
  * that AsyncLoggerContext.
+ * <p>
+ * If the {@code AsyncLogger.RingBufferShards} property is greater than one, events are striped over that many
+ * Disruptors by the ID of the logging thread, each with its own background thread, so that fewer threads contend for
+ * the same ring buffer sequence. The events of one logging thread are still processed in order, but events of different
+ * threads may be processed in a different order than they were logged.
+ * </p>
  */
 class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private static final int SLEEP_MILLIS_BETWEEN_DRAIN_ATTEMPTS = 50;
     private static final int MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN = 200;
+    private static final int MIN_SHARD_RING_BUFFER_SIZE = 128;
 
     private final Object queueFullEnqueueLock = new Object();
 
+    // the first shard
     private volatile Disruptor<RingBufferLogEvent> disruptor;
+    private volatile Disruptor<RingBufferLogEvent>[] disruptors;
     private String contextName;
     private final Supplier<AsyncWaitStrategyFactory> waitStrategyFactorySupplier;
 
     private boolean useThreadLocalTranslator = true;
-    private long backgroundThreadId;
+    private long[] backgroundThreadIds;
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
+    // not null if events are shed before the ring buffer is full
+    private PriorityAsyncQueueFullPolicy priorityPolicy;
     private int ringBufferSize;
     private WaitStrategy waitStrategy;
+    private WaitStrategy[] waitStrategies;
 
     AsyncLoggerDisruptor(final String contextName, final Supplier<AsyncWaitStrategyFactory> waitStrategyFactorySupplier) {
         this.contextName = contextName;
@@ -83,6 +97,24 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         return disruptor;
     }
 
+    /**
+     * Returns the ring buffer the current thread publishes to, or {@code null} if the Disruptor was shut down.
+     */
+    RingBuffer<RingBufferLogEvent> getRingBuffer() {
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        return temp == null ? null : shard(temp).getRingBuffer();
+    }
+
+    // package-protected for testing
+    int getShardCount() {
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        return temp == null ? 0 : temp.length;
+    }
+
+    private static Disruptor<RingBufferLogEvent> shard(final Disruptor<RingBufferLogEvent>[] shards) {
+        return shards.length == 1 ? shards[0] : shards[(int) (Thread.currentThread().getId() % shards.length)];
+    }
+
     /**
      * Creates and starts a new Disruptor and associated thread if none currently exists.
      *
@@ -102,46 +134,81 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         }
         setStarting();
         LOGGER.trace("[{}] AsyncLoggerDisruptor creating new disruptor for this context.", contextName);
+        final int shardCount = calculateShardCount();
         ringBufferSize = DisruptorUtil.calculateRingBufferSize("AsyncLogger.RingBufferSize");
+        if (shardCount > 1) {
+            // the shards share the configured capacity
+            ringBufferSize = Math.max(MIN_SHARD_RING_BUFFER_SIZE,
+                    Integers.ceilingNextPowerOfTwo(ringBufferSize / shardCount));
+        }
         AsyncWaitStrategyFactory factory = waitStrategyFactorySupplier.get(); // get factory from configuration
         waitStrategy = DisruptorUtil.createWaitStrategy("AsyncLogger.WaitStrategy", factory);
 
-        final ThreadFactory threadFactory = new Log4jThreadFactory("AsyncLogger[" + contextName + "]", true, Thread.NORM_PRIORITY) {
-            @Override
-            public Thread newThread(final Runnable r) {
-                final Thread result = super.newThread(r);
-                backgroundThreadId = result.getId();
-                return result;
-            }
-        };
+        final long[] threadIds = new long[shardCount];
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
-
-        disruptor = new Disruptor<>(RingBufferLogEvent.FACTORY, ringBufferSize, threadFactory, ProducerType.MULTI,
-                waitStrategy);
-
+        priorityPolicy = asyncQueueFullPolicy instanceof PriorityAsyncQueueFullPolicy
+                ? (PriorityAsyncQueueFullPolicy) asyncQueueFullPolicy
+                : null;
         final ExceptionHandler<RingBufferLogEvent> errorHandler = DisruptorUtil.getAsyncLoggerExceptionHandler();
-        disruptor.setDefaultExceptionHandler(errorHandler);
 
-        final RingBufferLogEventHandler[] handlers = {new RingBufferLogEventHandler()};
-        disruptor.handleEventsWith(handlers);
+        final WaitStrategy[] shardWaitStrategies = new WaitStrategy[shardCount];
+        @SuppressWarnings("unchecked")
+        final Disruptor<RingBufferLogEvent>[] shards = new Disruptor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            final int shard = i;
+            final ThreadFactory threadFactory = new Log4jThreadFactory("AsyncLogger[" + contextName + "]", true,
+                    Thread.NORM_PRIORITY) {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread result = super.newThread(r);
+                    threadIds[shard] = result.getId();
+                    return result;
+                }
+            };
+            // wait strategies may keep state about their consumer, each shard gets its own
+            shardWaitStrategies[i] = i == 0 ? waitStrategy
+                    : DisruptorUtil.createWaitStrategy("AsyncLogger.WaitStrategy", factory);
+            // each shard is still written by all the threads that map to it
+            shards[i] = new Disruptor<>(RingBufferLogEvent.FACTORY, ringBufferSize, threadFactory, ProducerType.MULTI,
+                    shardWaitStrategies[i]);
+            shards[i].setDefaultExceptionHandler(errorHandler);
+
+            final RingBufferLogEventHandler[] handlers = {new RingBufferLogEventHandler()};
+            shards[i].handleEventsWith(handlers);
+        }
 
         LOGGER.debug("[{}] Starting AsyncLogger disruptor for this context with ringbufferSize={}, waitStrategy={}, "
-                + "exceptionHandler={}...", contextName, disruptor.getRingBuffer().getBufferSize(), waitStrategy
-                .getClass().getSimpleName(), errorHandler);
-        disruptor.start();
+                + "exceptionHandler={}, shards={}...", contextName, ringBufferSize, waitStrategy
+                .getClass().getSimpleName(), errorHandler, shardCount);
+        for (final Disruptor<RingBufferLogEvent> shard : shards) {
+            shard.start();
+        }
+        backgroundThreadIds = threadIds;
+        waitStrategies = shardWaitStrategies;
+        disruptors = shards;
+        disruptor = shards[0];
 
         LOGGER.trace("[{}] AsyncLoggers use a {} translator", contextName, useThreadLocalTranslator ? "threadlocal"
                 : "vararg");
         super.start();
     }
 
+    private static int calculateShardCount() {
+        final int shards = PropertiesUtil.getProperties().getIntegerProperty("AsyncLogger.RingBufferShards", 1);
+        if (shards < 1) {
+            LOGGER.warn("Invalid AsyncLogger.RingBufferShards {}, using 1.", shards);
+            return 1;
+        }
+        return shards;
+    }
+
     /**
      * Decreases the reference count. If the reference count reached zero, the Disruptor and its associated thread are
      * shut down and their references set to {@code null}.
      */
     @Override
     public boolean stop(final long timeout, final TimeUnit timeUnit) {
-        final Disruptor<RingBufferLogEvent> temp = getDisruptor();
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
         if (temp == null) {
             LOGGER.trace("[{}] AsyncLoggerDisruptor: disruptor for this context already shut down.", contextName);
             return true; // disruptor was already shut down by another thread
@@ -151,6 +218,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
 
         // We must guarantee that publishing to the RingBuffer has stopped before we call disruptor.shutdown().
         disruptor = null; // client code fails with NPE if log after stop. This is by design.
+        disruptors = null;
 
         // Calling Disruptor.shutdown() will wait until all enqueued events are fully processed,
         // but this waiting happens in a busy-spin. To avoid (postpone) wasting CPU,
@@ -161,12 +229,16 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             } catch (final InterruptedException e) { // ignored
             }
         }
-        try {
-            // busy-spins until all events currently in the disruptor have been processed, or timeout
-            temp.shutdown(timeout, timeUnit);
-        } catch (final TimeoutException e) {
-            LOGGER.warn("[{}] AsyncLoggerDisruptor: shutdown timed out after {} {}", contextName, timeout, timeUnit);
-            temp.halt(); // give up on remaining log events, if any
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        for (final Disruptor<RingBufferLogEvent> shard : temp) {
+            try {
+                // busy-spins until all events currently in the disruptor have been processed, or timeout
+                shard.shutdown(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (final TimeoutException e) {
+                LOGGER.warn("[{}] AsyncLoggerDisruptor: shutdown timed out after {} {}", contextName, timeout,
+                        timeUnit);
+                shard.halt(); // give up on remaining log events, if any
+            }
         }
 
         LOGGER.trace("[{}] AsyncLoggerDisruptor: disruptor has been shut down.", contextName);
@@ -180,11 +252,16 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     }
 
     /**
-     * Returns {@code true} if the specified disruptor still has unprocessed events.
+     * Returns {@code true} if any of the specified disruptors still has unprocessed events.
      */
-    private static boolean hasBacklog(final Disruptor<?> theDisruptor) {
-        final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
-        return !ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize());
+    private static boolean hasBacklog(final Disruptor<?>[] theDisruptors) {
+        for (final Disruptor<?> theDisruptor : theDisruptors) {
+            final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
+            if (!ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -194,8 +271,15 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
      * @return a new {@code RingBufferAdmin} that instruments the ringbuffer
      */
     public RingBufferAdmin createRingBufferAdmin(final String jmxContextName) {
-        final RingBuffer<RingBufferLogEvent> ring = disruptor == null ? null : disruptor.getRingBuffer();
-        return RingBufferAdmin.forAsyncLogger(ring, jmxContextName);
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        if (temp == null) {
+            return RingBufferAdmin.forAsyncLogger((RingBuffer<?>) null, jmxContextName);
+        }
+        final RingBuffer<?>[] rings = new RingBuffer<?>[temp.length];
+        for (int i = 0; i < temp.length; i++) {
+            rings[i] = temp[i].getRingBuffer();
+        }
+        return RingBufferAdmin.forAsyncLogger(rings, waitStrategies, asyncQueueFullPolicy, jmxContextName);
     }
 
     EventRoute getEventRoute(final Level logLevel) {
@@ -203,20 +287,35 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         if (remainingCapacity < 0) {
             return EventRoute.DISCARD;
         }
-        return asyncQueueFullPolicy.getRoute(backgroundThreadId, logLevel);
+        return asyncQueueFullPolicy.getRoute(getBackgroundThreadId(), logLevel);
+    }
+
+    /**
+     * Returns the ID of the current thread if it is one of the background threads, and the ID of the background
+     * thread of the shard of the current thread otherwise.
+     */
+    private long getBackgroundThreadId() {
+        final long[] threadIds = backgroundThreadIds;
+        final long currentThreadId = Thread.currentThread().getId();
+        for (final long threadId : threadIds) {
+            if (threadId == currentThreadId) {
+                return threadId;
+            }
+        }
+        return threadIds[(int) (currentThreadId % threadIds.length)];
     }
 
     private int remainingDisruptorCapacity() {
-        final Disruptor<RingBufferLogEvent> temp = disruptor;
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
         if (hasLog4jBeenShutDown(temp)) {
             return -1;
         }
-        return (int) temp.getRingBuffer().remainingCapacity();
+        return (int) shard(temp).getRingBuffer().remainingCapacity();
     }
         /**
          * Returns {@code true} if the specified disruptor is null.
          */
-    private boolean hasLog4jBeenShutDown(final Disruptor<RingBufferLogEvent> aDisruptor) {
+    private boolean hasLog4jBeenShutDown(final Disruptor<RingBufferLogEvent>[] aDisruptor) {
         if (aDisruptor == null) { // LOG4J2-639
             LOGGER.warn("Ignoring log event after log4j was shut down");
             return true;
@@ -229,7 +328,8 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // Note: we deliberately access the volatile disruptor field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
-            return disruptor.getRingBuffer().tryPublishEvent(translator);
+            final RingBuffer<RingBufferLogEvent> ringBuffer = shard(disruptors).getRingBuffer();
+            return !isShed(ringBuffer, translator.level) && ringBuffer.tryPublishEvent(translator);
         } catch (final NullPointerException npe) {
             // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(translator);
@@ -237,6 +337,15 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         }
     }
 
+    /**
+     * Returns {@code true} if the queue full policy sheds events of the specified level at the current occupancy of
+     * the specified ring buffer. Shed events are routed as if the ring buffer were full.
+     */
+    boolean isShed(final RingBuffer<?> ringBuffer, final Level level) {
+        final PriorityAsyncQueueFullPolicy policy = priorityPolicy;
+        return policy != null && policy.isShed(level, ringBuffer.remainingCapacity(), ringBuffer.getBufferSize());
+    }
+
     void enqueueLogMessageWhenQueueFull(final RingBufferLogEventTranslator translator) {
         try {
             // Note: we deliberately access the volatile disruptor field afresh here.
@@ -244,10 +353,10 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // was shut down, which could cause the publishEvent method to hang and never return.
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
-                    disruptor.publishEvent(translator);
+                    shard(disruptors).publishEvent(translator);
                 }
             } else {
-                disruptor.publishEvent(translator);
+                shard(disruptors).publishEvent(translator);
             }
         } catch (final NullPointerException npe) {
             // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
@@ -270,7 +379,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             // was shut down, which could cause the publishEvent method to hang and never return.
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
-                    disruptor.getRingBuffer().publishEvent(translator,
+                    shard(disruptors).getRingBuffer().publishEvent(translator,
                             asyncLogger, // asyncLogger: 0
                             location, // location: 1
                             fqcn, // 2
@@ -280,7 +389,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
                             thrown); // 6
                 }
             } else {
-                disruptor.getRingBuffer().publishEvent(translator,
+                shard(disruptors).getRingBuffer().publishEvent(translator,
                         asyncLogger, // asyncLogger: 0
                         location, // location: 1
                         fqcn, // 2
@@ -298,7 +407,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private boolean synchronizeEnqueueWhenQueueFull() {
         return DisruptorUtil.ASYNC_LOGGER_SYNCHRONIZE_ENQUEUE_WHEN_QUEUE_FULL
                 // Background thread must never block
-                && backgroundThreadId != Thread.currentThread().getId()
+                && getBackgroundThreadId() != Thread.currentThread().getId()
                 // Threads owned by log4j are most likely to result in
                 // deadlocks because they generally consume events.
                 // This prevents deadlocks between AsyncLoggerContext
@@ -35,6 +35,10 @@ import org.apache.logging.log4j.util.PropertiesUtil;
  * This can be adjusted with property {@code "log4j2.DiscardThreshold"} (name of the level at which to start
  * discarding).
  * </p> <p>
+ * If this property has value {@code "Priority"}, this factory creates {@link PriorityAsyncQueueFullPolicy} objects.
+ * The lanes can be adjusted with property {@code "log4j2.PriorityLanes"} (comma-separated {@code LEVEL:limit} pairs)
+ * and the width of the shedding range with property {@code "log4j2.PriorityShedWindow"}.
+ * </p> <p>
  * For any other value, this
  * factory interprets the value as the fully qualified name of a class implementing the {@link AsyncQueueFullPolicy}
  * interface. The class must have a default constructor.
@@ -47,6 +51,9 @@ public class AsyncQueueFullPolicyFactory {
     static final String PROPERTY_VALUE_DEFAULT_ASYNC_EVENT_ROUTER = "Default";
     static final String PROPERTY_VALUE_DISCARDING_ASYNC_EVENT_ROUTER = "Discard";
     static final String PROPERTY_NAME_DISCARDING_THRESHOLD_LEVEL = "log4j2.DiscardThreshold";
+    static final String PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER = "Priority";
+    static final String PROPERTY_NAME_PRIORITY_LANES = "log4j2.PriorityLanes";
+    static final String PROPERTY_NAME_PRIORITY_SHED_WINDOW = "log4j2.PriorityShedWindow";
 
     private static final Logger LOGGER = StatusLogger.getLogger();
 
@@ -58,6 +65,8 @@ public class AsyncQueueFullPolicyFactory {
      * </p> <p>
      * If this property has value {@code "Discard"}, this method returns {@link DiscardingAsyncQueueFullPolicy} objects.
      * </p> <p>
+     * If this property has value {@code "Priority"}, this method returns {@link PriorityAsyncQueueFullPolicy} objects.
+     * </p> <p>
      * For any other value, this method interprets the value as the fully qualified name of a class implementing the
      * {@link AsyncQueueFullPolicy} interface. The class must have a default constructor.
      * </p>
@@ -74,6 +83,10 @@ public class AsyncQueueFullPolicyFactory {
                 router, DiscardingAsyncQueueFullPolicy.class, PROPERTY_VALUE_DISCARDING_ASYNC_EVENT_ROUTER)) {
             return createDiscardingAsyncQueueFullPolicy();
         }
+        if (isRouterSelected(
+                router, PriorityAsyncQueueFullPolicy.class, PROPERTY_VALUE_PRIORITY_ASYNC_EVENT_ROUTER)) {
+            return createPriorityAsyncQueueFullPolicy();
+        }
         return createCustomRouter(router);
     }
 
@@ -105,4 +118,22 @@ public class AsyncQueueFullPolicyFactory {
         LOGGER.debug("Creating custom DiscardingAsyncQueueFullPolicy(discardThreshold:{})", thresholdLevel);
         return new DiscardingAsyncQueueFullPolicy(thresholdLevel);
     }
+
+    private static AsyncQueueFullPolicy createPriorityAsyncQueueFullPolicy() {
+        final PropertiesUtil util = PropertiesUtil.getProperties();
+        final String lanes = util.getStringProperty(PROPERTY_NAME_PRIORITY_LANES,
+                PriorityAsyncQueueFullPolicy.DEFAULT_LANES);
+        final double shedWindow = util.getDoubleProperty(PROPERTY_NAME_PRIORITY_SHED_WINDOW,
+                PriorityAsyncQueueFullPolicy.DEFAULT_SHED_WINDOW);
+        try {
+            final PriorityAsyncQueueFullPolicy policy = new PriorityAsyncQueueFullPolicy(
+                    PriorityAsyncQueueFullPolicy.parseLanes(lanes), shedWindow);
+            LOGGER.debug("Creating custom {}", policy);
+            return policy;
+        } catch (final IllegalArgumentException e) {
+            LOGGER.error("Using DefaultAsyncQueueFullPolicy. Invalid PriorityAsyncQueueFullPolicy settings: {}",
+                    e.getMessage());
+            return new DefaultAsyncQueueFullPolicy();
+        }
+    }
 }
@@ -62,6 +62,15 @@ class DefaultAsyncWaitStrategyFactory implements AsyncWaitStrategyFactory {
             case "BUSYSPIN":
                 LOGGER.trace("DefaultAsyncWaitStrategyFactory creating BusySpinWaitStrategy");
                 return new BusySpinWaitStrategy();
+            case "ADAPTIVE":
+                final long spinThreshold = parseAdditionalLongProperty(propertyName, "AdaptiveSpinThreshold",
+                        AdaptiveWaitStrategy.DEFAULT_SPIN_THRESHOLD);
+                final long yieldThreshold = parseAdditionalLongProperty(propertyName, "AdaptiveYieldThreshold",
+                        AdaptiveWaitStrategy.DEFAULT_YIELD_THRESHOLD);
+                LOGGER.trace("DefaultAsyncWaitStrategyFactory creating AdaptiveWaitStrategy(spinThreshold={}, "
+                        + "yieldThreshold={})", spinThreshold, yieldThreshold);
+                return new AdaptiveWaitStrategy(spinThreshold, yieldThreshold,
+                        AdaptiveWaitStrategy.DEFAULT_MAX_PARK_NANOS);
             case "TIMEOUT":
                 return createDefaultWaitStrategy(propertyName);
             default:
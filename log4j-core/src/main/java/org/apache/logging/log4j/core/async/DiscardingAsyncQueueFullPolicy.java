@@ -63,6 +63,9 @@ public class DiscardingAsyncQueueFullPolicy extends DefaultAsyncQueueFullPolicy
         if (router instanceof DiscardingAsyncQueueFullPolicy) {
             return ((DiscardingAsyncQueueFullPolicy) router).discardCount.get();
         }
+        if (router instanceof PriorityAsyncQueueFullPolicy) {
+            return ((PriorityAsyncQueueFullPolicy) router).getDiscardCount();
+        }
         return 0;
     }
 
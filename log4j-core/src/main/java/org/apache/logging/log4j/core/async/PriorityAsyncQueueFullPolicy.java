@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Router that divides the queue into priority lanes by level, so that floods of verbose events cannot starve the less
+ * verbose ones.
+ * <p>
+ * Each lane is identified by a level and a limit: the fraction of the queue that events of that level, and of the
+ * levels between it and the next more verbose lane, may occupy. The capacity above the limit is reserved for less
+ * verbose events. Levels less verbose than all lanes may use the whole queue, and are routed by the
+ * {@linkplain DefaultAsyncQueueFullPolicy default routing rules} when it is full.
+ * </p>
+ * <p>
+ * As the occupancy of the queue approaches the limit of a lane, a growing fraction of its events is shed: none while
+ * the occupancy is more than {@code shedWindow} below the limit, and all of them once it reaches the limit. Async
+ * Loggers ask {@link #isShed(Level, long, long)} before they enqueue an event and route shed events as if the queue
+ * were full. Discarded events are counted per level.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public class PriorityAsyncQueueFullPolicy extends DefaultAsyncQueueFullPolicy {
+
+    /**
+     * The default lanes: WARN events may fill 90% of the queue, INFO 80%, DEBUG 60% and TRACE 50%.
+     */
+    public static final String DEFAULT_LANES = "WARN:0.9,INFO:0.8,DEBUG:0.6,TRACE:0.5";
+
+    /**
+     * The default width of the occupancy range over which a lane sheds a growing fraction of its events.
+     */
+    public static final double DEFAULT_SHED_WINDOW = 0.1;
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    // sorted from the least to the most verbose lane
+    private final Level[] levels;
+    private final double[] limits;
+    private final double shedWindow;
+    private final ConcurrentMap<Level, AtomicLong> discardCounts = new ConcurrentHashMap<>();
+    private final AtomicLong discardCount = new AtomicLong();
+
+    /**
+     * Constructs a router with the specified lanes.
+     *
+     * @param lanes the fraction of the queue that events of each lane may occupy, between 0 and 1.
+     * @param shedWindow the width of the occupancy range below the limit of a lane in which its events are partially
+     *                   shed, between 0 and 1.
+     */
+    public PriorityAsyncQueueFullPolicy(final Map<Level, Double> lanes, final double shedWindow) {
+        Objects.requireNonNull(lanes, "lanes");
+        if (shedWindow < 0 || shedWindow > 1) {
+            throw new IllegalArgumentException("shedWindow must be between 0 and 1: " + shedWindow);
+        }
+        this.levels = lanes.keySet().toArray(new Level[0]);
+        Arrays.sort(levels, Comparator.comparingInt(Level::intLevel));
+        this.limits = new double[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            final double limit = lanes.get(levels[i]);
+            if (limit < 0 || limit > 1) {
+                throw new IllegalArgumentException("The limit of lane " + levels[i] + " must be between 0 and 1: "
+                        + limit);
+            }
+            limits[i] = limit;
+        }
+        this.shedWindow = shedWindow;
+    }
+
+    /**
+     * Parses lanes of the form {@code LEVEL:limit,LEVEL:limit}. Invalid lanes are ignored.
+     *
+     * @param lanes the lanes to parse.
+     * @return the limit of each level.
+     */
+    public static Map<Level, Double> parseLanes(final String lanes) {
+        final Map<Level, Double> result = new LinkedHashMap<>();
+        for (final String lane : lanes.split(",")) {
+            final int colon = lane.indexOf(':');
+            final Level level = colon < 0 ? null : Level.toLevel(lane.substring(0, colon).trim(), null);
+            try {
+                if (level == null) {
+                    throw new IllegalArgumentException("unknown level");
+                }
+                result.put(level, Double.parseDouble(lane.substring(colon + 1).trim()));
+            } catch (final IllegalArgumentException e) {
+                LOGGER.warn("Ignoring invalid priority lane '{}': {}", lane, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fraction of the queue that events of the specified level may occupy.
+     *
+     * @param level the level of an event.
+     * @return the limit of the lane of the level, or 1 if the level is less verbose than all lanes.
+     */
+    public double getLimit(final Level level) {
+        double result = 1;
+        for (int i = 0; i < levels.length && levels[i].intLevel() <= level.intLevel(); i++) {
+            result = limits[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether an event of the specified level should be shed at the specified occupancy of the queue.
+     * Callers route shed events as if the queue were full.
+     *
+     * @param level the level of the event.
+     * @param remainingCapacity the number of free slots in the queue.
+     * @param capacity the size of the queue.
+     * @return {@code true} if the event should not be enqueued.
+     */
+    public boolean isShed(final Level level, final long remainingCapacity, final long capacity) {
+        final double limit = getLimit(level);
+        if (limit >= 1) {
+            return false;
+        }
+        final double occupancy = 1 - (double) remainingCapacity / capacity;
+        if (occupancy >= limit) {
+            return true;
+        }
+        final double excess = occupancy - (limit - shedWindow);
+        return excess > 0 && ThreadLocalRandom.current().nextDouble() * shedWindow < excess;
+    }
+
+    @Override
+    public EventRoute getRoute(final long backgroundThreadId, final Level level) {
+        if (getLimit(level) < 1) {
+            discardCounts.computeIfAbsent(level, key -> new AtomicLong()).incrementAndGet();
+            if (discardCount.getAndIncrement() == 0) {
+                LOGGER.warn("Async queue is full, discarding event with level {}. " +
+                        "This message will only appear once; future events from the lanes {} " +
+                        "are silently discarded until queue capacity becomes available.",
+                        level, Arrays.toString(levels));
+            }
+            return EventRoute.DISCARD;
+        }
+        return super.getRoute(backgroundThreadId, level);
+    }
+
+    /**
+     * Returns the number of events that were discarded.
+     *
+     * @return the total number of discarded events.
+     */
+    public long getDiscardCount() {
+        return discardCount.get();
+    }
+
+    /**
+     * Returns the number of events that were discarded per level, from the least to the most verbose level.
+     *
+     * @return the number of discarded events by level name.
+     */
+    public Map<String, Long> getDiscardCounts() {
+        final Level[] discarded = discardCounts.keySet().toArray(new Level[0]);
+        Arrays.sort(discarded, Comparator.comparingInt(Level::intLevel));
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (final Level level : discarded) {
+            result.put(level.name(), discardCounts.get(level).get());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of events discarded per level by the specified router.
+     *
+     * @param router a router.
+     * @return the number of discarded events by level name, empty if the router does not count them per level.
+     */
+    public static Map<String, Long> getDiscardCounts(final AsyncQueueFullPolicy router) {
+        if (router instanceof PriorityAsyncQueueFullPolicy) {
+            return ((PriorityAsyncQueueFullPolicy) router).getDiscardCounts();
+        }
+        return new LinkedHashMap<>();
+    }
+
+    public double getShedWindow() {
+        return shedWindow;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PriorityAsyncQueueFullPolicy[lanes=");
+        for (int i = 0; i < levels.length; i++) {
+            sb.append(i == 0 ? "" : ",").append(levels[i]).append(':').append(limits[i]);
+        }
+        return sb.append(", shedWindow=").append(shedWindow).append(']').toString();
+    }
+}
@@ -71,7 +71,6 @@ import org.apache.logging.log4j.core.script.ScriptRef;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.DummyNanoClock;
 import org.apache.logging.log4j.core.util.Loader;
-import org.apache.logging.log4j.core.util.NameUtil;
 import org.apache.logging.log4j.core.util.NanoClock;
 import org.apache.logging.log4j.core.util.Source;
 import org.apache.logging.log4j.core.util.WatchManager;
@@ -130,6 +129,8 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     private String name;
     private ConcurrentMap<String, Appender> appenders = new ConcurrentHashMap<>();
     private ConcurrentMap<String, LoggerConfig> loggerConfigs = new ConcurrentHashMap<>();
+    /** Snapshot of loggerConfigs, rebuilt whenever the LoggerConfigs change. */
+    private volatile LoggerConfigTrie loggerConfigTrie = LoggerConfigTrie.EMPTY;
     private List<CustomLevelConfig> customLevels = Collections.emptyList();
     private final ConcurrentMap<String, String> propertyMap = new ConcurrentHashMap<>();
     private final Interpolator tempLookup = new Interpolator(propertyMap);
@@ -972,18 +973,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
      */
     @Override
     public LoggerConfig getLoggerConfig(final String loggerName) {
-        LoggerConfig loggerConfig = loggerConfigs.get(loggerName);
-        if (loggerConfig != null) {
-            return loggerConfig;
-        }
-        String substr = loggerName;
-        while ((substr = NameUtil.getSubName(substr)) != null) {
-            loggerConfig = loggerConfigs.get(substr);
-            if (loggerConfig != null) {
-                return loggerConfig;
-            }
-        }
-        return root;
+        return loggerConfigTrie.find(loggerName, root);
     }
 
     @Override
@@ -1158,6 +1148,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     }
 
     private void setParents() {
+        loggerConfigTrie = LoggerConfigTrie.build(loggerConfigs);
         for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
             final LoggerConfig logger = entry.getValue();
             String key = entry.getKey();
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable trie of LoggerConfigs keyed by the dot-separated segments of their names.
+ * <p>
+ * Finding the LoggerConfig of a logger walks the logger name once, segment by segment, and does not allocate. The
+ * result is the same as looking up the name and then each name returned by
+ * {@link org.apache.logging.log4j.core.util.NameUtil#getSubName(String)} in turn: a dot at the start of a name does
+ * not separate segments.
+ * </p>
+ */
+final class LoggerConfigTrie {
+
+    static final LoggerConfigTrie EMPTY = new LoggerConfigTrie(new Builder().build());
+
+    private final Node root;
+
+    private LoggerConfigTrie(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a trie from the given LoggerConfigs.
+     *
+     * @param loggerConfigs the LoggerConfigs by name.
+     * @return a new trie.
+     */
+    static LoggerConfigTrie build(final Map<String, LoggerConfig> loggerConfigs) {
+        final Builder rootBuilder = new Builder();
+        for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
+            final String name = entry.getKey();
+            Builder builder = rootBuilder;
+            if (!name.isEmpty()) {
+                int start = 0;
+                int end;
+                do {
+                    end = nextSeparator(name, start);
+                    final String segment = name.substring(start, end < 0 ? name.length() : end);
+                    builder = builder.children.computeIfAbsent(segment, k -> new Builder());
+                    start = end + 1;
+                } while (end >= 0);
+            }
+            builder.config = entry.getValue();
+        }
+        return new LoggerConfigTrie(rootBuilder.build());
+    }
+
+    /**
+     * Finds the LoggerConfig with the given name or, failing that, with the longest name that is a parent of it.
+     *
+     * @param name the logger name.
+     * @param defaultConfig the LoggerConfig to return if no LoggerConfig matches.
+     * @return the matching LoggerConfig or {@code defaultConfig}.
+     */
+    LoggerConfig find(final String name, final LoggerConfig defaultConfig) {
+        Node node = root;
+        LoggerConfig match = node.config;
+        if (!name.isEmpty()) {
+            int start = 0;
+            int end;
+            do {
+                end = nextSeparator(name, start);
+                node = node.child(name, start, end < 0 ? name.length() : end);
+                if (node == null) {
+                    break;
+                }
+                if (node.config != null) {
+                    match = node.config;
+                }
+                start = end + 1;
+            } while (end >= 0);
+        }
+        return match != null ? match : defaultConfig;
+    }
+
+    private static int nextSeparator(final String name, final int start) {
+        // NameUtil.getSubName() does not split at a leading dot
+        return name.indexOf('.', start == 0 ? 1 : start);
+    }
+
+    private static int hash(final String name, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Node {
+
+        private final LoggerConfig config;
+        // open addressing table of child segments
+        private final String[] keys;
+        private final Node[] children;
+        private final int mask;
+
+        private Node(final LoggerConfig config, final Map<String, Node> childNodes) {
+            this.config = config;
+            if (childNodes.isEmpty()) {
+                this.keys = null;
+                this.children = null;
+                this.mask = 0;
+                return;
+            }
+            int capacity = 2;
+            while (capacity < childNodes.size() * 2) {
+                capacity <<= 1;
+            }
+            this.keys = new String[capacity];
+            this.children = new Node[capacity];
+            this.mask = capacity - 1;
+            for (final Map.Entry<String, Node> entry : childNodes.entrySet()) {
+                final String key = entry.getKey();
+                int index = hash(key, 0, key.length()) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                children[index] = entry.getValue();
+            }
+        }
+
+        private Node child(final String name, final int start, final int end) {
+            if (keys == null) {
+                return null;
+            }
+            final int length = end - start;
+            int index = hash(name, start, end) & mask;
+            String key;
+            while ((key = keys[index]) != null) {
+                if (key.length() == length && name.regionMatches(start, key, 0, length)) {
+                    return children[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<String, Builder> children = new HashMap<>();
+        private LoggerConfig config;
+
+        private Node build() {
+            final Map<String, Node> childNodes = new HashMap<>(children.size() * 2);
+            for (final Map.Entry<String, Builder> entry : children.entrySet()) {
+                childNodes.put(entry.getKey(), entry.getValue().build());
+            }
+            return new Node(config, childNodes);
+        }
+    }
+}
@@ -17,11 +17,10 @@
 
 package org.apache.logging.log4j.core.filter;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -32,6 +31,8 @@ import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.util.NanoClock;
+import org.apache.logging.log4j.core.util.SystemNanoClock;
 import org.apache.logging.log4j.message.Message;
 
 /**
@@ -51,6 +52,13 @@ import org.apache.logging.log4j.message.Message;
  * &nbsp;&lt;/Filters&gt;<br>
  * &lt;/Console&gt;<br>
  * </code><br>
+ * <p>
+ * The filter is a token bucket that holds up to <code>maxBurst</code> tokens and is refilled at <code>rate</code>
+ * tokens per second. The bucket is a single atomic value updated without locks or allocation. With
+ * <code>key="LEVEL"</code> or <code>key="LOGGER"</code>, each level or logger name gets its own bucket. At most
+ * {@value #MAX_BUCKETS} such buckets are kept: full buckets are dropped to make room, and keys that still do not fit
+ * share one overflow bucket.
+ * </p>
  */
 
 @Plugin(name = "BurstFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
@@ -62,7 +70,22 @@ public final class BurstFilter extends AbstractFilter {
 
     private static final int DEFAULT_RATE_MULTIPLE = 100;
 
-    private static final int HASH_SHIFT = 32;
+    /** The maximum number of buckets kept per level or per logger name. */
+    static final int MAX_BUCKETS = 1024;
+
+    /**
+     * Selects the events that share a token bucket.
+     *
+     * @since 2.20.0
+     */
+    public enum Key {
+        /** All events share one bucket. */
+        NONE,
+        /** Events of the same level share a bucket. */
+        LEVEL,
+        /** Events of the same logger share a bucket. */
+        LOGGER
+    }
 
     /**
      * Level of messages to be filtered. Anything at or below this level will be
@@ -72,92 +95,127 @@ public final class BurstFilter extends AbstractFilter {
      */
     private final Level level;
 
-    private final long burstInterval;
+    private final long maxBurst;
 
-    private final DelayQueue<LogDelay> history = new DelayQueue<>();
+    /** Nanoseconds it takes to earn one token. */
+    private final long emissionInterval;
 
-    private final Queue<LogDelay> available = new ConcurrentLinkedQueue<>();
+    /** How far the theoretical arrival time may run ahead of the clock, the time to earn maxBurst - 1 tokens. */
+    private final long burstTolerance;
 
-    static LogDelay createLogDelay(final long expireTime) {
-        return new LogDelay(expireTime);
-    }
+    private final Key key;
+
+    /**
+     * The bucket shared by all events if {@link #key} is {@link Key#NONE}. A bucket is the theoretical arrival time
+     * of the next event on the scale of the {@link NanoClock}: the bucket is full when it lies in the past, and each
+     * event that passes pushes it {@link #emissionInterval} into the future. This holds both the token count and the
+     * time of the last refill in one value.
+     */
+    private final AtomicLong bucket;
+
+    private final ConcurrentMap<Object, AtomicLong> buckets;
 
-    private BurstFilter(final Level level, final float rate, final long maxBurst, final Result onMatch,
-                        final Result onMismatch) {
+    /** The bucket shared by the keys that arrive while {@link #buckets} is full of partially drained buckets. */
+    private final AtomicLong overflowBucket;
+
+    /** The earliest time at which {@link #buckets} may be scanned again for full buckets. */
+    private final AtomicLong nextPrune;
+
+    private final NanoClock clock;
+
+    private final LongAdder suppressed = new LongAdder();
+
+    private BurstFilter(final Level level, final float rate, final long maxBurst, final Key key,
+                        final NanoClock clock, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
+        this.clock = clock;
         this.level = level;
-        this.burstInterval = (long) (NANOS_IN_SECONDS * (maxBurst / rate));
-        for (int i = 0; i < maxBurst; ++i) {
-            available.add(createLogDelay(0));
+        this.maxBurst = maxBurst;
+        this.emissionInterval = Math.max(1, (long) (NANOS_IN_SECONDS / rate));
+        // keep arrival times within half the nanoTime range so that comparing differences stays correct
+        this.burstTolerance = maxBurst - 1 > Long.MAX_VALUE / 2 / emissionInterval
+                ? Long.MAX_VALUE / 2 : emissionInterval * (maxBurst - 1);
+        this.key = key;
+        final long now = clock.nanoTime();
+        if (key == Key.NONE) {
+            this.bucket = new AtomicLong(now);
+            this.buckets = null;
+            this.overflowBucket = null;
+            this.nextPrune = null;
+        } else {
+            this.bucket = null;
+            this.buckets = new ConcurrentHashMap<>();
+            this.overflowBucket = new AtomicLong(now);
+            this.nextPrune = new AtomicLong(now);
         }
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
                          final Object... params) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
                          final Throwable t) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        return filter(event.getLevel());
+        return filter(event.getLevel(), event.getLoggerName());
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
@@ -165,7 +223,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
@@ -173,7 +231,7 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
-        return filter(level);
+        return filter(level, logger);
     }
 
     @Override
@@ -181,7 +239,11 @@ public final class BurstFilter extends AbstractFilter {
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
-        return filter(level);
+        return filter(level, logger);
+    }
+
+    private Result filter(final Level level, final Logger logger) {
+        return filter(level, logger != null ? logger.getName() : null);
     }
 
     /**
@@ -189,100 +251,121 @@ public final class BurstFilter extends AbstractFilter {
      * maximum burst of log statements has been exceeded.
      *
      * @param level The log level.
+     * @param loggerName The logger name, used when buckets are kept per logger.
      * @return The onMatch value if the filter passes, onMismatch otherwise.
      */
-    private Result filter(final Level level) {
+    private Result filter(final Level level, final String loggerName) {
         if (this.level.isMoreSpecificThan(level)) {
-            LogDelay delay = history.poll();
-            while (delay != null) {
-                available.add(delay);
-                delay = history.poll();
-            }
-            delay = available.poll();
-            if (delay != null) {
-                delay.setDelay(burstInterval);
-                history.add(delay);
+            final long now = clock.nanoTime();
+            if (tryAcquire(getBucket(level, loggerName, now), now)) {
                 return onMatch;
             }
+            suppressed.increment();
             return onMismatch;
         }
         return onMatch;
-
     }
 
-    /**
-     * Returns the number of available slots. Used for unit testing.
-     * @return The number of available slots.
-     */
-    public int getAvailable() {
-        return available.size();
+    private AtomicLong getBucket(final Level level, final String loggerName, final long now) {
+        if (key == Key.NONE) {
+            return bucket;
+        }
+        final Object bucketKey = key == Key.LEVEL ? level : loggerName != null ? loggerName : "";
+        final AtomicLong existing = buckets.get(bucketKey);
+        if (existing != null) {
+            return existing;
+        }
+        if (buckets.size() >= MAX_BUCKETS && !pruneFullBuckets(now)) {
+            return overflowBucket;
+        }
+        return buckets.computeIfAbsent(bucketKey, k -> new AtomicLong(now));
     }
 
     /**
-     * Clear the history. Used for unit testing.
+     * Removes the buckets that are full, since a full bucket behaves exactly like a new one. The map is scanned at
+     * most once per {@link #emissionInterval}, the time it takes for a bucket to earn a token.
+     *
+     * @param now The current time.
+     * @return true if there is room for a new bucket.
      */
-    public void clear() {
-        for (final LogDelay delay : history) {
-            history.remove(delay);
-            available.add(delay);
+    private boolean pruneFullBuckets(final long now) {
+        final long next = nextPrune.get();
+        if (next - now <= 0 && nextPrune.compareAndSet(next, now + emissionInterval)) {
+            buckets.values().removeIf(keyBucket -> keyBucket.get() - now <= 0);
         }
+        return buckets.size() < MAX_BUCKETS;
     }
 
-    @Override
-    public String toString() {
-        return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + history.size();
+    private boolean tryAcquire(final AtomicLong bucket, final long now) {
+        while (true) {
+            final long arrival = bucket.get();
+            // compare by difference, nanoTime may overflow
+            final long start = arrival - now > 0 ? arrival : now;
+            if (start - now > burstTolerance) {
+                return false;
+            }
+            if (bucket.compareAndSet(arrival, start + emissionInterval)) {
+                return true;
+            }
+        }
     }
 
-    /**
-     * Delay object to represent each log event that has occurred within the timespan.
-     *
-     * Consider this class private, package visibility for testing.
-     */
-    private static class LogDelay implements Delayed {
-
-        LogDelay(final long expireTime) {
-            this.expireTime = expireTime;
+    private long getAvailable(final AtomicLong bucket, final long now) {
+        final long ahead = bucket.get() - now;
+        if (ahead <= 0) {
+            return maxBurst;
         }
-
-        private long expireTime;
-
-        public void setDelay(final long delay) {
-            this.expireTime = delay + System.nanoTime();
+        if (ahead > burstTolerance) {
+            return 0;
         }
+        return (burstTolerance - ahead) / emissionInterval + 1;
+    }
 
-        @Override
-        public long getDelay(final TimeUnit timeUnit) {
-            return timeUnit.convert(expireTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+    /**
+     * Returns the number of available slots. Used for unit testing.
+     * With a bucket per key, returns the number of available slots of the most depleted bucket.
+     * @return The number of available slots.
+     */
+    public int getAvailable() {
+        final long now = clock.nanoTime();
+        if (key == Key.NONE) {
+            return (int) getAvailable(bucket, now);
         }
-
-        @Override
-        public int compareTo(final Delayed delayed) {
-            final long diff = this.expireTime - ((LogDelay) delayed).expireTime;
-            return Long.signum(diff);
+        long available = getAvailable(overflowBucket, now);
+        for (final AtomicLong keyBucket : buckets.values()) {
+            available = Math.min(available, getAvailable(keyBucket, now));
         }
+        return (int) available;
+    }
 
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-
-            final LogDelay logDelay = (LogDelay) o;
+    /**
+     * Returns the number of events that were filtered out for exceeding the burst.
+     * @return The number of suppressed events.
+     * @since 2.20.0
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
 
-            if (expireTime != logDelay.expireTime) {
-                return false;
+    /**
+     * Clear the history. Used for unit testing.
+     */
+    public void clear() {
+        final long now = clock.nanoTime();
+        if (key == Key.NONE) {
+            bucket.set(now);
+        } else {
+            for (final AtomicLong keyBucket : buckets.values()) {
+                keyBucket.set(now);
             }
-
-            return true;
+            overflowBucket.set(now);
         }
+    }
 
-        @Override
-        public int hashCode() {
-            return (int) (expireTime ^ (expireTime >>> HASH_SHIFT));
-        }
+    @Override
+    public String toString() {
+        return "level=" + level.toString() + ", interval=" + emissionInterval + ", max=" + maxBurst + ", key=" + key
+                + ", suppressed=" + suppressed.sum();
     }
 
     @PluginBuilderFactory
@@ -301,6 +384,11 @@ public final class BurstFilter extends AbstractFilter {
         @PluginBuilderAttribute
         private long maxBurst;
 
+        @PluginBuilderAttribute
+        private Key key = Key.NONE;
+
+        private NanoClock clock = new SystemNanoClock();
+
         /**
          * Sets the logging level to use.
          * @param level the logging level to use.
@@ -332,6 +420,27 @@ public final class BurstFilter extends AbstractFilter {
             return this;
         }
 
+        /**
+         * Sets which events share a token bucket.
+         * @param key NONE for one bucket for all events, LEVEL or LOGGER for a bucket per level or per logger name.
+         * @return this
+         * @since 2.20.0
+         */
+        public Builder setKey(final Key key) {
+            this.key = key;
+            return this;
+        }
+
+        /**
+         * Sets the clock that refills the buckets. Used for unit testing.
+         * @param clock the clock.
+         * @return this
+         */
+        Builder setNanoClock(final NanoClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
         @Override
         public BurstFilter build() {
             if (this.rate <= 0) {
@@ -340,7 +449,11 @@ public final class BurstFilter extends AbstractFilter {
             if (this.maxBurst <= 0) {
                 this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
             }
-            return new BurstFilter(this.level, this.rate, this.maxBurst, this.getOnMatch(), this.getOnMismatch());
+            if (this.key == null) {
+                this.key = Key.NONE;
+            }
+            return new BurstFilter(this.level, this.rate, this.maxBurst, this.key, this.clock, this.getOnMatch(),
+                    this.getOnMismatch());
         }
     }
 }
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.util.LoaderUtil;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Caches the packaging data {@link ThrowableProxy} resolves for a stack trace, so that repeated exceptions with the
+ * same stack trace do not load classes and look up code sources again.
+ * <p>
+ * Classes are resolved through the thread context class loader, so the same frames may resolve to different jars in
+ * different applications sharing log4j-core. Stack traces are therefore cached per thread context class loader, which
+ * is only weakly referenced. Each of these caches holds up to {@code log4j2.extendedStackTraceCacheSize} stack traces,
+ * 1024 by default, 0 disables caching. Cached entries only hold Strings, so they do not keep classes or class loaders
+ * alive. When a cache is full, an arbitrary entry is evicted. The cache of the class loader used last is found
+ * without locking.
+ * </p>
+ * <p>
+ * Whether a frame is marked as exact, meaning its class was found on the stack of the logging thread, is taken from
+ * the first occurrence of the stack trace.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public final class ExtendedStackTraceCache {
+
+    private static final int MAX_SIZE = PropertiesUtil.getProperties().getIntegerProperty(
+            "log4j2.extendedStackTraceCacheSize", 1024);
+
+    private static final Map<ClassLoader, ConcurrentMap<Key, ExtendedStackTraceElement[]>> CACHES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static volatile LoaderCache lastCache;
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
+
+    private ExtendedStackTraceCache() {
+        // Utility Class
+    }
+
+    /**
+     * Returns the cache of the thread context class loader, which a {@link ThrowableProxy} looks up once.
+     *
+     * @return the cache or null if caching is disabled.
+     */
+    static ConcurrentMap<Key, ExtendedStackTraceElement[]> getCache() {
+        if (MAX_SIZE <= 0) {
+            return null;
+        }
+        final ClassLoader loader = LoaderUtil.getThreadContextClassLoader();
+        final LoaderCache last = lastCache;
+        if (last != null && loader != null && last.loader.get() == loader) {
+            return last.cache;
+        }
+        final ConcurrentMap<Key, ExtendedStackTraceElement[]> cache =
+                CACHES.computeIfAbsent(loader, k -> new ConcurrentHashMap<>());
+        if (loader != null) {
+            lastCache = new LoaderCache(loader, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Returns a copy of the cached extended stack trace.
+     *
+     * @param cache the cache returned by {@link #getCache()}, may be null.
+     * @param stackTrace the stack trace.
+     * @param commonElementCount the number of frames the stack trace has in common with the enclosing trace.
+     * @return the extended stack trace or null if it is not cached.
+     */
+    static ExtendedStackTraceElement[] get(final ConcurrentMap<Key, ExtendedStackTraceElement[]> cache,
+            final StackTraceElement[] stackTrace, final int commonElementCount) {
+        if (cache == null) {
+            return null;
+        }
+        final ExtendedStackTraceElement[] cached = cache.get(new Key(stackTrace, commonElementCount));
+        if (cached == null) {
+            MISSES.increment();
+            return null;
+        }
+        HITS.increment();
+        return cached.clone();
+    }
+
+    static void put(final ConcurrentMap<Key, ExtendedStackTraceElement[]> cache,
+            final StackTraceElement[] stackTrace, final int commonElementCount,
+            final ExtendedStackTraceElement[] extendedStackTrace) {
+        if (cache == null) {
+            return;
+        }
+        if (cache.size() >= MAX_SIZE) {
+            final Iterator<Key> iterator = cache.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        cache.put(new Key(stackTrace, commonElementCount), extendedStackTrace.clone());
+    }
+
+    /**
+     * Returns the number of stack traces found in the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns the number of stack traces that had to be resolved.
+     *
+     * @return the number of cache misses.
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Returns the number of cached stack traces of all class loaders.
+     *
+     * @return the number of cached stack traces.
+     */
+    public static int getSize() {
+        int size = 0;
+        synchronized (CACHES) {
+            for (final ConcurrentMap<Key, ExtendedStackTraceElement[]> cache : CACHES.values()) {
+                size += cache.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all cached stack traces and resets the hit and miss counts.
+     */
+    public static void clear() {
+        lastCache = null;
+        CACHES.clear();
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    /**
+     * The cache of a class loader, which it does not keep alive.
+     */
+    private static final class LoaderCache {
+
+        private final WeakReference<ClassLoader> loader;
+        private final ConcurrentMap<Key, ExtendedStackTraceElement[]> cache;
+
+        private LoaderCache(final ClassLoader loader, final ConcurrentMap<Key, ExtendedStackTraceElement[]> cache) {
+            this.loader = new WeakReference<>(loader);
+            this.cache = cache;
+        }
+    }
+
+    static final class Key {
+
+        private final StackTraceElement[] stackTrace;
+        private final int commonElementCount;
+        private final int hashCode;
+
+        private Key(final StackTraceElement[] stackTrace, final int commonElementCount) {
+            this.stackTrace = stackTrace;
+            this.commonElementCount = commonElementCount;
+            this.hashCode = 31 * Arrays.hashCode(stackTrace) + commonElementCount;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hashCode == other.hashCode && commonElementCount == other.commonElementCount
+                    && Arrays.equals(stackTrace, other.stackTrace);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
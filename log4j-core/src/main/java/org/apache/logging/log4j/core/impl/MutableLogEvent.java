@@ -65,6 +65,7 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
     private StackTraceElement source;
     private ThreadContext.ContextStack contextStack;
     transient boolean reserved = false;
+    transient boolean pooled; // owned by ReusableLogEventFactory's pool for virtual threads
 
     public MutableLogEvent() {
         // messageText and the parameter array are lazily initialized
@@ -28,10 +28,12 @@ import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.util.Clock;
 import org.apache.logging.log4j.core.util.ClockFactory;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.apache.logging.log4j.util.StringMap;
 
 /**
- * Garbage-free LogEventFactory that reuses a single mutable log event.
+ * Garbage-free LogEventFactory that reuses a single mutable log event per thread. Virtual threads share a bounded pool of
+ * mutable log events instead.
  * @since 2.6
  */
 public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLogEventFactory {
@@ -39,6 +41,11 @@ public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLo
     private static final Clock CLOCK = ClockFactory.getClock();
 
     private static final ThreadLocal<MutableLogEvent> mutableLogEventThreadLocal = new ThreadLocal<>();
+    private static final BoundedObjectPool<MutableLogEvent> mutableLogEventPool = new BoundedObjectPool<>(() -> {
+        final MutableLogEvent result = new MutableLogEvent();
+        result.pooled = true;
+        return result;
+    });
     private final ContextDataInjector injector = ContextDataInjectorFactory.createInjector();
 
     /**
@@ -101,6 +108,15 @@ public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLo
     }
 
     private static MutableLogEvent getOrCreateMutableLogEvent() {
+        final Thread currentThread = Thread.currentThread();
+        if (BoundedObjectPool.isVirtual(currentThread)) {
+            // pooled events are shared by all virtual threads, so thread-specific fields are always set
+            final MutableLogEvent result = mutableLogEventPool.acquire();
+            result.setThreadId(currentThread.getId());
+            result.setThreadName(currentThread.getName());
+            result.setThreadPriority(currentThread.getPriority());
+            return result;
+        }
         MutableLogEvent result = mutableLogEventThreadLocal.get();
         return result == null || result.reserved ? createInstance(result) : result;
     }
@@ -120,6 +136,7 @@ public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLo
 
     /**
      * Switches the {@code reserved} flag off if the specified event is a MutableLogEvent, otherwise does nothing.
+     * Events taken from the pool of virtual threads are returned to it.
      * This flag is used internally to verify that a reusable log event is no longer in use and can be reused.
      * @param logEvent the log event to make available again
      * @since 2.7
@@ -129,6 +146,9 @@ public class ReusableLogEventFactory implements LogEventFactory, LocationAwareLo
             final MutableLogEvent mutableLogEvent = (MutableLogEvent) logEvent;
             mutableLogEvent.clear();
             mutableLogEvent.reserved = false;
+            if (mutableLogEvent.pooled) {
+                mutableLogEventPool.release(mutableLogEvent);
+            }
         }
     }
 }
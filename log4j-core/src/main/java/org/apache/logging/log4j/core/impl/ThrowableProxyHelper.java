@@ -24,10 +24,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.core.util.Loader;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.LoaderUtil;
+import org.apache.logging.log4j.util.StackLocatorUtil;
 
 /**
  * {@link ThrowableProxyHelper} provides utilities required to initialize a new {@link ThrowableProxy}
@@ -55,6 +57,34 @@ class ThrowableProxyHelper {
         }
     }
 
+    /**
+     * The callers Class stack, only walked when a stack trace has to be resolved.
+     * <p>
+     * Consider this class private.
+     * </p>
+     */
+    static final class CallerStack {
+        private Deque<Class<?>> stack;
+
+        CallerStack() {
+        }
+
+        CallerStack(final Deque<Class<?>> stack) {
+            this.stack = stack;
+        }
+
+        Deque<Class<?>> get() {
+            if (stack == null) {
+                stack = StackLocatorUtil.getCurrentStackTrace();
+            }
+            return stack;
+        }
+
+        boolean isCaptured() {
+            return stack != null;
+        }
+    }
+
     /**
      * Resolve all the stack entries in this stack trace that are not common with the parent.
      *
@@ -70,6 +100,27 @@ class ThrowableProxyHelper {
             final Deque<Class<?>> stack, final Map<String, CacheEntry> map,
             final StackTraceElement[] rootTrace,
             final StackTraceElement[] stackTrace) {
+        return toExtendedStackTrace(src, new CallerStack(stack), map, rootTrace, stackTrace);
+    }
+
+    /**
+     * Resolve all the stack entries in this stack trace that are not common with the parent.
+     * <p>
+     * Stack traces resolved before are taken from the {@link ExtendedStackTraceCache}.
+     * </p>
+     *
+     * @param src        Instance for which to build an extended stack trace.
+     * @param callerStack The callers Class stack.
+     * @param map        The cache of CacheEntry objects.
+     * @param rootTrace  The first stack trace resolve or null.
+     * @param stackTrace The stack trace being resolved.
+     * @return The StackTracePackageElement array.
+     */
+    static ExtendedStackTraceElement[] toExtendedStackTrace(
+            final ThrowableProxy src,
+            final CallerStack callerStack, final Map<String, CacheEntry> map,
+            final StackTraceElement[] rootTrace,
+            final StackTraceElement[] stackTrace) {
         int stackLength;
         if (rootTrace != null) {
             int rootIndex = rootTrace.length - 1;
@@ -84,6 +135,18 @@ class ThrowableProxyHelper {
             src.setCommonElementCount(0);
             stackLength = stackTrace.length;
         }
+        final int commonElementCount = stackTrace.length - stackLength;
+        final ConcurrentMap<ExtendedStackTraceCache.Key, ExtendedStackTraceElement[]> cache =
+                ExtendedStackTraceCache.getCache();
+        final ExtendedStackTraceElement[] cached = ExtendedStackTraceCache.get(cache, stackTrace, commonElementCount);
+        if (cached != null) {
+            if (callerStack.isCaptured()) {
+                // keep the stack in step for the causes that are not cached
+                popCallers(callerStack.get(), stackTrace, stackLength);
+            }
+            return cached;
+        }
+        final Deque<Class<?>> stack = callerStack.get();
         final ExtendedStackTraceElement[] extStackTrace = new ExtendedStackTraceElement[stackLength];
         Class<?> clazz = stack.isEmpty() ? null : stack.peek();
         ClassLoader lastLoader = null;
@@ -119,9 +182,19 @@ class ThrowableProxyHelper {
             }
             extStackTrace[i] = new ExtendedStackTraceElement(stackTraceElement, extClassInfo);
         }
+        ExtendedStackTraceCache.put(cache, stackTrace, commonElementCount, extStackTrace);
         return extStackTrace;
     }
 
+    private static void popCallers(final Deque<Class<?>> stack, final StackTraceElement[] stackTrace,
+            final int stackLength) {
+        for (int i = stackLength - 1; i >= 0 && !stack.isEmpty(); --i) {
+            if (stackTrace[i].getClassName().equals(stack.peek().getName())) {
+                stack.pop();
+            }
+        }
+    }
+
     static ThrowableProxy[] toSuppressedProxies(final Throwable thrown, Set<Throwable> suppressedVisited) {
         try {
             final Throwable[] suppressed = thrown.getSuppressed();
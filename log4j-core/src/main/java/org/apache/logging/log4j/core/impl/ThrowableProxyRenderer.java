@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.impl;
 
+import org.apache.logging.log4j.core.pattern.PlainTextRenderer;
 import org.apache.logging.log4j.core.pattern.TextRenderer;
 import org.apache.logging.log4j.util.Strings;
 
@@ -111,7 +112,7 @@ class ThrowableProxyRenderer {
         if (commonCount != 0) {
             textRenderer.render(prefix, sb, "Prefix");
             textRenderer.render("\t... ", sb, "More");
-            textRenderer.render(Integer.toString(commonCount), sb, "More");
+            renderCount(commonCount, sb, textRenderer, "More");
             textRenderer.render(" more", sb, "More");
             renderSuffix(suffix, sb, textRenderer);
             textRenderer.render(lineSeparator, sb, "Text");
@@ -125,6 +126,15 @@ class ThrowableProxyRenderer {
         }
     }
 
+    private static void renderCount(final int count, final StringBuilder sb, final TextRenderer textRenderer,
+                                    final String styleName) {
+        if (textRenderer instanceof PlainTextRenderer) {
+            sb.append(count);
+        } else {
+            textRenderer.render(Integer.toString(count), sb, styleName);
+        }
+    }
+
     private static void appendSuppressedCount(final StringBuilder sb, final String prefix, final int count,
                                               final TextRenderer textRenderer, final String suffix, final String lineSeparator) {
         textRenderer.render(prefix, sb, "Prefix");
@@ -132,7 +142,7 @@ class ThrowableProxyRenderer {
             textRenderer.render("\t... ", sb, "Suppressed");
         } else {
             textRenderer.render("\t... suppressed ", sb, "Suppressed");
-            textRenderer.render(Integer.toString(count), sb, "Suppressed");
+            renderCount(count, sb, textRenderer, "Suppressed");
             textRenderer.render(" lines", sb, "Suppressed");
         }
         renderSuffix(suffix, sb, textRenderer);
@@ -16,16 +16,25 @@
  */
 package org.apache.logging.log4j.core.jmx;
 
+import java.util.Map;
+
 import javax.management.ObjectName;
 
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import org.apache.logging.log4j.core.async.AdaptiveWaitStrategy;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.DiscardingAsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.PriorityAsyncQueueFullPolicy;
 
 /**
  * Instruments an LMAX Disruptor ring buffer.
  */
 public class RingBufferAdmin implements RingBufferAdminMBean {
 
-    private final RingBuffer<?> ringBuffer;
+    private final RingBuffer<?>[] ringBuffers;
+    private final WaitStrategy[] waitStrategies;
+    private final AsyncQueueFullPolicy asyncQueueFullPolicy;
     private final ObjectName objectName;
 
     public static RingBufferAdmin forAsyncLogger(final RingBuffer<?> ringBuffer, final String contextName) {
@@ -34,6 +43,24 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         return new RingBufferAdmin(ringBuffer, name);
     }
 
+    /**
+     * Creates a RingBufferAdmin that reports the sums over several ring buffers and their wait strategies.
+     *
+     * @param ringBuffers the ring buffers, may be {@code null}.
+     * @param waitStrategies the wait strategies of the ring buffers, may be {@code null}.
+     * @param asyncQueueFullPolicy the policy that routes events when the ring buffers are full, may be {@code null}.
+     * @param contextName the name of the context.
+     * @return a new RingBufferAdmin.
+     * @since 2.20.0
+     */
+    public static RingBufferAdmin forAsyncLogger(final RingBuffer<?>[] ringBuffers,
+            final WaitStrategy[] waitStrategies, final AsyncQueueFullPolicy asyncQueueFullPolicy,
+            final String contextName) {
+        final String ctxName = Server.escape(contextName);
+        final String name = String.format(PATTERN_ASYNC_LOGGER, ctxName);
+        return new RingBufferAdmin(ringBuffers, waitStrategies, asyncQueueFullPolicy, name);
+    }
+
     public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?> ringBuffer,
             final String contextName, final String configName) {
         final String ctxName = Server.escape(contextName);
@@ -42,8 +69,47 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         return new RingBufferAdmin(ringBuffer, name);
     }
 
+    /**
+     * Creates a RingBufferAdmin for the ring buffer of an {@code AsyncLoggerConfig} that also reports the transitions
+     * of its wait strategy and the events discarded by its queue full policy.
+     *
+     * @param ringBuffer the ring buffer, may be {@code null}.
+     * @param waitStrategy the wait strategy of the ring buffer, may be {@code null}.
+     * @param asyncQueueFullPolicy the policy that routes events when the ring buffer is full, may be {@code null}.
+     * @param contextName the name of the context.
+     * @param configName the name of the logger config.
+     * @return a new RingBufferAdmin.
+     * @since 2.20.0
+     */
+    public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?> ringBuffer,
+            final WaitStrategy waitStrategy, final AsyncQueueFullPolicy asyncQueueFullPolicy,
+            final String contextName, final String configName) {
+        final String ctxName = Server.escape(contextName);
+        final String cfgName = Server.escape(configName);
+        final String name = String.format(PATTERN_ASYNC_LOGGER_CONFIG, ctxName, cfgName);
+        return new RingBufferAdmin(ringBuffer == null ? null : new RingBuffer<?>[] {ringBuffer},
+                waitStrategy == null ? null : new WaitStrategy[] {waitStrategy}, asyncQueueFullPolicy, name);
+    }
+
     protected RingBufferAdmin(final RingBuffer<?> ringBuffer, final String mbeanName) {
-        this.ringBuffer = ringBuffer;
+        this(ringBuffer == null ? null : new RingBuffer<?>[] {ringBuffer}, null, null, mbeanName);
+    }
+
+    /**
+     * Constructs a RingBufferAdmin that instruments several ring buffers, their wait strategies and their queue full
+     * policy as one.
+     *
+     * @param ringBuffers the ring buffers, may be {@code null}.
+     * @param waitStrategies the wait strategies of the ring buffers, may be {@code null}.
+     * @param asyncQueueFullPolicy the policy that routes events when the ring buffers are full, may be {@code null}.
+     * @param mbeanName the name of the MBean.
+     * @since 2.20.0
+     */
+    protected RingBufferAdmin(final RingBuffer<?>[] ringBuffers, final WaitStrategy[] waitStrategies,
+            final AsyncQueueFullPolicy asyncQueueFullPolicy, final String mbeanName) {
+        this.ringBuffers = ringBuffers == null ? new RingBuffer<?>[0] : ringBuffers;
+        this.waitStrategies = waitStrategies == null ? new WaitStrategy[0] : waitStrategies;
+        this.asyncQueueFullPolicy = asyncQueueFullPolicy;
         try {
             objectName = new ObjectName(mbeanName);
         } catch (final Exception e) {
@@ -53,12 +119,63 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
 
     @Override
     public long getBufferSize() {
-        return ringBuffer == null ? 0 : ringBuffer.getBufferSize();
+        long result = 0;
+        for (final RingBuffer<?> ringBuffer : ringBuffers) {
+            result += ringBuffer.getBufferSize();
+        }
+        return result;
     }
 
     @Override
     public long getRemainingCapacity() {
-        return ringBuffer == null ? 0 : ringBuffer.remainingCapacity();
+        long result = 0;
+        for (final RingBuffer<?> ringBuffer : ringBuffers) {
+            result += ringBuffer.remainingCapacity();
+        }
+        return result;
+    }
+
+    @Override
+    public long getSpinTransitionCount() {
+        long result = 0;
+        for (final WaitStrategy waitStrategy : waitStrategies) {
+            if (waitStrategy instanceof AdaptiveWaitStrategy) {
+                result += ((AdaptiveWaitStrategy) waitStrategy).getSpinTransitionCount();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getYieldTransitionCount() {
+        long result = 0;
+        for (final WaitStrategy waitStrategy : waitStrategies) {
+            if (waitStrategy instanceof AdaptiveWaitStrategy) {
+                result += ((AdaptiveWaitStrategy) waitStrategy).getYieldTransitionCount();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getParkTransitionCount() {
+        long result = 0;
+        for (final WaitStrategy waitStrategy : waitStrategies) {
+            if (waitStrategy instanceof AdaptiveWaitStrategy) {
+                result += ((AdaptiveWaitStrategy) waitStrategy).getParkTransitionCount();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getDiscardCount() {
+        return DiscardingAsyncQueueFullPolicy.getDiscardCount(asyncQueueFullPolicy);
+    }
+
+    @Override
+    public Map<String, Long> getDiscardCounts() {
+        return PriorityAsyncQueueFullPolicy.getDiscardCounts(asyncQueueFullPolicy);
     }
 
     /**
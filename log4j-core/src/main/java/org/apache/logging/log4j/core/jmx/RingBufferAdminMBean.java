@@ -16,6 +16,9 @@
  */
 package org.apache.logging.log4j.core.jmx;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * The MBean interface for monitoring and managing an LMAX Disruptor ring
  * buffer.
@@ -68,4 +71,59 @@ public interface RingBufferAdminMBean {
      * @return the number of available slots in the ring buffer
      */
     long getRemainingCapacity();
+
+    /**
+     * Returns how many times the consumer of the ring buffer switched to busy-spinning while waiting for events. Only
+     * counted when the ring buffer uses an {@code AdaptiveWaitStrategy}.
+     *
+     * @return the number of transitions to busy-spinning, or zero
+     * @since 2.20.0
+     */
+    default long getSpinTransitionCount() {
+        return 0;
+    }
+
+    /**
+     * Returns how many times the consumer of the ring buffer switched to yielding while waiting for events. Only
+     * counted when the ring buffer uses an {@code AdaptiveWaitStrategy}.
+     *
+     * @return the number of transitions to yielding, or zero
+     * @since 2.20.0
+     */
+    default long getYieldTransitionCount() {
+        return 0;
+    }
+
+    /**
+     * Returns how many times the consumer of the ring buffer switched to parking while waiting for events. Only
+     * counted when the ring buffer uses an {@code AdaptiveWaitStrategy}.
+     *
+     * @return the number of transitions to parking, or zero
+     * @since 2.20.0
+     */
+    default long getParkTransitionCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of events that the queue full policy of the ring buffer discarded. Only counted when the
+     * ring buffer uses a {@code DiscardingAsyncQueueFullPolicy} or a {@code PriorityAsyncQueueFullPolicy}.
+     *
+     * @return the number of discarded events, or zero
+     * @since 2.20.0
+     */
+    default long getDiscardCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of events that the queue full policy of the ring buffer discarded per level. Only counted
+     * when the ring buffer uses a {@code PriorityAsyncQueueFullPolicy}.
+     *
+     * @return the number of discarded events by level name, may be empty
+     * @since 2.20.0
+     */
+    default Map<String, Long> getDiscardCounts() {
+        return Collections.emptyMap();
+    }
 }
@@ -33,6 +33,7 @@ import org.apache.logging.log4j.core.impl.LocationAware;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.StringEncoder;
 import org.apache.logging.log4j.spi.AbstractLogger;
+import org.apache.logging.log4j.util.BoundedObjectPool;
 import org.apache.logging.log4j.util.PropertiesUtil;
 import org.apache.logging.log4j.util.StringBuilders;
 import org.apache.logging.log4j.util.Strings;
@@ -120,8 +121,15 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> implem
 
     private static final ThreadLocal<StringBuilder> threadLocal = new ThreadLocal<>();
 
+    private static final BoundedObjectPool<StringBuilder> stringBuilderPool =
+            new BoundedObjectPool<>(() -> new StringBuilder(DEFAULT_STRING_BUILDER_SIZE));
+
     /**
      * Returns a {@code StringBuilder} that this Layout implementation can use to write the formatted log event to.
+     * <p>
+     * On virtual threads, the {@code StringBuilder} is taken from a pool shared by all virtual threads. Layouts should
+     * pass it to {@link #releaseStringBuilder(StringBuilder)} once they are done with it.
+     * </p>
      *
      * @return a {@code StringBuilder}
      */
@@ -130,6 +138,11 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> implem
             // Recursive logging may clobber the cached StringBuilder.
             return new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
         }
+        if (BoundedObjectPool.isVirtual(Thread.currentThread())) {
+            final StringBuilder result = stringBuilderPool.acquire();
+            result.setLength(0);
+            return result;
+        }
         StringBuilder result = threadLocal.get();
         if (result == null) {
             result = new StringBuilder(DEFAULT_STRING_BUILDER_SIZE);
@@ -140,6 +153,21 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> implem
         return result;
     }
 
+    /**
+     * Trims a {@code StringBuilder} obtained from {@link #getStringBuilder()} once the layout is done with it. On
+     * virtual threads, the {@code StringBuilder} is also made available to other virtual threads, so it must not be
+     * used afterwards.
+     *
+     * @param stringBuilder a {@code StringBuilder} obtained from {@link #getStringBuilder()}
+     * @since 2.20.0
+     */
+    protected static void releaseStringBuilder(final StringBuilder stringBuilder) {
+        trimToMaxSize(stringBuilder);
+        if (BoundedObjectPool.isVirtual(Thread.currentThread())) {
+            stringBuilderPool.release(stringBuilder);
+        }
+    }
+
     private static int size(final String property, final int defaultValue) {
         return PropertiesUtil.getProperties().getIntegerProperty(property, defaultValue);
     }
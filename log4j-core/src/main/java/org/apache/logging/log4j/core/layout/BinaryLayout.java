@@ -0,0 +1,501 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.impl.LocationAware;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterConsumer;
+import org.apache.logging.log4j.message.ParameterVisitable;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.util.BoundedObjectPool;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Writes log events in a compact binary format, leaving all formatting to {@link BinaryLogEventReader} when the
+ * events are read back.
+ * <p>
+ * The timestamp is written as a number, the level, logger, marker and thread as plain strings, and parameterized
+ * messages as their format string followed by their parameters: strings, primitive wrappers and other character
+ * sequences as typed values, other objects as the text they are formatted to. This includes the reusable messages
+ * and the mutable events of the garbage-free and asynchronous logger paths. Other messages are written as their
+ * formatted text. The context map and stack, the thrown exception and, if {@code locationInfo} is enabled, the
+ * location are written too.
+ * </p>
+ * <p>
+ * A stream starts with a header identifying the format, written by appenders when they create a file. Each event
+ * follows as a record prefixed by its length. The events are decoded, and rendered through any other layout, with
+ * {@link org.apache.logging.log4j.core.tools.BinaryLogDecoder}.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+@Plugin(name = "BinaryLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class BinaryLayout extends AbstractLayout<byte[]> implements LocationAware {
+
+    /** The content type of binary logs. */
+    public static final String CONTENT_TYPE = "application/octet-stream";
+
+    // 'L' 'B' 'I' 'N' followed by the version; the first byte must differ from EVENT
+    static final byte[] HEADER = {'L', 'B', 'I', 'N', 1};
+
+    static final byte EVENT = 'E';
+
+    static final byte MESSAGE_TEXT = 0;
+    static final byte MESSAGE_PARAMETERIZED = 1;
+
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_STRING = 1;
+    static final byte VALUE_INTEGER = 2;
+    static final byte VALUE_LONG = 3;
+    static final byte VALUE_DOUBLE = 4;
+    static final byte VALUE_FLOAT = 5;
+    static final byte VALUE_BOOLEAN = 6;
+    static final byte VALUE_SHORT = 7;
+    static final byte VALUE_BYTE = 8;
+    static final byte VALUE_CHARACTER = 9;
+    static final byte VALUE_TEXT = 10;
+
+    private static final int MAX_REUSABLE_SIZE = Constants.ENCODER_BYTE_BUFFER_SIZE * 8;
+
+    private static final ThreadLocal<Output> OUTPUT = new ThreadLocal<>();
+    private static final BoundedObjectPool<Output> OUTPUT_POOL = new BoundedObjectPool<>(Output::new);
+
+    private static final ParameterConsumer<Output> PARAMETER_WRITER =
+            (parameter, parameterIndex, output) -> output.putValue(parameter);
+
+    private static final ParameterConsumer<Output> FIRST_PARAMETER_READER = (parameter, parameterIndex, output) -> {
+        if (parameterIndex == 0) {
+            output.firstParameter = parameter;
+        }
+    };
+
+    private static final TriConsumer<String, Object, Output> CONTEXT_WRITER = (key, value, output) -> {
+        output.putString(key);
+        output.putValue(value);
+    };
+
+    private final boolean locationInfo;
+
+    private BinaryLayout(final Configuration configuration, final boolean locationInfo) {
+        super(configuration, HEADER, null);
+        this.locationInfo = locationInfo;
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder implements org.apache.logging.log4j.core.util.Builder<BinaryLayout> {
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        @PluginBuilderAttribute
+        private boolean locationInfo;
+
+        private Builder() {
+        }
+
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        /**
+         * Whether to write the location of the call to the logger, which is expensive to compute unless Async
+         * Loggers are used.
+         *
+         * @param locationInfo {@code true} to write the location.
+         * @return this builder.
+         */
+        public Builder setLocationInfo(final boolean locationInfo) {
+            this.locationInfo = locationInfo;
+            return this;
+        }
+
+        @Override
+        public BinaryLayout build() {
+            return new BinaryLayout(configuration, locationInfo);
+        }
+    }
+
+    public boolean isLocationInfo() {
+        return locationInfo;
+    }
+
+    @Override
+    public boolean requiresLocation() {
+        return locationInfo;
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] toSerializable(final LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+        final Output output = acquireOutput();
+        try {
+            writeEvent(event, output);
+            return Arrays.copyOf(output.bytes, output.size);
+        } finally {
+            releaseOutput(output);
+        }
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final Output output = acquireOutput();
+        try {
+            writeEvent(event, output);
+            destination.writeBytes(output.bytes, 0, output.size);
+        } finally {
+            releaseOutput(output);
+        }
+    }
+
+    private void writeEvent(final LogEvent event, final Output output) {
+        output.putByte(EVENT);
+        final int lengthPosition = output.reserveInt();
+        final Instant instant = event.getInstant();
+        output.putLong(instant.getEpochMillisecond());
+        output.putInt(instant.getNanoOfMillisecond());
+        final Level level = event.getLevel();
+        output.putString(level.name());
+        output.putInt(level.intLevel());
+        output.putString(event.getLoggerName());
+        writeMarker(event.getMarker(), output);
+        output.putString(event.getThreadName());
+        output.putLong(event.getThreadId());
+        output.putInt(event.getThreadPriority());
+        output.putInt(event.getContextData().size());
+        event.getContextData().forEach(CONTEXT_WRITER, output);
+        writeContextStack(event.getContextStack(), output);
+        writeMessage(event.getMessage(), output);
+        final Throwable thrown = event.getThrown();
+        if (thrown == null) {
+            output.putByte((byte) 0);
+        } else {
+            writeThrowable(thrown, output, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+        final StackTraceElement source = locationInfo ? event.getSource() : null;
+        if (source == null) {
+            output.putByte((byte) 0);
+        } else {
+            output.putByte((byte) 1);
+            writeStackTraceElement(source, output);
+        }
+        output.putInt(lengthPosition, output.size - lengthPosition - Integer.BYTES);
+    }
+
+    private static void writeMarker(final Marker marker, final Output output) {
+        output.putString(marker == null ? null : marker.getName());
+        if (marker != null) {
+            final Marker[] parents = marker.getParents();
+            output.putInt(parents == null ? 0 : parents.length);
+            if (parents != null) {
+                for (final Marker parent : parents) {
+                    writeMarker(parent, output);
+                }
+            }
+        }
+    }
+
+    private static void writeContextStack(final ThreadContext.ContextStack contextStack, final Output output) {
+        final int depth = contextStack == null ? 0 : contextStack.getDepth();
+        output.putInt(depth);
+        if (depth > 0) {
+            for (final String element : contextStack) {
+                output.putString(element);
+            }
+        }
+    }
+
+    private static void writeMessage(final Message message, final Output output) {
+        if (message instanceof ReusableMessage && message instanceof ParameterVisitable
+                && isParameterized((ReusableMessage) message, output)) {
+            // also the MutableLogEvent and RingBufferLogEvent of the logger path, which copy the format and the
+            // parameters of the reusable message they were created with
+            final ReusableMessage reusable = (ReusableMessage) message;
+            output.putByte(MESSAGE_PARAMETERIZED);
+            output.putString(reusable.getFormat());
+            output.putInt(reusable.getParameterCount());
+            ((ParameterVisitable) message).forEachParameter(PARAMETER_WRITER, output);
+        } else if (message instanceof ParameterizedMessage) {
+            final ParameterizedMessage parameterized = (ParameterizedMessage) message;
+            final Object[] parameters = parameterized.getParameters();
+            output.putByte(MESSAGE_PARAMETERIZED);
+            output.putString(parameterized.getFormat());
+            output.putInt(parameters == null ? 0 : parameters.length);
+            if (parameters != null) {
+                for (final Object parameter : parameters) {
+                    output.putValue(parameter);
+                }
+            }
+        } else {
+            output.putByte(MESSAGE_TEXT);
+            if (message instanceof StringBuilderFormattable) {
+                final StringBuilder text = output.text;
+                text.setLength(0);
+                ((StringBuilderFormattable) message).formatTo(text);
+                output.putString(text);
+            } else {
+                output.putString(message == null ? null : message.getFormattedMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns whether the format and the parameters of the specified message render as its formatted text with
+     * {@link ParameterizedMessage}. A reusable object message reports its object both as its only parameter and, if
+     * it is a string, as its format; it is written as text, like messages without placeholders or parameters.
+     */
+    private static boolean isParameterized(final ReusableMessage message, final Output output) {
+        final String format = message.getFormat();
+        final short parameterCount = message.getParameterCount();
+        if (format == null || parameterCount == 0 || !format.contains("{}")) {
+            return false;
+        }
+        if (parameterCount > 1) {
+            return true;
+        }
+        ((ParameterVisitable) message).forEachParameter(FIRST_PARAMETER_READER, output);
+        final Object parameter = output.firstParameter;
+        output.firstParameter = null;
+        return parameter != format;
+    }
+
+    private static void writeThrowable(final Throwable throwable, final Output output, final Set<Throwable> dejaVu) {
+        // a throwable that is its own cause or suppressed would recurse forever
+        if (throwable == null || !dejaVu.add(throwable)) {
+            output.putByte((byte) 0);
+            return;
+        }
+        output.putByte((byte) 1);
+        output.putString(throwable.getClass().getName());
+        output.putString(throwable.getMessage());
+        final StackTraceElement[] stackTrace = throwable.getStackTrace();
+        output.putInt(stackTrace.length);
+        for (final StackTraceElement element : stackTrace) {
+            writeStackTraceElement(element, output);
+        }
+        writeThrowable(throwable.getCause(), output, dejaVu);
+        final Throwable[] suppressed = throwable.getSuppressed();
+        output.putInt(suppressed.length);
+        for (final Throwable element : suppressed) {
+            writeThrowable(element, output, dejaVu);
+        }
+    }
+
+    private static void writeStackTraceElement(final StackTraceElement element, final Output output) {
+        output.putString(element.getClassName());
+        output.putString(element.getMethodName());
+        output.putString(element.getFileName());
+        output.putInt(element.getLineNumber());
+    }
+
+    private static Output acquireOutput() {
+        if (!Constants.ENABLE_THREADLOCALS) {
+            return new Output();
+        }
+        if (BoundedObjectPool.isVirtual(Thread.currentThread())) {
+            final Output output = OUTPUT_POOL.acquire();
+            output.pooled = true;
+            return output;
+        }
+        Output output = OUTPUT.get();
+        if (output == null) {
+            output = new Output();
+            OUTPUT.set(output);
+        } else if (output.inUse) {
+            // an event that is laid out while the parameters of another one are formatted
+            return new Output();
+        }
+        output.inUse = true;
+        return output;
+    }
+
+    private static void releaseOutput(final Output output) {
+        output.size = 0;
+        if (output.bytes.length > MAX_REUSABLE_SIZE) {
+            output.bytes = new byte[Constants.ENCODER_BYTE_BUFFER_SIZE];
+        }
+        StringBuilders.trimToMaxSize(output.text, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+        output.inUse = false;
+        if (output.pooled) {
+            output.pooled = false;
+            OUTPUT_POOL.release(output);
+        }
+    }
+
+    /**
+     * Big-endian buffer that grows as needed.
+     */
+    private static final class Output {
+
+        private byte[] bytes = new byte[Constants.ENCODER_BYTE_BUFFER_SIZE];
+        private int size;
+        private final StringBuilder text = new StringBuilder();
+        private Object firstParameter;
+        private boolean inUse;
+        private boolean pooled;
+
+        private void ensureCapacity(final int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+
+        void putByte(final byte value) {
+            ensureCapacity(1);
+            bytes[size++] = value;
+        }
+
+        void putInt(final int value) {
+            ensureCapacity(Integer.BYTES);
+            putInt(size, value);
+            size += Integer.BYTES;
+        }
+
+        void putInt(final int position, final int value) {
+            bytes[position] = (byte) (value >>> 24);
+            bytes[position + 1] = (byte) (value >>> 16);
+            bytes[position + 2] = (byte) (value >>> 8);
+            bytes[position + 3] = (byte) value;
+        }
+
+        int reserveInt() {
+            ensureCapacity(Integer.BYTES);
+            final int position = size;
+            size += Integer.BYTES;
+            return position;
+        }
+
+        void putLong(final long value) {
+            putInt((int) (value >>> 32));
+            putInt((int) value);
+        }
+
+        /**
+         * Writes the length of the UTF-8 encoding, or -1 for {@code null}, followed by the encoding. Unpaired
+         * surrogates are replaced with {@code ?}.
+         */
+        void putString(final CharSequence value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            final int length = value.length();
+            // at most 3 bytes per char, a surrogate pair takes 4 bytes
+            ensureCapacity(Integer.BYTES + length * 3);
+            final int lengthPosition = size;
+            final byte[] bytes = this.bytes;
+            int position = lengthPosition + Integer.BYTES;
+            for (int i = 0; i < length; i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    bytes[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[position++] = (byte) (0xc0 | c >> 6);
+                    bytes[position++] = (byte) (0x80 | c & 0x3f);
+                } else if (!Character.isSurrogate(c)) {
+                    bytes[position++] = (byte) (0xe0 | c >> 12);
+                    bytes[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+                    bytes[position++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[position++] = (byte) (0xf0 | codePoint >> 18);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                    bytes[position++] = (byte) (0x80 | codePoint & 0x3f);
+                } else {
+                    bytes[position++] = '?';
+                }
+            }
+            putInt(lengthPosition, position - lengthPosition - Integer.BYTES);
+            size = position;
+        }
+
+        void putValue(final Object value) {
+            if (value == null) {
+                putByte(VALUE_NULL);
+            } else if (value instanceof CharSequence) {
+                putByte(VALUE_STRING);
+                putString((CharSequence) value);
+            } else if (value instanceof Integer) {
+                putByte(VALUE_INTEGER);
+                putInt((Integer) value);
+            } else if (value instanceof Long) {
+                putByte(VALUE_LONG);
+                putLong((Long) value);
+            } else if (value instanceof Double) {
+                putByte(VALUE_DOUBLE);
+                putLong(Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof Float) {
+                putByte(VALUE_FLOAT);
+                putInt(Float.floatToRawIntBits((Float) value));
+            } else if (value instanceof Boolean) {
+                putByte(VALUE_BOOLEAN);
+                putByte((Boolean) value ? (byte) 1 : (byte) 0);
+            } else if (value instanceof Short) {
+                putByte(VALUE_SHORT);
+                putInt((Short) value);
+            } else if (value instanceof Byte) {
+                putByte(VALUE_BYTE);
+                putByte((Byte) value);
+            } else if (value instanceof Character) {
+                putByte(VALUE_CHARACTER);
+                putInt((Character) value);
+            } else {
+                // formatted like ParameterizedMessage formats its parameters
+                putByte(VALUE_TEXT);
+                putString(ParameterizedMessage.deepToString(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.spi.MutableThreadContextStack;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * Reads the log events written by {@link BinaryLayout}.
+ * <p>
+ * Parameterized messages are decoded as {@link ParameterizedMessage}s and other messages as {@link SimpleMessage}s.
+ * Thrown exceptions are replaced by stand-ins whose {@code toString()} starts with the name of the original class,
+ * so {@code %ex} prints them as the original, although layouts that print the class of an exception, like
+ * {@code %xEx}, print the one of the stand-in. Classes named in a log are never loaded or instantiated, so reading a
+ * log cannot run code of the reader's class path. Stack traces, causes and suppressed exceptions are restored.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public final class BinaryLogEventReader implements Closeable {
+
+    private final DataInputStream input;
+
+    private byte[] record = new byte[0];
+
+    /**
+     * Creates a reader of a binary log.
+     *
+     * @param inputStream the binary log, starting with the header written by {@link BinaryLayout}.
+     * @throws IOException if the header cannot be read or is not the one of a binary log.
+     */
+    public BinaryLogEventReader(final InputStream inputStream) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(inputStream));
+        final int first = input.read();
+        if (first != BinaryLayout.HEADER[0]) {
+            throw new IOException("Not a binary log: the stream does not start with the binary log header");
+        }
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        final byte[] header = new byte[BinaryLayout.HEADER.length - 1];
+        input.readFully(header);
+        for (int i = 0; i < header.length - 1; i++) {
+            if (header[i] != BinaryLayout.HEADER[i + 1]) {
+                throw new IOException("Not a binary log: invalid header");
+            }
+        }
+        final byte version = header[header.length - 1];
+        if (version != BinaryLayout.HEADER[BinaryLayout.HEADER.length - 1]) {
+            throw new IOException("Unsupported binary log version: " + version);
+        }
+    }
+
+    /**
+     * Reads the next event.
+     *
+     * @return the next event, or {@code null} at the end of the stream.
+     * @throws EOFException if the stream ends in the middle of an event, e.g. because the application stopped
+     *                      while writing it.
+     * @throws IOException if the stream cannot be read or is corrupted.
+     */
+    public LogEvent read() throws IOException {
+        int type;
+        // logs can be concatenated, each one starting with a header
+        while ((type = input.read()) == BinaryLayout.HEADER[0]) {
+            readHeader();
+        }
+        if (type == -1) {
+            return null;
+        }
+        if (type != BinaryLayout.EVENT) {
+            throw new IOException("Corrupted binary log: unexpected record type " + type);
+        }
+        final int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupted binary log: negative record length " + length);
+        }
+        if (record.length < length) {
+            record = new byte[length];
+        }
+        input.readFully(record, 0, length);
+        try {
+            return readEvent(ByteBuffer.wrap(record, 0, length));
+        } catch (final RuntimeException e) {
+            throw new IOException("Corrupted binary log: invalid event", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private static LogEvent readEvent(final ByteBuffer buffer) {
+        final MutableInstant instant = new MutableInstant();
+        final long epochMillisecond = buffer.getLong();
+        instant.initFromEpochMilli(epochMillisecond, buffer.getInt());
+        final String levelName = getString(buffer);
+        final Level level = Level.forName(levelName, buffer.getInt());
+        final Log4jLogEvent.Builder builder = Log4jLogEvent.newBuilder()
+                .setInstant(instant)
+                .setLevel(level)
+                .setLoggerName(getString(buffer))
+                .setMarker(readMarker(buffer))
+                .setThreadName(getString(buffer))
+                .setThreadId(buffer.getLong())
+                .setThreadPriority(buffer.getInt());
+        final int contextSize = buffer.getInt();
+        final StringMap contextData = new SortedArrayStringMap(contextSize);
+        for (int i = 0; i < contextSize; i++) {
+            final String key = getString(buffer);
+            contextData.putValue(key, getValue(buffer));
+        }
+        builder.setContextData(contextData);
+        builder.setContextStack(readContextStack(buffer));
+        builder.setMessage(readMessage(buffer));
+        builder.setThrown(readThrowable(buffer));
+        if (buffer.get() != 0) {
+            builder.setSource(readStackTraceElement(buffer));
+        }
+        return builder.build();
+    }
+
+    private static Marker readMarker(final ByteBuffer buffer) {
+        final String name = getString(buffer);
+        if (name == null) {
+            return null;
+        }
+        final Marker marker = MarkerManager.getMarker(name);
+        final int parentCount = buffer.getInt();
+        for (int i = 0; i < parentCount; i++) {
+            marker.addParents(readMarker(buffer));
+        }
+        return marker;
+    }
+
+    private static ThreadContext.ContextStack readContextStack(final ByteBuffer buffer) {
+        final int depth = buffer.getInt();
+        if (depth == 0) {
+            return ThreadContext.EMPTY_STACK;
+        }
+        final List<String> elements = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            elements.add(getString(buffer));
+        }
+        final MutableThreadContextStack contextStack = new MutableThreadContextStack(elements);
+        contextStack.freeze();
+        return contextStack;
+    }
+
+    private static Message readMessage(final ByteBuffer buffer) {
+        final byte kind = buffer.get();
+        if (kind == BinaryLayout.MESSAGE_TEXT) {
+            return new SimpleMessage(getString(buffer));
+        }
+        if (kind != BinaryLayout.MESSAGE_PARAMETERIZED) {
+            throw new IllegalArgumentException("unknown message kind " + kind);
+        }
+        final String format = getString(buffer);
+        final Object[] parameters = new Object[buffer.getInt()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = getValue(buffer);
+        }
+        return new ParameterizedMessage(format, parameters);
+    }
+
+    private static Throwable readThrowable(final ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        final String className = getString(buffer);
+        final String message = getString(buffer);
+        final Throwable throwable = new DecodedThrowable(className, message);
+        final StackTraceElement[] stackTrace = new StackTraceElement[buffer.getInt()];
+        for (int i = 0; i < stackTrace.length; i++) {
+            stackTrace[i] = readStackTraceElement(buffer);
+        }
+        throwable.setStackTrace(stackTrace);
+        final Throwable cause = readThrowable(buffer);
+        if (cause != null) {
+            throwable.initCause(cause);
+        }
+        final int suppressedCount = buffer.getInt();
+        for (int i = 0; i < suppressedCount; i++) {
+            final Throwable suppressed = readThrowable(buffer);
+            if (suppressed != null) {
+                throwable.addSuppressed(suppressed);
+            }
+        }
+        return throwable;
+    }
+
+    private static StackTraceElement readStackTraceElement(final ByteBuffer buffer) {
+        final String className = getString(buffer);
+        final String methodName = getString(buffer);
+        final String fileName = getString(buffer);
+        return new StackTraceElement(className, methodName, fileName, buffer.getInt());
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final int position = buffer.position();
+        buffer.position(position + length);
+        return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+    }
+
+    private static Object getValue(final ByteBuffer buffer) {
+        final byte type = buffer.get();
+        switch (type) {
+            case BinaryLayout.VALUE_NULL:
+                return null;
+            case BinaryLayout.VALUE_STRING:
+            case BinaryLayout.VALUE_TEXT:
+                return getString(buffer);
+            case BinaryLayout.VALUE_INTEGER:
+                return buffer.getInt();
+            case BinaryLayout.VALUE_LONG:
+                return buffer.getLong();
+            case BinaryLayout.VALUE_DOUBLE:
+                return Double.longBitsToDouble(buffer.getLong());
+            case BinaryLayout.VALUE_FLOAT:
+                return Float.intBitsToFloat(buffer.getInt());
+            case BinaryLayout.VALUE_BOOLEAN:
+                return buffer.get() != 0;
+            case BinaryLayout.VALUE_SHORT:
+                return (short) buffer.getInt();
+            case BinaryLayout.VALUE_BYTE:
+                return buffer.get();
+            case BinaryLayout.VALUE_CHARACTER:
+                return (char) buffer.getInt();
+            default:
+                throw new IllegalArgumentException("unknown value type " + type);
+        }
+    }
+
+    /**
+     * Stands in for a thrown exception, keeping the name of its class.
+     */
+    private static final class DecodedThrowable extends Throwable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String className;
+
+        private DecodedThrowable(final String className, final String message) {
+            super(message);
+            this.className = className;
+        }
+
+        @Override
+        public String toString() {
+            final String message = getLocalizedMessage();
+            return message != null ? className + ": " + message : className;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.util.BoundedObjectPool;
+
+/**
+ * Collects the serialized form of an event and writes it, compressed or not, to a {@link ByteBufferDestination}.
+ * <p>
+ * The {@link Deflater} and the buffers are reused when thread locals are enabled: per thread, or through a bounded pool
+ * on virtual threads. Otherwise the native memory of the Deflater is released after each event. Compressed data is
+ * deflated straight into the buffer of the destination when that buffer is backed by an array.
+ * </p>
+ */
+final class GelfCompressor implements ByteBufferDestination {
+
+    private static final ThreadLocal<GelfCompressor> GZIP = new ThreadLocal<>();
+    private static final ThreadLocal<GelfCompressor> ZLIB = new ThreadLocal<>();
+    private static final BoundedObjectPool<GelfCompressor> GZIP_POOL =
+            new BoundedObjectPool<>(() -> new GelfCompressor(true, true));
+    private static final BoundedObjectPool<GelfCompressor> ZLIB_POOL =
+            new BoundedObjectPool<>(() -> new GelfCompressor(false, true));
+
+    // magic number, deflate, no flags, no modification time, no extra flags, unknown OS
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_LENGTH = 8;
+    private static final int MAX_REUSABLE_SIZE = Constants.ENCODER_BYTE_BUFFER_SIZE * 8;
+
+    private final boolean gzip;
+    private final boolean reused;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] output = new byte[Constants.ENCODER_BYTE_BUFFER_SIZE];
+    private ByteBuffer input = ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE);
+    private boolean inUse;
+    private boolean pooled;
+
+    private GelfCompressor(final boolean gzip, final boolean reused) {
+        this.gzip = gzip;
+        this.reused = reused;
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+    }
+
+    /**
+     * Returns a compressor for the specified compression type, which must be released after use.
+     *
+     * @param compressionType GZIP or ZLIB.
+     * @return a compressor with an empty input.
+     */
+    static GelfCompressor acquire(final GelfLayout.CompressionType compressionType) {
+        final boolean gzip = compressionType == GelfLayout.CompressionType.GZIP;
+        if (!Constants.ENABLE_THREADLOCALS) {
+            return new GelfCompressor(gzip, false);
+        }
+        if (BoundedObjectPool.isVirtual(Thread.currentThread())) {
+            final GelfCompressor compressor = (gzip ? GZIP_POOL : ZLIB_POOL).acquire();
+            compressor.pooled = true;
+            return compressor;
+        }
+        final ThreadLocal<GelfCompressor> current = gzip ? GZIP : ZLIB;
+        GelfCompressor compressor = current.get();
+        if (compressor == null) {
+            compressor = new GelfCompressor(gzip, true);
+            current.set(compressor);
+        } else if (compressor.inUse) {
+            // an event that is laid out while another one is compressed
+            return new GelfCompressor(gzip, false);
+        }
+        compressor.inUse = true;
+        return compressor;
+    }
+
+    /**
+     * Resets this compressor for the next event.
+     */
+    void release() {
+        if (!reused) {
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        crc.reset();
+        if (input.capacity() > MAX_REUSABLE_SIZE) {
+            input = ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE);
+        } else {
+            input.clear();
+        }
+        inUse = false;
+        if (pooled) {
+            pooled = false;
+            if (!(gzip ? GZIP_POOL : ZLIB_POOL).release(this)) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes written to this compressor.
+     *
+     * @return the size of the uncompressed data.
+     */
+    int size() {
+        return input.position();
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return input;
+    }
+
+    @Override
+    public ByteBuffer drain(final ByteBuffer buf) {
+        // keeps all data until the event is complete
+        buf.flip();
+        input = ByteBuffer.allocate(Math.max(buf.capacity() * 2, Constants.ENCODER_BYTE_BUFFER_SIZE)).put(buf);
+        return input;
+    }
+
+    @Override
+    public void writeBytes(final ByteBuffer data) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+    }
+
+    @Override
+    public void writeBytes(final byte[] data, final int offset, final int length) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+    }
+
+    /**
+     * Writes the uncompressed data to the destination. Callers synchronize on the destination.
+     *
+     * @param destination where to write.
+     */
+    void copyTo(final ByteBufferDestination destination) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(input.array(), 0, input.position(), destination);
+    }
+
+    /**
+     * Writes the compressed data to the destination. Callers synchronize on the destination.
+     *
+     * @param destination where to write.
+     */
+    void compressTo(final ByteBufferDestination destination) {
+        start();
+        if (gzip) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(GZIP_HEADER, 0, GZIP_HEADER.length, destination);
+        }
+        ByteBuffer buffer = destination.getByteBuffer();
+        while (!deflater.finished()) {
+            if (!buffer.hasRemaining()) {
+                buffer = destination.drain(buffer);
+            }
+            if (buffer.hasArray()) {
+                final int length = deflater.deflate(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                        buffer.remaining());
+                buffer.position(buffer.position() + length);
+            } else {
+                final int length = deflater.deflate(output);
+                ByteBufferDestinationHelper.writeToUnsynchronized(output, 0, length, destination);
+                buffer = destination.getByteBuffer();
+            }
+        }
+        if (gzip) {
+            writeTrailer();
+            ByteBufferDestinationHelper.writeToUnsynchronized(output, 0, GZIP_TRAILER_LENGTH, destination);
+        }
+    }
+
+    /**
+     * Returns the compressed data.
+     *
+     * @return a new array with the compressed data.
+     */
+    byte[] compress() {
+        start();
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(Math.max(32, input.position() / 4));
+        if (gzip) {
+            result.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        }
+        while (!deflater.finished()) {
+            result.write(output, 0, deflater.deflate(output));
+        }
+        if (gzip) {
+            writeTrailer();
+            result.write(output, 0, GZIP_TRAILER_LENGTH);
+        }
+        return result.toByteArray();
+    }
+
+    private void start() {
+        deflater.setInput(input.array(), 0, input.position());
+        deflater.finish();
+        if (gzip) {
+            crc.update(input.array(), 0, input.position());
+        }
+    }
+
+    // little-endian CRC-32 and uncompressed size, see RFC 1952
+    private void writeTrailer() {
+        writeIntLE((int) crc.getValue(), 0);
+        writeIntLE(input.position(), 4);
+    }
+
+    private void writeIntLE(final int value, final int offset) {
+        output[offset] = (byte) value;
+        output[offset + 1] = (byte) (value >>> 8);
+        output[offset + 2] = (byte) (value >>> 16);
+        output[offset + 3] = (byte) (value >>> 24);
+    }
+}
@@ -19,7 +19,6 @@ package org.apache.logging.log4j.core.layout;
 import static org.apache.logging.log4j.util.Chars.LF;
 import static org.apache.logging.log4j.util.Chars.NUL;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
@@ -47,6 +46,7 @@ import org.apache.logging.log4j.core.layout.internal.ExcludeChecker;
 import org.apache.logging.log4j.core.layout.internal.IncludeChecker;
 import org.apache.logging.log4j.core.layout.internal.ListChecker;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.net.GelfDatagramOutputStream;
 import org.apache.logging.log4j.core.net.Severity;
 import org.apache.logging.log4j.core.util.JsonUtils;
 import org.apache.logging.log4j.core.util.KeyValuePair;
@@ -54,7 +54,6 @@ import org.apache.logging.log4j.core.util.NetUtils;
 import org.apache.logging.log4j.core.util.Patterns;
 import org.apache.logging.log4j.message.MapMessage;
 import org.apache.logging.log4j.message.Message;
-import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.Strings;
 import org.apache.logging.log4j.util.TriConsumer;
@@ -64,7 +63,10 @@ import org.apache.logging.log4j.util.TriConsumer;
  * <p>
  * This layout compresses JSON to GZIP or ZLIB (the {@code compressionType}) if
  * log event data is larger than 1024 bytes (the {@code compressionThreshold}).
- * This layout does not implement chunking.
+ * The deflaters are reused, and compressed data is written straight into the destination.
+ * </p>
+ * <p>
+ * When sent over UDP, messages larger than 8192 bytes (the {@code chunkSize}) are split into GELF chunks.
  * </p>
  *
  * @see <a href="http://docs.graylog.org/en/latest/pages/gelf.html#gelf">GELF specification</a>
@@ -98,6 +100,14 @@ public final class GelfLayout extends AbstractStringLayout {
 
     private static final char C = ',';
     private static final int COMPRESSION_THRESHOLD = 1024;
+
+    /**
+     * The default maximum size of a UDP datagram, above which messages are chunked.
+     *
+     * @since 2.20.0
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
     private static final char Q = '\"';
     private static final String QC = "\",";
     private static final String QU = "\"_";
@@ -105,6 +115,7 @@ public final class GelfLayout extends AbstractStringLayout {
     private final KeyValuePair[] additionalFields;
     private final int compressionThreshold;
     private final CompressionType compressionType;
+    private final int chunkSize;
     private final String host;
     private final boolean includeStacktrace;
     private final boolean includeThreadContext;
@@ -131,6 +142,9 @@ public final class GelfLayout extends AbstractStringLayout {
         @PluginBuilderAttribute
         private int compressionThreshold = COMPRESSION_THRESHOLD;
 
+        @PluginBuilderAttribute
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
         @PluginBuilderAttribute
         private boolean includeStacktrace = true;
 
@@ -200,7 +214,7 @@ public final class GelfLayout extends AbstractStringLayout {
                         .build();
             }
             return new GelfLayout(getConfiguration(), host, additionalFields, compressionType, compressionThreshold,
-                    includeStacktrace, includeThreadContext, includeMapMessage, includeNullDelimiter,
+                    chunkSize, includeStacktrace, includeThreadContext, includeMapMessage, includeNullDelimiter,
                     includeNewLineDelimiter, omitEmptyFields, mdcChecker, mapChecker, patternLayout,
                     threadContextPrefix, mapPrefix);
         }
@@ -245,6 +259,10 @@ public final class GelfLayout extends AbstractStringLayout {
             return compressionThreshold;
         }
 
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
         public boolean isIncludeStacktrace() {
             return includeStacktrace;
         }
@@ -293,6 +311,18 @@ public final class GelfLayout extends AbstractStringLayout {
             return asBuilder();
         }
 
+        /**
+         * The maximum size of a UDP datagram, messages sent over UDP that are larger are split into GELF chunks
+         * (optional, defaults to 8192).
+         *
+         * @return this builder
+         * @since 2.20.0
+         */
+        public B setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return asBuilder();
+        }
+
         /**
          * Whether to include full stacktrace of logged Throwables (optional, default to true).
          * If set to false, only the class name and message of the Throwable will be included.
@@ -446,13 +476,13 @@ public final class GelfLayout extends AbstractStringLayout {
     @Deprecated
     public GelfLayout(final String host, final KeyValuePair[] additionalFields, final CompressionType compressionType,
                       final int compressionThreshold, final boolean includeStacktrace) {
-        this(null, host, additionalFields, compressionType, compressionThreshold, includeStacktrace, true, true,
-                false, false, false, null, null, null, "", "");
+        this(null, host, additionalFields, compressionType, compressionThreshold, DEFAULT_CHUNK_SIZE,
+                includeStacktrace, true, true, false, false, false, null, null, null, "", "");
     }
 
     private GelfLayout(final Configuration config, final String host, final KeyValuePair[] additionalFields,
-            final CompressionType compressionType, final int compressionThreshold, final boolean includeStacktrace,
-            final boolean includeThreadContext, final boolean includeMapMessage, final boolean includeNullDelimiter,
+            final CompressionType compressionType, final int compressionThreshold, final int chunkSize,
+            final boolean includeStacktrace, final boolean includeThreadContext, final boolean includeMapMessage, final boolean includeNullDelimiter,
             final boolean includeNewLineDelimiter, final boolean omitEmptyFields, final ListChecker mdcChecker,
             final ListChecker mapChecker, final PatternLayout patternLayout, final String mdcPrefix,
             final String mapPrefix) {
@@ -468,6 +498,10 @@ public final class GelfLayout extends AbstractStringLayout {
         }
         this.compressionType = compressionType;
         this.compressionThreshold = compressionThreshold;
+        if (chunkSize <= GelfDatagramOutputStream.CHUNK_HEADER_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be larger than " + GelfDatagramOutputStream.CHUNK_HEADER_SIZE);
+        }
+        this.chunkSize = chunkSize;
         this.includeStacktrace = includeStacktrace;
         this.includeThreadContext = includeThreadContext;
         this.includeMapMessage = includeMapMessage;
@@ -488,6 +522,7 @@ public final class GelfLayout extends AbstractStringLayout {
         sb.append("host=").append(host);
         sb.append(", compressionType=").append(compressionType.toString());
         sb.append(", compressionThreshold=").append(compressionThreshold);
+        sb.append(", chunkSize=").append(chunkSize);
         sb.append(", includeStackTrace=").append(includeStacktrace);
         sb.append(", includeThreadContext=").append(includeThreadContext);
         sb.append(", includeNullDelimiter=").append(includeNullDelimiter);
@@ -521,8 +556,8 @@ public final class GelfLayout extends AbstractStringLayout {
             @PluginAttribute(value = "includeStacktrace",
                 defaultBoolean = true) final boolean includeStacktrace) {
             // @formatter:on
-        return new GelfLayout(null, host, additionalFields, compressionType, compressionThreshold, includeStacktrace,
-                true, true, false, false, false, null, null, null, "", "");
+        return new GelfLayout(null, host, additionalFields, compressionType, compressionThreshold, DEFAULT_CHUNK_SIZE,
+                includeStacktrace, true, true, false, false, false, null, null, null, "", "");
     }
 
     @PluginBuilderFactory
@@ -544,18 +579,43 @@ public final class GelfLayout extends AbstractStringLayout {
     public byte[] toByteArray(final LogEvent event) {
         final StringBuilder text = toText(event, getStringBuilder(), false);
         final byte[] bytes = getBytes(text.toString());
+        releaseStringBuilder(text);
         return compressionType != CompressionType.OFF && bytes.length > compressionThreshold ? compress(bytes) : bytes;
     }
 
     @Override
     public void encode(final LogEvent event, final ByteBufferDestination destination) {
-        if (compressionType != CompressionType.OFF) {
-            super.encode(event, destination);
-            return;
-        }
         final StringBuilder text = toText(event, getStringBuilder(), true);
         final Encoder<StringBuilder> helper = getStringBuilderEncoder();
-        helper.encode(text, destination);
+        if (compressionType == CompressionType.OFF) {
+            helper.encode(text, destination);
+            releaseStringBuilder(text);
+            return;
+        }
+        final GelfCompressor compressor = GelfCompressor.acquire(compressionType);
+        try {
+            helper.encode(text, compressor);
+            synchronized (destination) {
+                if (compressor.size() > compressionThreshold) {
+                    compressor.compressTo(destination);
+                } else {
+                    compressor.copyTo(destination);
+                }
+            }
+        } finally {
+            compressor.release();
+            releaseStringBuilder(text);
+        }
+    }
+
+    /**
+     * Returns the maximum size of a UDP datagram, above which messages are split into GELF chunks.
+     *
+     * @return the chunk size in bytes.
+     * @since 2.20.0
+     */
+    public int getChunkSize() {
+        return chunkSize;
     }
 
     @Override
@@ -564,26 +624,21 @@ public final class GelfLayout extends AbstractStringLayout {
     }
 
     private byte[] compress(final byte[] bytes) {
+        final GelfCompressor compressor = GelfCompressor.acquire(compressionType);
         try {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream(compressionThreshold / 8);
-            try (final DeflaterOutputStream stream = compressionType.createDeflaterOutputStream(baos)) {
-                if (stream == null) {
-                    return bytes;
-                }
-                stream.write(bytes);
-                stream.finish();
-            }
-            return baos.toByteArray();
-        } catch (final IOException e) {
-            StatusLogger.getLogger().error(e);
-            return bytes;
+            compressor.writeBytes(bytes, 0, bytes.length);
+            return compressor.compress();
+        } finally {
+            compressor.release();
         }
     }
 
     @Override
     public String toSerializable(final LogEvent event) {
         final StringBuilder text = toText(event, getStringBuilder(), false);
-        return text.toString();
+        final String result = text.toString();
+        releaseStringBuilder(text);
+        return result;
     }
 
     private StringBuilder toText(final LogEvent event, final StringBuilder builder, final boolean gcFree) {
@@ -225,7 +225,7 @@ public final class PatternLayout extends AbstractStringLayout {
         final StringBuilder text = toText(eventSerializer, event, getStringBuilder());
         final Encoder<StringBuilder> encoder = getStringBuilderEncoder();
         encoder.encode(text, destination);
-        trimToMaxSize(text);
+        releaseStringBuilder(text);
     }
 
     /**
@@ -332,7 +332,7 @@ public final class PatternLayout extends AbstractStringLayout {
             try {
                 return toSerializable(event, sb).toString();
             } finally {
-                trimToMaxSize(sb);
+                releaseStringBuilder(sb);
             }
         }
 
@@ -374,7 +374,7 @@ public final class PatternLayout extends AbstractStringLayout {
             try {
                 return toSerializable(event, sb).toString();
             } finally {
-                trimToMaxSize(sb);
+                releaseStringBuilder(sb);
             }
         }
 
@@ -421,7 +421,7 @@ public final class PatternLayout extends AbstractStringLayout {
             try {
                 return toSerializable(event, sb).toString();
             } finally {
-                trimToMaxSize(sb);
+                releaseStringBuilder(sb);
             }
         }
 
@@ -550,7 +550,7 @@ public final class PatternLayout extends AbstractStringLayout {
             try {
                 return toSerializable(event, sb).toString();
             } finally {
-                trimToMaxSize(sb);
+                releaseStringBuilder(sb);
             }
         }
 
@@ -99,8 +99,7 @@ public class DatagramOutputStream extends OutputStream {
                 if (footer != null) {
                     copy(footer, 0, footer.length);
                 }
-                final DatagramPacket packet = new DatagramPacket(data, data.length, inetAddress, port);
-                datagramSocket.send(packet);
+                send(data, 0, data.length);
             }
         } finally {
             data = null;
@@ -110,6 +109,20 @@ public class DatagramOutputStream extends OutputStream {
         }
     }
 
+    /**
+     * Sends the specified bytes in one datagram. Called by {@link #flush()} with the data written since the previous
+     * flush; subclasses may override this to split the data into several datagrams.
+     *
+     * @param bytes the data to send.
+     * @param offset the start of the data.
+     * @param length the length of the data.
+     * @throws IOException if the datagram cannot be sent.
+     * @since 2.20.0
+     */
+    protected void send(final byte[] bytes, final int offset, final int length) throws IOException {
+        datagramSocket.send(new DatagramPacket(bytes, offset, length, inetAddress, port));
+    }
+
     @Override
     public synchronized void close() throws IOException {
         if (datagramSocket != null) {
@@ -25,6 +25,7 @@ import java.util.Map;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.layout.GelfLayout;
 import org.apache.logging.log4j.util.Strings;
 
 /**
@@ -117,8 +118,11 @@ public class DatagramSocketManager extends AbstractSocketManager {
                 LOGGER.error("Could not find address of " + data.host, ex);
                 return null;
             }
-            final OutputStream os = new DatagramOutputStream(data.host, data.port, data.layout.getHeader(),
-                    data.layout.getFooter());
+            final OutputStream os = data.layout instanceof GelfLayout
+                    ? new GelfDatagramOutputStream(data.host, data.port, data.layout.getHeader(),
+                            data.layout.getFooter(), ((GelfLayout) data.layout).getChunkSize())
+                    : new DatagramOutputStream(data.host, data.port, data.layout.getHeader(),
+                            data.layout.getFooter());
             return new DatagramSocketManager(name, os, inetAddress, data.host, data.port, data.layout, data.bufferSize);
         }
     }
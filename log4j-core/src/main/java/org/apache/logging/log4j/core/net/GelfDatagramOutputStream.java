@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * OutputStream for GELF over UDP that splits messages larger than the chunk size into GELF chunks.
+ * <p>
+ * Each chunk starts with the magic bytes {@code 0x1e 0x0f}, an 8 byte message ID, the sequence number and the number
+ * of chunks. Messages that need more than 128 chunks are dropped, as Graylog would discard them.
+ * </p>
+ *
+ * @see <a href="http://docs.graylog.org/en/latest/pages/gelf.html#gelf">GELF specification</a>
+ * @since 2.20.0
+ */
+public class GelfDatagramOutputStream extends DatagramOutputStream {
+
+    /**
+     * The size of the header of each chunk.
+     */
+    public static final int CHUNK_HEADER_SIZE = 12;
+
+    /**
+     * The maximum number of chunks of a message.
+     */
+    public static final int MAX_CHUNKS = 128;
+
+    private static final byte MAGIC_0 = 0x1e;
+    private static final byte MAGIC_1 = 0x0f;
+    private static final int MESSAGE_ID_OFFSET = 2;
+    private static final int SEQUENCE_OFFSET = 10;
+
+    private final byte[] chunk;
+
+    /**
+     * Constructs a GelfDatagramOutputStream.
+     *
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param header The header of each message, may be {@code null}.
+     * @param footer The footer of each message, may be {@code null}.
+     * @param chunkSize The maximum size of a datagram, including the chunk header.
+     */
+    public GelfDatagramOutputStream(final String host, final int port, final byte[] header, final byte[] footer,
+            final int chunkSize) {
+        super(host, port, header, footer);
+        if (chunkSize <= CHUNK_HEADER_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be larger than " + CHUNK_HEADER_SIZE);
+        }
+        this.chunk = new byte[chunkSize];
+        chunk[0] = MAGIC_0;
+        chunk[1] = MAGIC_1;
+    }
+
+    @Override
+    protected void send(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length <= chunk.length) {
+            super.send(bytes, offset, length);
+            return;
+        }
+        final int payloadSize = chunk.length - CHUNK_HEADER_SIZE;
+        final int count = (length + payloadSize - 1) / payloadSize;
+        if (count > MAX_CHUNKS) {
+            LOGGER.error("Dropping GELF message of {} bytes, which would need {} chunks of {} bytes; at most {} "
+                    + "chunks are allowed", length, count, chunk.length, MAX_CHUNKS);
+            return;
+        }
+        long messageId = ThreadLocalRandom.current().nextLong();
+        for (int i = 0; i < 8; i++) {
+            chunk[MESSAGE_ID_OFFSET + i] = (byte) messageId;
+            messageId >>>= 8;
+        }
+        chunk[SEQUENCE_OFFSET + 1] = (byte) count;
+        for (int i = 0; i < count; i++) {
+            final int start = i * payloadSize;
+            final int size = Math.min(payloadSize, length - start);
+            chunk[SEQUENCE_OFFSET] = (byte) i;
+            System.arraycopy(bytes, offset + start, chunk, CHUNK_HEADER_SIZE, size);
+            super.send(chunk, 0, CHUNK_HEADER_SIZE + size);
+        }
+    }
+
+    public int getChunkSize() {
+        return chunk.length;
+    }
+}
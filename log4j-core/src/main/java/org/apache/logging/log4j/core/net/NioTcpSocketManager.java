@@ -0,0 +1,636 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.core.util.Log4jThread;
+import org.apache.logging.log4j.core.util.NullOutputStream;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * Manager of non-blocking TCP connections.
+ * <p>
+ * Logging threads never touch the socket: they copy the encoded event into a queue and return. A single I/O thread
+ * owns the {@link SocketChannel}, connects and reconnects it, and drains the queue with gathering writes so that
+ * many small events are sent with one system call. When the collector is slow or unavailable, events accumulate in
+ * the queue up to a high-water mark; beyond it the {@link HighWaterMarkPolicy} decides whether new events are dropped
+ * or the logging threads wait for room.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public class NioTcpSocketManager extends AbstractSocketManager {
+
+    /**
+     * What to do with an event that would take the queued bytes over the high-water mark.
+     */
+    public enum HighWaterMarkPolicy {
+
+        /**
+         * Drops the event and reports it to the appender's error handler.
+         */
+        DROP,
+
+        /**
+         * Makes the logging thread wait until the queued bytes fall below the high-water mark.
+         */
+        BLOCK
+    }
+
+    /**
+     * The default high-water mark (8 MiB).
+     */
+    public static final int DEFAULT_HIGH_WATER_MARK = 8 * 1024 * 1024;
+
+    /**
+     * How long a manager stopped without timeout keeps sending the queued events.
+     */
+    private static final long DEFAULT_DRAIN_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * The maximum number of queued events sent by one gathering write.
+     */
+    private static final int MAX_GATHER = 64;
+
+    private static final NioTcpSocketManagerFactory FACTORY = new NioTcpSocketManagerFactory();
+
+    private final int connectTimeoutMillis;
+    private final int reconnectionDelayMillis;
+    private final SocketOptions socketOptions;
+    private final int highWaterMark;
+    private final HighWaterMarkPolicy highWaterMarkPolicy;
+
+    private final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final AtomicInteger blockedProducers = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Selector selector;
+    private final IoThread ioThread;
+    private volatile boolean closing;
+    private volatile boolean connected;
+
+    /**
+     * Constructs.
+     *
+     * @param name The unique name of this connection.
+     * @param inetAddress The Internet address of the host.
+     * @param host The name of the host.
+     * @param port The port number on the host.
+     * @param connectTimeoutMillis The connect timeout in milliseconds, 0 for none.
+     * @param reconnectionDelayMillis The interval between connection attempts.
+     * @param layout The Layout.
+     * @param bufferSize The buffer size.
+     * @param socketOptions The socket options, may be null.
+     * @param highWaterMark The maximum number of bytes waiting to be sent.
+     * @param highWaterMarkPolicy What to do with events beyond the high-water mark.
+     * @throws IOException if the selector cannot be opened.
+     */
+    public NioTcpSocketManager(final String name, final InetAddress inetAddress, final String host, final int port,
+            final int connectTimeoutMillis, final int reconnectionDelayMillis,
+            final Layout<? extends Serializable> layout, final int bufferSize, final SocketOptions socketOptions,
+            final int highWaterMark, final HighWaterMarkPolicy highWaterMarkPolicy) throws IOException {
+        super(name, NullOutputStream.getInstance(), inetAddress, host, port, layout, false, bufferSize);
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.reconnectionDelayMillis = reconnectionDelayMillis;
+        this.socketOptions = socketOptions;
+        this.highWaterMark = highWaterMark > 0 ? highWaterMark : DEFAULT_HIGH_WATER_MARK;
+        this.highWaterMarkPolicy = highWaterMarkPolicy != null ? highWaterMarkPolicy : HighWaterMarkPolicy.DROP;
+        this.selector = Selector.open();
+        if (layout != null) {
+            final byte[] header = layout.getHeader();
+            if (header != null && header.length > 0) {
+                enqueue(header, 0, header.length);
+            }
+        }
+        this.ioThread = new IoThread();
+        this.ioThread.start();
+    }
+
+    /**
+     * Obtains a NioTcpSocketManager.
+     *
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param connectTimeoutMillis The connect timeout in milliseconds.
+     * @param reconnectDelayMillis The interval to pause between connection attempts.
+     * @param layout The Layout.
+     * @param bufferSize The buffer size.
+     * @param socketOptions The socket options, may be null.
+     * @param highWaterMark The maximum number of bytes waiting to be sent, 0 for the default.
+     * @param highWaterMarkPolicy What to do with events beyond the high-water mark.
+     * @return A NioTcpSocketManager.
+     */
+    public static NioTcpSocketManager getSocketManager(final String host, int port, final int connectTimeoutMillis,
+            int reconnectDelayMillis, final Layout<? extends Serializable> layout, final int bufferSize,
+            final SocketOptions socketOptions, final int highWaterMark,
+            final HighWaterMarkPolicy highWaterMarkPolicy) {
+        if (Strings.isEmpty(host)) {
+            throw new IllegalArgumentException("A host name is required");
+        }
+        if (port <= 0) {
+            port = TcpSocketManager.DEFAULT_PORT;
+        }
+        if (reconnectDelayMillis <= 0) {
+            reconnectDelayMillis = TcpSocketManager.DEFAULT_RECONNECTION_DELAY_MILLIS;
+        }
+        return (NioTcpSocketManager) getManager("NIO-TCP:" + host + ':' + port, new FactoryData(host, port,
+                connectTimeoutMillis, reconnectDelayMillis, layout, bufferSize, socketOptions, highWaterMark,
+                highWaterMarkPolicy), FACTORY);
+    }
+
+    /**
+     * Queues the bytes for the I/O thread. The bytes are copied, so the caller may reuse the array.
+     *
+     * @throws AppenderLoggingException if the event is dropped because the high-water mark is reached or the manager
+     *             is closing.
+     */
+    @Override
+    protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        if (length > 0) {
+            enqueue(bytes, offset, length);
+        }
+    }
+
+    private void enqueue(final byte[] bytes, final int offset, final int length) {
+        if (closing) {
+            throw new AppenderLoggingException("Error writing to " + getName() + ": manager is closing");
+        }
+        if (!reserve(length)) {
+            droppedEvents.incrementAndGet();
+            throw new AppenderLoggingException("Error writing to " + getName() + ": " + queuedBytes.get()
+                    + " bytes are waiting to be sent, dropping event");
+        }
+        final byte[] copy = new byte[length];
+        System.arraycopy(bytes, offset, copy, 0, length);
+        queue.offer(ByteBuffer.wrap(copy));
+        if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Reserves room for the given number of bytes below the high-water mark. An event larger than the high-water mark
+     * is accepted when nothing else is queued.
+     */
+    private boolean reserve(final int length) {
+        if (tryReserve(length)) {
+            return true;
+        }
+        if (highWaterMarkPolicy == HighWaterMarkPolicy.DROP) {
+            return false;
+        }
+        blockedProducers.incrementAndGet();
+        lock.lock();
+        try {
+            while (!tryReserve(length)) {
+                if (closing) {
+                    return false;
+                }
+                notFull.await(100, TimeUnit.MILLISECONDS);
+            }
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+            blockedProducers.decrementAndGet();
+        }
+    }
+
+    private boolean tryReserve(final int length) {
+        for (;;) {
+            final long queued = queuedBytes.get();
+            if (queued > 0 && queued + length > highWaterMark) {
+                return false;
+            }
+            if (queuedBytes.compareAndSet(queued, queued + length)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(final int length) {
+        queuedBytes.addAndGet(-length);
+        if (blockedProducers.get() > 0) {
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Does nothing: the I/O thread sends queued events as soon as the connection accepts them.
+     */
+    @Override
+    public void flush() {
+        // nothing to flush
+    }
+
+    /**
+     * Queues the footer, then gives the I/O thread until the timeout, or 5 seconds if there is none, to send the
+     * queued events.
+     */
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        writeFooter();
+        closing = true;
+        selector.wakeup();
+        final long drainMillis = timeout > 0 ? timeUnit.toMillis(timeout) : DEFAULT_DRAIN_TIMEOUT_MILLIS;
+        try {
+            ioThread.join(drainMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ioThread.isAlive()) {
+            ioThread.shutdown = true;
+            ioThread.interrupt();
+        }
+        lock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        final long lost = queuedBytes.get();
+        if (lost > 0) {
+            LOGGER.warn("{} closed with {} bytes not sent to {}:{}", getName(), lost, host, port);
+        }
+        return lost == 0;
+    }
+
+    /**
+     * The thread that owns the socket channel.
+     */
+    private class IoThread extends Log4jThread {
+
+        private final Queue<ByteBuffer> pending = new ArrayDeque<>();
+        private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+        private SocketChannel channel;
+        private SelectionKey key;
+        private long connectDeadline;
+        private long nextConnectAttempt;
+        private int addressIndex;
+        private volatile boolean shutdown;
+
+        IoThread() {
+            super("NioTcpSocketManager-" + host + ':' + port);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!shutdown) {
+                    final long now = System.currentTimeMillis();
+                    if (channel == null) {
+                        if (closing) {
+                            break;
+                        }
+                        if (now >= nextConnectAttempt) {
+                            connect();
+                        }
+                    }
+                    // reset before draining the queue so that events queued from now on wake up the selector
+                    wakeupPending.set(false);
+                    if (channel != null && channel.isConnected()) {
+                        write();
+                        if (closing && pending.isEmpty() && queue.isEmpty()) {
+                            break;
+                        }
+                    }
+                    selector.select(selectTimeout(now));
+                    selector.selectedKeys().clear();
+                    if (channel != null && !channel.isConnected()) {
+                        if (key.isConnectable()) {
+                            finishConnect();
+                        } else if (connectTimeoutMillis > 0 && System.currentTimeMillis() >= connectDeadline) {
+                            disconnect("connection timed out", null);
+                        }
+                    }
+                }
+            } catch (final IOException e) {
+                LOGGER.error("I/O thread of {} failed", getName(), e);
+            } finally {
+                rewindPending();
+                closeChannel();
+                Closer.closeSilently(selector);
+            }
+        }
+
+        private long selectTimeout(final long now) {
+            if (closing) {
+                return 100;
+            }
+            if (channel == null) {
+                return Math.max(1, nextConnectAttempt - now);
+            }
+            if (!channel.isConnected() && connectTimeoutMillis > 0) {
+                return Math.max(1, connectDeadline - now);
+            }
+            return 0;
+        }
+
+        private void connect() {
+            final InetSocketAddress address;
+            try {
+                final List<InetSocketAddress> addresses = TcpSocketManager.TcpSocketManagerFactory.RESOLVER
+                        .resolveHost(host, port);
+                address = addresses.get(addressIndex++ % addresses.size());
+            } catch (final UnknownHostException e) {
+                scheduleReconnect("cannot resolve host", e);
+                return;
+            }
+            try {
+                LOGGER.debug("Connecting {} to {}", getName(), address);
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                if (socketOptions != null) {
+                    socketOptions.apply(channel.socket());
+                }
+                connectDeadline = System.currentTimeMillis() + connectTimeoutMillis;
+                if (channel.connect(address)) {
+                    key = channel.register(selector, 0);
+                    connected();
+                } else {
+                    key = channel.register(selector, SelectionKey.OP_CONNECT);
+                }
+            } catch (final IOException e) {
+                disconnect("cannot connect", e);
+            }
+        }
+
+        private void finishConnect() {
+            try {
+                if (channel.finishConnect()) {
+                    key.interestOps(0);
+                    connected();
+                }
+            } catch (final IOException e) {
+                disconnect("connection refused", e);
+            }
+        }
+
+        private void connected() {
+            connected = true;
+            LOGGER.debug("Connection to {}:{} established: {}", host, port, channel);
+        }
+
+        /**
+         * Sends the queued events with gathering writes until the queue is empty or the socket send buffer is full.
+         */
+        private void write() {
+            try {
+                refill();
+                while (!pending.isEmpty()) {
+                    int count = 0;
+                    for (final ByteBuffer buffer : pending) {
+                        if (count == MAX_GATHER) {
+                            break;
+                        }
+                        gather[count++] = buffer;
+                    }
+                    channel.write(gather, 0, count);
+                    int written = 0;
+                    while (!pending.isEmpty() && !pending.peek().hasRemaining()) {
+                        release(pending.remove().capacity());
+                        written++;
+                    }
+                    if (written < count) {
+                        // the socket send buffer is full
+                        key.interestOps(SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    refill();
+                }
+                key.interestOps(0);
+            } catch (final IOException e) {
+                disconnect("write failed", e);
+            } finally {
+                Arrays.fill(gather, null);
+            }
+        }
+
+        private void refill() {
+            ByteBuffer buffer;
+            while (pending.size() < MAX_GATHER && (buffer = queue.poll()) != null) {
+                pending.add(buffer);
+            }
+        }
+
+        private void disconnect(final String reason, final Exception cause) {
+            closeChannel();
+            rewindPending();
+            scheduleReconnect(reason, cause);
+        }
+
+        private void scheduleReconnect(final String reason, final Exception cause) {
+            nextConnectAttempt = System.currentTimeMillis() + reconnectionDelayMillis;
+            LOGGER.debug("Connection of {} to {}:{} lost ({}), reconnecting in {} ms", getName(), host, port, reason,
+                    reconnectionDelayMillis, cause);
+        }
+
+        /**
+         * Sends a partially written event again from its start on the next connection.
+         */
+        private void rewindPending() {
+            final ByteBuffer head = pending.peek();
+            if (head != null) {
+                head.rewind();
+            }
+        }
+
+        private void closeChannel() {
+            connected = false;
+            if (key != null) {
+                key.cancel();
+                key = null;
+            }
+            Closer.closeSilently(channel);
+            channel = null;
+        }
+    }
+
+    /**
+     * Gets this NioTcpSocketManager's content format. Specified by:
+     * <ul>
+     * <li>Key: "protocol" Value: "tcp"</li>
+     * <li>Key: "direction" Value: "out"</li>
+     * </ul>
+     *
+     * @return Map of content format keys supporting NioTcpSocketManager
+     */
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<>(super.getContentFormat());
+        result.put("protocol", "tcp");
+        result.put("direction", "out");
+        return result;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getReconnectionDelayMillis() {
+        return reconnectionDelayMillis;
+    }
+
+    public SocketOptions getSocketOptions() {
+        return socketOptions;
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public HighWaterMarkPolicy getHighWaterMarkPolicy() {
+        return highWaterMarkPolicy;
+    }
+
+    /**
+     * Returns whether the I/O thread is currently connected to the host.
+     *
+     * @return whether the connection is established.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Returns the number of bytes waiting to be sent.
+     *
+     * @return the number of queued bytes.
+     */
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    /**
+     * Returns the number of events dropped because the high-water mark was reached.
+     *
+     * @return the number of dropped events.
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    @Override
+    public String toString() {
+        return "NioTcpSocketManager [reconnectionDelayMillis=" + reconnectionDelayMillis + ", connected=" + connected
+                + ", socketOptions=" + socketOptions + ", connectTimeoutMillis=" + connectTimeoutMillis
+                + ", highWaterMark=" + highWaterMark + ", highWaterMarkPolicy=" + highWaterMarkPolicy
+                + ", inetAddress=" + inetAddress + ", host=" + host + ", port=" + port + ", layout=" + layout + "]";
+    }
+
+    /**
+     * Data for the factory.
+     */
+    static class FactoryData {
+        protected final String host;
+        protected final int port;
+        protected final int connectTimeoutMillis;
+        protected final int reconnectDelayMillis;
+        protected final Layout<? extends Serializable> layout;
+        protected final int bufferSize;
+        protected final SocketOptions socketOptions;
+        protected final int highWaterMark;
+        protected final HighWaterMarkPolicy highWaterMarkPolicy;
+
+        public FactoryData(final String host, final int port, final int connectTimeoutMillis,
+                final int reconnectDelayMillis, final Layout<? extends Serializable> layout, final int bufferSize,
+                final SocketOptions socketOptions, final int highWaterMark,
+                final HighWaterMarkPolicy highWaterMarkPolicy) {
+            this.host = host;
+            this.port = port;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.reconnectDelayMillis = reconnectDelayMillis;
+            this.layout = layout;
+            this.bufferSize = bufferSize;
+            this.socketOptions = socketOptions;
+            this.highWaterMark = highWaterMark;
+            this.highWaterMarkPolicy = highWaterMarkPolicy;
+        }
+
+        @Override
+        public String toString() {
+            return "FactoryData [host=" + host + ", port=" + port + ", connectTimeoutMillis=" + connectTimeoutMillis
+                    + ", reconnectDelayMillis=" + reconnectDelayMillis + ", layout=" + layout + ", bufferSize="
+                    + bufferSize + ", socketOptions=" + socketOptions + ", highWaterMark=" + highWaterMark
+                    + ", highWaterMarkPolicy=" + highWaterMarkPolicy + "]";
+        }
+    }
+
+    /**
+     * Factory to create a NioTcpSocketManager. The connection is established by the I/O thread, so an unreachable host
+     * does not delay the configuration.
+     */
+    private static class NioTcpSocketManagerFactory implements ManagerFactory<NioTcpSocketManager, FactoryData> {
+
+        @Override
+        public NioTcpSocketManager createManager(final String name, final FactoryData data) {
+            final InetAddress inetAddress;
+            try {
+                inetAddress = InetAddress.getByName(data.host);
+            } catch (final UnknownHostException ex) {
+                LOGGER.error("Could not find address of {}: {}", data.host, ex, ex);
+                return null;
+            }
+            try {
+                return new NioTcpSocketManager(name, inetAddress, data.host, data.port, data.connectTimeoutMillis,
+                        data.reconnectDelayMillis, data.layout, data.bufferSize, data.socketOptions,
+                        data.highWaterMark, data.highWaterMarkPolicy);
+            } catch (final IOException ex) {
+                LOGGER.error("NioTcpSocketManager ({}) could not open a selector", name, ex);
+                return null;
+            }
+        }
+    }
+}
@@ -71,9 +71,34 @@ public final class ExtendedThrowablePatternConverter extends ThrowablePatternCon
             if (len > 0 && !Character.isWhitespace(toAppendTo.charAt(len - 1))) {
                 toAppendTo.append(' ');
             }
+            final int start = toAppendTo.length();
             proxy.formatExtendedStackTraceTo(toAppendTo, options.getIgnorePackages(),
                     options.getTextRenderer(), getSuffix(event), options.getSeparator());
+            if (!options.allLines()) {
+                truncateLines(toAppendTo, start, options.getLines(), options.getSeparator());
+            }
+        }
+    }
+
+    /**
+     * Keeps the given number of lines from the start index on, without the separator after the last line.
+     */
+    private static void truncateLines(final StringBuilder buffer, final int start, final int lines,
+            final String separator) {
+        if (separator.isEmpty()) {
+            return;
+        }
+        int index = start;
+        for (int i = 0; i < lines; i++) {
+            index = buffer.indexOf(separator, index);
+            if (index < 0) {
+                return;
+            }
+            if (i < lines - 1) {
+                index += separator.length();
+            }
         }
+        buffer.setLength(index);
     }
 
 }
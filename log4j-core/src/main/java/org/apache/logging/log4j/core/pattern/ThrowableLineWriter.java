@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * Writer that streams the output of {@link Throwable#printStackTrace(PrintWriter)} into a StringBuilder line by line,
+ * replacing the line separator, appending a suffix to each line and stopping after a number of lines.
+ * <p>
+ * Lines are joined with the separator; the separator after the last line is only written if requested. Writers are
+ * reused per thread when thread locals are enabled.
+ * </p>
+ */
+final class ThrowableLineWriter extends Writer {
+
+    private static final ThreadLocal<ThrowableLineWriter> CURRENT = new ThreadLocal<>();
+
+    private static final String LINE_SEPARATOR = Strings.LINE_SEPARATOR;
+
+    private final PrintWriter printWriter = new PrintWriter(this);
+    private StringBuilder destination;
+    private int maxLines;
+    private String separator;
+    private String suffix;
+    private int lines;
+    // number of characters of LINE_SEPARATOR matched so far
+    private int matched;
+    private boolean pendingSeparator;
+    private boolean inUse;
+
+    private ThrowableLineWriter() {
+    }
+
+    /**
+     * Prints the stack trace of the given Throwable to the destination.
+     *
+     * @param throwable the Throwable to print.
+     * @param destination where to print.
+     * @param maxLines the maximum number of lines to print.
+     * @param separator the separator between lines.
+     * @param suffix the suffix of each line, ignored if blank.
+     * @param trailingSeparator whether to write the separator after the last line.
+     */
+    static void printStackTrace(final Throwable throwable, final StringBuilder destination, final int maxLines,
+            final String separator, final String suffix, final boolean trailingSeparator) {
+        final ThrowableLineWriter writer = acquire();
+        try {
+            writer.destination = destination;
+            writer.maxLines = maxLines;
+            writer.separator = separator;
+            writer.suffix = Strings.isNotBlank(suffix) ? suffix : null;
+            throwable.printStackTrace(writer.printWriter);
+            writer.printWriter.flush();
+            if (trailingSeparator && writer.pendingSeparator) {
+                destination.append(separator);
+            }
+        } finally {
+            writer.reset();
+        }
+    }
+
+    private static ThrowableLineWriter acquire() {
+        if (!Constants.ENABLE_THREADLOCALS) {
+            return new ThrowableLineWriter();
+        }
+        ThrowableLineWriter writer = CURRENT.get();
+        if (writer == null) {
+            writer = new ThrowableLineWriter();
+            CURRENT.set(writer);
+        } else if (writer.inUse) {
+            // a Throwable that logs while it is printed
+            return new ThrowableLineWriter();
+        }
+        writer.inUse = true;
+        return writer;
+    }
+
+    private void reset() {
+        destination = null;
+        separator = null;
+        suffix = null;
+        lines = 0;
+        matched = 0;
+        pendingSeparator = false;
+        inUse = false;
+    }
+
+    @Override
+    public void write(final int c) {
+        writeChar((char) c);
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) {
+        for (int i = off; i < off + len; i++) {
+            writeChar(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) {
+        for (int i = off; i < off + len; i++) {
+            writeChar(str.charAt(i));
+        }
+    }
+
+    private void writeChar(final char c) {
+        if (lines >= maxLines) {
+            return;
+        }
+        if (c == LINE_SEPARATOR.charAt(matched)) {
+            if (++matched == LINE_SEPARATOR.length()) {
+                matched = 0;
+                endLine();
+            }
+            return;
+        }
+        if (matched > 0) {
+            // a partial line separator was content after all
+            for (int i = 0; i < matched; i++) {
+                appendContent(LINE_SEPARATOR.charAt(i));
+            }
+            matched = 0;
+            writeChar(c);
+            return;
+        }
+        appendContent(c);
+    }
+
+    private void appendContent(final char c) {
+        if (pendingSeparator) {
+            destination.append(separator);
+            pendingSeparator = false;
+        }
+        destination.append(c);
+    }
+
+    private void endLine() {
+        if (pendingSeparator) {
+            destination.append(separator);
+        }
+        if (suffix != null) {
+            destination.append(' ').append(suffix);
+        }
+        lines++;
+        pendingSeparator = true;
+    }
+
+    @Override
+    public void flush() {
+        // nothing to flush
+    }
+
+    @Override
+    public void close() {
+        // nothing to close
+    }
+}
@@ -16,8 +16,6 @@
  */
 package org.apache.logging.log4j.core.pattern;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -27,7 +25,6 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.impl.ThrowableFormatOptions;
 import org.apache.logging.log4j.core.layout.PatternLayout;
-import org.apache.logging.log4j.core.util.StringBuilderWriter;
 import org.apache.logging.log4j.util.Strings;
 
 
@@ -191,24 +188,11 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
             buffer.append(' ');
         }
         if (!options.allLines() || nonStandardLineSeparator || Strings.isNotBlank(suffix)) {
-            final StringWriter w = new StringWriter();
-            throwable.printStackTrace(new PrintWriter(w));
-
-            final String[] array = w.toString().split(Strings.LINE_SEPARATOR);
-            final int limit = options.minLines(array.length) - 1;
-            final boolean suffixNotBlank = Strings.isNotBlank(suffix);
-            for (int i = 0; i <= limit; ++i) {
-                buffer.append(array[i]);
-                if (suffixNotBlank) {
-                    buffer.append(' ');
-                    buffer.append(suffix);
-                }
-                if (i < limit) {
-                    buffer.append(options.getSeparator());
-                }
-            }
+            ThrowableLineWriter.printStackTrace(throwable, buffer, options.getLines(), options.getSeparator(), suffix,
+                    false);
         } else {
-            throwable.printStackTrace(new PrintWriter(new StringBuilderWriter(buffer)));
+            ThrowableLineWriter.printStackTrace(throwable, buffer, Integer.MAX_VALUE, Strings.LINE_SEPARATOR, null,
+                    true);
         }
     }
 
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.core.layout.BinaryLogEventReader;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.tools.picocli.CommandLine;
+import org.apache.logging.log4j.core.tools.picocli.CommandLine.Command;
+import org.apache.logging.log4j.core.tools.picocli.CommandLine.Option;
+import org.apache.logging.log4j.core.tools.picocli.CommandLine.Parameters;
+
+/**
+ * Decodes the logs written by {@link BinaryLayout} and renders their events with another layout.
+ * <p>
+ * Events are rendered by a {@link PatternLayout} with the given pattern, or by the layout of an appender of a
+ * configuration file, for example a {@code JsonTemplateLayout} when it is on the class path. The appenders of that
+ * configuration are created but not used, so it is best to configure a console appender. For example:
+ * </p>
+ * <pre>
+ * java -cp log4j-api.jar:log4j-core.jar org.apache.logging.log4j.core.tools.BinaryLogDecoder
+ *     --pattern "%d %-5level [%t] %c - %m%n%ex" app.bin
+ * java -cp log4j-api.jar:log4j-core.jar:log4j-layout-template-json.jar
+ *     org.apache.logging.log4j.core.tools.BinaryLogDecoder --config decode.xml --out app.json app.bin
+ * </pre>
+ *
+ * @since 2.20.0
+ */
+public final class BinaryLogDecoder {
+
+    /**
+     * Prints exceptions with {@code %ex}, which prints the original class names of the decoded exceptions.
+     */
+    private static final String DEFAULT_PATTERN = PatternLayout.SIMPLE_CONVERSION_PATTERN + "%ex";
+
+    @Command(name = "BinaryLogDecoder")
+    public static class CommandLineArguments extends BasicCommandLineArguments implements Runnable {
+
+        @Option(names = { "--pattern", "-p" },
+                description = "Renders events with a PatternLayout with this pattern, by default \""
+                        + DEFAULT_PATTERN + "\".")
+        private String pattern;
+
+        @Option(names = { "--config", "-c" },
+                description = "Renders events with the layout of an appender of this configuration file.")
+        private Path configPath;
+
+        @Option(names = { "--appender", "-a" },
+                description = "Specifies the appender whose layout renders events, by default the first one.")
+        private String appenderName;
+
+        @Option(names = { "--out", "-o" }, description = "Specifies the output file, by default the standard output.")
+        private Path pathOut;
+
+        @Parameters(description = "The binary logs to decode.")
+        private List<Path> pathsIn;
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public Path getConfigPath() {
+            return configPath;
+        }
+
+        public String getAppenderName() {
+            return appenderName;
+        }
+
+        public Path getPathOut() {
+            return pathOut;
+        }
+
+        public List<Path> getPathsIn() {
+            return pathsIn;
+        }
+
+        public void setPattern(final String pattern) {
+            this.pattern = pattern;
+        }
+
+        public void setConfigPath(final Path configPath) {
+            this.configPath = configPath;
+        }
+
+        public void setAppenderName(final String appenderName) {
+            this.appenderName = appenderName;
+        }
+
+        public void setPathOut(final Path pathOut) {
+            this.pathOut = pathOut;
+        }
+
+        public void setPathsIn(final List<Path> pathsIn) {
+            this.pathsIn = pathsIn;
+        }
+
+        @Override
+        public void run() {
+            if (isHelp() || pathsIn == null || pathsIn.isEmpty()) {
+                CommandLine.usage(this, System.err);
+                return;
+            }
+            try {
+                BinaryLogDecoder.run(this);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CommandLineArguments [pattern=" + pattern + ", configPath=" + configPath + ", appenderName="
+                    + appenderName + ", pathOut=" + pathOut + ", pathsIn=" + pathsIn + "]";
+        }
+    }
+
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(final String[] args) {
+        CommandLine.run(new CommandLineArguments(), System.err, args);
+    }
+
+    /**
+     * Decodes the binary logs given on the command line.
+     *
+     * @param cla the command line arguments.
+     * @return the number of decoded events.
+     * @throws IOException if a log cannot be read or the output cannot be written.
+     */
+    public static long run(final CommandLineArguments cla) throws IOException {
+        Configuration configuration = null;
+        try {
+            final Layout<?> layout;
+            if (cla.getConfigPath() != null) {
+                configuration = ConfigurationFactory.getInstance().getConfiguration(
+                        new LoggerContext(BinaryLogDecoder.class.getSimpleName()),
+                        BinaryLogDecoder.class.getSimpleName(), cla.getConfigPath().toUri());
+                configuration.initialize();
+                layout = getLayout(configuration, cla.getAppenderName());
+            } else {
+                layout = PatternLayout.newBuilder()
+                        .withPattern(cla.getPattern() != null ? cla.getPattern()
+                                : DEFAULT_PATTERN)
+                        .build();
+            }
+            final OutputStream out = cla.getPathOut() != null ? Files.newOutputStream(cla.getPathOut()) : System.out;
+            try (final OutputStream output = new BufferedOutputStream(out) {
+                @Override
+                public void close() throws IOException {
+                    // leaves the standard output open
+                    if (out == System.out) {
+                        flush();
+                    } else {
+                        super.close();
+                    }
+                }
+            }) {
+                long count = 0;
+                for (final Path path : cla.getPathsIn()) {
+                    try (final BinaryLogEventReader reader = new BinaryLogEventReader(Files.newInputStream(path))) {
+                        LogEvent event;
+                        while ((event = reader.read()) != null) {
+                            output.write(layout.toByteArray(event));
+                            count++;
+                        }
+                    } catch (final EOFException e) {
+                        // the application stopped while writing the last event
+                        System.err.printf("%s ends with a truncated event%n", path);
+                    }
+                }
+                return count;
+            }
+        } finally {
+            if (configuration != null) {
+                configuration.stop();
+            }
+        }
+    }
+
+    private static Layout<?> getLayout(final Configuration configuration, final String appenderName) {
+        final Appender appender = appenderName != null ? configuration.getAppender(appenderName)
+                : configuration.getAppenders().values().stream().findFirst().orElse(null);
+        if (appender == null || appender.getLayout() == null) {
+            throw new IllegalArgumentException(appenderName != null
+                    ? "No appender with a layout named " + appenderName
+                    : "No appender in the configuration");
+        }
+        return appender.getLayout();
+    }
+}
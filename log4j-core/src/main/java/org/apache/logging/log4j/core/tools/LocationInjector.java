@@ -0,0 +1,557 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.spi.AbstractLogger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Rewrites compiled classes so that calls to the {@link org.apache.logging.log4j.Logger} logging methods pass the
+ * location of the call site to Log4j instead of having Log4j walk the stack to find it.
+ * <p>
+ * Each call site such as {@code logger.info("Hello {}", name)} is replaced with a call to a synthetic method of the
+ * same class that does what {@link AbstractLogger} does for the original call, but passes a {@link StackTraceElement}
+ * created once per call site to {@link org.apache.logging.log4j.Logger#logMessage(Level, Marker, String,
+ * StackTraceElement, Message, Throwable)}. Filters therefore see the same level, marker, message and parameters as
+ * without the rewrite, and a trailing {@code Throwable} parameter is logged as the event's throwable. Loggers that do
+ * not extend {@link AbstractLogger} receive the original call. Calls taking a {@code MessageSupplier} or a
+ * {@code Supplier} of the message are left unchanged.
+ * </p>
+ * <p>
+ * The tool requires ASM on the class path and is meant to run on the class files of an application after they are
+ * compiled, for example with the {@code exec-maven-plugin} in the {@code process-classes} phase:
+ * </p>
+ * <p>
+ * {@code java -cp log4j-core.jar:log4j-api.jar:asm.jar org.apache.logging.log4j.core.tools.LocationInjector
+ * target/classes}
+ * </p>
+ * <p>
+ * Rewritten classes are left unchanged when the tool runs again.
+ * </p>
+ *
+ * @since 2.20.0
+ */
+public final class LocationInjector {
+
+    /** The prefix of the names of the synthetic fields and methods added to rewritten classes. */
+    public static final String PREFIX = "log4j$location$";
+
+    private static final String LOGGER = "org/apache/logging/log4j/Logger";
+    private static final String ABSTRACT_LOGGER = "org/apache/logging/log4j/spi/AbstractLogger";
+    private static final String EXTENDED_LOGGER = "org/apache/logging/log4j/spi/ExtendedLogger";
+    private static final String MESSAGE_FACTORY = "org/apache/logging/log4j/message/MessageFactory";
+    private static final String MESSAGE_FACTORY2 = "org/apache/logging/log4j/message/MessageFactory2";
+    private static final String LAMBDA_UTIL = "org/apache/logging/log4j/util/LambdaUtil";
+    // the entry point of the original calls
+    private static final String FQCN = "org.apache.logging.log4j.spi.AbstractLogger";
+    private static final String STACK_TRACE_ELEMENT = "java/lang/StackTraceElement";
+    private static final String STACK_TRACE_ELEMENT_DESCRIPTOR = "L" + STACK_TRACE_ELEMENT + ";";
+
+    private static final Type LEVEL = Type.getObjectType("org/apache/logging/log4j/Level");
+    private static final Type MARKER = Type.getObjectType("org/apache/logging/log4j/Marker");
+    private static final Type THROWABLE = Type.getType(Throwable.class);
+    private static final Type OBJECT = Type.getType(Object.class);
+    private static final Type STRING = Type.getType(String.class);
+    private static final Type CHAR_SEQUENCE = Type.getType(CharSequence.class);
+    private static final Type MESSAGE = Type.getObjectType("org/apache/logging/log4j/message/Message");
+    private static final Type OBJECT_ARRAY = Type.getType(Object[].class);
+    private static final Type SUPPLIER_ARRAY = Type.getType("[Lorg/apache/logging/log4j/util/Supplier;");
+
+    private static final List<String> LEVEL_METHODS = Arrays.asList("trace", "debug", "info", "warn", "error", "fatal");
+    private static final Set<String> LOG_DESCRIPTORS = new HashSet<>();
+
+    static {
+        LOG_DESCRIPTORS.add(Type.getMethodDescriptor(Type.VOID_TYPE, CHAR_SEQUENCE));
+        LOG_DESCRIPTORS.add(Type.getMethodDescriptor(Type.VOID_TYPE, STRING));
+        LOG_DESCRIPTORS.add(Type.getMethodDescriptor(Type.VOID_TYPE, MESSAGE));
+        LOG_DESCRIPTORS.add(Type.getMethodDescriptor(Type.VOID_TYPE, OBJECT));
+        LOG_DESCRIPTORS.add(Type.getMethodDescriptor(Type.VOID_TYPE, STRING, OBJECT_ARRAY));
+        LOG_DESCRIPTORS.add(Type.getMethodDescriptor(Type.VOID_TYPE, STRING, SUPPLIER_ARRAY));
+        final List<Type> params = new ArrayList<>();
+        params.add(STRING);
+        for (int i = 0; i < 10; i++) {
+            params.add(OBJECT);
+            LOG_DESCRIPTORS.add(Type.getMethodDescriptor(Type.VOID_TYPE, params.toArray(new Type[0])));
+        }
+    }
+
+    private LocationInjector() {
+    }
+
+    /**
+     * Rewrites the class files in the given directories.
+     *
+     * @param args the directories containing the class files to rewrite.
+     * @throws IOException if a class file cannot be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.printf("Usage: java %s <classes directory> [<classes directory> ...]%n",
+                    LocationInjector.class.getName());
+            return;
+        }
+        for (final String arg : args) {
+            final int rewritten = transform(Paths.get(arg));
+            System.out.printf("Injected locations into %d classes in %s%n", rewritten, arg);
+        }
+    }
+
+    /**
+     * Rewrites the class files in a directory and its subdirectories.
+     *
+     * @param directory the directory containing the class files.
+     * @return the number of rewritten class files.
+     * @throws IOException if a class file cannot be read or written.
+     */
+    public static int transform(final Path directory) throws IOException {
+        final List<Path> classFiles;
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            classFiles = paths.filter(path -> path.toString().endsWith(".class") && Files.isRegularFile(path))
+                    .collect(Collectors.toList());
+        }
+        int rewritten = 0;
+        for (final Path classFile : classFiles) {
+            final byte[] transformed = transform(Files.readAllBytes(classFile));
+            if (transformed != null) {
+                Files.write(classFile, transformed);
+                rewritten++;
+            }
+        }
+        return rewritten;
+    }
+
+    /**
+     * Rewrites the logging call sites of a class.
+     *
+     * @param classFile the contents of the class file.
+     * @return the contents of the rewritten class file, or {@code null} if the class has no call sites to rewrite.
+     */
+    public static byte[] transform(final byte[] classFile) {
+        final ClassReader reader = new ClassReader(classFile);
+        if ((reader.getAccess() & Opcodes.ACC_INTERFACE) != 0 || isTransformed(reader)) {
+            return null;
+        }
+        // frames are kept as they are, the synthetic methods declare their own
+        final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        final InjectingClassVisitor visitor = new InjectingClassVisitor(writer);
+        reader.accept(visitor, 0);
+        return visitor.callSites.isEmpty() ? null : writer.toByteArray();
+    }
+
+    private static boolean isTransformed(final ClassReader reader) {
+        final boolean[] transformed = new boolean[1];
+        reader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(final int access, final String name, final String descriptor,
+                    final String signature, final String[] exceptions) {
+                transformed[0] |= name.startsWith(PREFIX);
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return transformed[0];
+    }
+
+    /**
+     * Returns how a Logger method is rewritten, or {@code null} if it is not.
+     */
+    static Mapping map(final String name, final String descriptor) {
+        if (Type.getReturnType(descriptor) != Type.VOID_TYPE) {
+            return null;
+        }
+        final Type[] args = Type.getArgumentTypes(descriptor);
+        int index = 0;
+        final boolean levelParam;
+        if ("log".equals(name)) {
+            if (args.length == 0 || !LEVEL.equals(args[0])) {
+                return null;
+            }
+            levelParam = true;
+            index++;
+        } else if (LEVEL_METHODS.contains(name)) {
+            levelParam = false;
+        } else {
+            return null;
+        }
+        final boolean marker = index < args.length && MARKER.equals(args[index]);
+        if (marker) {
+            index++;
+        }
+        Type[] messageArgs = Arrays.copyOfRange(args, index, args.length);
+        final boolean throwable = messageArgs.length == 2 && THROWABLE.equals(messageArgs[1])
+                && (STRING.equals(messageArgs[0]) || OBJECT.equals(messageArgs[0])
+                        || CHAR_SEQUENCE.equals(messageArgs[0]) || MESSAGE.equals(messageArgs[0]));
+        if (throwable) {
+            messageArgs = new Type[] {messageArgs[0]};
+        }
+        final String logDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, messageArgs);
+        if (!LOG_DESCRIPTORS.contains(logDescriptor)) {
+            return null;
+        }
+        final String level = levelParam ? null : name.toUpperCase(Locale.ROOT);
+        return new Mapping(level, marker, throwable, messageArgs);
+    }
+
+    /**
+     * How a Logger method is rewritten.
+     */
+    static final class Mapping {
+
+        /** The name of the level constant, or {@code null} if the level is a parameter. */
+        final String level;
+        final boolean marker;
+        final boolean throwable;
+        /** The types of the parameters that make up the message. */
+        final Type[] messageArgs;
+
+        Mapping(final String level, final boolean marker, final boolean throwable, final Type[] messageArgs) {
+            this.level = level;
+            this.marker = marker;
+            this.throwable = throwable;
+            this.messageArgs = messageArgs;
+        }
+
+        /**
+         * Returns the descriptor of the {@code ExtendedLogger.isEnabled} overload {@code AbstractLogger} calls.
+         */
+        String isEnabledDescriptor() {
+            final List<Type> args = new ArrayList<>();
+            args.add(LEVEL);
+            args.add(MARKER);
+            final Type first = messageArgs[0];
+            if (messageArgs.length == 1 && !STRING.equals(first)) {
+                // Message, CharSequence and Object are checked along with the throwable
+                args.add(first);
+                args.add(THROWABLE);
+            } else if (messageArgs.length == 2 && SUPPLIER_ARRAY.equals(messageArgs[1])) {
+                // the parameters are only supplied once the event is enabled
+                args.add(STRING);
+            } else {
+                args.addAll(Arrays.asList(messageArgs));
+                if (throwable) {
+                    args.add(THROWABLE);
+                }
+            }
+            return Type.getMethodDescriptor(Type.BOOLEAN_TYPE, args.toArray(new Type[0]));
+        }
+    }
+
+    private static final class CallSite {
+
+        final String name;
+        final String descriptor;
+        final String loggerMethod;
+        final String loggerDescriptor;
+        final Mapping mapping;
+        final String methodName;
+        final int lineNumber;
+
+        CallSite(final String name, final String loggerMethod, final String loggerDescriptor, final Mapping mapping,
+                final String methodName, final int lineNumber) {
+            this.name = name;
+            this.descriptor = "(L" + LOGGER + ";" + loggerDescriptor.substring(1);
+            this.loggerMethod = loggerMethod;
+            this.loggerDescriptor = loggerDescriptor;
+            this.mapping = mapping;
+            this.methodName = methodName;
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    private static final class InjectingClassVisitor extends ClassVisitor {
+
+        private final List<CallSite> callSites = new ArrayList<>();
+        private int version;
+        private String className;
+        private String sourceFile;
+
+        InjectingClassVisitor(final ClassVisitor classVisitor) {
+            super(Opcodes.ASM9, classVisitor);
+        }
+
+        @Override
+        public void visit(final int version, final int access, final String name, final String signature,
+                final String superName, final String[] interfaces) {
+            this.version = version;
+            this.className = name;
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public void visitSource(final String source, final String debug) {
+            this.sourceFile = source;
+            super.visitSource(source, debug);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name, final String descriptor,
+                final String signature, final String[] exceptions) {
+            final MethodVisitor methodVisitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+            return methodVisitor == null ? null : new InjectingMethodVisitor(methodVisitor, name);
+        }
+
+        @Override
+        public void visitEnd() {
+            for (final CallSite callSite : callSites) {
+                super.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, callSite.name,
+                        STACK_TRACE_ELEMENT_DESCRIPTOR, null, null).visitEnd();
+                writeMethod(callSite);
+            }
+            super.visitEnd();
+        }
+
+        private CallSite addCallSite(final String name, final String descriptor, final Mapping mapping,
+                final String methodName, final int lineNumber) {
+            final CallSite callSite = new CallSite(PREFIX + callSites.size(), name, descriptor, mapping, methodName,
+                    lineNumber);
+            callSites.add(callSite);
+            return callSite;
+        }
+
+        /**
+         * Writes the synthetic method of a call site. For {@code logger.error(marker, "Failed {}", id, t)} it is the
+         * equivalent of:
+         * <pre>
+         * if (!(logger instanceof AbstractLogger)) {
+         *     logger.error(marker, "Failed {}", id, t);
+         *     return;
+         * }
+         * if (LOCATION == null) {
+         *     LOCATION = new StackTraceElement(...);
+         * }
+         * if (((ExtendedLogger) logger).isEnabled(Level.ERROR, marker, "Failed {}", id, t)) {
+         *     Message message = logger.getMessageFactory().newMessage("Failed {}", id, t);
+         *     logger.logMessage(Level.ERROR, marker, FQCN, LOCATION, message, message.getThrowable());
+         * }
+         * </pre>
+         */
+        private void writeMethod(final CallSite callSite) {
+            final Mapping mapping = callSite.mapping;
+            final Type[] params = Type.getArgumentTypes(callSite.descriptor);
+            final int levelSlot = mapping.level == null ? 1 : -1;
+            final int markerSlot = mapping.marker ? (mapping.level == null ? 2 : 1) : -1;
+            final int firstMessageSlot = 1 + (mapping.level == null ? 1 : 0) + (mapping.marker ? 1 : 0);
+            final int throwableParamSlot = mapping.throwable ? params.length - 1 : -1;
+            // every parameter is a reference and takes one slot
+            final int messageSlot = params.length;
+            final int throwableSlot = params.length + 1;
+            final Object[] frameLocals = new Object[params.length + 2];
+            for (int i = 0; i < params.length; i++) {
+                frameLocals[i] = params[i].getInternalName();
+            }
+            frameLocals[messageSlot] = MESSAGE.getInternalName();
+            frameLocals[throwableSlot] = THROWABLE.getInternalName();
+            final boolean frames = (version & 0xFFFF) >= Opcodes.V1_6;
+
+            final MethodVisitor mv = super.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC
+                    | Opcodes.ACC_SYNTHETIC, callSite.name, callSite.descriptor, null, null);
+            mv.visitCode();
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            mv.visitVarInsn(Opcodes.ASTORE, messageSlot);
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            mv.visitVarInsn(Opcodes.ASTORE, throwableSlot);
+
+            // other Logger implementations receive the original call
+            final Label abstractLogger = new Label();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitTypeInsn(Opcodes.INSTANCEOF, ABSTRACT_LOGGER);
+            mv.visitJumpInsn(Opcodes.IFNE, abstractLogger);
+            for (int i = 0; i < params.length; i++) {
+                mv.visitVarInsn(Opcodes.ALOAD, i);
+            }
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LOGGER, callSite.loggerMethod, callSite.loggerDescriptor,
+                    true);
+            mv.visitInsn(Opcodes.RETURN);
+            visitFrame(mv, frames, frameLocals, abstractLogger);
+
+            // the location is created on first use, racing threads create equal instances
+            final Label ready = new Label();
+            mv.visitFieldInsn(Opcodes.GETSTATIC, className, callSite.name, STACK_TRACE_ELEMENT_DESCRIPTOR);
+            mv.visitJumpInsn(Opcodes.IFNONNULL, ready);
+            mv.visitTypeInsn(Opcodes.NEW, STACK_TRACE_ELEMENT);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitLdcInsn(className.replace('/', '.'));
+            mv.visitLdcInsn(callSite.methodName);
+            if (sourceFile == null) {
+                mv.visitInsn(Opcodes.ACONST_NULL);
+            } else {
+                mv.visitLdcInsn(sourceFile);
+            }
+            mv.visitLdcInsn(callSite.lineNumber);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, STACK_TRACE_ELEMENT, "<init>",
+                    "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)V", false);
+            mv.visitFieldInsn(Opcodes.PUTSTATIC, className, callSite.name, STACK_TRACE_ELEMENT_DESCRIPTOR);
+            visitFrame(mv, frames, frameLocals, ready);
+
+            final Type firstMessageArg = mapping.messageArgs[0];
+            final boolean messageParam = mapping.messageArgs.length == 1 && MESSAGE.equals(firstMessageArg);
+            if (mapping.throwable) {
+                mv.visitVarInsn(Opcodes.ALOAD, throwableParamSlot);
+                mv.visitVarInsn(Opcodes.ASTORE, throwableSlot);
+            } else if (messageParam) {
+                // AbstractLogger logs a Message with its own throwable
+                final Label noMessage = new Label();
+                mv.visitVarInsn(Opcodes.ALOAD, firstMessageSlot);
+                mv.visitJumpInsn(Opcodes.IFNULL, noMessage);
+                mv.visitVarInsn(Opcodes.ALOAD, firstMessageSlot);
+                invokeMessage(mv, "getThrowable", "()" + THROWABLE.getDescriptor());
+                mv.visitVarInsn(Opcodes.ASTORE, throwableSlot);
+                visitFrame(mv, frames, frameLocals, noMessage);
+            }
+
+            // the same enablement check as the original call, so that filters see the same arguments
+            final Label disabled = new Label();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, EXTENDED_LOGGER);
+            loadLevelAndMarker(mv, mapping, levelSlot, markerSlot);
+            final String isEnabledDescriptor = mapping.isEnabledDescriptor();
+            final int isEnabledMessageArgs = Type.getArgumentTypes(isEnabledDescriptor).length - 2;
+            for (int i = 0; i < isEnabledMessageArgs; i++) {
+                mv.visitVarInsn(Opcodes.ALOAD, i < mapping.messageArgs.length ? firstMessageSlot + i : throwableSlot);
+            }
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, EXTENDED_LOGGER, "isEnabled", isEnabledDescriptor, true);
+            mv.visitJumpInsn(Opcodes.IFEQ, disabled);
+
+            if (messageParam) {
+                mv.visitVarInsn(Opcodes.ALOAD, firstMessageSlot);
+            } else {
+                newMessage(mv, mapping, firstMessageSlot);
+            }
+            mv.visitVarInsn(Opcodes.ASTORE, messageSlot);
+            if (!mapping.throwable && STRING.equals(firstMessageArg)) {
+                // messages created from a format take a trailing Throwable parameter as their throwable
+                mv.visitVarInsn(Opcodes.ALOAD, messageSlot);
+                invokeMessage(mv, "getThrowable", "()" + THROWABLE.getDescriptor());
+                mv.visitVarInsn(Opcodes.ASTORE, throwableSlot);
+            }
+
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            loadLevelAndMarker(mv, mapping, levelSlot, markerSlot);
+            mv.visitLdcInsn(FQCN);
+            mv.visitFieldInsn(Opcodes.GETSTATIC, className, callSite.name, STACK_TRACE_ELEMENT_DESCRIPTOR);
+            mv.visitVarInsn(Opcodes.ALOAD, messageSlot);
+            mv.visitVarInsn(Opcodes.ALOAD, throwableSlot);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LOGGER, "logMessage",
+                    Type.getMethodDescriptor(Type.VOID_TYPE, LEVEL, MARKER, STRING,
+                            Type.getObjectType(STACK_TRACE_ELEMENT), MESSAGE, THROWABLE), true);
+            visitFrame(mv, frames, frameLocals, disabled);
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private static void visitFrame(final MethodVisitor mv, final boolean frames, final Object[] locals,
+                final Label label) {
+            mv.visitLabel(label);
+            if (frames) {
+                mv.visitFrame(Opcodes.F_FULL, locals.length, locals, 0, new Object[0]);
+            }
+        }
+
+        private static void loadLevelAndMarker(final MethodVisitor mv, final Mapping mapping, final int levelSlot,
+                final int markerSlot) {
+            if (mapping.level == null) {
+                mv.visitVarInsn(Opcodes.ALOAD, levelSlot);
+            } else {
+                mv.visitFieldInsn(Opcodes.GETSTATIC, LEVEL.getInternalName(), mapping.level, LEVEL.getDescriptor());
+            }
+            if (mapping.marker) {
+                mv.visitVarInsn(Opcodes.ALOAD, markerSlot);
+            } else {
+                mv.visitInsn(Opcodes.ACONST_NULL);
+            }
+        }
+
+        /**
+         * Creates the message with the logger's message factory, which is a {@code MessageFactory2} for all
+         * {@code AbstractLogger}s.
+         */
+        private static void newMessage(final MethodVisitor mv, final Mapping mapping, final int firstMessageSlot) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LOGGER, "getMessageFactory", "()L" + MESSAGE_FACTORY + ";",
+                    true);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, MESSAGE_FACTORY2);
+            final Type[] messageArgs = mapping.messageArgs;
+            final Type[] factoryArgs = messageArgs.clone();
+            for (int i = 0; i < messageArgs.length; i++) {
+                mv.visitVarInsn(Opcodes.ALOAD, firstMessageSlot + i);
+            }
+            if (messageArgs.length == 2 && SUPPLIER_ARRAY.equals(messageArgs[1])) {
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, LAMBDA_UTIL, "getAll",
+                        Type.getMethodDescriptor(OBJECT_ARRAY, SUPPLIER_ARRAY), false);
+                factoryArgs[1] = OBJECT_ARRAY;
+            }
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, MESSAGE_FACTORY2, "newMessage",
+                    Type.getMethodDescriptor(MESSAGE, factoryArgs), true);
+        }
+
+        private static void invokeMessage(final MethodVisitor mv, final String name, final String descriptor) {
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, MESSAGE.getInternalName(), name, descriptor, true);
+        }
+
+        private final class InjectingMethodVisitor extends MethodVisitor {
+
+            private final String methodName;
+            private int lineNumber = -1;
+
+            InjectingMethodVisitor(final MethodVisitor methodVisitor, final String methodName) {
+                super(Opcodes.ASM9, methodVisitor);
+                this.methodName = methodName;
+            }
+
+            @Override
+            public void visitLineNumber(final int line, final Label start) {
+                lineNumber = line;
+                super.visitLineNumber(line, start);
+            }
+
+            @Override
+            public void visitMethodInsn(final int opcode, final String owner, final String name,
+                    final String descriptor, final boolean isInterface) {
+                final Mapping mapping = opcode == Opcodes.INVOKEINTERFACE && LOGGER.equals(owner)
+                        ? map(name, descriptor) : null;
+                if (mapping == null) {
+                    super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                    return;
+                }
+                final CallSite callSite = addCallSite(name, descriptor, mapping, methodName, lineNumber);
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, className, callSite.name, callSite.descriptor, false);
+            }
+        }
+    }
+}
@@ -40,6 +40,8 @@ import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
 import org.apache.logging.log4j.message.*;
 import org.apache.logging.log4j.util.Strings;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.*;
 import java.math.BigDecimal;
@@ -631,8 +633,9 @@ class JsonTemplateLayoutTest {
 
     }
 
-    @Test
-    void test_toSerializable_toByteArray_encode_outputs() {
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void test_toSerializable_toByteArray_encode_outputs(final boolean directEncodingEnabled) {
 
         // Create the layout.
         final JsonTemplateLayout layout = JsonTemplateLayout
@@ -640,6 +643,7 @@ class JsonTemplateLayoutTest {
                 .setConfiguration(CONFIGURATION)
                 .setEventTemplateUri("classpath:LogstashJsonEventLayoutV1.json")
                 .setStackTraceEnabled(true)
+                .setDirectEncodingEnabled(directEncodingEnabled)
                 .build();
 
         // Create the log event.
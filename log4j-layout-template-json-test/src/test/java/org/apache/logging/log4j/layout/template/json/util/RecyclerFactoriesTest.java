@@ -121,6 +121,36 @@ class RecyclerFactoriesTest {
             Assertions.assertThat(queue.remainingCapacity()).isEqualTo(100);
         }
 
+        // Check striped recycler factory.
+        {
+            final Object actualStripedRecyclerFactory = converter.convert("striped");
+            Assertions
+                    .assertThat(actualStripedRecyclerFactory)
+                    .isInstanceOf(StripedRecyclerFactory.class);
+        }
+
+        // Check striped recycler factory with capacity.
+        {
+            final Object recyclerFactory = converter.convert("striped:capacity=100");
+            Assertions
+                    .assertThat(recyclerFactory)
+                    .isInstanceOf(StripedRecyclerFactory.class);
+            final Recycler<Object> recycler =
+                    ((StripedRecyclerFactory) recyclerFactory).create(Object::new);
+            Assertions
+                    .assertThat(recycler)
+                    .isInstanceOf(StripedRecycler.class);
+            Assertions
+                    .assertThat(((StripedRecycler<Object>) recycler).getCapacity())
+                    .isEqualTo(100);
+        }
+
+        // Check striped recycler factory with an invalid key.
+        Assertions
+                .assertThatThrownBy(() -> converter.convert("striped:supplier=java.util.ArrayDeque.new"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown key");
+
     }
 
     @Test
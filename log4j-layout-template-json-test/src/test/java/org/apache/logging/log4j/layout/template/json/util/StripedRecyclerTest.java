@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link StripedRecycler}. The pooling itself is covered by
+ * {@code BoundedObjectPoolTest}.
+ */
+class StripedRecyclerTest {
+
+    @Test
+    void test_ctor_invalid_args() {
+        Assertions
+                .assertThatThrownBy(() -> new StripedRecycler<>(Object::new, ignored -> {}, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("capacity");
+    }
+
+    @Test
+    void only_released_values_should_be_cleaned() {
+        final AtomicInteger cleanCount = new AtomicInteger();
+        final StripedRecycler<StringBuilder> recycler = new StripedRecycler<>(
+                StringBuilder::new,
+                stringBuilder -> {
+                    stringBuilder.setLength(0);
+                    cleanCount.incrementAndGet();
+                },
+                4);
+        final StringBuilder first = recycler.acquire();
+        Assertions.assertThat(cleanCount).hasValue(0);
+        first.append("foo");
+        recycler.release(first);
+        final StringBuilder second = recycler.acquire();
+        Assertions.assertThat(second).isSameAs(first).isEmpty();
+        Assertions.assertThat(cleanCount).hasValue(1);
+        final StringBuilder third = recycler.acquire();
+        Assertions.assertThat(third).isNotSameAs(first);
+        Assertions.assertThat(cleanCount).hasValue(1);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+class Utf8StringBuilderEncoderTest {
+
+    private static final String[] TEXTS = {
+            "",
+            "{\"message\":\"Hello, World!\"}",
+            "café über ß",
+            "€ 日本語 ￿",
+            "emoji 😀 and 𝄞",
+            "lone \ud83d high and \ude00 low and trailing \ud83d",
+            "😀😀😀ééé€€€aaa"
+    };
+
+    // Small sizes split surrogate pairs across chunks.
+    private static final int[] CHAR_BUFFER_SIZES = {2, 3, 1024};
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 5, 7, 1024})
+    void test_heap_buffer(final int capacity) {
+        for (final int charBufferSize : CHAR_BUFFER_SIZES) {
+            for (final String text : TEXTS) {
+                final CollectingDestination destination = new CollectingDestination(ByteBuffer.allocate(capacity));
+                assertEncoding(text, charBufferSize, destination);
+            }
+        }
+    }
+
+    @Test
+    void test_encoder_reuse() {
+        final Utf8StringBuilderEncoder encoder = new Utf8StringBuilderEncoder(3);
+        final CollectingDestination destination = new CollectingDestination(ByteBuffer.allocate(16));
+        final StringBuilder expectedText = new StringBuilder();
+        for (final String text : TEXTS) {
+            encoder.encode(new StringBuilder(text), destination);
+            expectedText.append(text);
+        }
+        Assertions
+                .assertThat(destination.toByteArray())
+                .isEqualTo(expectedText.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void test_ctor_invalid_args() {
+        Assertions
+                .assertThatThrownBy(() -> new Utf8StringBuilderEncoder(1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("char buffer size");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 1024})
+    void test_direct_buffer(final int capacity) {
+        for (final int charBufferSize : CHAR_BUFFER_SIZES) {
+            for (final String text : TEXTS) {
+                final CollectingDestination destination = new CollectingDestination(ByteBuffer.allocateDirect(capacity));
+                assertEncoding(text, charBufferSize, destination);
+            }
+        }
+    }
+
+    private static void assertEncoding(
+            final String text,
+            final int charBufferSize,
+            final CollectingDestination destination) {
+        final Utf8StringBuilderEncoder encoder = new Utf8StringBuilderEncoder(charBufferSize);
+        encoder.encode(new StringBuilder(text), destination);
+        Assertions
+                .assertThat(destination.toByteArray())
+                .as("text=%s, charBufferSize=%d, capacity=%d", text, charBufferSize, destination.buffer.capacity())
+                .isEqualTo(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class CollectingDestination implements ByteBufferDestination {
+
+        private final ByteBuffer buffer;
+
+        private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        private CollectingDestination(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                outputStream.write(buf.get());
+            }
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+
+        private byte[] toByteArray() {
+            drain(buffer);
+            return outputStream.toByteArray();
+        }
+
+    }
+
+}
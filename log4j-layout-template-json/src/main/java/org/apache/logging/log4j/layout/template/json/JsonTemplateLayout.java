@@ -21,6 +21,7 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +55,7 @@ import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
 import org.apache.logging.log4j.layout.template.json.util.Recycler;
 import org.apache.logging.log4j.layout.template.json.util.RecyclerFactory;
 import org.apache.logging.log4j.layout.template.json.util.Uris;
+import org.apache.logging.log4j.layout.template.json.util.Utf8StringBuilderEncoder;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.Strings;
 
@@ -195,8 +197,8 @@ public class JsonTemplateLayout implements StringLayout {
     private static Recycler<Context> createContextRecycler(
             final Builder builder,
             final JsonWriter jsonWriter) {
-        final Supplier<Context> supplier =
-                createContextSupplier(builder.charset, jsonWriter);
+        final Supplier<Context> supplier = createContextSupplier(
+                builder.charset, builder.directEncodingEnabled, jsonWriter);
         return builder
                 .recyclerFactory
                 .create(supplier, Context::close);
@@ -204,10 +206,17 @@ public class JsonTemplateLayout implements StringLayout {
 
     private static Supplier<Context> createContextSupplier(
             final Charset charset,
+            final boolean directEncodingEnabled,
             final JsonWriter jsonWriter) {
+        // Direct encoding holds the destination lock while encoding, hence
+        // it is only used on request.
+        final boolean directUtf8Encoding =
+                directEncodingEnabled && StandardCharsets.UTF_8.equals(charset);
         return () -> {
             final JsonWriter clonedJsonWriter = jsonWriter.clone();
-            final Encoder<StringBuilder> encoder = new StringBuilderEncoder(charset);
+            final Encoder<StringBuilder> encoder = directUtf8Encoding
+                    ? new Utf8StringBuilderEncoder()
+                    : new StringBuilderEncoder(charset);
             return new Context(clonedJsonWriter, encoder);
         };
     }
@@ -398,6 +407,10 @@ public class JsonTemplateLayout implements StringLayout {
         private String truncatedStringSuffix =
                 JsonTemplateLayoutDefaults.getTruncatedStringSuffix();
 
+        @PluginBuilderAttribute
+        private boolean directEncodingEnabled =
+                JsonTemplateLayoutDefaults.isDirectEncodingEnabled();
+
         @PluginBuilderAttribute
         private RecyclerFactory recyclerFactory =
                 JsonTemplateLayoutDefaults.getRecyclerFactory();
@@ -536,6 +549,15 @@ public class JsonTemplateLayout implements StringLayout {
             return this;
         }
 
+        public boolean isDirectEncodingEnabled() {
+            return directEncodingEnabled;
+        }
+
+        public Builder setDirectEncodingEnabled(final boolean directEncodingEnabled) {
+            this.directEncodingEnabled = directEncodingEnabled;
+            return this;
+        }
+
         public RecyclerFactory getRecyclerFactory() {
             return recyclerFactory;
         }
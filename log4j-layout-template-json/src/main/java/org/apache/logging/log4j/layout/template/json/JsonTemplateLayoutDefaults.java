@@ -137,6 +137,12 @@ public final class JsonTemplateLayoutDefaults {
                 "…");
     }
 
+    public static boolean isDirectEncodingEnabled() {
+        return PROPERTIES.getBooleanProperty(
+                "log4j.layout.jsonTemplate.directEncodingEnabled",
+                false);
+    }
+
     public static RecyclerFactory getRecyclerFactory() {
         final String recyclerFactorySpec = PROPERTIES.getStringProperty(
                 "log4j.layout.jsonTemplate.recyclerFactory");
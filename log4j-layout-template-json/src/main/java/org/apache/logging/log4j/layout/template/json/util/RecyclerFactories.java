@@ -19,6 +19,7 @@ package org.apache.logging.log4j.layout.template.json.util;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Queue;
@@ -86,6 +87,11 @@ public final class RecyclerFactories {
             return readQueueingRecyclerFactory(recyclerFactorySpec, defaultCapacity);
         }
 
+        // Is a striped factory requested?
+        else if (recyclerFactorySpec.startsWith("striped")) {
+            return readStripedRecyclerFactory(recyclerFactorySpec, defaultCapacity);
+        }
+
         // Bogus input, bail out.
         else {
             throw new IllegalArgumentException(
@@ -140,6 +146,41 @@ public final class RecyclerFactories {
 
     }
 
+    private static RecyclerFactory readStripedRecyclerFactory(
+            final String recyclerFactorySpec,
+            final int defaultCapacity) {
+
+        // Parse the spec.
+        final String stripedFactorySpec = recyclerFactorySpec.substring(
+                "striped".length() +
+                        (recyclerFactorySpec.startsWith("striped:")
+                                ? 1
+                                : 0));
+        final Map<String, StringParameterParser.Value> parsedValues =
+                StringParameterParser.parse(
+                        stripedFactorySpec,
+                        Collections.singleton("capacity"));
+
+        // Read the capacity.
+        final StringParameterParser.Value capacityValue = parsedValues.get("capacity");
+        final int capacity;
+        if (capacityValue == null || capacityValue instanceof StringParameterParser.NullValue) {
+            capacity = defaultCapacity;
+        } else {
+            try {
+                capacity = Integers.parseInt(capacityValue.toString());
+            } catch (final NumberFormatException error) {
+                throw new IllegalArgumentException(
+                        "failed reading capacity in striped recycler " +
+                                "factory: " + stripedFactorySpec, error);
+            }
+        }
+
+        // Execute the read spec.
+        return new StripedRecyclerFactory(capacity);
+
+    }
+
     private static RecyclerFactory createRecyclerFactory(
             final String queueFactorySpec,
             final String supplierPath,
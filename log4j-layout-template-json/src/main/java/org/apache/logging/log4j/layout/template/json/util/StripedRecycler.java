@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.util.BoundedObjectPool;
+
+/**
+ * {@link Recycler} pooling up to {@code capacity} instances in a
+ * {@link BoundedObjectPool}.
+ * <p>
+ * Contrary to {@link ThreadLocalRecycler}, the number of pooled instances does
+ * not grow with the number of threads, which makes it suitable for
+ * short-lived and virtual threads. When the pool is empty, a new instance is
+ * created; when the pool is full, the released instance is left to the
+ * garbage collector.
+ */
+public class StripedRecycler<V> implements Recycler<V> {
+
+    private final Supplier<V> supplier;
+
+    private final Consumer<V> cleaner;
+
+    private final BoundedObjectPool<V> pool;
+
+    public StripedRecycler(
+            final Supplier<V> supplier,
+            final Consumer<V> cleaner,
+            final int capacity) {
+        this.supplier = supplier;
+        this.cleaner = cleaner;
+        this.pool = new BoundedObjectPool<>(supplier::get, capacity);
+    }
+
+    // Visible for tests.
+    int getCapacity() {
+        return pool.getCapacity();
+    }
+
+    @Override
+    public V acquire() {
+        final V value = pool.poll();
+        if (value == null) {
+            return supplier.get();
+        } else {
+            cleaner.accept(value);
+            return value;
+        }
+    }
+
+    @Override
+    public void release(final V value) {
+        pool.release(value);
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.Encoder;
+import org.apache.logging.log4j.core.layout.TextEncoderHelper;
+import org.apache.logging.log4j.core.util.Constants;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link Encoder} writing the UTF-8 encoding of a {@link StringBuilder}
+ * straight into the {@link ByteBuffer} of the destination.
+ * <p>
+ * Contrary to {@link TextEncoderHelper}, this encoder does not encode into an
+ * intermediate {@link ByteBuffer} to copy it to the destination afterwards.
+ * Characters are copied in chunks into a reused {@link CharBuffer} and the
+ * JDK encoder, which converts runs of ASCII characters with vectorized
+ * instructions, writes the bytes into the buffer of the destination. The
+ * destination is drained whenever its buffer is full. Malformed input is
+ * replaced with <tt>?</tt>.
+ * <p>
+ * Since the bytes are written while holding the lock of the destination, this
+ * encoder is best suited for destinations written by a single thread, e.g.,
+ * the ones of asynchronous loggers and appenders. Hence {@code
+ * JsonTemplateLayout} only uses it if {@code directEncodingEnabled} is set.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class Utf8StringBuilderEncoder implements Encoder<StringBuilder> {
+
+    private final CharsetEncoder charsetEncoder;
+
+    private final CharBuffer charBuffer;
+
+    public Utf8StringBuilderEncoder() {
+        this(Constants.ENCODER_CHAR_BUFFER_SIZE);
+    }
+
+    public Utf8StringBuilderEncoder(final int charBufferSize) {
+        if (charBufferSize < 2) {
+            throw new IllegalArgumentException(
+                    "was expecting a char buffer size of at least 2, found: " + charBufferSize);
+        }
+        this.charsetEncoder = StandardCharsets.UTF_8
+                .newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charBuffer = CharBuffer.allocate(charBufferSize);
+    }
+
+    @Override
+    public void encode(
+            final StringBuilder source,
+            final ByteBufferDestination destination) {
+        charsetEncoder.reset();
+        charBuffer.clear().flip();
+        synchronized (destination) {
+            ByteBuffer byteBuffer = destination.getByteBuffer();
+            final int sourceLength = source.length();
+            int sourceIndex = 0;
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                // Copy the next chunk after the leftover of the previous one,
+                // e.g., a high surrogate waiting for its low surrogate.
+                charBuffer.compact();
+                final int charCount = Math.min(charBuffer.remaining(), sourceLength - sourceIndex);
+                final int position = charBuffer.position();
+                source.getChars(sourceIndex, sourceIndex + charCount, charBuffer.array(), position);
+                charBuffer.position(position + charCount);
+                charBuffer.flip();
+                sourceIndex += charCount;
+                endOfInput = sourceIndex >= sourceLength;
+                CoderResult result;
+                while ((result = charsetEncoder.encode(charBuffer, byteBuffer, endOfInput)).isOverflow()) {
+                    byteBuffer = destination.drain(byteBuffer);
+                }
+                throwOnError(result);
+            }
+            CoderResult result;
+            while ((result = charsetEncoder.flush(byteBuffer)).isOverflow()) {
+                byteBuffer = destination.drain(byteBuffer);
+            }
+            throwOnError(result);
+        }
+    }
+
+    private static void throwOnError(final CoderResult result) {
+        if (result.isError()) {
+            try {
+                result.throwException();
+            } catch (final Exception error) {
+                throw new IllegalStateException("UTF-8 encoding failure", error);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.TextEncoderHelper;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.layout.template.json.util.Utf8StringBuilderEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark suite comparing the {@link CharsetEncoder}-based encoding of the
+ * JSON rendered by {@link JsonTemplateLayout} to the direct UTF-8 encoding of
+ * {@link Utf8StringBuilderEncoder}.
+ * <p>
+ * You can run this test as follows:
+ * <pre>{@code
+ * java \
+ *     -jar log4j-perf/target/benchmarks.jar \
+ *     -f 2 \
+ *     -wi 3 -w 20s \
+ *     -i 5 -r 30s \
+ *     -prof gc \
+ *     -prof perfnorm \
+ *     -rf json -rff log4j-perf/target/JsonTemplateLayoutEncoderBenchmarkResult.json \
+ *     ".*JsonTemplateLayoutEncoderBenchmark.*"
+ * }</pre>
+ * </p>
+ */
+public class JsonTemplateLayoutEncoderBenchmark {
+
+    @State(Scope.Thread)
+    public static class EncoderState {
+
+        private final ByteBufferDestination byteBufferDestination;
+
+        private final CharsetEncoder charsetEncoder;
+
+        private final CharBuffer charBuffer;
+
+        private final ByteBuffer byteBuffer;
+
+        private final Utf8StringBuilderEncoder utf8Encoder;
+
+        private final List<StringBuilder> fullJsons;
+
+        private final List<StringBuilder> liteJsons;
+
+        private int jsonIndex = 0;
+
+        public EncoderState() {
+            final JsonTemplateLayoutBenchmarkState layoutState = new JsonTemplateLayoutBenchmarkState();
+            this.byteBufferDestination = layoutState.getByteBufferDestination();
+            this.charsetEncoder = StandardCharsets.UTF_8
+                    .newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.charBuffer = CharBuffer.allocate(Constants.ENCODER_CHAR_BUFFER_SIZE);
+            this.byteBuffer = ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE);
+            this.utf8Encoder = new Utf8StringBuilderEncoder();
+            final Layout<?> layout = layoutState.getJtl4EcsLayout();
+            this.fullJsons = render(layout, layoutState.getFullLogEvents());
+            this.liteJsons = render(layout, layoutState.getLiteLogEvents());
+        }
+
+        private static List<StringBuilder> render(
+                final Layout<?> layout,
+                final List<LogEvent> logEvents) {
+            final List<StringBuilder> jsons = new ArrayList<>(logEvents.size());
+            for (final LogEvent logEvent : logEvents) {
+                final String json = (String) layout.toSerializable(logEvent);
+                jsons.add(new StringBuilder(json));
+            }
+            return jsons;
+        }
+
+        private StringBuilder nextJson(final List<StringBuilder> jsons) {
+            jsonIndex = (jsonIndex + 1) % jsons.size();
+            return jsons.get(jsonIndex);
+        }
+
+    }
+
+    @Benchmark
+    public static int fullCharsetEncoder(final EncoderState state) {
+        final StringBuilder json = state.nextJson(state.fullJsons);
+        return charsetEncode(state, json);
+    }
+
+    @Benchmark
+    public static int liteCharsetEncoder(final EncoderState state) {
+        final StringBuilder json = state.nextJson(state.liteJsons);
+        return charsetEncode(state, json);
+    }
+
+    @Benchmark
+    public static int fullUtf8Encoder(final EncoderState state) {
+        final StringBuilder json = state.nextJson(state.fullJsons);
+        return utf8Encode(state, json);
+    }
+
+    @Benchmark
+    public static int liteUtf8Encoder(final EncoderState state) {
+        final StringBuilder json = state.nextJson(state.liteJsons);
+        return utf8Encode(state, json);
+    }
+
+    private static int charsetEncode(
+            final EncoderState state,
+            final StringBuilder json) {
+        final ByteBufferDestination destination = state.byteBufferDestination;
+        TextEncoderHelper.encodeText(
+                state.charsetEncoder,
+                state.charBuffer,
+                state.byteBuffer,
+                json,
+                destination);
+        return destination.getByteBuffer().position();
+    }
+
+    private static int utf8Encode(
+            final EncoderState state,
+            final StringBuilder json) {
+        final ByteBufferDestination destination = state.byteBufferDestination;
+        state.utf8Encoder.encode(json, destination);
+        return destination.getByteBuffer().position();
+    }
+
+}
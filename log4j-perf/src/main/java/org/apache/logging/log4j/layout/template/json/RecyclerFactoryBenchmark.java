@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import org.apache.logging.log4j.layout.template.json.util.Recycler;
+import org.apache.logging.log4j.layout.template.json.util.RecyclerFactories;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark suite for {@link org.apache.logging.log4j.layout.template.json.util.RecyclerFactory}
+ * implementations accessed by platform threads and by virtual threads.
+ * <p>
+ * The virtual thread benchmark spawns a virtual thread per recycling, which
+ * is the worst case for {@code threadLocal}: each recycling allocates a new
+ * instance, as is visible with {@code -prof gc}. It requires Java 21 or later.
+ * <p>
+ * You can run this test as follows:
+ * <pre>{@code
+ * java \
+ *     -jar log4j-perf/target/benchmarks.jar \
+ *     -f 2 \
+ *     -wi 3 -w 20s \
+ *     -i 5 -r 30s \
+ *     -prof gc \
+ *     -rf json -rff log4j-perf/target/RecyclerFactoryBenchmarkResult.json \
+ *     ".*RecyclerFactoryBenchmark.*"
+ * }</pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class RecyclerFactoryBenchmark {
+
+    private static final int VIRTUAL_THREAD_COUNT = 1_000;
+
+    @Param({"threadLocal", "queue", "striped"})
+    public String recyclerFactorySpec;
+
+    private Recycler<StringBuilder> recycler;
+
+    private ExecutorService virtualThreadExecutor;
+
+    @Setup
+    public void setUp() {
+        recycler = RecyclerFactories
+                .ofSpec(recyclerFactorySpec)
+                .create(StringBuilder::new, stringBuilder -> stringBuilder.setLength(0));
+        virtualThreadExecutor = createVirtualThreadExecutor();
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (final ReflectiveOperationException ignored) {
+            // Virtual threads are not available.
+            return null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int platformThreads() {
+        return recycle(recycler);
+    }
+
+    @Benchmark
+    public int virtualThreads() throws InterruptedException {
+        if (virtualThreadExecutor == null) {
+            throw new IllegalStateException("virtual threads require Java 21 or later");
+        }
+        final CountDownLatch latch = new CountDownLatch(VIRTUAL_THREAD_COUNT);
+        final AtomicInteger length = new AtomicInteger();
+        for (int i = 0; i < VIRTUAL_THREAD_COUNT; i++) {
+            virtualThreadExecutor.execute(() -> {
+                length.addAndGet(recycle(recycler));
+                latch.countDown();
+            });
+        }
+        latch.await();
+        return length.get();
+    }
+
+    private static int recycle(final Recycler<StringBuilder> recycler) {
+        final StringBuilder stringBuilder = recycler.acquire();
+        try {
+            stringBuilder.append("{\"message\":\"Hello, World!\"}");
+            return stringBuilder.length();
+        } finally {
+            recycler.release(stringBuilder);
+        }
+    }
+
+}
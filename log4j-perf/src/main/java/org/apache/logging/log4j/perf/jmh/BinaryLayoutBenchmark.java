@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.NullConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.ReusableLogEventFactory;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.perf.util.DemoAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the cost of writing an event with a parameterized message with BinaryLayout, which leaves formatting to
+ * the decoder, to the cost of formatting it with PatternLayout.
+ * <p>
+ * The {@code binaryLayout} and {@code patternLayout} benchmarks append a prebuilt {@link Log4jLogEvent} and measure
+ * the layouts alone. The {@code LoggerPath} benchmarks create each event like a garbage-free logger does, with a
+ * {@link ReusableMessageFactory} message and a {@link ReusableLogEventFactory} event. The event formats the message
+ * when it is created, so BinaryLayout saves no formatting there; these are the numbers that describe a logger.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*BinaryLayoutBenchmark.*" -f 1 -wi 5 -i 5 -prof gc
+@State(Scope.Thread)
+public class BinaryLayoutBenchmark {
+
+    private static final String PATTERN = "%d{ISO8601} %-5level [%t] %c{1.} - %m%n";
+
+    private static final LogEvent EVENT = Log4jLogEvent.newBuilder()
+            .setLoggerName("org.apache.logging.log4j.perf.jmh.BinaryLayoutBenchmark")
+            .setLoggerFqcn("org.apache.logging.log4j.spi.AbstractLogger")
+            .setLevel(Level.INFO)
+            .setMessage(new ParameterizedMessage("Processed order {} for customer {} in {} ms, total {}",
+                    1234567, "c-42", 12.5, 99.95))
+            .setThreadName("main")
+            .setTimeMillis(System.currentTimeMillis())
+            .build();
+
+    private final ReusableMessageFactory messageFactory = new ReusableMessageFactory();
+    private final ReusableLogEventFactory eventFactory = new ReusableLogEventFactory();
+    private Appender binaryAppender;
+    private Appender patternAppender;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("log4j2.enable.direct.encoders", "true");
+        binaryAppender = new DemoAppender(BinaryLayout.newBuilder()
+                .setConfiguration(new NullConfiguration())
+                .build());
+        patternAppender = new DemoAppender(PatternLayout.newBuilder()
+                .withConfiguration(new NullConfiguration())
+                .withPattern(PATTERN)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j2.enable.direct.encoders");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void binaryLayout() {
+        binaryAppender.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void patternLayout() {
+        patternAppender.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void binaryLayoutLoggerPath() {
+        appendFromLoggerPath(binaryAppender);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void patternLayoutLoggerPath() {
+        appendFromLoggerPath(patternAppender);
+    }
+
+    private void appendFromLoggerPath(final Appender appender) {
+        final Message message = messageFactory.newMessage("Processed order {} for customer {} in {} ms, total {}",
+                1234567, "c-42", 12.5, 99.95);
+        final LogEvent event = eventFactory.createEvent("org.apache.logging.log4j.perf.jmh.BinaryLayoutBenchmark",
+                null, "org.apache.logging.log4j.spi.AbstractLogger", Level.INFO, message, null, null);
+        try {
+            appender.append(event);
+        } finally {
+            ReusableLogEventFactory.release(event);
+            ReusableMessageFactory.release(message);
+        }
+    }
+}
@@ -51,6 +51,8 @@ import java.util.logging.Level;
  */
 // HOW TO RUN THIS TEST
 // java -jar target/benchmarks.jar ".*FileAppenderThrowableBenchmark.*" -f 1 -i 10 -wi 20 -bm sample -tu ns
+// Add "-prof gc" to compare the allocation rate of the LOG4J2_*_DEPTH configurations, which render a limited number
+// of lines with a custom separator.
 @State(Scope.Benchmark)
 @Threads(1)
 @Fork(1)
@@ -168,6 +170,8 @@ public class FileAppenderThrowableBenchmark {
         log4jRandomFile.delete();
         final File log4j2File = new File ("target/simple-exception.log");
         log4j2File.delete();
+        new File("target/extended-exception-depth.log").delete();
+        new File("target/simple-exception-depth.log").delete();
         final File julFile = new File("target/testJulLog.log");
         julFile.delete();
     }
@@ -286,6 +290,40 @@ public class FileAppenderThrowableBenchmark {
                 logger.error(message, throwable);
             }
         },
+        LOG4J2_EXTENDED_THROWABLE_DEPTH() {
+            Logger logger;
+            @Override
+            void setUp() throws Exception {
+                logger = LogManager.getLogger("RAFExtendedExceptionDepth");
+            }
+
+            @Override
+            void tearDown() throws Exception {
+
+            }
+
+            @Override
+            void log(String message, Throwable throwable) {
+                logger.error(message, throwable);
+            }
+        },
+        LOG4J2_THROWABLE_DEPTH() {
+            Logger logger;
+            @Override
+            void setUp() throws Exception {
+                logger = LogManager.getLogger("RAFSimpleExceptionDepth");
+            }
+
+            @Override
+            void tearDown() throws Exception {
+
+            }
+
+            @Override
+            void log(String message, Throwable throwable) {
+                logger.error(message, throwable);
+            }
+        },
         LOG4J1() {
             org.apache.log4j.Logger logger;
             @Override
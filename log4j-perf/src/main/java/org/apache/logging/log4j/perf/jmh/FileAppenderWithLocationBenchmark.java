@@ -39,6 +39,9 @@ import org.slf4j.LoggerFactory;
 // HOW TO RUN THIS TEST
 // java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderWithLocationBenchmark.*" -f 1 -wi 10 -i 20
 //
+// CACHING LOCATIONS BY CALL SITE:
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderWithLocationBenchmark.*" -f 1 -wi 10 -i 20 -jvmArgsAppend -Dlog4j2.cacheLocations=true
+//
 // RUNNING THIS TEST WITH 4 THREADS:
 // java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderWithLocationBenchmark.*" -f 1 -wi 10 -i 20 -t 4
 @State(Scope.Thread)
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.apache.logging.log4j.core.appender.rolling.action.GzCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.ParallelGzCompressAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the time needed to compress a rolled over log file with {@link GzCompressAction} and with
+ * {@link ParallelGzCompressAction}.
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*GzCompressActionBenchmark.*"
+// java -jar log4j-perf/target/benchmarks.jar ".*GzCompressActionBenchmark.*" -p threads=1,8 -p fileSizeMB=256
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GzCompressActionBenchmark {
+
+    @Param({"32"})
+    private int fileSizeMB;
+
+    @Param({"1", "2", "4"})
+    private int threads;
+
+    @Param({"131072", "1048576"})
+    private int blockSize;
+
+    private File source;
+    private File destination;
+
+    @Setup
+    public void setUp() throws IOException {
+        source = File.createTempFile("GzCompressActionBenchmark", ".log");
+        destination = new File(source.getPath() + ".gz");
+        final Random random = new Random(42);
+        final long size = fileSizeMB * 1024L * 1024L;
+        long written = 0;
+        try (final BufferedWriter writer = Files.newBufferedWriter(source.toPath(), StandardCharsets.UTF_8)) {
+            while (written < size) {
+                final String line = "2022-01-01 12:34:56,789 [main] INFO  org.apache.logging.log4j.perf.Benchmark - "
+                        + "Request " + random.nextInt(1_000_000) + " completed in " + random.nextInt(1000) + " ms\n";
+                writer.write(line);
+                written += line.length();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        source.delete();
+        destination.delete();
+    }
+
+    @Benchmark
+    public boolean compress() throws IOException {
+        if (threads == 1) {
+            return GzCompressAction.execute(source, destination, false, Deflater.DEFAULT_COMPRESSION);
+        }
+        return ParallelGzCompressAction.execute(source, destination, false, Deflater.DEFAULT_COMPRESSION, threads,
+                blockSize);
+    }
+}
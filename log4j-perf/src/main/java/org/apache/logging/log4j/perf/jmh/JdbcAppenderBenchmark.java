@@ -53,6 +53,8 @@ import org.openjdk.jmh.infra.Blackhole;
 @State(Scope.Thread)
 public class JdbcAppenderBenchmark {
     private Logger loggerH2;
+    private Logger loggerH2Buffered;
+    private Logger loggerH2BackgroundWriter;
     private Logger loggerHSQLDB;
     private Connection connectionHSQLDB;
     private Connection connectionH2;
@@ -72,6 +74,8 @@ public class JdbcAppenderBenchmark {
         }
         StatusLogger.getLogger().reset();
         loggerH2 = LogManager.getLogger("H2Logger");
+        loggerH2Buffered = LogManager.getLogger("H2BufferedLogger");
+        loggerH2BackgroundWriter = LogManager.getLogger("H2BackgroundWriterLogger");
         loggerHSQLDB = LogManager.getLogger("HSQLDBLogger");
     }
 
@@ -103,6 +107,34 @@ public class JdbcAppenderBenchmark {
         loggerH2.warn("Test message", exception);
     }
 
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void testThroughputH2BufferedMessage(final Blackhole bh) {
+        loggerH2Buffered.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void testThroughputH2BackgroundWriterMessage(final Blackhole bh) {
+        loggerH2BackgroundWriter.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void testResponseTimeH2BufferedMessage(final Blackhole bh) {
+        loggerH2Buffered.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void testResponseTimeH2BackgroundWriterMessage(final Blackhole bh) {
+        loggerH2BackgroundWriter.info("Test message");
+    }
+
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
@@ -136,6 +168,8 @@ public class JdbcAppenderBenchmark {
         final LoggerContext context = LoggerContext.getContext(false);
         try {
             ((JdbcAppender) context.getConfiguration().getAppender("H2Appender")).getManager().close();
+            ((JdbcAppender) context.getConfiguration().getAppender("H2BufferedAppender")).getManager().close();
+            ((JdbcAppender) context.getConfiguration().getAppender("H2BackgroundWriterAppender")).getManager().close();
             ((JdbcAppender) context.getConfiguration().getAppender("HSQLDBAppender")).getManager().close();
         } finally {
             System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
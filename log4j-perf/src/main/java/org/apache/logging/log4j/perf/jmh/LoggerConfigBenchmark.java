@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.perf.jmh;
 
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -28,9 +29,11 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractAppender;
 import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.NameUtil;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
@@ -64,6 +67,16 @@ public class LoggerConfigBenchmark {
     private final LogEvent LOGEVENT = createLogEventWithoutException();
     private final SimpleListAppender listAppender = new SimpleListAppender();
 
+    private static final int TENANTS = 40_000;
+    private static final int CONFIGURED_TENANTS = 1_000;
+    private final DefaultConfiguration configuration = new DefaultConfiguration();
+    private final String[] loggerNames = new String[TENANTS];
+
+    @State(Scope.Thread)
+    public static class NameCursor {
+        int next;
+    }
+
     private static class SimpleListAppender extends AbstractAppender {
         private static final long serialVersionUID = 1L;
         private final AtomicInteger count = new AtomicInteger();
@@ -88,6 +101,46 @@ public class LoggerConfigBenchmark {
         listAppender.start();
         final AppenderControl control = new AppenderControl(listAppender, Level.ALL, null);
         appenderSet.add(control);
+
+        // one LoggerConfig per configured tenant, the other tenants resolve to a shared parent
+        configuration.addLogger("com.example", new LoggerConfig("com.example", Level.INFO, true));
+        for (int i = 0; i < TENANTS; i++) {
+            final String tenant = "com.example.tenant" + i;
+            if (i < CONFIGURED_TENANTS) {
+                configuration.addLogger(tenant, new LoggerConfig(tenant, Level.DEBUG, true));
+            }
+            loggerNames[i] = tenant + ".service.impl.OrderService";
+        }
+    }
+
+    @Benchmark
+    public LoggerConfig lookupLoggerConfig(final NameCursor cursor) {
+        return configuration.getLoggerConfig(nextName(cursor));
+    }
+
+    @Benchmark
+    public LoggerConfig lookupLoggerConfigBySubNames(final NameCursor cursor) {
+        // the lookup AbstractConfiguration did before LoggerConfigs were held in a trie
+        final String loggerName = nextName(cursor);
+        final Map<String, LoggerConfig> loggerConfigs = configuration.getLoggers();
+        LoggerConfig loggerConfig = loggerConfigs.get(loggerName);
+        if (loggerConfig != null) {
+            return loggerConfig;
+        }
+        String substr = loggerName;
+        while ((substr = NameUtil.getSubName(substr)) != null) {
+            loggerConfig = loggerConfigs.get(substr);
+            if (loggerConfig != null) {
+                return loggerConfig;
+            }
+        }
+        return configuration.getRootLogger();
+    }
+
+    private String nextName(final NameCursor cursor) {
+        final int next = cursor.next;
+        cursor.next = next + 1 == TENANTS ? 0 : next + 1;
+        return loggerNames[next];
     }
 
     @Benchmark
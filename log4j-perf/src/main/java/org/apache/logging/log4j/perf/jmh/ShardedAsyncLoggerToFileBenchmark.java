@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LifeCycle;
+import org.apache.logging.log4j.perf.util.BenchmarkMessageParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tests how Async Loggers scale with the number of logging threads when the events are striped over several ring
+ * buffers with the {@code AsyncLogger.RingBufferShards} property.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*ShardedAsyncLoggerToFileBenchmark.*" -f 1 -wi 3 -i 5
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 3)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ShardedAsyncLoggerToFileBenchmark {
+
+    private static final String LOG_FILE = "target/ConcurrentAsyncLoggerToFileBenchmark.log";
+
+    @Param({"1", "4", "8"})
+    private int shards;
+
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        new File(LOG_FILE).delete();
+        System.setProperty("log4j2.is.webapp", "false");
+        System.setProperty("AsyncLogger.RingBufferShards", String.valueOf(shards));
+        System.setProperty("log4j.configurationFile", "ConcurrentAsyncLoggerToFileBenchmark.xml");
+        System.setProperty("Log4jContextSelector", "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
+        logger = LogManager.getLogger(ShardedAsyncLoggerToFileBenchmark.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LifeCycle) LogManager.getContext(false)).stop();
+        new File(LOG_FILE).delete();
+        System.clearProperty("AsyncLogger.RingBufferShards");
+        logger = null;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void threads04() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void threads16() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads64() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+}
@@ -21,6 +21,7 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.apache.logging.log4j.perf.util.StackDriver;
+import org.apache.logging.log4j.util.StackLocator;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
@@ -102,6 +103,16 @@ public class StackWalkBenchmark {
         });
     }
 
+    @Benchmark
+    public void stackLocatorCalcLocation(Blackhole bh) {
+        stackDriver.deepCall(initialDepth, callDepth, fqcn -> StackLocator.getInstance().calcLocation(fqcn));
+    }
+
+    @Benchmark
+    public void stackLocatorCalcCachedLocation(Blackhole bh) {
+        stackDriver.deepCall(initialDepth, callDepth, fqcn -> StackLocator.getInstance().calcCachedLocation(fqcn));
+    }
+
     @Benchmark
     public void baseline(Blackhole bh)  {
 
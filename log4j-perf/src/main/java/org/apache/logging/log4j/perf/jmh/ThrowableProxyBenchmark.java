@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.impl.ExtendedStackTraceCache;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.core.pattern.PlainTextRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks throwing the same exception type repeatedly and resolving or rendering its extended stack trace, with
+ * and without the {@link ExtendedStackTraceCache}.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar ".*ThrowableProxyBenchmark.*" -f 1 -wi 5 -i 10
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 3)
+public class ThrowableProxyBenchmark {
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private final StringBuilder buffer = new StringBuilder(8 * 1024);
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        if (!cached) {
+            ExtendedStackTraceCache.clear();
+        }
+        buffer.setLength(0);
+    }
+
+    @Benchmark
+    public ThrowableProxy throwAndResolve() {
+        return new ThrowableProxy(fail(10));
+    }
+
+    @Benchmark
+    public StringBuilder throwAndRender() {
+        new ThrowableProxy(fail(10)).formatExtendedStackTraceTo(buffer, Collections.emptyList(),
+                PlainTextRenderer.getInstance(), "", System.lineSeparator());
+        return buffer;
+    }
+
+    private static Throwable fail(final int depth) {
+        if (depth > 0) {
+            return fail(depth - 1);
+        }
+        try {
+            throw new IllegalStateException("Test Throwable", new IllegalArgumentException("Test Cause"));
+        } catch (final IllegalStateException e) {
+            return e;
+        }
+    }
+}
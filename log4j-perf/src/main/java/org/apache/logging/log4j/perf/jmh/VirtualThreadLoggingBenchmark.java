@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LifeCycle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Logs from many short-lived virtual threads, and from a pool of platform threads for comparison, with and without
+ * garbage-free mode. Run with {@code -prof gc} to compare the allocation rates: in garbage-free mode, virtual threads
+ * reuse a bounded number of pooled objects instead of caching objects in thread locals.
+ * <p>
+ * The virtual thread benchmark requires Java 21 or later.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*VirtualThreadLoggingBenchmark.*" -prof gc
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VirtualThreadLoggingBenchmark {
+
+    private static final String LOG_FILE = "target/VirtualThreadLoggingBenchmark.log";
+    private static final int TASK_COUNT = 1_000;
+
+    @Param({"true", "false"})
+    private String enableThreadLocals;
+
+    private Logger logger;
+    private ExecutorService platformThreadExecutor;
+    private ExecutorService virtualThreadExecutor;
+
+    @Setup
+    public void setUp() {
+        new File(LOG_FILE).delete();
+        System.setProperty("log4j2.is.webapp", "false");
+        System.setProperty("log4j2.enable.threadlocals", enableThreadLocals);
+        System.setProperty("log4j.configurationFile", "VirtualThreadLoggingBenchmark.xml");
+        logger = LogManager.getLogger(VirtualThreadLoggingBenchmark.class);
+        platformThreadExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        virtualThreadExecutor = createVirtualThreadExecutor();
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            // Java 20 and earlier
+            return null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        platformThreadExecutor.shutdown();
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+        ((LifeCycle) LogManager.getContext(false)).stop();
+        System.clearProperty("log4j2.enable.threadlocals");
+        System.clearProperty("log4j.configurationFile");
+        new File(LOG_FILE).delete();
+        logger = null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASK_COUNT)
+    public void platformThreads() throws InterruptedException {
+        log(platformThreadExecutor);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASK_COUNT)
+    public void virtualThreads() throws InterruptedException {
+        if (virtualThreadExecutor == null) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later");
+        }
+        log(virtualThreadExecutor);
+    }
+
+    private void log(final ExecutorService executor) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            final int task = i;
+            executor.execute(() -> {
+                logger.info("Task {} of {}", task, TASK_COUNT);
+                latch.countDown();
+            });
+        }
+        latch.await();
+    }
+}